@@ -0,0 +1,247 @@
+package com.erodrich.exercises.catalog;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.erodrich.exercises.exercise.entity.ExerciseEntity;
+import com.erodrich.exercises.exercise.repository.ExerciseRepository;
+import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
+import com.erodrich.exercises.musclegroup.repository.MuscleGroupRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read-through cache of the muscle group and exercise catalog.
+ * Muscle groups are keyed by upper-cased name, exercises by (muscle group ID, name).
+ * Only rows that exist are cached; entries are detached copies and must be treated as read-only.
+ * Writers publish a {@link CatalogChangedEvent}, which clears the cache after commit.
+ */
+@Component
+public class CatalogCache {
+
+	/** Upper bound per map; the catalog has a few dozen rows, this only guards against abuse */
+	static final int MAX_ENTRIES = 1000;
+
+	private final MuscleGroupRepository muscleGroupRepository;
+	private final ExerciseRepository exerciseRepository;
+
+	private final Map<String, MuscleGroupEntity> muscleGroups = new ConcurrentHashMap<>();
+	private final Map<ExerciseKey, ExerciseEntity> exercises = new ConcurrentHashMap<>();
+
+	// Bumped on every invalidation so loads that started before it are not stored
+	private final AtomicLong generation = new AtomicLong();
+	private final Object writeLock = new Object();
+
+	private final Counter muscleGroupHits;
+	private final Counter muscleGroupMisses;
+	private final Counter exerciseHits;
+	private final Counter exerciseMisses;
+
+	public CatalogCache(MuscleGroupRepository muscleGroupRepository,
+			ExerciseRepository exerciseRepository,
+			MeterRegistry meterRegistry) {
+		this.muscleGroupRepository = muscleGroupRepository;
+		this.exerciseRepository = exerciseRepository;
+		this.muscleGroupHits = lookups(meterRegistry, "muscle_groups", "hit");
+		this.muscleGroupMisses = lookups(meterRegistry, "muscle_groups", "miss");
+		this.exerciseHits = lookups(meterRegistry, "exercises", "hit");
+		this.exerciseMisses = lookups(meterRegistry, "exercises", "miss");
+		Gauge.builder("catalog.cache.size", muscleGroups, Map::size)
+				.tag("cache", "muscle_groups")
+				.register(meterRegistry);
+		Gauge.builder("catalog.cache.size", exercises, Map::size)
+				.tag("cache", "exercises")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Find a muscle group by name (case-insensitive)
+	 *
+	 * @param name the muscle group name
+	 * @return Optional containing the muscle group if it exists
+	 */
+	public Optional<MuscleGroupEntity> findMuscleGroup(String name) {
+		if (name == null) {
+			return Optional.empty();
+		}
+		MuscleGroupEntity cached = muscleGroups.get(normalize(name));
+		if (cached != null) {
+			muscleGroupHits.increment();
+			return Optional.of(cached);
+		}
+
+		muscleGroupMisses.increment();
+		long observed = generation.get();
+		Optional<MuscleGroupEntity> loaded = muscleGroupRepository.findByNameIgnoreCase(name).map(CatalogCache::copy);
+		loaded.ifPresent(group -> store(muscleGroups, normalize(group.getName()), group, observed));
+		return loaded;
+	}
+
+	/**
+	 * Find several muscle groups by name with at most one query for the ones not cached
+	 *
+	 * @param names the muscle group names, in any case
+	 * @return the muscle groups found, keyed by upper-cased name
+	 */
+	public Map<String, MuscleGroupEntity> findMuscleGroups(Collection<String> names) {
+		Map<String, MuscleGroupEntity> found = new HashMap<>();
+		Set<String> missing = new HashSet<>();
+		for (String name : names) {
+			String key = normalize(name);
+			MuscleGroupEntity cached = muscleGroups.get(key);
+			if (cached != null) {
+				muscleGroupHits.increment();
+				found.put(key, cached);
+			} else if (missing.add(key)) {
+				muscleGroupMisses.increment();
+			}
+		}
+		if (missing.isEmpty()) {
+			return found;
+		}
+
+		long observed = generation.get();
+		for (MuscleGroupEntity loaded : muscleGroupRepository.findByUpperCaseNameIn(missing)) {
+			MuscleGroupEntity group = copy(loaded);
+			String key = normalize(group.getName());
+			store(muscleGroups, key, group, observed);
+			found.put(key, group);
+		}
+		return found;
+	}
+
+	/**
+	 * Find an exercise by name within a muscle group
+	 *
+	 * @param muscleGroup the muscle group entity
+	 * @param name the exercise name
+	 * @return Optional containing the exercise if it exists
+	 */
+	public Optional<ExerciseEntity> findExercise(MuscleGroupEntity muscleGroup, String name) {
+		ExerciseKey key = new ExerciseKey(muscleGroup.getId(), name);
+		ExerciseEntity cached = exercises.get(key);
+		if (cached != null) {
+			exerciseHits.increment();
+			return Optional.of(cached);
+		}
+
+		exerciseMisses.increment();
+		long observed = generation.get();
+		Optional<ExerciseEntity> loaded = exerciseRepository.findByNameAndMuscleGroup(name, muscleGroup)
+				.map(CatalogCache::copy);
+		loaded.ifPresent(exercise -> store(exercises, key, exercise, observed));
+		return loaded;
+	}
+
+	/**
+	 * Find several exercises with at most one query for the ones not cached
+	 *
+	 * @param keys the (muscle group ID, name) pairs to look up
+	 * @return the exercises found, keyed by the requested pair
+	 */
+	public Map<ExerciseKey, ExerciseEntity> findExercises(Collection<ExerciseKey> keys) {
+		Map<ExerciseKey, ExerciseEntity> found = new HashMap<>();
+		Set<ExerciseKey> missing = new HashSet<>();
+		for (ExerciseKey key : keys) {
+			ExerciseEntity cached = exercises.get(key);
+			if (cached != null) {
+				exerciseHits.increment();
+				found.put(key, cached);
+			} else if (missing.add(key)) {
+				exerciseMisses.increment();
+			}
+		}
+		if (missing.isEmpty()) {
+			return found;
+		}
+
+		Set<Long> muscleGroupIds = new HashSet<>();
+		List<String> names = new ArrayList<>();
+		for (ExerciseKey key : missing) {
+			muscleGroupIds.add(key.muscleGroupId());
+			names.add(key.name());
+		}
+		long observed = generation.get();
+		for (ExerciseEntity loaded : exerciseRepository.findByMuscleGroupIdInAndNameIn(muscleGroupIds, names)) {
+			ExerciseKey key = new ExerciseKey(loaded.getMuscleGroup().getId(), loaded.getName());
+			if (missing.contains(key)) {
+				ExerciseEntity exercise = copy(loaded);
+				store(exercises, key, exercise, observed);
+				found.put(key, exercise);
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Drop cached entries once the transaction that changed the catalog has committed.
+	 * Runs immediately when published outside a transaction.
+	 *
+	 * @param event the catalog change
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCatalogChanged(CatalogChangedEvent event) {
+		synchronized (writeLock) {
+			generation.incrementAndGet();
+			exercises.clear();
+			if (event.scope() == CatalogChangedEvent.Scope.MUSCLE_GROUPS) {
+				muscleGroups.clear();
+			}
+		}
+	}
+
+	private <K, V> void store(Map<K, V> cache, K key, V value, long observed) {
+		synchronized (writeLock) {
+			if (generation.get() == observed && cache.size() < MAX_ENTRIES) {
+				cache.put(key, value);
+			}
+		}
+	}
+
+	private static String normalize(String name) {
+		return name.toUpperCase(Locale.ROOT);
+	}
+
+	private static MuscleGroupEntity copy(MuscleGroupEntity muscleGroup) {
+		return new MuscleGroupEntity(muscleGroup.getId(), muscleGroup.getName(), muscleGroup.getDescription());
+	}
+
+	private static ExerciseEntity copy(ExerciseEntity exercise) {
+		ExerciseEntity copy = new ExerciseEntity();
+		copy.setId(exercise.getId());
+		copy.setName(exercise.getName());
+		copy.setMuscleGroup(copy(exercise.getMuscleGroup()));
+		return copy;
+	}
+
+	private static Counter lookups(MeterRegistry meterRegistry, String cache, String result) {
+		return Counter.builder("catalog.cache.lookups")
+				.description("Catalog cache lookups by result")
+				.tag("cache", cache)
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Cache key of an exercise
+	 *
+	 * @param muscleGroupId the muscle group ID
+	 * @param name the exercise name, compared exactly
+	 */
+	public record ExerciseKey(Long muscleGroupId, String name) {
+	}
+}
@@ -0,0 +1,25 @@
+package com.erodrich.exercises.catalog;
+
+/**
+ * Published by the catalog services whenever muscle groups or exercises are written.
+ * {@link CatalogCache} drops the affected entries once the writing transaction commits.
+ *
+ * @param scope the part of the catalog that changed
+ */
+public record CatalogChangedEvent(Scope scope) {
+
+	public enum Scope {
+		/** Muscle groups changed; cached exercises embed their group, so everything is dropped */
+		MUSCLE_GROUPS,
+		/** Exercises changed; cached muscle groups stay valid */
+		EXERCISES
+	}
+
+	public static CatalogChangedEvent muscleGroups() {
+		return new CatalogChangedEvent(Scope.MUSCLE_GROUPS);
+	}
+
+	public static CatalogChangedEvent exercises() {
+		return new CatalogChangedEvent(Scope.EXERCISES);
+	}
+}
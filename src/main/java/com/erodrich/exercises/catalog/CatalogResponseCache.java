@@ -0,0 +1,207 @@
+package com.erodrich.exercises.catalog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Ready-to-send bodies of the public catalog listings: the JSON bytes, their gzip variant,
+ * an ETag per variant and a Last-Modified date. A body is built on the first request after startup
+ * or after a {@link CatalogChangedEvent}; until then every request is a byte array copy.
+ * <p>
+ * ETags hash the JSON, so every node hands out the same tag for the same catalog.
+ * Bodies are written with the application's JsonMapper, the one the JSON message converter uses.
+ */
+@Component
+public class CatalogResponseCache {
+
+	/**
+	 * The cached listings
+	 */
+	public enum Listing {
+		MUSCLE_GROUPS,
+		EXERCISES
+	}
+
+	private final Map<Listing, CachedBody> bodies = new EnumMap<>(Listing.class);
+	private final Map<Listing, Counter> builds = new EnumMap<>(Listing.class);
+
+	// Bumped on every invalidation so bodies built from data read before it are not stored
+	private final AtomicLong generation = new AtomicLong();
+	private final Object writeLock = new Object();
+	private final JsonMapper jsonMapper;
+
+	public CatalogResponseCache(MeterRegistry meterRegistry, JsonMapper jsonMapper) {
+		this.jsonMapper = jsonMapper;
+		for (Listing listing : Listing.values()) {
+			builds.put(listing, Counter.builder("catalog.response.cache.builds")
+					.description("Catalog response bodies serialized")
+					.tag("listing", listing.name().toLowerCase(Locale.ROOT))
+					.register(meterRegistry));
+		}
+	}
+
+	/**
+	 * Answer a listing request from the cached body, building it first if needed.
+	 * Sends the gzip variant when the client accepts it, and 304 when If-None-Match or
+	 * If-Modified-Since match the variant.
+	 *
+	 * @param listing the listing
+	 * @param loader reads the listing's DTOs; only called to build the body
+	 * @param request the request, for Accept-Encoding and the conditional headers
+	 * @return the response, or null when a 304 has been set up on the response
+	 */
+	public ResponseEntity<byte[]> respond(Listing listing, Supplier<?> loader, WebRequest request) {
+		CachedBody body = get(listing, loader);
+		boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+		String etag = gzip ? body.gzipEtag() : body.etag();
+		if (request.checkNotModified(etag, body.lastModified().toEpochMilli())) {
+			return null;
+		}
+
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_JSON)
+				.eTag(etag)
+				.lastModified(body.lastModified())
+				.varyBy(HttpHeaders.ACCEPT_ENCODING);
+		if (gzip) {
+			return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+		}
+		return response.body(body.json());
+	}
+
+	/**
+	 * Hash of a listing's JSON, building the body first if needed.
+	 * Changes whenever the listing does and is the same on every node, so responses that embed
+	 * catalog entries can fold it into their own ETag.
+	 *
+	 * @param listing the listing
+	 * @param loader reads the listing's DTOs; only called to build the body
+	 * @return the MD5 hex of the JSON body
+	 */
+	public String version(Listing listing, Supplier<?> loader) {
+		return get(listing, loader).hash();
+	}
+
+	/**
+	 * Drop the affected bodies once the transaction that changed the catalog has committed.
+	 * Exercises embed their muscle group's name, so a muscle group change drops both.
+	 *
+	 * @param event the catalog change
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCatalogChanged(CatalogChangedEvent event) {
+		synchronized (writeLock) {
+			generation.incrementAndGet();
+			bodies.remove(Listing.EXERCISES);
+			if (event.scope() == CatalogChangedEvent.Scope.MUSCLE_GROUPS) {
+				bodies.remove(Listing.MUSCLE_GROUPS);
+			}
+		}
+	}
+
+	CachedBody get(Listing listing, Supplier<?> loader) {
+		long observed;
+		synchronized (writeLock) {
+			CachedBody cached = bodies.get(listing);
+			if (cached != null) {
+				return cached;
+			}
+			observed = generation.get();
+		}
+
+		CachedBody built = build(loader.get());
+		builds.get(listing).increment();
+		synchronized (writeLock) {
+			if (generation.get() == observed) {
+				bodies.put(listing, built);
+			}
+		}
+		return built;
+	}
+
+	private CachedBody build(Object dtos) {
+		byte[] json;
+		try {
+			json = jsonMapper.writeValueAsBytes(dtos);
+		} catch (JacksonException e) {
+			throw new IllegalStateException("Catalog could not be serialized", e);
+		}
+		String hash = DigestUtils.md5DigestAsHex(json);
+		return new CachedBody(json, gzip(json), hash, "\"" + hash + "\"", "\"" + hash + "-gzip\"",
+				Instant.now().truncatedTo(ChronoUnit.SECONDS));
+	}
+
+	private static byte[] gzip(byte[] json) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(json);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toByteArray();
+	}
+
+	// Accepts gzip unless it is absent or explicitly refused with q=0
+	static boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		for (String coding : acceptEncoding.split(",")) {
+			String[] parts = coding.trim().split(";");
+			String name = parts[0].trim();
+			if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+				for (int i = 1; i < parts.length; i++) {
+					String param = parts[i].trim();
+					if (param.startsWith("q=") && isZero(param.substring(2))) {
+						return false;
+					}
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isZero(String quality) {
+		try {
+			return Double.parseDouble(quality) == 0;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * A serialized listing
+	 *
+	 * @param json the JSON body
+	 * @param gzip the gzip-compressed JSON body
+	 * @param hash MD5 hex of the JSON body
+	 * @param etag strong ETag of the JSON body
+	 * @param gzipEtag strong ETag of the gzip body
+	 * @param lastModified when the body was built, to the second
+	 */
+	record CachedBody(byte[] json, byte[] gzip, String hash, String etag, String gzipEtag, Instant lastModified) {
+	}
+}
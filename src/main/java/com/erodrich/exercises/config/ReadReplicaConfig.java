@@ -0,0 +1,90 @@
+package com.erodrich.exercises.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read Replica Configuration
+ * When enabled, @Transactional(readOnly = true) work runs on the read replicas and everything else on
+ * the primary configured by spring.datasource.*. The LazyConnectionDataSourceProxy only fetches a
+ * connection at the first statement, once the transaction's read-only flag is known.
+ * <p>
+ * Replicas lag behind the primary, so a read right after a write may not see it yet.
+ */
+@Configuration
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+@ConditionalOnProperty(name = "app.datasource.read-replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaDataSource(ReadReplicaProperties replicaProperties,
+            DataSourceProperties properties, HikariDataSource primaryDataSource, MeterRegistry meterRegistry) {
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.getUrls().size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + (i + 1));
+            pool.setJdbcUrl(replicaProperties.getUrls().get(i));
+            pool.setUsername(replicaProperties.getUsername() != null ? replicaProperties.getUsername() : properties.getUsername());
+            pool.setPassword(replicaProperties.getPassword() != null ? replicaProperties.getPassword() : properties.getPassword());
+            pool.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+            pool.setConnectionTimeout(replicaProperties.getConnectionTimeout().toMillis());
+            pool.setReadOnly(true);
+            // Start even if a replica is down; the health check brings it in later
+            pool.setInitializationFailTimeout(-1);
+            replicas.add(new ReplicaRoutingDataSource.Replica(pool.getPoolName(), pool));
+        }
+        return new ReplicaRoutingDataSource(replicas, primaryDataSource, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaHealthCheck replicaHealthCheck(ReplicaRoutingDataSource replicaDataSource) {
+        return new ReplicaHealthCheck(replicaDataSource);
+    }
+
+    /**
+     * Re-checks the replicas every app.datasource.read-replicas.health-check-interval
+     */
+    public static class ReplicaHealthCheck {
+
+        private final ReplicaRoutingDataSource replicaDataSource;
+
+        ReplicaHealthCheck(ReplicaRoutingDataSource replicaDataSource) {
+            this.replicaDataSource = replicaDataSource;
+        }
+
+        @Scheduled(fixedDelayString = "${app.datasource.read-replicas.health-check-interval:10s}")
+        public void checkHealth() {
+            replicaDataSource.checkHealth();
+        }
+    }
+}
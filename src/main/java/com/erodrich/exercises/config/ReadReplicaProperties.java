@@ -0,0 +1,25 @@
+package com.erodrich.exercises.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Read Replica Properties
+ * Replica pools used for read-only transactions when app.datasource.read-replicas.enabled=true
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource.read-replicas")
+public class ReadReplicaProperties {
+    private boolean enabled = false;
+    private List<String> urls = new ArrayList<>(); // JDBC URLs, one pool each
+    private String username; // defaults to spring.datasource.username
+    private String password; // defaults to spring.datasource.password
+    private int maximumPoolSize = 10; // per replica
+    private Duration connectionTimeout = Duration.ofSeconds(2); // short, so a dead replica fails over quickly
+    private Duration healthCheckInterval = Duration.ofSeconds(10);
+}
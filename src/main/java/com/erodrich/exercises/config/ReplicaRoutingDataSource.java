@@ -0,0 +1,150 @@
+package com.erodrich.exercises.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Replica Routing DataSource
+ * Hands out connections from the replicas round-robin, skipping replicas marked down, and from the
+ * primary when none is available. A replica is marked down when a connection can't be obtained and
+ * back up by {@link #checkHealth()}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final List<Replica> replicas;
+    private final DataSource primary;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter replicaConnections;
+    private final Counter primaryFallbacks;
+
+    /**
+     * @param replicas the replica pools, by name
+     * @param primary the primary, used when no replica is available
+     * @param meterRegistry registry for routing metrics
+     */
+    public ReplicaRoutingDataSource(List<Replica> replicas, DataSource primary, MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+        this.primary = primary;
+        this.replicaConnections = Counter.builder("db.read.connections")
+                .description("Read-only connections by target")
+                .tag("target", "replica")
+                .register(meterRegistry);
+        this.primaryFallbacks = Counter.builder("db.read.connections")
+                .description("Read-only connections by target")
+                .tag("target", "primary")
+                .register(meterRegistry);
+        Gauge.builder("db.replicas.healthy", this.replicas, list -> list.stream().filter(Replica::isHealthy).count())
+                .description("Replicas currently accepting reads")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int size = replicas.size();
+        int start = size == 0 ? 0 : Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.isHealthy()) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource().getConnection();
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+        primaryFallbacks.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica credentials are configured per pool");
+    }
+
+    /**
+     * Validate a connection of every replica, marking each up or down
+     */
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource().getConnection()) {
+                if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    if (!replica.isHealthy()) {
+                        log.info("Read replica {} is back up", replica.name());
+                    }
+                    replica.setHealthy(true);
+                } else {
+                    markDown(replica, null);
+                }
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static void markDown(Replica replica, SQLException cause) {
+        if (replica.isHealthy()) {
+            log.warn("Read replica {} is down, reads go to the other replicas or the primary: {}", replica.name(),
+                    cause == null ? "connection not valid" : cause.getMessage());
+        }
+        replica.setHealthy(false);
+    }
+
+    /**
+     * A replica pool and its health
+     */
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public DataSource dataSource() {
+            return dataSource;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        void setHealthy(boolean healthy) {
+            this.healthy = healthy;
+        }
+    }
+}
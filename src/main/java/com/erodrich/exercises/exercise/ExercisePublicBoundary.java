@@ -1,14 +1,12 @@
 package com.erodrich.exercises.exercise;
 
-import static org.springframework.http.ResponseEntity.ok;
-
-import java.util.List;
-
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.erodrich.exercises.catalog.CatalogResponseCache;
 import com.erodrich.exercises.exercise.dto.ExerciseDTO;
 import com.erodrich.exercises.exercise.service.ExerciseService;
 
@@ -19,11 +17,14 @@ import lombok.AllArgsConstructor;
 @RequestMapping("/api/v1/exercises")
 public class ExercisePublicBoundary {
 	private final ExerciseService exerciseService;
+	private final CatalogResponseCache responseCache;
 
+	/**
+	 * All exercises, served from the pre-serialized body (gzip when accepted, 304 when unchanged)
+	 */
 	@GetMapping
-	public ResponseEntity<List<ExerciseDTO>> getAllExercises() {
-		var exercises = exerciseService.getAllExercises();
-		return ok(exercises);
+	public ResponseEntity<byte[]> getAllExercises(WebRequest request) {
+		return responseCache.respond(CatalogResponseCache.Listing.EXERCISES, exerciseService::getAllExercises, request);
 	}
 
 	@GetMapping("/{id}")
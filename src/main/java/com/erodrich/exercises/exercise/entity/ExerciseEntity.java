@@ -10,6 +10,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -20,7 +21,7 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "exercises")
+@Table(name = "exercises", indexes = @Index(name = "idx_exercises_muscle_group_name", columnList = "muscle_group_id, name"))
 public class ExerciseEntity {
 	@Id
 	@GeneratedValue(strategy = GenerationType.AUTO)
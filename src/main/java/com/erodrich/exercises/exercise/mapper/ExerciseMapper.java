@@ -2,18 +2,18 @@ package com.erodrich.exercises.exercise.mapper;
 
 import org.springframework.stereotype.Component;
 
+import com.erodrich.exercises.catalog.CatalogCache;
 import com.erodrich.exercises.exercise.dto.ExerciseDTO;
 import com.erodrich.exercises.exercise.entity.ExerciseEntity;
 import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
-import com.erodrich.exercises.musclegroup.repository.MuscleGroupRepository;
 
 @Component
 public class ExerciseMapper {
 	
-	private final MuscleGroupRepository muscleGroupRepository;
+	private final CatalogCache catalogCache;
 	
-	public ExerciseMapper(MuscleGroupRepository muscleGroupRepository) {
-		this.muscleGroupRepository = muscleGroupRepository;
+	public ExerciseMapper(CatalogCache catalogCache) {
+		this.catalogCache = catalogCache;
 	}
 	
 	public ExerciseEntity toEntity(ExerciseDTO dto) {
@@ -26,8 +26,8 @@ public class ExerciseMapper {
 		entity.setName(dto.getName());
 		
 		// Look up the MuscleGroupEntity by name
-		MuscleGroupEntity muscleGroup = muscleGroupRepository
-				.findByNameIgnoreCase(dto.getGroup())
+		MuscleGroupEntity muscleGroup = catalogCache
+				.findMuscleGroup(dto.getGroup())
 				.orElseThrow(() -> new IllegalArgumentException(
 						"Invalid muscle group: " + dto.getGroup()));
 		entity.setMuscleGroup(muscleGroup);
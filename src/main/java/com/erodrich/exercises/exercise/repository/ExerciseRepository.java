@@ -1,5 +1,7 @@
 package com.erodrich.exercises.exercise.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -23,4 +25,13 @@ public interface ExerciseRepository extends JpaRepository<ExerciseEntity, Long>
 	 * @return the count of exercises in this muscle group
 	 */
 	long countByMuscleGroup(MuscleGroupEntity muscleGroup);
+	
+	/**
+	 * Find the exercises of any of the given muscle groups whose name is any of the given names.
+	 * The result can hold (group, name) combinations that were not asked for; callers match pairs.
+	 * @param muscleGroupIds the muscle group IDs
+	 * @param names the exercise names
+	 * @return the matching exercises
+	 */
+	List<ExerciseEntity> findByMuscleGroupIdInAndNameIn(Collection<Long> muscleGroupIds, Collection<String> names);
 }
@@ -3,15 +3,17 @@ package com.erodrich.exercises.exercise.service;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.erodrich.exercises.catalog.CatalogCache;
+import com.erodrich.exercises.catalog.CatalogChangedEvent;
 import com.erodrich.exercises.exercise.dto.ExerciseDTO;
 import com.erodrich.exercises.exercise.entity.ExerciseEntity;
 import com.erodrich.exercises.exercise.mapper.ExerciseMapper;
 import com.erodrich.exercises.exercise.repository.ExerciseRepository;
 import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
-import com.erodrich.exercises.musclegroup.repository.MuscleGroupRepository;
 
 import lombok.RequiredArgsConstructor;
 
@@ -21,7 +23,8 @@ public class ExerciseService {
 	
 	private final ExerciseRepository exerciseRepository;
 	private final ExerciseMapper mapper;
-	private final MuscleGroupRepository muscleGroupRepository;
+	private final CatalogCache catalogCache;
+	private final ApplicationEventPublisher eventPublisher;
 	
 	@Transactional(readOnly = true)
 	public List<ExerciseDTO> getAllExercises() {
@@ -40,8 +43,8 @@ public class ExerciseService {
 	@Transactional
 	public ExerciseDTO createExercise(ExerciseDTO dto) {
 		// Validate muscle group exists
-		MuscleGroupEntity muscleGroup = muscleGroupRepository
-				.findByNameIgnoreCase(dto.getGroup())
+		MuscleGroupEntity muscleGroup = catalogCache
+				.findMuscleGroup(dto.getGroup())
 				.orElseThrow(() -> new IllegalArgumentException("Invalid muscle group: " + dto.getGroup()));
 		
 		// Check if exercise already exists
@@ -52,6 +55,7 @@ public class ExerciseService {
 		ExerciseEntity entity = mapper.toEntity(dto);
 		entity.setId(null); // Ensure new entity
 		ExerciseEntity saved = exerciseRepository.save(entity);
+		eventPublisher.publishEvent(CatalogChangedEvent.exercises());
 		
 		return mapper.toDTO(saved);
 	}
@@ -62,14 +66,15 @@ public class ExerciseService {
 				.orElseThrow(() -> new IllegalArgumentException("Exercise not found"));
 		
 		// Validate muscle group exists
-		MuscleGroupEntity muscleGroup = muscleGroupRepository
-				.findByNameIgnoreCase(dto.getGroup())
+		MuscleGroupEntity muscleGroup = catalogCache
+				.findMuscleGroup(dto.getGroup())
 				.orElseThrow(() -> new IllegalArgumentException("Invalid muscle group: " + dto.getGroup()));
 		
 		existing.setName(dto.getName());
 		existing.setMuscleGroup(muscleGroup);
 		
 		ExerciseEntity updated = exerciseRepository.save(existing);
+		eventPublisher.publishEvent(CatalogChangedEvent.exercises());
 		return mapper.toDTO(updated);
 	}
 	
@@ -79,5 +84,6 @@ public class ExerciseService {
 			throw new IllegalArgumentException("Exercise not found");
 		}
 		exerciseRepository.deleteById(id);
+		eventPublisher.publishEvent(CatalogChangedEvent.exercises());
 	}
 }
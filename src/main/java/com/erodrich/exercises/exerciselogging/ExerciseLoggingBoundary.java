@@ -1,44 +1,265 @@
 package com.erodrich.exercises.exerciselogging;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
 
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.erodrich.exercises.catalog.CatalogResponseCache;
+import com.erodrich.exercises.exercise.service.ExerciseService;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseLogChangesDTO;
 import com.erodrich.exercises.exerciselogging.dto.ExerciseLogDTO;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseLogPageDTO;
+import com.erodrich.exercises.exerciselogging.dto.ImportReportDTO;
+import com.erodrich.exercises.exerciselogging.dto.LogIngestionDTO;
+import com.erodrich.exercises.exerciselogging.service.ExerciseLogExportService;
+import com.erodrich.exercises.exerciselogging.service.ExerciseLogImportService;
 import com.erodrich.exercises.exerciselogging.service.ExerciseLogService;
+import com.erodrich.exercises.exerciselogging.service.ExportFormat;
+import com.erodrich.exercises.exerciselogging.service.LogIngestionService;
+import com.erodrich.exercises.user.service.UserDataVersionService;
+import com.erodrich.exercises.user.service.UserNotFoundException;
 
 import lombok.RequiredArgsConstructor;
 
+/**
+ * Log endpoints of one user, available to that user (by the token's uid claim) and to admins.
+ * Reads carry an ETag of the user's data version and of the exercise catalog, and answer a matching
+ * If-None-Match with 304 after a version lookup only.
+ */
 @RequiredArgsConstructor
 @RestController
 @RequestMapping(path = "/api/v1/users/{userId}/logs")
+@PreAuthorize("hasRole('ADMIN') or @userOwnership.isOwner(authentication, #userId)")
 public class ExerciseLoggingBoundary {
 
 	private final ExerciseLogService service;
+	private final ExerciseLogExportService exportService;
+	private final ExerciseLogImportService importService;
+	private final UserDataVersionService dataVersionService;
+	private final LogIngestionService ingestionService;
+	private final ExerciseService exerciseService;
+	private final CatalogResponseCache catalogResponseCache;
 
 	@GetMapping
-	public List<ExerciseLogDTO> getAllLogs(@PathVariable Long userId) {
-		return service.getAllLogs(userId);
+	public ResponseEntity<ExerciseLogPageDTO> getLogs(
+			@PathVariable Long userId,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer limit,
+			WebRequest request) {
+		return unlessNotModified(userId, request, () -> Optional.of(service.getLogsPage(userId, cursor, limit)));
 	}
 
 	@PostMapping
-	public List<ExerciseLogDTO> createLogs(@PathVariable Long userId, @RequestBody List<ExerciseLogDTO> logs) {
-		return service.saveLogs(userId, logs);
+	public ResponseEntity<List<ExerciseLogDTO>> createLogs(@PathVariable Long userId, @RequestBody List<ExerciseLogDTO> logs) {
+		// An admin posting for an unknown user gets 404, not an FK violation
+		try {
+			return ResponseEntity.ok(service.saveLogs(userId, logs));
+		} catch (UserNotFoundException e) {
+			return ResponseEntity.notFound().build();
+		}
+	}
+
+	/**
+	 * With Prefer: respond-async and async ingestion enabled, check and queue the logs and answer 202
+	 * with the ingestion, whose status is at the Location URL. Otherwise save them like {@link #createLogs}.
+	 */
+	@PostMapping(headers = "Prefer")
+	public ResponseEntity<?> createLogsPreferAsync(
+			@PathVariable Long userId,
+			@RequestBody List<ExerciseLogDTO> logs,
+			@RequestHeader("Prefer") String prefer) {
+		if (!ingestionService.isEnabled() || !LogIngestionService.prefersAsync(prefer)) {
+			return createLogs(userId, logs);
+		}
+		LogIngestionDTO ingestion;
+		try {
+			ingestion = ingestionService.enqueue(userId, logs);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		} catch (UserNotFoundException e) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.accepted()
+				.location(URI.create("/api/v1/users/" + userId + "/logs/ingestions/" + ingestion.getId()))
+				.header("Preference-Applied", "respond-async")
+				.body(ingestion);
+	}
+
+	@GetMapping("/ingestions/{ingestionId}")
+	public ResponseEntity<LogIngestionDTO> getIngestion(@PathVariable Long userId, @PathVariable UUID ingestionId) {
+		return ingestionService.find(userId, ingestionId)
+				.map(ResponseEntity::ok)
+				.orElse(ResponseEntity.notFound().build());
+	}
+
+	@DeleteMapping("/{logId}")
+	public ResponseEntity<Void> deleteLog(@PathVariable Long userId, @PathVariable Long logId) {
+		if (!service.deleteLog(userId, logId)) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.noContent().build();
+	}
+
+	/**
+	 * Page of the logs saved and deleted since the token of a previous call: ?since={token}&limit={limit}.
+	 * Without since, the pages start at the first log
+	 */
+	@GetMapping("/changes")
+	public ResponseEntity<ExerciseLogChangesDTO> getChanges(
+			@PathVariable Long userId,
+			@RequestParam(required = false) String since,
+			@RequestParam(required = false) Integer limit,
+			WebRequest request) {
+		return unlessNotModified(userId, request, () -> Optional.of(service.getChanges(userId, since, limit)));
+	}
+
+	/**
+	 * Import a CSV file in the CsvLoaderUtil layout, uploaded as multipart form data
+	 */
+	@PostMapping(path = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+	public ResponseEntity<ImportReportDTO> importLogsFile(
+			@PathVariable Long userId,
+			@RequestParam("file") MultipartFile file) throws IOException {
+		try (InputStream csv = file.getInputStream()) {
+			return importLogs(userId, csv);
+		}
+	}
+
+	/**
+	 * Import a CSV request body in the CsvLoaderUtil layout, read as it arrives
+	 */
+	@PostMapping(path = "/import", consumes = "text/csv")
+	public ResponseEntity<ImportReportDTO> importLogsStream(
+			@PathVariable Long userId,
+			InputStream csv) throws IOException {
+		return importLogs(userId, csv);
 	}
 
 	@GetMapping("/latest")
 	public ResponseEntity<ExerciseLogDTO> getLatestLog(
 			@PathVariable Long userId,
-			@RequestParam Long exerciseId) {
-		return service.getLatestLogForExercise(userId, exerciseId)
-				.map(ResponseEntity::ok)
+			@RequestParam Long exerciseId,
+			WebRequest request) {
+		return unlessNotModified(userId, request, () -> service.getLatestLogForExercise(userId, exerciseId));
+	}
+
+	/**
+	 * Latest log of several exercises in one request, keyed by exercise ID: ?exerciseIds=1,2,3
+	 */
+	@GetMapping(path = "/latest", params = "exerciseIds")
+	public ResponseEntity<Map<Long, ExerciseLogDTO>> getLatestLogs(
+			@PathVariable Long userId,
+			@RequestParam List<Long> exerciseIds,
+			WebRequest request) {
+		return unlessNotModified(userId, request, () -> Optional.of(service.getLatestLogsForExercises(userId, exerciseIds)));
+	}
+
+	/**
+	 * Latest log of every exercise of a muscle group, keyed by exercise ID: ?muscleGroup=CHEST
+	 */
+	@GetMapping(path = "/latest", params = "muscleGroup")
+	public ResponseEntity<Map<Long, ExerciseLogDTO>> getLatestLogsForMuscleGroup(
+			@PathVariable Long userId,
+			@RequestParam String muscleGroup,
+			WebRequest request) {
+		return unlessNotModified(userId, request,
+				() -> Optional.of(service.getLatestLogsForMuscleGroup(userId, muscleGroup)));
+	}
+
+	/**
+	 * Stream the user's complete history, oldest first, as NDJSON or semicolon CSV
+	 */
+	@GetMapping("/export")
+	public ResponseEntity<StreamingResponseBody> exportLogs(
+			@PathVariable Long userId,
+			@RequestParam(defaultValue = "ndjson") String format) {
+		ExportFormat exportFormat;
+		try {
+			exportFormat = ExportFormat.from(format);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		}
+
+		StreamingResponseBody body = out -> exportService.export(userId, exportFormat, out);
+		ContentDisposition disposition = ContentDisposition.attachment()
+				.filename("exercise-logs-" + userId + "." + exportFormat.getExtension())
+				.build();
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+				.header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+				.body(body);
+	}
+
+	/**
+	 * Answer 304 if the client's If-None-Match matches the user's cached data version and the catalog,
+	 * otherwise read. Logs embed their exercise and muscle group, so the hash of the cached exercise
+	 * listing is part of the ETag.
+	 * <p>
+	 * The ETag of a response carries the version read in the same transaction as the body, so with read
+	 * replicas a lagging replica's older body gets its older version and the next poll reads again.
+	 * The catalog is hashed before the read, so a rename committing meanwhile has the same effect.
+	 * An invalid argument answers 400 and an empty result 404.
+	 */
+	private <T> ResponseEntity<T> unlessNotModified(Long userId, WebRequest request, Supplier<Optional<T>> read) {
+		String catalogVersion = catalogResponseCache.version(CatalogResponseCache.Listing.EXERCISES,
+				exerciseService::getAllExercises);
+		String cached = dataVersionService.etag(userId, catalogVersion);
+		if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), cached)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cached).build();
+		}
+
+		UserDataVersionService.Versioned<Optional<T>> result;
+		try {
+			result = dataVersionService.readAtVersion(userId, read);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		}
+		return result.value()
+				.map(body -> ResponseEntity.ok()
+						.eTag(UserDataVersionService.etagOf(result.version(), catalogVersion))
+						.body(body))
 				.orElse(ResponseEntity.notFound().build());
 	}
+
+	private static boolean matches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		ETag current = ETag.create(etag);
+		return ETag.parse(ifNoneMatch).stream()
+				.anyMatch(tag -> tag.isWildcard() || tag.compare(current, false));
+	}
+
+	private ResponseEntity<ImportReportDTO> importLogs(Long userId, InputStream csv) throws IOException {
+		try {
+			return ResponseEntity.ok(importService.importCsv(userId, csv));
+		} catch (UserNotFoundException e) {
+			return ResponseEntity.notFound().build();
+		}
+	}
 }
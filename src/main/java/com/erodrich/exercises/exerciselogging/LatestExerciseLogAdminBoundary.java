@@ -0,0 +1,33 @@
+package com.erodrich.exercises.exerciselogging;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.erodrich.exercises.exerciselogging.service.LatestExerciseLogRebuildJob;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping(path = "/api/v1/admin/latest-logs")
+public class LatestExerciseLogAdminBoundary {
+
+	private final LatestExerciseLogRebuildJob rebuildJob;
+
+	/**
+	 * Recompute the latest log of every (user, exercise) from the logs table.
+	 * Reports the rows written and how many users were rebuilt and failed.
+	 */
+	@PostMapping("/rebuild")
+	public ResponseEntity<Map<String, Long>> rebuild() {
+		LatestExerciseLogRebuildJob.Result result = rebuildJob.rebuildAll();
+		return ResponseEntity.ok(Map.of(
+				"rows", result.rows(),
+				"users", (long) result.users(),
+				"failedUsers", (long) result.failedUsers()));
+	}
+}
@@ -0,0 +1,24 @@
+package com.erodrich.exercises.exerciselogging.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of the logs saved and deleted after a client's token, oldest change first.
+ * Pass token as since on the next call to get what changed after this page;
+ * hasMore is set when further changes are already waiting.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExerciseLogChangesDTO {
+	private List<ExerciseLogDTO> changed;
+	private List<Long> deleted;
+	private String token;
+	private boolean hasMore;
+}
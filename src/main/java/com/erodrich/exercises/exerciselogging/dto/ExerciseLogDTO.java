@@ -12,6 +12,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ExerciseLogDTO {
+	// Assigned by the server, ignored on writes
+	private Long id;
 	private String timestamp;
 	private ExerciseDTO exercise;
 	private List<ExerciseSetDTO> sets;
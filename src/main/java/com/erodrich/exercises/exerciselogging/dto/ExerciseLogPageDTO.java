@@ -0,0 +1,21 @@
+package com.erodrich.exercises.exerciselogging.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of a user's logs, newest first.
+ * nextCursor is null when there are no older logs to fetch.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExerciseLogPageDTO {
+	private List<ExerciseLogDTO> logs;
+	private String nextCursor;
+}
@@ -0,0 +1,19 @@
+package com.erodrich.exercises.exerciselogging.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A rejected line, or a rejected chunk when fromLine and toLine differ
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportErrorDTO {
+	private long fromLine;
+	private long toLine;
+	private String message;
+}
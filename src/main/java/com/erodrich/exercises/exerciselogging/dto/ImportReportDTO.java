@@ -0,0 +1,23 @@
+package com.erodrich.exercises.exerciselogging.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a CSV import.
+ * Only the first errors are listed; failedLines counts all of them.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportDTO {
+	private long linesRead;
+	private long imported;
+	private long failedLines;
+	private List<ImportErrorDTO> errors;
+}
@@ -0,0 +1,25 @@
+package com.erodrich.exercises.exerciselogging.dto;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * State of logs accepted for background saving.
+ * status is PENDING until a worker saves them, then DONE, or FAILED with the reason in error.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogIngestionDTO {
+	private UUID id;
+	private String status;
+	private int logCount;
+	private String error;
+	private String createdAt;
+	private String processedAt;
+}
@@ -1,20 +1,24 @@
 package com.erodrich.exercises.exerciselogging.entity;
 
 import java.time.LocalDateTime;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.erodrich.exercises.exercise.entity.ExerciseEntity;
 import com.erodrich.exercises.user.entity.UserEntity;
 
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.JoinTable;
-import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
@@ -22,26 +26,54 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "exercise_logs")
+@Table(name = "exercise_logs", indexes = {
+		// findByUserId and the keyset pages (date DESC, exercise_log_id DESC)
+		@Index(name = "idx_exercise_logs_user_date", columnList = "user_id, date DESC, exercise_log_id DESC"),
+		// findFirstByUserIdAndExerciseIdOrderByDateDescIdDesc and the latest-per-exercise rebuild
+		@Index(name = "idx_exercise_logs_user_exercise_date", columnList = "user_id, exercise_id, date DESC"),
+		// GET /logs/changes: the user's logs written after a client's token
+		@Index(name = "idx_exercise_logs_user_change_seq", columnList = "user_id, change_seq")
+})
 public class ExerciseLogEntity {
 	@Id
 	@GeneratedValue(strategy = GenerationType.AUTO)
 	@Column(name = "exercise_log_id")
 	private Long id;
 	
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "user_id")
 	private UserEntity user;
 	
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "exercise_id")
 	private ExerciseEntity exercise;
-	@ManyToMany
-	@JoinTable(
-			name = "exercise_log_sets",
-			joinColumns = @JoinColumn(name = "exercise_log_id"),
-			inverseJoinColumns = @JoinColumn(name = "exercise_set_id"))
-	private Set<ExerciseSetEntity> sets;
+	// Owned by the log; exercise_sets carries the log ID and the order the sets were performed in
+	@OneToMany(mappedBy = "log", cascade = CascadeType.ALL, orphanRemoval = true)
+	@OrderBy("position")
+	private List<ExerciseSetEntity> sets = new ArrayList<>();
 	private boolean hasFailed;
 	private LocalDateTime date;
+	// The user's data version of the write that saved the log; 0 for logs saved before change tracking
+	@Column(name = "change_seq", nullable = false)
+	private long changeSeq;
+
+	/**
+	 * Replace the sets, keeping the given order
+	 * @param sets the sets in the order performed
+	 */
+	public void setSets(List<ExerciseSetEntity> sets) {
+		List<ExerciseSetEntity> replacement = new ArrayList<>(sets);
+		this.sets.clear();
+		replacement.forEach(this::addSet);
+	}
+
+	/**
+	 * Append a set after the ones already added
+	 * @param set the set, not yet attached to a log
+	 */
+	public void addSet(ExerciseSetEntity set) {
+		set.setLog(this);
+		set.setPosition(this.sets.size());
+		this.sets.add(set);
+	}
 }
@@ -0,0 +1,65 @@
+package com.erodrich.exercises.exerciselogging.entity;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Marker left by a deleted log so GET /logs/changes can report the deletion to clients
+ * that synced before it. Carries the user's data version of the delete, like a log's change_seq.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "exercise_log_tombstones", indexes = {
+		@Index(name = "idx_exercise_log_tombstones_user_change_seq", columnList = "user_id, change_seq")
+})
+public class ExerciseLogTombstoneEntity implements Persistable<Long> {
+	@Id
+	@Column(name = "exercise_log_id")
+	private Long id;
+
+	@Column(name = "user_id", nullable = false)
+	private Long userId;
+
+	@Column(name = "change_seq", nullable = false)
+	private long changeSeq;
+
+	@Column(name = "deleted_at", nullable = false)
+	private LocalDateTime deletedAt;
+
+	// The ID is the deleted log's, so tell Spring Data to persist instead of merging (which selects first)
+	@Transient
+	private boolean isNew = true;
+
+	public ExerciseLogTombstoneEntity(Long id, Long userId, long changeSeq, LocalDateTime deletedAt) {
+		this.id = id;
+		this.userId = userId;
+		this.changeSeq = changeSeq;
+		this.deletedAt = deletedAt;
+	}
+
+	@Override
+	public boolean isNew() {
+		return isNew;
+	}
+
+	@PostLoad
+	@PostPersist
+	void markNotNew() {
+		isNew = false;
+	}
+}
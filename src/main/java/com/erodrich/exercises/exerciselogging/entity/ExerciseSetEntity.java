@@ -2,9 +2,14 @@ package com.erodrich.exercises.exerciselogging.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
@@ -12,12 +17,22 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "exercise_sets")
+@Table(name = "exercise_sets", indexes = @Index(name = "idx_exercise_sets_log_order", columnList = "exercise_log_id, set_order"))
 public class ExerciseSetEntity {
+	// Pooled sequence instead of IDENTITY so set inserts can be JDBC-batched
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exercise_sets_seq")
+	@SequenceGenerator(name = "exercise_sets_seq", sequenceName = "exercise_sets_seq", allocationSize = 50)
 	@Column(name = "exercise_set_id", nullable = false)
 	private Long id;
+
+	@ManyToOne(fetch = FetchType.LAZY, optional = false)
+	@JoinColumn(name = "exercise_log_id", nullable = false)
+	private ExerciseLogEntity log;
+
+	// Position within the log, from 0; set by ExerciseLogEntity.addSet
+	@Column(name = "set_order", nullable = false)
+	private int position;
 	private Double weight;
 	private Integer reps;
 }
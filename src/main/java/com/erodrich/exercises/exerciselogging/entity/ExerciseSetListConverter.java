@@ -0,0 +1,43 @@
+package com.erodrich.exercises.exerciselogging.entity;
+
+import java.util.List;
+
+import com.erodrich.exercises.exerciselogging.dto.ExerciseSetDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a list of sets as a JSON array: [{"weight":80.0,"reps":10}, ...]
+ */
+@Converter
+public class ExerciseSetListConverter implements AttributeConverter<List<ExerciseSetDTO>, String> {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final TypeReference<List<ExerciseSetDTO>> SET_LIST = new TypeReference<>() {
+	};
+
+	@Override
+	public String convertToDatabaseColumn(List<ExerciseSetDTO> sets) {
+		try {
+			return MAPPER.writeValueAsString(sets == null ? List.of() : sets);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Could not serialize sets", e);
+		}
+	}
+
+	@Override
+	public List<ExerciseSetDTO> convertToEntityAttribute(String json) {
+		if (json == null || json.isEmpty()) {
+			return List.of();
+		}
+		try {
+			return MAPPER.readValue(json, SET_LIST);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Could not deserialize sets", e);
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.erodrich.exercises.exerciselogging.entity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Persistable;
+
+import com.erodrich.exercises.exercise.entity.ExerciseEntity;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseSetDTO;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Read model holding a copy of the newest log of each (user, exercise), maintained by
+ * LatestExerciseLogService whenever logs are saved. The sets are stored inline as JSON.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "latest_exercise_log")
+public class LatestExerciseLogEntity implements Persistable<LatestExerciseLogId> {
+	@EmbeddedId
+	private LatestExerciseLogId id;
+
+	@MapsId("exerciseId")
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "exercise_id")
+	private ExerciseEntity exercise;
+
+	@Column(name = "exercise_log_id", nullable = false)
+	private Long logId;
+
+	@Column(nullable = false)
+	private LocalDateTime date;
+
+	private boolean hasFailed;
+
+	@Convert(converter = ExerciseSetListConverter.class)
+	@Column(name = "sets", nullable = false, length = 8000)
+	private List<ExerciseSetDTO> sets;
+
+	// The ID is assigned, so tell Spring Data when to persist instead of merging (which selects first)
+	@Transient
+	private boolean isNew = true;
+
+	@Override
+	public boolean isNew() {
+		return isNew;
+	}
+
+	@PostLoad
+	@PostPersist
+	void markNotNew() {
+		isNew = false;
+	}
+}
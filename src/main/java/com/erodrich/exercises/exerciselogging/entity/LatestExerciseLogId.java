@@ -0,0 +1,25 @@
+package com.erodrich.exercises.exerciselogging.entity;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@Embeddable
+public class LatestExerciseLogId implements Serializable {
+	@Column(name = "user_id", nullable = false)
+	private Long userId;
+
+	@Column(name = "exercise_id", nullable = false)
+	private Long exerciseId;
+}
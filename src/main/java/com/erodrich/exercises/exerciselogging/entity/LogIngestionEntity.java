@@ -0,0 +1,75 @@
+package com.erodrich.exercises.exerciselogging.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A POST /logs payload accepted with Prefer: respond-async, waiting in the log_ingestions table
+ * until a LogIngestionWorker saves it. The row is marked DONE in the transaction that saves the logs,
+ * so a payload is saved once even if a node dies mid-batch.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "log_ingestions", indexes = {
+		// Workers pick the oldest pending payloads; cleanup deletes old processed ones
+		@Index(name = "idx_log_ingestions_status_created", columnList = "status, created_at")
+})
+public class LogIngestionEntity {
+
+	/** Longest JSON payload accepted */
+	public static final int PAYLOAD_LENGTH = 1_000_000;
+
+	public enum Status {
+		PENDING,
+		DONE,
+		FAILED
+	}
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.UUID)
+	@Column(name = "log_ingestion_id")
+	private UUID id;
+
+	@Column(name = "user_id", nullable = false)
+	private Long userId;
+
+	// The logs as JSON, in the POST /logs body format
+	@Column(nullable = false, length = PAYLOAD_LENGTH)
+	private String payload;
+
+	@Column(name = "log_count", nullable = false)
+	private int logCount;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 16)
+	private Status status = Status.PENDING;
+
+	@Column(length = 500)
+	private String error;
+
+	// Attempts that failed on a transient database error; the row stays PENDING until nextAttemptAt
+	@Column(nullable = false)
+	private int attempts;
+
+	@Column(name = "next_attempt_at")
+	private LocalDateTime nextAttemptAt;
+
+	@Column(name = "created_at", nullable = false)
+	private LocalDateTime createdAt;
+
+	@Column(name = "processed_at")
+	private LocalDateTime processedAt;
+}
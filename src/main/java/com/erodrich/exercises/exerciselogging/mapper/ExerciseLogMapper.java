@@ -1,46 +1,35 @@
 package com.erodrich.exercises.exerciselogging.mapper;
 
-import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Component;
 
 import com.erodrich.exercises.exercise.entity.ExerciseEntity;
 import com.erodrich.exercises.exerciselogging.dto.ExerciseDTO;
-import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
-import com.erodrich.exercises.musclegroup.repository.MuscleGroupRepository;
 import com.erodrich.exercises.exerciselogging.dto.ExerciseLogDTO;
 import com.erodrich.exercises.exerciselogging.dto.ExerciseSetDTO;
 import com.erodrich.exercises.exerciselogging.entity.ExerciseLogEntity;
 import com.erodrich.exercises.exerciselogging.entity.ExerciseSetEntity;
+import com.erodrich.exercises.exerciselogging.entity.LatestExerciseLogEntity;
 
 @Component
 public class ExerciseLogMapper {
 
-	private final MuscleGroupRepository muscleGroupRepository;
-	
-	public ExerciseLogMapper(MuscleGroupRepository muscleGroupRepository) {
-		this.muscleGroupRepository = muscleGroupRepository;
-	}
-
 	// Use DD/MM/yyyy HH:mm:ss format for output - matches frontend display format
 	private static final DateTimeFormatter OUTPUT_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
 	
-	// Support multiple input formats (priority order)
-	private static final DateTimeFormatter[] INPUT_FORMATTERS = {
-			DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"),  // Primary: 19/12/2025 14:30:00
-			DateTimeFormatter.ISO_DATE_TIME,                      // ISO 8601 with timezone: 2025-12-18T22:00:00.000Z
-			DateTimeFormatter.ISO_LOCAL_DATE_TIME,                // ISO 8601 local: 2025-12-18T22:00:00
-			DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss")   // US format: 12/18/2025 22:00:00
-	};
-
-	public ExerciseLogEntity toEntity(ExerciseLogDTO dto) {
+	/**
+	 * Convert a log DTO to an entity
+	 *
+	 * @param dto the DTO to convert
+	 * @param exercise the exercise already resolved for dto.getExercise()
+	 * @return the converted entity, or null if dto is null
+	 */
+	public ExerciseLogEntity toEntity(ExerciseLogDTO dto, ExerciseEntity exercise) {
 		if (dto == null) {
 			return null;
 		}
@@ -48,8 +37,13 @@ public class ExerciseLogMapper {
 		ExerciseLogEntity entity = new ExerciseLogEntity();
 		entity.setDate(parseTimestamp(dto.getTimestamp()));
 		entity.setHasFailed(dto.getFailure() != null && dto.getFailure());
-		entity.setExercise(toExerciseEntity(dto.getExercise()));
-		entity.setSets(toExerciseSetEntities(dto.getSets()));
+		entity.setExercise(exercise);
+		if (dto.getSets() != null) {
+			dto.getSets().stream()
+					.map(this::toExerciseSetEntity)
+					.filter(Objects::nonNull)
+					.forEach(entity::addSet);
+		}
 
 		return entity;
 	}
@@ -60,6 +54,7 @@ public class ExerciseLogMapper {
 		}
 
 		ExerciseLogDTO dto = new ExerciseLogDTO();
+		dto.setId(entity.getId());
 		dto.setTimestamp(formatTimestamp(entity.getDate()));
 		dto.setFailure(entity.isHasFailed());
 		dto.setExercise(toExerciseDTO(entity.getExercise()));
@@ -70,22 +65,41 @@ public class ExerciseLogMapper {
 		return dto;
 	}
 
-	private ExerciseEntity toExerciseEntity(ExerciseDTO dto) {
-		if (dto == null) {
+	/**
+	 * Convert a latest log projection row to the DTO of the log it copies
+	 *
+	 * @param entity the projection row, with its exercise loaded
+	 * @return the log DTO, or null if entity is null
+	 */
+	public ExerciseLogDTO fromLatest(LatestExerciseLogEntity entity) {
+		if (entity == null) {
 			return null;
 		}
 
-		ExerciseEntity entity = new ExerciseEntity();
-		entity.setName(dto.getName());
-		
-		// Look up the MuscleGroupEntity by name
-		MuscleGroupEntity muscleGroup = muscleGroupRepository
-				.findByNameIgnoreCase(dto.getGroup())
-				.orElseThrow(() -> new IllegalArgumentException(
-						"Invalid muscle group: " + dto.getGroup()));
-		entity.setMuscleGroup(muscleGroup);
+		ExerciseLogDTO dto = new ExerciseLogDTO();
+		dto.setId(entity.getLogId());
+		dto.setTimestamp(formatTimestamp(entity.getDate()));
+		dto.setFailure(entity.isHasFailed());
+		dto.setExercise(toExerciseDTO(entity.getExercise()));
+		dto.setSets(entity.getSets());
 
-		return entity;
+		return dto;
+	}
+
+	/**
+	 * Copy a saved log into a latest log projection row
+	 *
+	 * @param log the saved log, with its ID and sets
+	 * @param target the row to fill, new or loaded
+	 */
+	public void copyToLatest(ExerciseLogEntity log, LatestExerciseLogEntity target) {
+		target.setExercise(log.getExercise());
+		target.setLogId(log.getId());
+		target.setDate(log.getDate());
+		target.setHasFailed(log.isHasFailed());
+		target.setSets(log.getSets() == null ? new ArrayList<>() : log.getSets().stream()
+				.map(this::toExerciseSetDTO)
+				.collect(Collectors.toList()));
 	}
 
 	private ExerciseDTO toExerciseDTO(ExerciseEntity entity) {
@@ -104,16 +118,6 @@ public class ExerciseLogMapper {
 		return dto;
 	}
 
-	private Set<ExerciseSetEntity> toExerciseSetEntities(java.util.List<ExerciseSetDTO> dtos) {
-		if (dtos == null) {
-			return new HashSet<>();
-		}
-
-		return dtos.stream()
-				.map(this::toExerciseSetEntity)
-				.collect(Collectors.toSet());
-	}
-
 	private ExerciseSetEntity toExerciseSetEntity(ExerciseSetDTO dto) {
 		if (dto == null) {
 			return null;
@@ -138,26 +142,15 @@ public class ExerciseLogMapper {
 		return dto;
 	}
 
-		private LocalDateTime parseTimestamp(String timestamp) {
+	private LocalDateTime parseTimestamp(String timestamp) {
 		if (timestamp == null || timestamp.isEmpty()) {
 			return LocalDateTime.now();
 		}
 		
-		// First, try to parse as ISO 8601 with timezone (e.g., "2025-12-18T21:16:15.651Z")
-		try {
-			Instant instant = Instant.parse(timestamp);
-			return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
-		} catch (DateTimeParseException e) {
-			// Not an ISO 8601 with timezone, try other formats
-		}
-		
-		// Try parsing with each formatter until one succeeds
-		for (DateTimeFormatter formatter : INPUT_FORMATTERS) {
-			try {
-				return LocalDateTime.parse(timestamp, formatter);
-			} catch (DateTimeParseException e) {
-				// Try next formatter
-			}
+		// Known shapes are parsed without exceptions, the rest through the formatter chain
+		LocalDateTime parsed = TimestampParser.parse(timestamp);
+		if (parsed != null) {
+			return parsed;
 		}
 		
 		// If all formatters fail, return current time and log warning
@@ -165,7 +158,7 @@ public class ExerciseLogMapper {
 		return LocalDateTime.now();
 	}
 
-	private String formatTimestamp(LocalDateTime dateTime) {
+	public String formatTimestamp(LocalDateTime dateTime) {
 		if (dateTime == null) {
 			return null;
 		}
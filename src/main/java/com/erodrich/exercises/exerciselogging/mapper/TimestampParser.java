@@ -0,0 +1,190 @@
+package com.erodrich.exercises.exerciselogging.mapper;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses log timestamps. The common shapes are recognised by character position and their digits
+ * read directly, without exceptions; anything else goes through the formatter chain as before.
+ * <p>
+ * Fast path shapes:
+ * <ul>
+ * <li>{@code dd/MM/yyyy HH:mm:ss}, or {@code MM/dd/yyyy HH:mm:ss} when the second field can't be a month</li>
+ * <li>{@code yyyy-MM-ddTHH:mm:ss[.fraction]} as a local date-time</li>
+ * <li>the same followed by {@code Z}, converted from UTC to the system zone</li>
+ * </ul>
+ * Values the formatters would adjust or reject (31/04, 24:00:00, leap seconds) are left to them.
+ */
+public final class TimestampParser {
+
+	// Support multiple input formats (priority order)
+	private static final DateTimeFormatter[] INPUT_FORMATTERS = {
+			DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"),  // Primary: 19/12/2025 14:30:00
+			DateTimeFormatter.ISO_DATE_TIME,                      // ISO 8601 with timezone: 2025-12-18T22:00:00.000Z
+			DateTimeFormatter.ISO_LOCAL_DATE_TIME,                // ISO 8601 local: 2025-12-18T22:00:00
+			DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss")   // US format: 12/18/2025 22:00:00
+	};
+
+	private static final int DATE_TIME_LENGTH = 19;
+
+	private TimestampParser() {
+	}
+
+	/**
+	 * Parse a timestamp in any supported format
+	 *
+	 * @param timestamp the timestamp, not empty
+	 * @return the local date-time, or null if no format matches
+	 */
+	public static LocalDateTime parse(String timestamp) {
+		LocalDateTime parsed = parseKnownShape(timestamp);
+		return parsed != null ? parsed : parseWithFormatters(timestamp);
+	}
+
+	/**
+	 * Exception-free parsing of the common shapes
+	 *
+	 * @param timestamp the timestamp
+	 * @return the local date-time, or null if the shape or a value is not handled here
+	 */
+	static LocalDateTime parseKnownShape(String timestamp) {
+		if (timestamp.length() == DATE_TIME_LENGTH && timestamp.charAt(2) == '/') {
+			return parseSlashed(timestamp);
+		}
+		if (timestamp.length() >= DATE_TIME_LENGTH && timestamp.charAt(10) == 'T') {
+			return parseIso(timestamp);
+		}
+		return null;
+	}
+
+	/**
+	 * The original chain: Instant.parse, then each formatter until one doesn't throw
+	 *
+	 * @param timestamp the timestamp
+	 * @return the local date-time, or null if no format matches
+	 */
+	static LocalDateTime parseWithFormatters(String timestamp) {
+		// First, try to parse as ISO 8601 with timezone (e.g., "2025-12-18T21:16:15.651Z")
+		try {
+			Instant instant = Instant.parse(timestamp);
+			return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+		} catch (DateTimeParseException e) {
+			// Not an ISO 8601 with timezone, try other formats
+		}
+
+		// Try parsing with each formatter until one succeeds
+		for (DateTimeFormatter formatter : INPUT_FORMATTERS) {
+			try {
+				return LocalDateTime.parse(timestamp, formatter);
+			} catch (DateTimeParseException e) {
+				// Try next formatter
+			}
+		}
+		return null;
+	}
+
+	// dd/MM/yyyy HH:mm:ss, falling back to MM/dd/yyyy HH:mm:ss like the formatter chain
+	private static LocalDateTime parseSlashed(String s) {
+		if (s.charAt(5) != '/' || s.charAt(10) != ' ' || s.charAt(13) != ':' || s.charAt(16) != ':') {
+			return null;
+		}
+		int first = twoDigits(s, 0);
+		int second = twoDigits(s, 3);
+		int year = fourDigits(s, 6);
+		if (first < 0 || second < 0 || year < 1) {
+			return null;
+		}
+		LocalDateTime time = dateTime(year, second, first, s, 11);
+		if (time == null && (second < 1 || second > 12)) {
+			// Only reached by the formatter chain when dd/MM fails on the month
+			time = dateTime(year, first, second, s, 11);
+		}
+		return time;
+	}
+
+	// yyyy-MM-ddTHH:mm:ss[.fraction][Z]
+	private static LocalDateTime parseIso(String s) {
+		if (s.charAt(4) != '-' || s.charAt(7) != '-' || s.charAt(13) != ':' || s.charAt(16) != ':') {
+			return null;
+		}
+		int end = s.length();
+		boolean utc = s.charAt(end - 1) == 'Z';
+		if (utc) {
+			end--;
+		}
+
+		int nanos = 0;
+		if (end > DATE_TIME_LENGTH) {
+			int digits = end - DATE_TIME_LENGTH - 1;
+			if (s.charAt(DATE_TIME_LENGTH) != '.' || digits < 1 || digits > 9) {
+				return null;
+			}
+			for (int i = DATE_TIME_LENGTH + 1; i < end; i++) {
+				int digit = digit(s.charAt(i));
+				if (digit < 0) {
+					return null;
+				}
+				nanos = nanos * 10 + digit;
+			}
+			for (int i = digits; i < 9; i++) {
+				nanos *= 10;
+			}
+		}
+
+		int year = fourDigits(s, 0);
+		int month = twoDigits(s, 5);
+		int day = twoDigits(s, 8);
+		if (year < 1 || month < 0 || day < 0) {
+			return null;
+		}
+		LocalDateTime time = dateTime(year, month, day, s, 11);
+		if (time == null) {
+			return null;
+		}
+		time = time.withNano(nanos);
+		return utc ? LocalDateTime.ofInstant(time.toInstant(ZoneOffset.UTC), ZoneId.systemDefault()) : time;
+	}
+
+	// Only fully valid values; anything the formatters would resolve differently returns null
+	private static LocalDateTime dateTime(int year, int month, int day, String s, int timeStart) {
+		if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+			return null;
+		}
+		int hour = twoDigits(s, timeStart);
+		int minute = twoDigits(s, timeStart + 3);
+		int second = twoDigits(s, timeStart + 6);
+		if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+			return null;
+		}
+		return LocalDateTime.of(year, month, day, hour, minute, second);
+	}
+
+	private static int lengthOfMonth(int year, int month) {
+		return switch (month) {
+			case 2 -> Year.isLeap(year) ? 29 : 28;
+			case 4, 6, 9, 11 -> 30;
+			default -> 31;
+		};
+	}
+
+	private static int twoDigits(String s, int start) {
+		int tens = digit(s.charAt(start));
+		int units = digit(s.charAt(start + 1));
+		return tens < 0 || units < 0 ? -1 : tens * 10 + units;
+	}
+
+	private static int fourDigits(String s, int start) {
+		int high = twoDigits(s, start);
+		int low = twoDigits(s, start + 2);
+		return high < 0 || low < 0 ? -1 : high * 100 + low;
+	}
+
+	private static int digit(char c) {
+		return c >= '0' && c <= '9' ? c - '0' : -1;
+	}
+}
@@ -0,0 +1,82 @@
+package com.erodrich.exercises.exerciselogging.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Forward-only JDBC read of a user's complete log history, one row per set.
+ * Rows are handed to the caller as they arrive, so memory does not grow with the history size.
+ * Must be called inside a transaction: PostgreSQL only honours the fetch size when autocommit is off.
+ */
+@Repository
+public class ExerciseLogExportRepository {
+
+	static final int FETCH_SIZE = 500;
+
+	// Ordered by log so the rows of one log are consecutive; sets in the order performed
+	private static final String EXPORT_SQL = """
+			SELECT l.exercise_log_id, l.date, l.has_failed, m.name AS muscle_group, e.name AS exercise,
+			       s.weight, s.reps
+			FROM exercise_logs l
+			JOIN exercises e ON e.id = l.exercise_id
+			JOIN muscle_groups m ON m.id = e.muscle_group_id
+			LEFT JOIN exercise_sets s ON s.exercise_log_id = l.exercise_log_id
+			WHERE l.user_id = ?
+			ORDER BY l.date, l.exercise_log_id, s.set_order
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public ExerciseLogExportRepository(DataSource dataSource) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+	}
+
+	/**
+	 * Stream every set of every log of a user, oldest log first
+	 *
+	 * @param userId the user ID
+	 * @param consumer receives each row; logs without sets produce one row with null weight and reps
+	 */
+	public void streamByUserId(Long userId, Consumer<ExportRow> consumer) {
+		jdbcTemplate.query(EXPORT_SQL, (RowCallbackHandler) rs -> consumer.accept(toRow(rs)), userId);
+	}
+
+	private static ExportRow toRow(ResultSet rs) throws SQLException {
+		Timestamp date = rs.getTimestamp("date");
+		double weight = rs.getDouble("weight");
+		Double boxedWeight = rs.wasNull() ? null : weight;
+		int reps = rs.getInt("reps");
+		Integer boxedReps = rs.wasNull() ? null : reps;
+		return new ExportRow(
+				rs.getLong("exercise_log_id"),
+				date != null ? date.toLocalDateTime() : null,
+				rs.getBoolean("has_failed"),
+				rs.getString("muscle_group"),
+				rs.getString("exercise"),
+				boxedWeight,
+				boxedReps);
+	}
+
+	/**
+	 * One set of a log, with its log's columns repeated
+	 */
+	public record ExportRow(
+			Long logId,
+			LocalDateTime date,
+			boolean hasFailed,
+			String muscleGroup,
+			String exercise,
+			Double weight,
+			Integer reps) {
+	}
+}
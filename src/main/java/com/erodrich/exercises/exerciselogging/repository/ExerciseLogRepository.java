@@ -1,14 +1,117 @@
 package com.erodrich.exercises.exerciselogging.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.erodrich.exercises.exerciselogging.entity.ExerciseLogEntity;
 
 public interface ExerciseLogRepository extends JpaRepository<ExerciseLogEntity, Long> {
+	@EntityGraph(attributePaths = {"exercise", "exercise.muscleGroup", "sets"})
 	List<ExerciseLogEntity> findByUserId(Long userId);
 	
-	Optional<ExerciseLogEntity> findFirstByUserIdAndExerciseIdOrderByDateDesc(Long userId, Long exerciseId);
+	/**
+	 * Newest log of a user for an exercise, ties on date broken by the higher ID like the projection rebuild
+	 * @param userId the user ID
+	 * @param exerciseId the exercise ID
+	 * @return the newest log, or empty if none is left
+	 */
+	@EntityGraph(attributePaths = {"exercise", "exercise.muscleGroup"})
+	Optional<ExerciseLogEntity> findFirstByUserIdAndExerciseIdOrderByDateDescIdDesc(Long userId, Long exerciseId);
+
+	Optional<ExerciseLogEntity> findByIdAndUserId(Long id, Long userId);
+
+	/**
+	 * Page of a user's change feed: logs saved after the position (changeSeq, id) and up to a data version,
+	 * oldest change first. Seeks on idx_exercise_logs_user_change_seq, so the cost follows the page size,
+	 * not the history. Sets are left to {@link #fetchSets}.
+	 * @param userId the user ID
+	 * @param changeSeq data version of the last change already returned
+	 * @param id ID of the last log already returned within that version
+	 * @param version the user's data version read before the page; later writes wait for the next call
+	 * @param limit maximum number of rows to return
+	 * @return the logs saved after the position
+	 */
+	@EntityGraph(attributePaths = {"exercise", "exercise.muscleGroup"})
+	@Query("""
+			SELECT l FROM ExerciseLogEntity l
+			WHERE l.user.id = :userId
+			  AND (l.changeSeq > :changeSeq OR (l.changeSeq = :changeSeq AND l.id > :id))
+			  AND l.changeSeq <= :version
+			ORDER BY l.changeSeq ASC, l.id ASC
+			""")
+	List<ExerciseLogEntity> findChangedAfter(
+			@Param("userId") Long userId,
+			@Param("changeSeq") long changeSeq,
+			@Param("id") long id,
+			@Param("version") long version,
+			Limit limit);
+
+	/**
+	 * First page of a user's logs, newest first
+	 * @param userId the user ID
+	 * @param limit maximum number of rows to return
+	 * @return the newest logs of the user
+	 */
+	@EntityGraph(attributePaths = {"exercise", "exercise.muscleGroup"})
+	List<ExerciseLogEntity> findByUserIdOrderByDateDescIdDesc(Long userId, Limit limit);
+
+	/**
+	 * Keyset page: logs strictly older than the (date, id) of the previous page's last row.
+	 * Seeks on (user_id, date, exercise_log_id) instead of skipping rows with OFFSET.
+	 * @param userId the user ID
+	 * @param date date of the last log already returned
+	 * @param id ID of the last log already returned
+	 * @param limit maximum number of rows to return
+	 * @return the next logs of the user, newest first
+	 */
+	@EntityGraph(attributePaths = {"exercise", "exercise.muscleGroup"})
+	@Query("""
+			SELECT l FROM ExerciseLogEntity l
+			WHERE l.user.id = :userId
+			  AND (l.date < :date OR (l.date = :date AND l.id < :id))
+			ORDER BY l.date DESC, l.id DESC
+			""")
+	List<ExerciseLogEntity> findByUserIdBefore(
+			@Param("userId") Long userId,
+			@Param("date") LocalDateTime date,
+			@Param("id") Long id,
+			Limit limit);
+
+	/**
+	 * Second phase of a paged read: initializes the sets of already loaded logs with one IN query.
+	 * Kept apart from the page query because fetching a collection together with a row limit
+	 * would make Hibernate paginate in memory.
+	 * @param ids IDs of the logs on the page
+	 * @return the same logs with their sets initialized
+	 */
+	@Query("SELECT DISTINCT l FROM ExerciseLogEntity l LEFT JOIN FETCH l.sets WHERE l.id IN :ids")
+	List<ExerciseLogEntity> fetchSets(@Param("ids") Collection<Long> ids);
+
+	/**
+	 * Newest log of each exercise the user has logged, ties on date broken by the higher ID.
+	 * Used to rebuild the latest_exercise_log projection.
+	 * @param userId the user ID
+	 * @return one log per exercise
+	 */
+	@EntityGraph(attributePaths = {"exercise", "exercise.muscleGroup"})
+	@Query("""
+			SELECT l FROM ExerciseLogEntity l
+			WHERE l.user.id = :userId
+			  AND NOT EXISTS (
+			    SELECT 1 FROM ExerciseLogEntity n
+			    WHERE n.user = l.user AND n.exercise = l.exercise
+			      AND (n.date > l.date OR (n.date = l.date AND n.id > l.id)))
+			""")
+	List<ExerciseLogEntity> findLatestPerExerciseByUserId(@Param("userId") Long userId);
+
+	@Query("SELECT DISTINCT l.user.id FROM ExerciseLogEntity l")
+	List<Long> findUserIds();
 }
@@ -0,0 +1,37 @@
+package com.erodrich.exercises.exerciselogging.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.erodrich.exercises.exerciselogging.entity.ExerciseLogTombstoneEntity;
+
+public interface ExerciseLogTombstoneRepository extends JpaRepository<ExerciseLogTombstoneEntity, Long> {
+
+	/**
+	 * Page of a user's change feed: deletions after the position (changeSeq, id) and up to a data version,
+	 * oldest first, ordered like {@link ExerciseLogRepository#findChangedAfter}
+	 * @param userId the user ID
+	 * @param changeSeq data version of the last change already returned
+	 * @param id ID of the last log already returned within that version
+	 * @param version the user's data version read before the page
+	 * @param limit maximum number of rows to return
+	 * @return the tombstones written after the position
+	 */
+	@Query("""
+			SELECT t FROM ExerciseLogTombstoneEntity t
+			WHERE t.userId = :userId
+			  AND (t.changeSeq > :changeSeq OR (t.changeSeq = :changeSeq AND t.id > :id))
+			  AND t.changeSeq <= :version
+			ORDER BY t.changeSeq ASC, t.id ASC
+			""")
+	List<ExerciseLogTombstoneEntity> findDeletedAfter(
+			@Param("userId") Long userId,
+			@Param("changeSeq") long changeSeq,
+			@Param("id") long id,
+			@Param("version") long version,
+			Limit limit);
+}
@@ -0,0 +1,69 @@
+package com.erodrich.exercises.exerciselogging.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.erodrich.exercises.exerciselogging.entity.LatestExerciseLogEntity;
+import com.erodrich.exercises.exerciselogging.entity.LatestExerciseLogId;
+
+public interface LatestExerciseLogRepository
+		extends JpaRepository<LatestExerciseLogEntity, LatestExerciseLogId>, LatestExerciseLogUpsert {
+
+	/**
+	 * Primary key lookup of the latest log, with the exercise and its muscle group joined
+	 * @param userId the user ID
+	 * @param exerciseId the exercise ID
+	 * @return the latest log of the user for the exercise
+	 */
+	@Query("""
+			SELECT l FROM LatestExerciseLogEntity l
+			JOIN FETCH l.exercise e
+			JOIN FETCH e.muscleGroup
+			WHERE l.id.userId = :userId AND l.id.exerciseId = :exerciseId
+			""")
+	Optional<LatestExerciseLogEntity> findByUserIdAndExerciseId(
+			@Param("userId") Long userId,
+			@Param("exerciseId") Long exerciseId);
+
+	/**
+	 * Latest logs of a user for several exercises in one query
+	 * @param userId the user ID
+	 * @param exerciseIds the exercise IDs
+	 * @return the rows that exist, in no particular order
+	 */
+	@Query("""
+			SELECT l FROM LatestExerciseLogEntity l
+			JOIN FETCH l.exercise e
+			JOIN FETCH e.muscleGroup
+			WHERE l.id.userId = :userId AND l.id.exerciseId IN :exerciseIds
+			""")
+	List<LatestExerciseLogEntity> findByUserIdAndExerciseIdIn(
+			@Param("userId") Long userId,
+			@Param("exerciseIds") Collection<Long> exerciseIds);
+
+	/**
+	 * Latest logs of a user for every exercise of a muscle group
+	 * @param userId the user ID
+	 * @param muscleGroup the muscle group name, case-insensitive
+	 * @return one row per exercise of the group the user has logged
+	 */
+	@Query("""
+			SELECT l FROM LatestExerciseLogEntity l
+			JOIN FETCH l.exercise e
+			JOIN FETCH e.muscleGroup g
+			WHERE l.id.userId = :userId AND UPPER(g.name) = UPPER(:muscleGroup)
+			""")
+	List<LatestExerciseLogEntity> findByUserIdAndMuscleGroup(
+			@Param("userId") Long userId,
+			@Param("muscleGroup") String muscleGroup);
+
+	@Modifying
+	@Query("DELETE FROM LatestExerciseLogEntity l WHERE l.id.userId = :userId")
+	int deleteByUserId(@Param("userId") Long userId);
+}
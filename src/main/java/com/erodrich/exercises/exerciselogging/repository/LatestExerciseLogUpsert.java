@@ -0,0 +1,20 @@
+package com.erodrich.exercises.exerciselogging.repository;
+
+import java.util.Collection;
+
+import com.erodrich.exercises.exerciselogging.entity.LatestExerciseLogEntity;
+
+/**
+ * Atomic insert-or-replace of latest_exercise_log rows, for {@link LatestExerciseLogRepository}
+ */
+public interface LatestExerciseLogUpsert {
+
+	/**
+	 * Insert each row, or replace the stored row of its (user, exercise) if the given log is newer:
+	 * a later date, or the same date and a higher log ID. Runs in the caller's transaction as one
+	 * statement per row, so concurrent writers neither collide on the key nor overwrite a newer log.
+	 *
+	 * @param rows the rows, at most one per (user, exercise)
+	 */
+	void upsertIfNewer(Collection<LatestExerciseLogEntity> rows);
+}
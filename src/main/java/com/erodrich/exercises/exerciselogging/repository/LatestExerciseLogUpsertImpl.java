@@ -0,0 +1,71 @@
+package com.erodrich.exercises.exerciselogging.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Collection;
+
+import org.hibernate.Session;
+
+import com.erodrich.exercises.exerciselogging.entity.ExerciseSetListConverter;
+import com.erodrich.exercises.exerciselogging.entity.LatestExerciseLogEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * JDBC batch of native upserts: INSERT ... ON CONFLICT on PostgreSQL, the equivalent MERGE on H2
+ * (local profile and tests), which has no ON CONFLICT ... DO UPDATE.
+ */
+class LatestExerciseLogUpsertImpl implements LatestExerciseLogUpsert {
+
+	private static final String POSTGRESQL_UPSERT = """
+			INSERT INTO latest_exercise_log (user_id, exercise_id, exercise_log_id, date, has_failed, sets)
+			VALUES (?, ?, ?, ?, ?, ?)
+			ON CONFLICT (user_id, exercise_id) DO UPDATE
+			SET exercise_log_id = excluded.exercise_log_id, date = excluded.date,
+			    has_failed = excluded.has_failed, sets = excluded.sets
+			WHERE (excluded.date, excluded.exercise_log_id) > (latest_exercise_log.date, latest_exercise_log.exercise_log_id)
+			""";
+
+	private static final String MERGE_UPSERT = """
+			MERGE INTO latest_exercise_log l
+			USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS TIMESTAMP(6)),
+			               CAST(? AS BOOLEAN), CAST(? AS VARCHAR(8000))))
+			    AS n (user_id, exercise_id, exercise_log_id, date, has_failed, sets)
+			ON l.user_id = n.user_id AND l.exercise_id = n.exercise_id
+			WHEN MATCHED AND (n.date, n.exercise_log_id) > (l.date, l.exercise_log_id) THEN
+			    UPDATE SET exercise_log_id = n.exercise_log_id, date = n.date, has_failed = n.has_failed, sets = n.sets
+			WHEN NOT MATCHED THEN
+			    INSERT (user_id, exercise_id, exercise_log_id, date, has_failed, sets)
+			    VALUES (n.user_id, n.exercise_id, n.exercise_log_id, n.date, n.has_failed, n.sets)
+			""";
+
+	private static final ExerciseSetListConverter SETS = new ExerciseSetListConverter();
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public void upsertIfNewer(Collection<LatestExerciseLogEntity> rows) {
+		if (rows.isEmpty()) {
+			return;
+		}
+		// Plain JDBC bypasses Hibernate's auto-flush; exercises created in this transaction must exist first
+		entityManager.flush();
+		entityManager.unwrap(Session.class).doWork(connection -> {
+			boolean postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+			try (PreparedStatement statement = connection.prepareStatement(postgres ? POSTGRESQL_UPSERT : MERGE_UPSERT)) {
+				for (LatestExerciseLogEntity row : rows) {
+					statement.setLong(1, row.getId().getUserId());
+					statement.setLong(2, row.getId().getExerciseId());
+					statement.setLong(3, row.getLogId());
+					statement.setTimestamp(4, Timestamp.valueOf(row.getDate()));
+					statement.setBoolean(5, row.isHasFailed());
+					statement.setString(6, SETS.convertToDatabaseColumn(row.getSets()));
+					statement.addBatch();
+				}
+				statement.executeBatch();
+			}
+		});
+	}
+}
@@ -0,0 +1,74 @@
+package com.erodrich.exercises.exerciselogging.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.erodrich.exercises.exerciselogging.entity.LogIngestionEntity;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface LogIngestionRepository extends JpaRepository<LogIngestionEntity, UUID> {
+
+	Optional<LogIngestionEntity> findByIdAndUserId(UUID id, Long userId);
+
+	/**
+	 * Lock the oldest payloads waiting to be saved, in one statement
+	 * ({@code ORDER BY created_at LIMIT n FOR UPDATE SKIP LOCKED} where the database supports it).
+	 * Rows locked by another worker are skipped, so concurrent workers claim disjoint batches;
+	 * rows backing off after a transient failure are skipped until their next attempt is due.
+	 * @param now the current time
+	 * @param limit maximum number of payloads to claim
+	 * @return the payloads claimed by this transaction, oldest first
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+	@Query("""
+			SELECT i FROM LogIngestionEntity i
+			WHERE i.status = com.erodrich.exercises.exerciselogging.entity.LogIngestionEntity.Status.PENDING
+			  AND (i.nextAttemptAt IS NULL OR i.nextAttemptAt <= :now)
+			ORDER BY i.createdAt
+			""")
+	List<LogIngestionEntity> claimPending(@Param("now") LocalDateTime now, Limit limit);
+
+	/**
+	 * Lock the given payloads that are still pending. Rows locked by another worker are skipped
+	 * (FOR UPDATE SKIP LOCKED where the database supports it) instead of waited for.
+	 * @param ids the payload IDs
+	 * @return the payloads claimed by this transaction
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+	@Query("""
+			SELECT i FROM LogIngestionEntity i
+			WHERE i.id IN :ids
+			  AND i.status = com.erodrich.exercises.exerciselogging.entity.LogIngestionEntity.Status.PENDING
+			""")
+	List<LogIngestionEntity> lockPending(@Param("ids") Collection<UUID> ids);
+
+	/**
+	 * Delete payloads processed before a point in time; pending ones are kept
+	 * @param before the cutoff
+	 * @return the number of rows deleted
+	 */
+	@Transactional
+	@Modifying
+	@Query("""
+			DELETE FROM LogIngestionEntity i
+			WHERE i.status <> com.erodrich.exercises.exerciselogging.entity.LogIngestionEntity.Status.PENDING
+			  AND i.processedAt < :before
+			""")
+	int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,109 @@
+package com.erodrich.exercises.exerciselogging.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.erodrich.exercises.catalog.CatalogCache;
+import com.erodrich.exercises.catalog.CatalogChangedEvent;
+import com.erodrich.exercises.exercise.entity.ExerciseEntity;
+import com.erodrich.exercises.exercise.repository.ExerciseRepository;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseDTO;
+import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Resolves all exercise references of a log payload at once.
+ * Catalog queries depend on the number of distinct names, not on the number of logs:
+ * lookups go through {@link CatalogCache}, which issues at most one IN query for muscle groups
+ * and one for exercises, plus one batch insert for new exercises.
+ * New exercises are not cached here since the transaction may still roll back; creating them publishes
+ * a {@link CatalogChangedEvent} so the cached exercise listing is rebuilt once the logs commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExerciseCatalogResolver {
+
+	private final CatalogCache catalogCache;
+	private final ExerciseRepository exerciseRepository;
+	private final ApplicationEventPublisher eventPublisher;
+
+	/**
+	 * Resolve the exercises referenced by a payload, creating the ones that don't exist yet.
+	 * Must run inside the caller's transaction so new exercises roll back with the logs.
+	 *
+	 * @param references the exercise references of the payload, duplicates allowed
+	 * @return the resolved exercises
+	 * @throws IllegalArgumentException if a reference is incomplete or names an unknown muscle group
+	 */
+	public ResolvedCatalog resolve(Collection<ExerciseDTO> references) {
+		Set<ResolvedCatalog.Key> keys = new LinkedHashSet<>();
+		for (ExerciseDTO reference : references) {
+			if (reference == null || reference.getName() == null || reference.getGroup() == null) {
+				throw new IllegalArgumentException("Exercise name and group are required");
+			}
+			keys.add(ResolvedCatalog.key(reference.getGroup(), reference.getName()));
+		}
+		if (keys.isEmpty()) {
+			return new ResolvedCatalog(Map.of());
+		}
+
+		Map<String, MuscleGroupEntity> groups = resolveMuscleGroups(references);
+
+		Map<ResolvedCatalog.Key, CatalogCache.ExerciseKey> exerciseKeys = new HashMap<>();
+		for (ResolvedCatalog.Key key : keys) {
+			exerciseKeys.put(key, new CatalogCache.ExerciseKey(groups.get(key.group()).getId(), key.name()));
+		}
+		Map<CatalogCache.ExerciseKey, ExerciseEntity> existing = catalogCache.findExercises(exerciseKeys.values());
+		Map<ResolvedCatalog.Key, ExerciseEntity> exercises = new HashMap<>();
+		exerciseKeys.forEach((key, exerciseKey) -> {
+			ExerciseEntity exercise = existing.get(exerciseKey);
+			if (exercise != null) {
+				exercises.put(key, exercise);
+			}
+		});
+
+		List<ExerciseEntity> missing = keys.stream()
+				.filter(key -> !exercises.containsKey(key))
+				.map(key -> {
+					ExerciseEntity newExercise = new ExerciseEntity();
+					newExercise.setName(key.name());
+					newExercise.setMuscleGroup(groups.get(key.group()));
+					return newExercise;
+				})
+				.collect(Collectors.toList());
+		if (!missing.isEmpty()) {
+			for (ExerciseEntity created : exerciseRepository.saveAll(missing)) {
+				exercises.put(ResolvedCatalog.key(created.getMuscleGroup().getName(), created.getName()), created);
+			}
+			eventPublisher.publishEvent(CatalogChangedEvent.exercises());
+		}
+
+		return new ResolvedCatalog(exercises);
+	}
+
+	private Map<String, MuscleGroupEntity> resolveMuscleGroups(Collection<ExerciseDTO> references) {
+		// Normalized name -> name as sent, for the error message
+		Map<String, String> groupNames = new HashMap<>();
+		for (ExerciseDTO reference : references) {
+			groupNames.putIfAbsent(ResolvedCatalog.normalizeGroup(reference.getGroup()), reference.getGroup());
+		}
+
+		Map<String, MuscleGroupEntity> groups = catalogCache.findMuscleGroups(groupNames.keySet());
+
+		groupNames.forEach((normalized, asSent) -> {
+			if (!groups.containsKey(normalized)) {
+				throw new IllegalArgumentException("Invalid muscle group: " + asSent);
+			}
+		});
+		return groups;
+	}
+}
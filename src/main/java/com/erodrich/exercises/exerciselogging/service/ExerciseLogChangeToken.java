@@ -0,0 +1,55 @@
+package com.erodrich.exercises.exerciselogging.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque sync token: the position in the user's change feed, ordered by (change_seq, exercise_log_id),
+ * that a client has seen every change up to. Without an ID, every change of the version has been seen;
+ * with one, the changes of the version up to that ID, as at the end of a page that split a write.
+ */
+record ExerciseLogChangeToken(long version, Long afterId) {
+
+	/**
+	 * Position before every change, where a full sync starts
+	 */
+	static final ExerciseLogChangeToken START = new ExerciseLogChangeToken(0, 0L);
+
+	private static final String PREFIX = "v";
+	private static final String SEPARATOR = ":";
+
+	ExerciseLogChangeToken(long version) {
+		this(version, null);
+	}
+
+	static ExerciseLogChangeToken decode(String token) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			if (!raw.startsWith(PREFIX)) {
+				throw new IllegalArgumentException("Invalid token");
+			}
+			int separator = raw.indexOf(SEPARATOR);
+			long version = Long.parseLong(raw.substring(PREFIX.length(), separator < 0 ? raw.length() : separator));
+			Long afterId = separator < 0 ? null : Long.valueOf(raw.substring(separator + 1));
+			if (version < 0 || (afterId != null && afterId < 0)) {
+				throw new IllegalArgumentException("Invalid token");
+			}
+			return new ExerciseLogChangeToken(version, afterId);
+		} catch (IllegalArgumentException e) {
+			// NumberFormatException and Base64 errors are IllegalArgumentExceptions too
+			throw new IllegalArgumentException("Invalid token", e);
+		}
+	}
+
+	/**
+	 * @return the ID the change feed resumes after within {@link #version()}
+	 */
+	long resumeAfterId() {
+		return afterId == null ? Long.MAX_VALUE : afterId;
+	}
+
+	String encode() {
+		String raw = afterId == null ? PREFIX + version : PREFIX + version + SEPARATOR + afterId;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,42 @@
+package com.erodrich.exercises.exerciselogging.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.erodrich.exercises.exerciselogging.entity.ExerciseLogEntity;
+
+/**
+ * Opaque keyset cursor over (date, exercise_log_id).
+ * Points at the last log of a page; the next page starts strictly after it.
+ */
+record ExerciseLogCursor(LocalDateTime date, Long id) {
+
+	private static final String SEPARATOR = "|";
+
+	static ExerciseLogCursor of(ExerciseLogEntity entity) {
+		return new ExerciseLogCursor(entity.getDate(), entity.getId());
+	}
+
+	static ExerciseLogCursor decode(String token) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int separator = raw.indexOf(SEPARATOR);
+			if (separator < 0) {
+				throw new IllegalArgumentException("Invalid cursor");
+			}
+			return new ExerciseLogCursor(
+					LocalDateTime.parse(raw.substring(0, separator)),
+					Long.valueOf(raw.substring(separator + 1)));
+		} catch (DateTimeParseException | IllegalArgumentException e) {
+			// NumberFormatException and Base64 errors are IllegalArgumentExceptions too
+			throw new IllegalArgumentException("Invalid cursor", e);
+		}
+	}
+
+	String encode() {
+		String raw = date + SEPARATOR + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
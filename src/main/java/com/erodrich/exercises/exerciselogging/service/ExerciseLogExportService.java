@@ -0,0 +1,193 @@
+package com.erodrich.exercises.exerciselogging.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.erodrich.exercises.exerciselogging.dto.ExerciseDTO;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseLogDTO;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseSetDTO;
+import com.erodrich.exercises.exerciselogging.mapper.ExerciseLogMapper;
+import com.erodrich.exercises.exerciselogging.repository.ExerciseLogExportRepository;
+import com.erodrich.exercises.exerciselogging.repository.ExerciseLogExportRepository.ExportRow;
+
+import lombok.RequiredArgsConstructor;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Writes a user's complete log history to a stream while it is read from the database.
+ * Only the log being written is held in memory, whatever the size of the history.
+ * CSV output can be imported back through ExerciseLogImportService; a log with several weights
+ * comes back as one log per weight, as the CSV layout has a single weight column.
+ * NDJSON lines are written with the application's JsonMapper, so each one reads like a GET /logs entry.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExerciseLogExportService {
+
+	static final String CSV_HEADER = "timestamp;muscle_group;exercise;weight;sets;comments;failure";
+
+	private final ExerciseLogExportRepository exportRepository;
+	private final ExerciseLogMapper mapper;
+	private final JsonMapper jsonMapper;
+
+	/**
+	 * Export all logs of a user, oldest first.
+	 * The transaction keeps the database cursor open until the last row is written.
+	 *
+	 * @param userId the user ID
+	 * @param format the output format
+	 * @param out the response stream; flushed but not closed
+	 * @throws IOException if writing to the stream fails
+	 */
+	@Transactional(readOnly = true)
+	public void export(Long userId, ExportFormat format, OutputStream out) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		if (format == ExportFormat.CSV) {
+			writer.write(CSV_HEADER);
+			writer.write('\n');
+		}
+
+		LogWriter logWriter = new LogWriter(writer, format);
+		try {
+			exportRepository.streamByUserId(userId, logWriter);
+			logWriter.finish();
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		writer.flush();
+	}
+
+	private void write(Writer writer, ExportFormat format, ExerciseLogDTO log) throws IOException {
+		if (format == ExportFormat.NDJSON) {
+			writer.write(jsonMapper.writeValueAsString(log));
+			writer.write('\n');
+			return;
+		}
+
+		// The CSV layout has one weight per row: consecutive sets with the same weight share a row,
+		// and a log without sets is a row with empty weight and reps
+		List<ExerciseSetDTO> sets = log.getSets();
+		if (sets.isEmpty()) {
+			writeCsvRow(writer, log, null, List.of());
+			return;
+		}
+		int start = 0;
+		for (int i = 1; i <= sets.size(); i++) {
+			if (i == sets.size() || !Objects.equals(sets.get(i).getWeight(), sets.get(start).getWeight())) {
+				writeCsvRow(writer, log, sets.get(start).getWeight(), sets.subList(start, i));
+				start = i;
+			}
+		}
+	}
+
+	private void writeCsvRow(Writer writer, ExerciseLogDTO log, Double weight, List<ExerciseSetDTO> sets)
+			throws IOException {
+		StringBuilder reps = new StringBuilder();
+		for (ExerciseSetDTO set : sets) {
+			if (reps.length() > 0) {
+				reps.append(',');
+			}
+			if (set.getReps() != null) {
+				reps.append(set.getReps());
+			}
+		}
+
+		writer.write(csvValue(log.getTimestamp()));
+		writer.write(';');
+		writer.write(csvValue(log.getExercise().getGroup()));
+		writer.write(';');
+		writer.write(csvValue(log.getExercise().getName()));
+		writer.write(';');
+		writer.write(formatWeight(weight));
+		writer.write(';');
+		writer.write(Integer.toString(sets.size()));
+		writer.write(';');
+		writer.write(reps.toString());
+		writer.write(';');
+		writer.write(Boolean.TRUE.equals(log.getFailure()) ? "Yes" : "No");
+		writer.write('\n');
+	}
+
+	private static String formatWeight(Double weight) {
+		if (weight == null) {
+			return "";
+		}
+		if (weight == Math.rint(weight) && !weight.isInfinite()) {
+			return Long.toString(weight.longValue());
+		}
+		return weight.toString();
+	}
+
+	// CsvLoaderUtil reads quoted fields, but line by line: line breaks can't be kept
+	private static String csvValue(String value) {
+		if (value == null) {
+			return "";
+		}
+		String singleLine = value.replace('\n', ' ').replace('\r', ' ');
+		if (singleLine.indexOf(';') < 0 && singleLine.indexOf('"') < 0) {
+			return singleLine;
+		}
+		return '"' + singleLine.replace("\"", "\"\"") + '"';
+	}
+
+	/**
+	 * Folds consecutive rows of the same log into one DTO and writes it when the next log starts
+	 */
+	private final class LogWriter implements Consumer<ExportRow> {
+
+		private final Writer writer;
+		private final ExportFormat format;
+		private Long logId;
+		private ExerciseLogDTO pending;
+
+		private LogWriter(Writer writer, ExportFormat format) {
+			this.writer = writer;
+			this.format = format;
+		}
+
+		@Override
+		public void accept(ExportRow row) {
+			if (!row.logId().equals(logId)) {
+				finish();
+				logId = row.logId();
+				pending = ExerciseLogDTO.builder()
+						.id(row.logId())
+						.timestamp(mapper.formatTimestamp(row.date()))
+						.exercise(ExerciseDTO.builder()
+								.group(row.muscleGroup())
+								.name(row.exercise())
+								.build())
+						.sets(new ArrayList<>())
+						.failure(row.hasFailed())
+						.build();
+			}
+			if (row.weight() != null || row.reps() != null) {
+				pending.getSets().add(new ExerciseSetDTO(row.weight(), row.reps()));
+			}
+		}
+
+		private void finish() {
+			if (pending == null) {
+				return;
+			}
+			try {
+				write(writer, format, pending);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			pending = null;
+		}
+	}
+}
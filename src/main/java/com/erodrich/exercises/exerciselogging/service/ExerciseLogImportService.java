@@ -0,0 +1,161 @@
+package com.erodrich.exercises.exerciselogging.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.erodrich.exercises.catalog.CatalogCache;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseLogDTO;
+import com.erodrich.exercises.exerciselogging.dto.ImportErrorDTO;
+import com.erodrich.exercises.exerciselogging.dto.ImportReportDTO;
+import com.erodrich.exercises.exerciselogging.mapper.TimestampParser;
+import com.erodrich.exercises.user.service.UserNotFoundException;
+import com.erodrich.exercises.user.service.UserService;
+import com.erodrich.exercises.util.CsvLoaderUtil;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Imports the semicolon CSV format of CsvLoaderUtil line by line.
+ * Valid lines are saved in chunks of {@link #CHUNK_SIZE}, each in its own transaction, so memory
+ * is bounded by one chunk. Invalid lines are skipped; a chunk that fails to save is rolled back alone.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExerciseLogImportService {
+
+	public static final int CHUNK_SIZE = 1000;
+	static final int MAX_REPORTED_ERRORS = 100;
+
+	private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+	private final ExerciseLogService exerciseLogService;
+	private final UserService userService;
+	private final CatalogCache catalogCache;
+
+	/**
+	 * Import a CSV stream into a user's logs.
+	 * The header line is optional; blank lines are ignored.
+	 *
+	 * @param userId the user ID
+	 * @param csv the CSV content, UTF-8; not closed
+	 * @return the import report
+	 * @throws UserNotFoundException if the user doesn't exist
+	 * @throws IOException if reading the stream fails
+	 */
+	public ImportReportDTO importCsv(Long userId, InputStream csv) throws IOException {
+		// Checked once up front, on the primary, rather than failing every chunk
+		if (!userService.existsById(userId)) {
+			throw new UserNotFoundException(userId);
+		}
+
+		Report report = new Report();
+		List<ExerciseLogDTO> chunk = new ArrayList<>(CHUNK_SIZE);
+		long chunkStart = 0;
+		long lineNumber = 0;
+
+		BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+		String line;
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			if (lineNumber == 1) {
+				if (!line.isEmpty() && line.charAt(0) == BYTE_ORDER_MARK) {
+					line = line.substring(1);
+				}
+				if (CsvLoaderUtil.isHeader(line)) {
+					continue;
+				}
+			}
+			if (line.isBlank()) {
+				continue;
+			}
+
+			report.linesRead++;
+			ExerciseLogDTO logDTO;
+			try {
+				logDTO = CsvLoaderUtil.parseLine(line);
+				validateTimestamp(logDTO.getTimestamp());
+				validateExercise(logDTO);
+			} catch (IllegalArgumentException e) {
+				report.reject(lineNumber, lineNumber, 1, e.getMessage());
+				continue;
+			}
+
+			if (chunk.isEmpty()) {
+				chunkStart = lineNumber;
+			}
+			chunk.add(logDTO);
+			if (chunk.size() == CHUNK_SIZE) {
+				saveChunk(userId, chunk, chunkStart, lineNumber, report);
+				chunk.clear();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			saveChunk(userId, chunk, chunkStart, lineNumber, report);
+		}
+
+		return report.toDTO();
+	}
+
+	private void saveChunk(Long userId, List<ExerciseLogDTO> chunk, long fromLine, long toLine, Report report) {
+		try {
+			report.imported += exerciseLogService.saveImportedLogs(userId, chunk);
+		} catch (RuntimeException e) {
+			log.warn("Import chunk for user {} at lines {}-{} failed: {}", userId, fromLine, toLine, e.getMessage());
+			report.reject(fromLine, toLine, chunk.size(), e.getMessage());
+		}
+	}
+
+	// The mapper falls back to the current time, which would silently date a historical line today
+	private static void validateTimestamp(String timestamp) {
+		if (timestamp == null || timestamp.isBlank()) {
+			throw new IllegalArgumentException("Timestamp is required");
+		}
+		if (TimestampParser.parse(timestamp) == null) {
+			throw new IllegalArgumentException("Invalid timestamp: " + timestamp);
+		}
+	}
+
+	// Checked per line so one bad muscle group doesn't reject the whole chunk
+	private void validateExercise(ExerciseLogDTO logDTO) {
+		String name = logDTO.getExercise().getName();
+		String group = logDTO.getExercise().getGroup();
+		if (name == null || name.isBlank()) {
+			throw new IllegalArgumentException("Exercise name is required");
+		}
+		if (catalogCache.findMuscleGroup(group).isEmpty()) {
+			throw new IllegalArgumentException("Invalid muscle group: " + group);
+		}
+	}
+
+	private static final class Report {
+		private long linesRead;
+		private long imported;
+		private long failedLines;
+		private final List<ImportErrorDTO> errors = new ArrayList<>();
+
+		private void reject(long fromLine, long toLine, int lines, String message) {
+			failedLines += lines;
+			if (errors.size() < MAX_REPORTED_ERRORS) {
+				errors.add(new ImportErrorDTO(fromLine, toLine, message));
+			}
+		}
+
+		private ImportReportDTO toDTO() {
+			return ImportReportDTO.builder()
+					.linesRead(linesRead)
+					.imported(imported)
+					.failedLines(failedLines)
+					.errors(errors)
+					.build();
+		}
+	}
+}
@@ -1,27 +1,30 @@
 package com.erodrich.exercises.exerciselogging.service;
 
-import java.util.HashSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.erodrich.exercises.exercise.entity.ExerciseEntity;
-import com.erodrich.exercises.exercise.repository.ExerciseRepository;
-import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
-import com.erodrich.exercises.musclegroup.repository.MuscleGroupRepository;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseLogChangesDTO;
 import com.erodrich.exercises.exerciselogging.dto.ExerciseLogDTO;
-import com.erodrich.exercises.exerciselogging.dto.ExerciseSetDTO;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseLogPageDTO;
 import com.erodrich.exercises.exerciselogging.entity.ExerciseLogEntity;
-import com.erodrich.exercises.exerciselogging.entity.ExerciseSetEntity;
+import com.erodrich.exercises.exerciselogging.entity.ExerciseLogTombstoneEntity;
 import com.erodrich.exercises.exerciselogging.mapper.ExerciseLogMapper;
 import com.erodrich.exercises.exerciselogging.repository.ExerciseLogRepository;
-import com.erodrich.exercises.exerciselogging.repository.ExerciseSetRepository;
+import com.erodrich.exercises.exerciselogging.repository.ExerciseLogTombstoneRepository;
 import com.erodrich.exercises.user.entity.UserEntity;
 import com.erodrich.exercises.user.repository.UserRepository;
+import com.erodrich.exercises.user.service.UserDataVersionService;
+import com.erodrich.exercises.user.service.UserNotFoundException;
 
 import lombok.RequiredArgsConstructor;
 
@@ -29,80 +32,269 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ExerciseLogService {
 
+	public static final int DEFAULT_PAGE_SIZE = 50;
+	public static final int MAX_PAGE_SIZE = 200;
+	public static final int MAX_LATEST_EXERCISES = 100;
+
 	private final ExerciseLogRepository exerciseLogRepository;
-	private final ExerciseRepository exerciseRepository;
-	private final ExerciseSetRepository exerciseSetRepository;
+	private final ExerciseLogTombstoneRepository tombstoneRepository;
 	private final UserRepository userRepository;
 	private final ExerciseLogMapper mapper;
-	private final MuscleGroupRepository muscleGroupRepository;
+	private final ExerciseCatalogResolver catalogResolver;
+	private final LatestExerciseLogService latestLogService;
+	private final UserDataVersionService dataVersionService;
 
+	/**
+	 * Save logs of a user. The user is attached by reference, without loading it; the data version
+	 * bump runs before the insert and finds an unknown user (admins may post for any user ID).
+	 *
+	 * @param userId the user ID
+	 * @param logDTOs the logs
+	 * @return the saved logs
+	 * @throws IllegalArgumentException if an exercise reference is invalid
+	 * @throws UserNotFoundException if the user does not exist
+	 */
 	@Transactional
 	public List<ExerciseLogDTO> saveLogs(Long userId, List<ExerciseLogDTO> logDTOs) {
-		UserEntity user = userRepository.findById(userId)
-				.orElseThrow(() -> new IllegalArgumentException("User not found"));
+		UserEntity user = userRepository.getReferenceById(userId);
 		
-		List<ExerciseLogEntity> entities = logDTOs.stream()
-				.map(dto -> convertAndPrepareEntity(dto, user))
-				.collect(Collectors.toList());
-
+		List<ExerciseLogEntity> entities = toEntities(logDTOs, user);
+		stamp(entities, dataVersionService.bump(userId));
 		List<ExerciseLogEntity> savedEntities = exerciseLogRepository.saveAll(entities);
+		latestLogService.record(userId, savedEntities);
 
 		return savedEntities.stream()
 				.map(mapper::toDTO)
 				.collect(Collectors.toList());
 	}
 
+	/**
+	 * Persist one chunk of imported logs, or the queued payloads of one user, in the caller's transaction
+	 * or a new one. Unlike {@link #saveLogs}, the saved logs are not mapped back to DTOs.
+	 *
+	 * @param userId the user ID
+	 * @param logDTOs the logs of the chunk
+	 * @return the number of logs saved
+	 * @throws IllegalArgumentException if an exercise reference is invalid
+	 * @throws UserNotFoundException if the user does not exist
+	 */
+	@Transactional
+	public int saveImportedLogs(Long userId, List<ExerciseLogDTO> logDTOs) {
+		UserEntity user = userRepository.getReferenceById(userId);
+		List<ExerciseLogEntity> entities = toEntities(logDTOs, user);
+		stamp(entities, dataVersionService.bump(userId));
+		latestLogService.record(userId, exerciseLogRepository.saveAll(entities));
+		return logDTOs.size();
+	}
+
+	/**
+	 * Delete one of a user's logs, leaving a tombstone for {@link #getChanges} and
+	 * repointing the latest log of its exercise if it was the latest
+	 *
+	 * @param userId the user ID
+	 * @param logId the log ID
+	 * @return false if the user has no such log
+	 */
+	@Transactional
+	public boolean deleteLog(Long userId, Long logId) {
+		Optional<ExerciseLogEntity> log = exerciseLogRepository.findByIdAndUserId(logId, userId);
+		if (log.isEmpty()) {
+			return false;
+		}
+
+		long changeSeq = dataVersionService.bump(userId);
+		exerciseLogRepository.delete(log.get());
+		tombstoneRepository.save(new ExerciseLogTombstoneEntity(logId, userId, changeSeq, LocalDateTime.now()));
+		latestLogService.forget(userId, log.get());
+		return true;
+	}
+
+	/**
+	 * Get one page of the logs saved and deleted since a token from a previous call, so a client can resync
+	 * without downloading its whole history again. Changes come oldest first, ordered by (change_seq, id);
+	 * while hasMore is set, call again with the returned token for the next page.
+	 *
+	 * @param userId the user ID
+	 * @param since token from a previous call, or null for a full sync from the first change
+	 * @param limit page size, defaults to {@link #DEFAULT_PAGE_SIZE} and is capped at {@link #MAX_PAGE_SIZE}
+	 * @return the changes with the token to pass next time
+	 * @throws IllegalArgumentException if the token or the limit is invalid
+	 */
 	@Transactional(readOnly = true)
-	public List<ExerciseLogDTO> getAllLogs(Long userId) {
-		return exerciseLogRepository.findByUserId(userId).stream()
-				.map(mapper::toDTO)
-				.collect(Collectors.toList());
+	public ExerciseLogChangesDTO getChanges(Long userId, String since, Integer limit) {
+		int pageSize = resolvePageSize(limit);
+		ExerciseLogChangeToken after = since == null || since.isBlank()
+				? ExerciseLogChangeToken.START
+				: ExerciseLogChangeToken.decode(since);
+
+		// Read before the rows: writes hold the user's row until they commit, so every change stamped up to
+		// this version is visible below. Rows are bounded by it, and later changes wait for the next call.
+		long version = userRepository.findDataVersionById(userId).orElse(0L);
+
+		// Fetch one extra row of each kind to know whether the feed goes on after the page
+		Limit fetchLimit = Limit.of(pageSize + 1);
+		List<ExerciseLogEntity> logs = exerciseLogRepository.findChangedAfter(
+				userId, after.version(), after.resumeAfterId(), version, fetchLimit);
+		List<ExerciseLogTombstoneEntity> tombstones = tombstoneRepository.findDeletedAfter(
+				userId, after.version(), after.resumeAfterId(), version, fetchLimit);
+
+		// Merge both feeds on (change_seq, id) up to the page size
+		List<ExerciseLogEntity> changed = new ArrayList<>();
+		List<Long> deleted = new ArrayList<>();
+		ExerciseLogChangeToken last = after;
+		int nextLog = 0;
+		int nextTombstone = 0;
+		while (changed.size() + deleted.size() < pageSize
+				&& (nextLog < logs.size() || nextTombstone < tombstones.size())) {
+			ExerciseLogEntity log = nextLog < logs.size() ? logs.get(nextLog) : null;
+			ExerciseLogTombstoneEntity tombstone = nextTombstone < tombstones.size() ? tombstones.get(nextTombstone) : null;
+			if (tombstone == null || (log != null && (log.getChangeSeq() < tombstone.getChangeSeq()
+					|| (log.getChangeSeq() == tombstone.getChangeSeq() && log.getId() < tombstone.getId())))) {
+				changed.add(log);
+				last = new ExerciseLogChangeToken(log.getChangeSeq(), log.getId());
+				nextLog++;
+			} else {
+				deleted.add(tombstone.getId());
+				last = new ExerciseLogChangeToken(tombstone.getChangeSeq(), tombstone.getId());
+				nextTombstone++;
+			}
+		}
+		boolean hasMore = nextLog < logs.size() || nextTombstone < tombstones.size();
+
+		if (!changed.isEmpty()) {
+			// Initializes the sets of the page's managed entities with a single IN query
+			exerciseLogRepository.fetchSets(changed.stream()
+					.map(ExerciseLogEntity::getId)
+					.collect(Collectors.toList()));
+		}
+		// Once caught up, the token covers the whole version; a token ahead of it (read from a lagging
+		// replica) is handed back unchanged
+		ExerciseLogChangeToken next = hasMore ? last
+				: after.version() > version ? after : new ExerciseLogChangeToken(version);
+
+		return ExerciseLogChangesDTO.builder()
+				.changed(changed.stream()
+						.map(mapper::toDTO)
+						.collect(Collectors.toList()))
+				.deleted(deleted)
+				.token(next.encode())
+				.hasMore(hasMore)
+				.build();
 	}
 
+	/**
+	 * Get one page of a user's logs, newest first, using keyset pagination on (date, id)
+	 *
+	 * @param userId the user ID
+	 * @param cursor opaque cursor from a previous page, or null for the first page
+	 * @param limit page size, defaults to {@link #DEFAULT_PAGE_SIZE} and is capped at {@link #MAX_PAGE_SIZE}
+	 * @return the page with the cursor of the next one
+	 * @throws IllegalArgumentException if the cursor or the limit is invalid
+	 */
 	@Transactional(readOnly = true)
-	public Optional<ExerciseLogDTO> getLatestLogForExercise(Long userId, Long exerciseId) {
-		return exerciseLogRepository.findFirstByUserIdAndExerciseIdOrderByDateDesc(userId, exerciseId)
-				.map(mapper::toDTO);
+	public ExerciseLogPageDTO getLogsPage(Long userId, String cursor, Integer limit) {
+		int pageSize = resolvePageSize(limit);
+		// Fetch one extra row to know whether an older page exists
+		Limit fetchLimit = Limit.of(pageSize + 1);
+
+		List<ExerciseLogEntity> rows;
+		if (cursor == null || cursor.isBlank()) {
+			rows = exerciseLogRepository.findByUserIdOrderByDateDescIdDesc(userId, fetchLimit);
+		} else {
+			ExerciseLogCursor after = ExerciseLogCursor.decode(cursor);
+			rows = exerciseLogRepository.findByUserIdBefore(userId, after.date(), after.id(), fetchLimit);
+		}
+
+		boolean hasMore = rows.size() > pageSize;
+		List<ExerciseLogEntity> page = hasMore ? rows.subList(0, pageSize) : rows;
+		if (!page.isEmpty()) {
+			// Initializes the sets of the page's managed entities with a single IN query
+			exerciseLogRepository.fetchSets(page.stream()
+					.map(ExerciseLogEntity::getId)
+					.collect(Collectors.toList()));
+		}
+		String nextCursor = hasMore ? ExerciseLogCursor.of(page.getLast()).encode() : null;
+
+		return ExerciseLogPageDTO.builder()
+				.logs(page.stream()
+						.map(mapper::toDTO)
+						.collect(Collectors.toList()))
+				.nextCursor(nextCursor)
+				.build();
 	}
 
-	private ExerciseLogEntity convertAndPrepareEntity(ExerciseLogDTO dto, UserEntity user) {
-		ExerciseLogEntity logEntity = mapper.toEntity(dto);
-		logEntity.setUser(user);
+	/**
+	 * Get the newest log of a user for an exercise from the latest_exercise_log projection
+	 *
+	 * @param userId the user ID
+	 * @param exerciseId the exercise ID
+	 * @return the latest log, or empty if the user never logged the exercise
+	 */
+	public Optional<ExerciseLogDTO> getLatestLogForExercise(Long userId, Long exerciseId) {
+		return latestLogService.find(userId, exerciseId);
+	}
 
-		// Look up muscle group
-		MuscleGroupEntity muscleGroup = muscleGroupRepository
-				.findByNameIgnoreCase(dto.getExercise().getGroup())
-				.orElseThrow(() -> new IllegalArgumentException(
-						"Invalid muscle group: " + dto.getExercise().getGroup()));
-		
-		// Find or create exercise
-		ExerciseEntity exercise = findOrCreateExercise(
-				dto.getExercise().getName(),
-				muscleGroup
-		);
-		logEntity.setExercise(exercise);
-
-		// Persist sets first
-		Set<ExerciseSetEntity> persistedSets = new HashSet<>();
-		for (ExerciseSetDTO setDTO : dto.getSets()) {
-			ExerciseSetEntity setEntity = new ExerciseSetEntity();
-			setEntity.setWeight(setDTO.getWeight());
-			setEntity.setReps(setDTO.getReps());
-			ExerciseSetEntity savedSet = exerciseSetRepository.save(setEntity);
-			persistedSets.add(savedSet);
+	/**
+	 * Get the newest log of a user for several exercises with one query
+	 *
+	 * @param userId the user ID
+	 * @param exerciseIds the exercise IDs, at most {@link #MAX_LATEST_EXERCISES}
+	 * @return exercise ID to latest log, in request order; exercises never logged are left out
+	 * @throws IllegalArgumentException if no ID or too many IDs are given
+	 */
+	public Map<Long, ExerciseLogDTO> getLatestLogsForExercises(Long userId, List<Long> exerciseIds) {
+		if (exerciseIds == null || exerciseIds.isEmpty()) {
+			throw new IllegalArgumentException("At least one exercise ID is required");
+		}
+		Set<Long> distinctIds = new LinkedHashSet<>(exerciseIds);
+		if (distinctIds.size() > MAX_LATEST_EXERCISES) {
+			throw new IllegalArgumentException("At most " + MAX_LATEST_EXERCISES + " exercise IDs are allowed");
 		}
-		logEntity.setSets(persistedSets);
+		return latestLogService.findAll(userId, distinctIds);
+	}
+
+	/**
+	 * Get the newest log of a user for every exercise of a muscle group with one query
+	 *
+	 * @param userId the user ID
+	 * @param muscleGroup the muscle group name, case-insensitive
+	 * @return exercise ID to latest log, ordered by exercise name
+	 */
+	public Map<Long, ExerciseLogDTO> getLatestLogsForMuscleGroup(Long userId, String muscleGroup) {
+		return latestLogService.findByMuscleGroup(userId, muscleGroup);
+	}
+
+	private List<ExerciseLogEntity> toEntities(List<ExerciseLogDTO> logDTOs, UserEntity user) {
+		// Resolve every distinct exercise of the payload once instead of once per log
+		ResolvedCatalog catalog = catalogResolver.resolve(logDTOs.stream()
+				.map(ExerciseLogDTO::getExercise)
+				.collect(Collectors.toList()));
+
+		return logDTOs.stream()
+				.map(dto -> convertAndPrepareEntity(dto, user, catalog))
+				.collect(Collectors.toList());
+	}
 
+	// Every log of a write carries the user's data version of that write
+	private static void stamp(List<ExerciseLogEntity> entities, long changeSeq) {
+		entities.forEach(entity -> entity.setChangeSeq(changeSeq));
+	}
+
+	private ExerciseLogEntity convertAndPrepareEntity(ExerciseLogDTO dto, UserEntity user, ResolvedCatalog catalog) {
+		ExerciseLogEntity logEntity = mapper.toEntity(dto, catalog.exerciseFor(dto.getExercise()));
+		logEntity.setUser(user);
+
+		// Sets built by the mapper are cascaded with the log and flushed in JDBC batches
 		return logEntity;
 	}
 
-	private ExerciseEntity findOrCreateExercise(String name, MuscleGroupEntity muscleGroup) {
-		return exerciseRepository.findByNameAndMuscleGroup(name, muscleGroup)
-				.orElseGet(() -> {
-					ExerciseEntity newExercise = new ExerciseEntity();
-					newExercise.setName(name);
-					newExercise.setMuscleGroup(muscleGroup);
-					return exerciseRepository.save(newExercise);
-				});
+	private int resolvePageSize(Integer limit) {
+		if (limit == null) {
+			return DEFAULT_PAGE_SIZE;
+		}
+		if (limit < 1) {
+			throw new IllegalArgumentException("Limit must be positive");
+		}
+		return Math.min(limit, MAX_PAGE_SIZE);
 	}
 }
@@ -0,0 +1,44 @@
+package com.erodrich.exercises.exerciselogging.service;
+
+import java.util.Locale;
+
+/**
+ * Formats supported by the log history export
+ */
+public enum ExportFormat {
+	/** One ExerciseLogDTO JSON document per line */
+	NDJSON("application/x-ndjson", "ndjson"),
+	/** Semicolon-separated layout read by CsvLoaderUtil */
+	CSV("text/csv;charset=UTF-8", "csv");
+
+	private final String contentType;
+	private final String extension;
+
+	ExportFormat(String contentType, String extension) {
+		this.contentType = contentType;
+		this.extension = extension;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	/**
+	 * Parse a format request parameter (case-insensitive)
+	 *
+	 * @param value the parameter value
+	 * @return the format
+	 * @throws IllegalArgumentException if the format is not supported
+	 */
+	public static ExportFormat from(String value) {
+		try {
+			return valueOf(value.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException | NullPointerException e) {
+			throw new IllegalArgumentException("Unsupported export format: " + value);
+		}
+	}
+}
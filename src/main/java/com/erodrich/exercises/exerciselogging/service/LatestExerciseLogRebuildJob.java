@@ -0,0 +1,53 @@
+package com.erodrich.exercises.exerciselogging.service;
+
+import org.springframework.stereotype.Component;
+
+import com.erodrich.exercises.exerciselogging.repository.ExerciseLogRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Backfills the latest_exercise_log projection from existing logs, one transaction per user.
+ * A user whose rebuild fails keeps their rows as they were and the job moves on to the next user.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LatestExerciseLogRebuildJob {
+
+	private final ExerciseLogRepository exerciseLogRepository;
+	private final LatestExerciseLogService latestLogService;
+
+	/**
+	 * Rebuild the projection of every user with logs
+	 *
+	 * @return the rows written and the users rebuilt and failed
+	 */
+	public Result rebuildAll() {
+		long rows = 0;
+		int users = 0;
+		int failedUsers = 0;
+		for (Long userId : exerciseLogRepository.findUserIds()) {
+			try {
+				rows += latestLogService.rebuild(userId);
+				users++;
+			} catch (RuntimeException e) {
+				log.warn("Could not rebuild latest exercise logs of user {}", userId, e);
+				failedUsers++;
+			}
+		}
+		log.info("Rebuilt latest exercise logs: {} rows for {} users, {} users failed", rows, users, failedUsers);
+		return new Result(rows, users, failedUsers);
+	}
+
+	/**
+	 * Outcome of {@link #rebuildAll}
+	 *
+	 * @param rows the number of rows written
+	 * @param users the number of users rebuilt
+	 * @param failedUsers the number of users whose rebuild failed
+	 */
+	public record Result(long rows, int users, int failedUsers) {
+	}
+}
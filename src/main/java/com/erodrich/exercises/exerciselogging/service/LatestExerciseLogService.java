@@ -0,0 +1,177 @@
+package com.erodrich.exercises.exerciselogging.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.erodrich.exercises.exerciselogging.dto.ExerciseLogDTO;
+import com.erodrich.exercises.exerciselogging.entity.ExerciseLogEntity;
+import com.erodrich.exercises.exerciselogging.entity.LatestExerciseLogEntity;
+import com.erodrich.exercises.exerciselogging.entity.LatestExerciseLogId;
+import com.erodrich.exercises.exerciselogging.mapper.ExerciseLogMapper;
+import com.erodrich.exercises.exerciselogging.repository.ExerciseLogRepository;
+import com.erodrich.exercises.exerciselogging.repository.LatestExerciseLogRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Maintains the latest_exercise_log projection: one row per (user, exercise) copying the newest log,
+ * so "latest log" reads are a primary key lookup instead of a sort over the user's history.
+ */
+@Service
+@RequiredArgsConstructor
+public class LatestExerciseLogService {
+
+	// Newest by date, ties broken by the higher log ID
+	private static final Comparator<ExerciseLogEntity> BY_RECENCY = Comparator
+			.comparing(ExerciseLogEntity::getDate)
+			.thenComparing(ExerciseLogEntity::getId);
+
+	private final LatestExerciseLogRepository latestLogRepository;
+	private final ExerciseLogRepository exerciseLogRepository;
+	private final ExerciseLogMapper mapper;
+
+	/**
+	 * Upsert the projection with logs just saved, in the caller's transaction.
+	 * Only logs newer than the stored row of their exercise replace it, so older imported logs are ignored.
+	 * The comparison happens in the upsert statement, so concurrent saves of the same exercise are safe.
+	 *
+	 * @param userId the user ID
+	 * @param savedLogs the saved logs, with IDs assigned
+	 */
+	@Transactional
+	public void record(Long userId, Collection<ExerciseLogEntity> savedLogs) {
+		// Sorted by exercise so concurrent saves lock the rows in the same order
+		Map<Long, ExerciseLogEntity> newestByExercise = savedLogs.stream()
+				.collect(Collectors.toMap(
+						log -> log.getExercise().getId(),
+						Function.identity(),
+						(a, b) -> BY_RECENCY.compare(a, b) >= 0 ? a : b,
+						TreeMap::new));
+		if (newestByExercise.isEmpty()) {
+			return;
+		}
+
+		List<LatestExerciseLogEntity> rows = new ArrayList<>();
+		newestByExercise.forEach((exerciseId, log) -> {
+			LatestExerciseLogEntity row = new LatestExerciseLogEntity();
+			row.setId(new LatestExerciseLogId(userId, exerciseId));
+			mapper.copyToLatest(log, row);
+			rows.add(row);
+		});
+		latestLogRepository.upsertIfNewer(rows);
+	}
+
+	/**
+	 * Repoint the projection after a log was deleted, in the caller's transaction.
+	 * Only a row copying the deleted log changes: it takes the next newest log of the exercise, or goes away.
+	 *
+	 * @param userId the user ID
+	 * @param deletedLog the log just deleted
+	 */
+	@Transactional
+	public void forget(Long userId, ExerciseLogEntity deletedLog) {
+		if (deletedLog.getExercise() == null) {
+			return;
+		}
+		Long exerciseId = deletedLog.getExercise().getId();
+		latestLogRepository.findById(new LatestExerciseLogId(userId, exerciseId))
+				.filter(row -> row.getLogId().equals(deletedLog.getId()))
+				.ifPresent(row -> exerciseLogRepository.findFirstByUserIdAndExerciseIdOrderByDateDescIdDesc(userId, exerciseId)
+						.ifPresentOrElse(
+								// Managed row, flushed by dirty checking
+								next -> mapper.copyToLatest(next, row),
+								() -> latestLogRepository.delete(row)));
+	}
+
+	@Transactional(readOnly = true)
+	public Optional<ExerciseLogDTO> find(Long userId, Long exerciseId) {
+		return latestLogRepository.findByUserIdAndExerciseId(userId, exerciseId)
+				.map(mapper::fromLatest);
+	}
+
+	/**
+	 * Latest logs of several exercises in one query
+	 *
+	 * @param userId the user ID
+	 * @param exerciseIds the exercise IDs
+	 * @return exercise ID to latest log, in the order of exerciseIds; exercises never logged are left out
+	 */
+	@Transactional(readOnly = true)
+	public Map<Long, ExerciseLogDTO> findAll(Long userId, Collection<Long> exerciseIds) {
+		Map<Long, LatestExerciseLogEntity> rows = new HashMap<>();
+		for (LatestExerciseLogEntity row : latestLogRepository.findByUserIdAndExerciseIdIn(userId, exerciseIds)) {
+			rows.put(row.getId().getExerciseId(), row);
+		}
+
+		Map<Long, ExerciseLogDTO> latest = new LinkedHashMap<>();
+		for (Long exerciseId : exerciseIds) {
+			LatestExerciseLogEntity row = rows.get(exerciseId);
+			if (row != null) {
+				latest.put(exerciseId, mapper.fromLatest(row));
+			}
+		}
+		return latest;
+	}
+
+	/**
+	 * Latest logs of every exercise of a muscle group in one query
+	 *
+	 * @param userId the user ID
+	 * @param muscleGroup the muscle group name, case-insensitive
+	 * @return exercise ID to latest log, ordered by exercise name
+	 */
+	@Transactional(readOnly = true)
+	public Map<Long, ExerciseLogDTO> findByMuscleGroup(Long userId, String muscleGroup) {
+		return latestLogRepository.findByUserIdAndMuscleGroup(userId, muscleGroup).stream()
+				.sorted(Comparator.comparing(row -> row.getExercise().getName()))
+				.collect(Collectors.toMap(
+						row -> row.getId().getExerciseId(),
+						mapper::fromLatest,
+						(a, b) -> a,
+						LinkedHashMap::new));
+	}
+
+	/**
+	 * Recompute a user's projection rows from their logs. Rows are written with the upsert of
+	 * {@link #record}, so a save of the same user committing meanwhile neither collides on the key
+	 * nor is overwritten by an older log.
+	 *
+	 * @param userId the user ID
+	 * @return the number of rows written
+	 */
+	@Transactional
+	public int rebuild(Long userId) {
+		latestLogRepository.deleteByUserId(userId);
+
+		List<ExerciseLogEntity> latest = exerciseLogRepository.findLatestPerExerciseByUserId(userId);
+		if (latest.isEmpty()) {
+			return 0;
+		}
+		exerciseLogRepository.fetchSets(latest.stream()
+				.map(ExerciseLogEntity::getId)
+				.collect(Collectors.toList()));
+
+		List<LatestExerciseLogEntity> rows = latest.stream()
+				.map(log -> {
+					LatestExerciseLogEntity row = new LatestExerciseLogEntity();
+					row.setId(new LatestExerciseLogId(userId, log.getExercise().getId()));
+					mapper.copyToLatest(log, row);
+					return row;
+				})
+				.collect(Collectors.toList());
+		latestLogRepository.upsertIfNewer(rows);
+		return rows.size();
+	}
+}
@@ -0,0 +1,22 @@
+package com.erodrich.exercises.exerciselogging.service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Thrown when a claimed batch of ingestions could not be saved; its transaction has rolled back.
+ * Carries the IDs that were claimed so the worker can retry them one by one.
+ */
+public class LogIngestionBatchException extends RuntimeException {
+
+	private final List<UUID> ingestionIds;
+
+	public LogIngestionBatchException(List<UUID> ingestionIds, RuntimeException cause) {
+		super(cause.getMessage(), cause);
+		this.ingestionIds = List.copyOf(ingestionIds);
+	}
+
+	public List<UUID> getIngestionIds() {
+		return ingestionIds;
+	}
+}
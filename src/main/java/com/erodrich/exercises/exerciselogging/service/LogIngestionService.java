@@ -0,0 +1,320 @@
+package com.erodrich.exercises.exerciselogging.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.erodrich.exercises.catalog.CatalogCache;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseLogDTO;
+import com.erodrich.exercises.exerciselogging.dto.LogIngestionDTO;
+import com.erodrich.exercises.exerciselogging.entity.LogIngestionEntity;
+import com.erodrich.exercises.exerciselogging.mapper.ExerciseLogMapper;
+import com.erodrich.exercises.exerciselogging.repository.LogIngestionRepository;
+import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
+import com.erodrich.exercises.user.repository.UserRepository;
+import com.erodrich.exercises.user.service.UserNotFoundException;
+
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Write-behind mode of POST /logs: the payload is checked, stored in the log_ingestions table and
+ * acknowledged; {@link LogIngestionWorker} later saves pending payloads of many users per transaction.
+ * Payloads are stored and read back with the application's JsonMapper, the one that read the request body,
+ * so a queued log is saved as the synchronous path would have saved it.
+ */
+@Slf4j
+@Service
+public class LogIngestionService {
+
+	public static final int MAX_LOGS = 1000;
+
+	private static final TypeReference<List<ExerciseLogDTO>> LOG_LIST = new TypeReference<>() {
+	};
+	private static final int ERROR_LENGTH = 500;
+
+	private final LogIngestionRepository ingestionRepository;
+	private final UserRepository userRepository;
+	private final ExerciseLogService exerciseLogService;
+	private final CatalogCache catalogCache;
+	private final ExerciseLogMapper mapper;
+	private final JsonMapper jsonMapper;
+	private final boolean enabled;
+	private final Duration retention;
+	private final int maxAttempts;
+	private final Duration retryBackoff;
+
+	public LogIngestionService(LogIngestionRepository ingestionRepository, UserRepository userRepository,
+			ExerciseLogService exerciseLogService, CatalogCache catalogCache, ExerciseLogMapper mapper, JsonMapper jsonMapper,
+			@Value("${app.ingestion.async.enabled:false}") boolean enabled,
+			@Value("${app.ingestion.retention:1d}") Duration retention,
+			@Value("${app.ingestion.max-attempts:5}") int maxAttempts,
+			@Value("${app.ingestion.retry-backoff:1s}") Duration retryBackoff) {
+		this.ingestionRepository = ingestionRepository;
+		this.userRepository = userRepository;
+		this.exerciseLogService = exerciseLogService;
+		this.catalogCache = catalogCache;
+		this.mapper = mapper;
+		this.jsonMapper = jsonMapper;
+		this.enabled = enabled;
+		this.retention = retention;
+		this.maxAttempts = maxAttempts;
+		this.retryBackoff = retryBackoff;
+	}
+
+	/**
+	 * Whether POST /logs may answer Prefer: respond-async with 202; otherwise it saves synchronously
+	 *
+	 * @return true if async ingestion is enabled
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Check whether a Prefer header asks for asynchronous processing (RFC 7240)
+	 *
+	 * @param prefer the header value, may be null
+	 * @return true if it contains the respond-async preference
+	 */
+	public static boolean prefersAsync(String prefer) {
+		if (prefer == null) {
+			return false;
+		}
+		for (String preference : prefer.split(",")) {
+			String token = preference.split(";")[0].trim();
+			if (token.equalsIgnoreCase("respond-async")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Check logs and queue them for background saving
+	 *
+	 * @param userId the user ID
+	 * @param logDTOs the logs
+	 * @return the queued ingestion
+	 * @throws IllegalArgumentException if the payload is empty, too large, or has an invalid exercise reference
+	 * @throws UserNotFoundException if the user does not exist
+	 */
+	@Transactional
+	public LogIngestionDTO enqueue(Long userId, List<ExerciseLogDTO> logDTOs) {
+		validate(logDTOs);
+		String payload;
+		try {
+			payload = jsonMapper.writeValueAsString(logDTOs);
+		} catch (JacksonException e) {
+			throw new IllegalArgumentException("Invalid logs", e);
+		}
+		if (payload.length() > LogIngestionEntity.PAYLOAD_LENGTH) {
+			throw new IllegalArgumentException("Payload too large");
+		}
+		if (!userRepository.existsById(userId)) {
+			throw new UserNotFoundException(userId);
+		}
+
+		LogIngestionEntity ingestion = new LogIngestionEntity();
+		ingestion.setUserId(userId);
+		ingestion.setPayload(payload);
+		ingestion.setLogCount(logDTOs.size());
+		ingestion.setCreatedAt(LocalDateTime.now());
+		return toDTO(ingestionRepository.save(ingestion));
+	}
+
+	/**
+	 * Get the state of one of a user's ingestions. Read from the primary, not a replica,
+	 * since clients poll right after the 202 and a lagging replica would answer 404.
+	 *
+	 * @param userId the user ID
+	 * @param ingestionId the ingestion ID
+	 * @return the ingestion, or empty if the user has no such ingestion (or it was cleaned up)
+	 */
+	@Transactional
+	public Optional<LogIngestionDTO> find(Long userId, UUID ingestionId) {
+		return ingestionRepository.findByIdAndUserId(ingestionId, userId).map(this::toDTO);
+	}
+
+	/**
+	 * Claim the oldest pending ingestions not held by another worker and save their logs, all in this
+	 * one transaction: one data version bump and one catalog resolution per user. Claiming is a single
+	 * locking statement on the primary, so concurrent workers get disjoint batches and new ingestions
+	 * are picked up without waiting for replication.
+	 * If any payload fails, nothing is saved and the claims are released.
+	 *
+	 * @param limit maximum number of ingestions to claim
+	 * @return the number of ingestions saved, 0 if none are pending
+	 * @throws LogIngestionBatchException if the batch failed, with the IDs to retry one by one
+	 */
+	@Transactional
+	public int processPending(int limit) {
+		List<LogIngestionEntity> claimed = ingestionRepository.claimPending(LocalDateTime.now(), Limit.of(limit));
+		try {
+			save(claimed);
+			// Surface constraint violations here rather than at commit, so they carry the claimed IDs
+			ingestionRepository.flush();
+		} catch (RuntimeException e) {
+			throw new LogIngestionBatchException(claimed.stream().map(LogIngestionEntity::getId).toList(), e);
+		}
+		return claimed.size();
+	}
+
+	/**
+	 * Save the logs of the given ingestions that are still pending and not claimed by another worker,
+	 * in one transaction. Used to retry the ingestions of a failed batch one by one.
+	 *
+	 * @param ingestionIds the ingestion IDs
+	 * @return the number of ingestions saved
+	 */
+	@Transactional
+	public int processBatch(Collection<UUID> ingestionIds) {
+		List<LogIngestionEntity> claimed = ingestionRepository.lockPending(ingestionIds);
+		save(claimed);
+		return claimed.size();
+	}
+
+	/**
+	 * Mark an ingestion as failed, in its own transaction since the one that failed has rolled back.
+	 * Does nothing if it is no longer pending or another worker holds it.
+	 *
+	 * @param ingestionId the ingestion ID
+	 * @param error why the logs could not be saved
+	 */
+	@Transactional
+	public void markFailed(UUID ingestionId, String error) {
+		ingestionRepository.lockPending(List.of(ingestionId))
+				.forEach(ingestion -> {
+					ingestion.setStatus(LogIngestionEntity.Status.FAILED);
+					ingestion.setError(truncate(error));
+					ingestion.setProcessedAt(LocalDateTime.now());
+				});
+	}
+
+	/**
+	 * Leave an ingestion pending after a transient database error, in its own transaction like
+	 * {@link #markFailed}. The next attempt waits app.ingestion.retry-backoff, doubled on every failure;
+	 * after app.ingestion.max-attempts failed attempts the ingestion is marked FAILED instead.
+	 * Does nothing if it is no longer pending or another worker holds it.
+	 *
+	 * @param ingestionId the ingestion ID
+	 * @param error why the attempt failed
+	 * @return false if the ingestion was marked FAILED
+	 */
+	@Transactional
+	public boolean markRetry(UUID ingestionId, String error) {
+		boolean retry = true;
+		LocalDateTime now = LocalDateTime.now();
+		for (LogIngestionEntity ingestion : ingestionRepository.lockPending(List.of(ingestionId))) {
+			int attempts = ingestion.getAttempts() + 1;
+			ingestion.setAttempts(attempts);
+			if (attempts >= maxAttempts) {
+				ingestion.setStatus(LogIngestionEntity.Status.FAILED);
+				ingestion.setError(truncate("Gave up after " + attempts + " attempts: " + error));
+				ingestion.setProcessedAt(now);
+				retry = false;
+			} else {
+				// 1x, 2x, 4x... the backoff; the shift is capped so it can't overflow
+				ingestion.setNextAttemptAt(now.plus(retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 16))));
+			}
+		}
+		return retry;
+	}
+
+	/**
+	 * Delete ingestions processed longer than app.ingestion.retention ago; clients poll their status shortly after posting
+	 */
+	@Scheduled(fixedDelayString = "${app.ingestion.cleanup-interval:1h}",
+			initialDelayString = "${app.ingestion.cleanup-interval:1h}")
+	public void deleteProcessed() {
+		int deleted = ingestionRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention));
+		log.debug("Deleted {} processed log ingestions", deleted);
+	}
+
+	// Users are written in ID order so concurrent batches lock their rows in the same order
+	private void save(List<LogIngestionEntity> claimed) {
+		Map<Long, List<LogIngestionEntity>> byUser = claimed.stream()
+				.collect(Collectors.groupingBy(LogIngestionEntity::getUserId, TreeMap::new, Collectors.toList()));
+
+		LocalDateTime now = LocalDateTime.now();
+		byUser.forEach((userId, ingestions) -> {
+			List<ExerciseLogDTO> logs = new ArrayList<>();
+			for (LogIngestionEntity ingestion : ingestions) {
+				logs.addAll(readPayload(ingestion));
+			}
+			exerciseLogService.saveImportedLogs(userId, logs);
+			for (LogIngestionEntity ingestion : ingestions) {
+				// Managed rows, flushed by dirty checking with the logs
+				ingestion.setStatus(LogIngestionEntity.Status.DONE);
+				ingestion.setProcessedAt(now);
+			}
+		});
+	}
+
+	// Same checks as ExerciseCatalogResolver, without creating anything, so a queued payload only fails if the catalog changes
+	private void validate(List<ExerciseLogDTO> logDTOs) {
+		if (logDTOs == null || logDTOs.isEmpty()) {
+			throw new IllegalArgumentException("At least one log is required");
+		}
+		if (logDTOs.size() > MAX_LOGS) {
+			throw new IllegalArgumentException("At most " + MAX_LOGS + " logs are allowed");
+		}
+
+		// Normalized name -> name as sent, for the error message
+		Map<String, String> groupNames = new HashMap<>();
+		for (ExerciseLogDTO log : logDTOs) {
+			if (log == null || log.getExercise() == null
+					|| log.getExercise().getName() == null || log.getExercise().getGroup() == null) {
+				throw new IllegalArgumentException("Exercise name and group are required");
+			}
+			String group = log.getExercise().getGroup();
+			groupNames.putIfAbsent(ResolvedCatalog.normalizeGroup(group), group);
+		}
+
+		Map<String, MuscleGroupEntity> groups = catalogCache.findMuscleGroups(groupNames.keySet());
+		groupNames.forEach((normalized, asSent) -> {
+			if (!groups.containsKey(normalized)) {
+				throw new IllegalArgumentException("Invalid muscle group: " + asSent);
+			}
+		});
+	}
+
+	private List<ExerciseLogDTO> readPayload(LogIngestionEntity ingestion) {
+		try {
+			return jsonMapper.readValue(ingestion.getPayload(), LOG_LIST);
+		} catch (JacksonException e) {
+			throw new IllegalArgumentException("Unreadable payload of ingestion " + ingestion.getId(), e);
+		}
+	}
+
+	private static String truncate(String error) {
+		return error == null || error.length() <= ERROR_LENGTH ? error : error.substring(0, ERROR_LENGTH);
+	}
+
+	private LogIngestionDTO toDTO(LogIngestionEntity entity) {
+		return LogIngestionDTO.builder()
+				.id(entity.getId())
+				.status(entity.getStatus().name())
+				.logCount(entity.getLogCount())
+				.error(entity.getError())
+				.createdAt(mapper.formatTimestamp(entity.getCreatedAt()))
+				.processedAt(mapper.formatTimestamp(entity.getProcessedAt()))
+				.build();
+	}
+}
@@ -0,0 +1,206 @@
+package com.erodrich.exercises.exerciselogging.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pool of {@code app.ingestion.workers} threads saving queued POST /logs payloads, up to
+ * {@code app.ingestion.batch-size} ingestions of any users per transaction. A failing batch is retried
+ * one ingestion per transaction so only the bad payloads are marked FAILED. An ingestion that fails on a
+ * transient database error (deadlock, lock or query timeout, lost connection) stays PENDING and is tried
+ * again after a back-off, up to {@code app.ingestion.max-attempts} attempts.
+ * <p>
+ * On shutdown the workers stop polling but keep saving until the queue is empty or
+ * {@code app.ingestion.drain-timeout} has passed; whatever is left stays pending for the next start.
+ * Runs only when async ingestion is enabled and workers is above 0 (a node can accept payloads and leave
+ * saving to other nodes).
+ */
+@Slf4j
+@Component
+public class LogIngestionWorker implements SmartLifecycle {
+
+	// Stop after the web server has stopped taking requests, so payloads accepted during its graceful shutdown are drained too
+	private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+	private final LogIngestionService ingestionService;
+	private final int workers;
+	private final int batchSize;
+	private final Duration pollInterval;
+	private final Duration drainTimeout;
+
+	private final Counter saved;
+	private final Counter failed;
+	private final Counter retried;
+
+	private ExecutorService executor;
+	private volatile boolean stopping;
+	private volatile long drainDeadline;
+
+	public LogIngestionWorker(LogIngestionService ingestionService, MeterRegistry meterRegistry,
+			@Value("${app.ingestion.workers:2}") int workers,
+			@Value("${app.ingestion.batch-size:100}") int batchSize,
+			@Value("${app.ingestion.poll-interval:500ms}") Duration pollInterval,
+			@Value("${app.ingestion.drain-timeout:20s}") Duration drainTimeout) {
+		this.ingestionService = ingestionService;
+		this.workers = workers;
+		this.batchSize = batchSize;
+		this.pollInterval = pollInterval;
+		this.drainTimeout = drainTimeout;
+		this.saved = ingestions(meterRegistry, "saved");
+		this.failed = ingestions(meterRegistry, "failed");
+		this.retried = ingestions(meterRegistry, "retried");
+	}
+
+	@Override
+	public boolean isAutoStartup() {
+		return ingestionService.isEnabled() && workers > 0;
+	}
+
+	@Override
+	public synchronized void start() {
+		if (executor != null) {
+			return;
+		}
+		stopping = false;
+		AtomicInteger count = new AtomicInteger();
+		executor = Executors.newFixedThreadPool(Math.max(workers, 1),
+				runnable -> new Thread(runnable, "log-ingestion-" + count.incrementAndGet()));
+		for (int i = 0; i < Math.max(workers, 1); i++) {
+			executor.execute(this::run);
+		}
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (executor == null) {
+			return;
+		}
+		drainDeadline = System.nanoTime() + drainTimeout.toNanos();
+		stopping = true;
+		executor.shutdown();
+		try {
+			if (!executor.awaitTermination(drainTimeout.toMillis() + pollInterval.toMillis(), TimeUnit.MILLISECONDS)) {
+				executor.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+		executor = null;
+	}
+
+	@Override
+	public synchronized boolean isRunning() {
+		return executor != null;
+	}
+
+	@Override
+	public int getPhase() {
+		return PHASE;
+	}
+
+	/**
+	 * Save one batch of pending ingestions on the calling thread
+	 *
+	 * @return the number of ingestions handled, saved or failed; those left to retry are not counted
+	 */
+	public int drainOnce() {
+		List<UUID> ids;
+		try {
+			int count = ingestionService.processPending(batchSize);
+			saved.increment(count);
+			return count;
+		} catch (LogIngestionBatchException e) {
+			ids = e.getIngestionIds();
+			log.warn("Log ingestion batch of {} failed, retrying one by one: {}", ids.size(), e.getMessage());
+		}
+
+		int handled = 0;
+		for (UUID id : ids) {
+			try {
+				int count = ingestionService.processBatch(List.of(id));
+				saved.increment(count);
+				handled += count;
+			} catch (RuntimeException e) {
+				if (!isTransient(e)) {
+					log.warn("Log ingestion {} failed: {}", id, e.getMessage());
+					ingestionService.markFailed(id, e.getMessage());
+					failed.increment();
+					handled++;
+				} else if (ingestionService.markRetry(id, e.getMessage())) {
+					log.warn("Log ingestion {} failed on a transient error, will retry: {}", id, e.getMessage());
+					retried.increment();
+				} else {
+					log.warn("Log ingestion {} failed on a transient error, giving up: {}", id, e.getMessage());
+					failed.increment();
+					handled++;
+				}
+			}
+		}
+		return handled;
+	}
+
+	private void run() {
+		while (true) {
+			if (stopping && System.nanoTime() - drainDeadline > 0) {
+				return;
+			}
+			int handled;
+			try {
+				handled = drainOnce();
+			} catch (RuntimeException e) {
+				// e.g. the database is unreachable; pending rows stay pending
+				log.error("Log ingestion worker failed", e);
+				handled = 0;
+			}
+			if (handled > 0) {
+				continue;
+			}
+			if (stopping) {
+				// Queue empty
+				return;
+			}
+			try {
+				Thread.sleep(pollInterval);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	// The payload may be fine and the database busy or unreachable: the error or one of its causes says so
+	private static boolean isTransient(Throwable e) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause instanceof TransientDataAccessException
+					|| cause instanceof RecoverableDataAccessException
+					|| cause instanceof CannotCreateTransactionException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Counter ingestions(MeterRegistry meterRegistry, String result) {
+		return Counter.builder("log.ingestions")
+				.description("Queued log payloads processed by result")
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+}
@@ -0,0 +1,50 @@
+package com.erodrich.exercises.exerciselogging.service;
+
+import java.util.Locale;
+import java.util.Map;
+
+import com.erodrich.exercises.exercise.entity.ExerciseEntity;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseDTO;
+
+/**
+ * Exercises resolved for one payload, keyed by (muscle group, exercise name).
+ * Muscle group names compare case-insensitively, exercise names exactly.
+ */
+public final class ResolvedCatalog {
+
+	private final Map<Key, ExerciseEntity> exercises;
+
+	ResolvedCatalog(Map<Key, ExerciseEntity> exercises) {
+		this.exercises = exercises;
+	}
+
+	/**
+	 * Get the resolved exercise for an exercise reference of the payload
+	 *
+	 * @param dto the exercise reference
+	 * @return the exercise entity
+	 * @throws IllegalArgumentException if the reference was not part of the resolved payload
+	 */
+	public ExerciseEntity exerciseFor(ExerciseDTO dto) {
+		ExerciseEntity exercise = exercises.get(key(dto.getGroup(), dto.getName()));
+		if (exercise == null) {
+			throw new IllegalArgumentException("Unresolved exercise: " + dto.getName());
+		}
+		return exercise;
+	}
+
+	public int size() {
+		return exercises.size();
+	}
+
+	static Key key(String group, String name) {
+		return new Key(normalizeGroup(group), name);
+	}
+
+	static String normalizeGroup(String group) {
+		return group.toUpperCase(Locale.ROOT);
+	}
+
+	record Key(String group, String name) {
+	}
+}
@@ -1,11 +1,11 @@
 package com.erodrich.exercises.musclegroup;
 
+import com.erodrich.exercises.catalog.CatalogResponseCache;
 import com.erodrich.exercises.musclegroup.dto.MuscleGroupDTO;
 import com.erodrich.exercises.musclegroup.service.MuscleGroupService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * Public REST controller for muscle group read operations.
@@ -17,20 +17,24 @@ import java.util.List;
 public class MuscleGroupPublicBoundary {
 
     private final MuscleGroupService muscleGroupService;
+    private final CatalogResponseCache responseCache;
 
-    public MuscleGroupPublicBoundary(MuscleGroupService muscleGroupService) {
+    public MuscleGroupPublicBoundary(MuscleGroupService muscleGroupService, CatalogResponseCache responseCache) {
         this.muscleGroupService = muscleGroupService;
+        this.responseCache = responseCache;
     }
 
     /**
-     * Get all muscle groups (public endpoint)
+     * Get all muscle groups (public endpoint), served from the pre-serialized body
+     * (gzip when accepted, 304 when unchanged)
      *
-     * @return list of all muscle groups
+     * @param request the request, for Accept-Encoding and the conditional headers
+     * @return JSON list of all muscle groups
      */
     @GetMapping
-    public ResponseEntity<List<MuscleGroupDTO>> getAllMuscleGroups() {
-        List<MuscleGroupDTO> muscleGroups = muscleGroupService.getAllMuscleGroups();
-        return ResponseEntity.ok(muscleGroups);
+    public ResponseEntity<byte[]> getAllMuscleGroups(WebRequest request) {
+        return responseCache.respond(CatalogResponseCache.Listing.MUSCLE_GROUPS,
+                muscleGroupService::getAllMuscleGroups, request);
     }
 
     /**
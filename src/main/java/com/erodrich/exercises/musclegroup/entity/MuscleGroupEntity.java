@@ -7,6 +7,11 @@ import lombok.Builder;
 
 import java.util.Objects;
 
+/**
+ * Muscle Group Entity
+ * Case-insensitive lookups compare UPPER(name); the matching functional index idx_muscle_groups_upper_name
+ * can't be declared through JPA and is created by the V6 migration (PostgreSQL only).
+ */
 @Builder
 @Entity
 @Table(name = "muscle_groups")
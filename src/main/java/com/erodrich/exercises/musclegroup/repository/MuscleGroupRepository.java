@@ -2,8 +2,12 @@ package com.erodrich.exercises.musclegroup.repository;
 
 import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -24,4 +28,14 @@ public interface MuscleGroupRepository extends JpaRepository<MuscleGroupEntity,
      * @return true if a muscle group exists with this name
      */
     boolean existsByNameIgnoreCase(String name);
+
+    /**
+     * Find all muscle groups whose upper-cased name is in the given set, in one query.
+     * Matches the UPPER() comparison Spring Data generates for findByNameIgnoreCase.
+     *
+     * @param upperCaseNames the names to search for, already upper-cased
+     * @return the muscle groups found
+     */
+    @Query("SELECT m FROM MuscleGroupEntity m WHERE UPPER(m.name) IN :names")
+    List<MuscleGroupEntity> findByUpperCaseNameIn(@Param("names") Collection<String> upperCaseNames);
 }
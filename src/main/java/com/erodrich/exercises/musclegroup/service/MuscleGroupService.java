@@ -1,10 +1,12 @@
 package com.erodrich.exercises.musclegroup.service;
 
+import com.erodrich.exercises.catalog.CatalogChangedEvent;
 import com.erodrich.exercises.exercise.repository.ExerciseRepository;
 import com.erodrich.exercises.musclegroup.dto.MuscleGroupDTO;
 import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
 import com.erodrich.exercises.musclegroup.mapper.MuscleGroupMapper;
 import com.erodrich.exercises.musclegroup.repository.MuscleGroupRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,13 +21,16 @@ public class MuscleGroupService {
     private final MuscleGroupRepository muscleGroupRepository;
     private final MuscleGroupMapper muscleGroupMapper;
     private final ExerciseRepository exerciseRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public MuscleGroupService(MuscleGroupRepository muscleGroupRepository, 
                              MuscleGroupMapper muscleGroupMapper,
-                             ExerciseRepository exerciseRepository) {
+                             ExerciseRepository exerciseRepository,
+                             ApplicationEventPublisher eventPublisher) {
         this.muscleGroupRepository = muscleGroupRepository;
         this.muscleGroupMapper = muscleGroupMapper;
         this.exerciseRepository = exerciseRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -85,6 +90,7 @@ public class MuscleGroupService {
         entity.setId(null); // Ensure ID is null for new entities
         
         MuscleGroupEntity savedEntity = muscleGroupRepository.save(entity);
+        eventPublisher.publishEvent(CatalogChangedEvent.muscleGroups());
         return muscleGroupMapper.toDTO(savedEntity);
     }
 
@@ -113,6 +119,7 @@ public class MuscleGroupService {
         existingEntity.setDescription(muscleGroupDTO.getDescription());
         
         MuscleGroupEntity updatedEntity = muscleGroupRepository.save(existingEntity);
+        eventPublisher.publishEvent(CatalogChangedEvent.muscleGroups());
         return muscleGroupMapper.toDTO(updatedEntity);
     }
 
@@ -136,6 +143,7 @@ public class MuscleGroupService {
         }
         
         muscleGroupRepository.delete(entity);
+        eventPublisher.publishEvent(CatalogChangedEvent.muscleGroups());
     }
 
     /**
@@ -2,10 +2,12 @@ package com.erodrich.exercises.security.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -15,6 +17,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import com.erodrich.exercises.security.jwt.JwtAuthenticationFilter;
@@ -23,6 +26,7 @@ import lombok.RequiredArgsConstructor;
 
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
 
@@ -41,6 +45,7 @@ public class SecurityConfig {
 						// Public endpoints
 						.requestMatchers("/api/v1/users/register").permitAll()
 						.requestMatchers("/api/v1/users/login").permitAll()
+						.requestMatchers("/api/v1/users/refresh").permitAll()
 						// Public muscle groups (read-only)
 						.requestMatchers("/api/v1/muscle-groups", "/api/v1/muscle-groups/**").permitAll()
 						// Public exercises (read-only)
@@ -56,6 +61,9 @@ public class SecurityConfig {
 						// All other endpoints require authentication
 						.anyRequest().authenticated()
 				)
+				// Requests without a usable token get 401, so clients know to sign in again
+				.exceptionHandling(exceptions -> exceptions
+						.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
 				.authenticationProvider(authenticationProvider)
 				.headers(headers -> headers.frameOptions(HeadersConfigurer.FrameOptionsConfig::disable))
 				.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -0,0 +1,31 @@
+package com.erodrich.exercises.security.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * An access token revoked before its expiry, by its jti claim. Kept until the token would have
+ * expired anyway.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "revoked_tokens")
+public class RevokedTokenEntity {
+	@Id
+	@Column(name = "token_id", length = 36)
+	private String tokenId;
+	
+	@Column(name = "expires_at", nullable = false)
+	private Instant expiresAt;
+}
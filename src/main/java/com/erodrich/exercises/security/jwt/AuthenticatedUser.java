@@ -0,0 +1,18 @@
+package com.erodrich.exercises.security.jwt;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Principal built from verified token claims in stateless mode, without loading the user
+ *
+ * @param id the user ID
+ * @param email the email, which is the username
+ * @param role the role authority, e.g. ROLE_USER
+ */
+public record AuthenticatedUser(Long id, String email, String role) implements AuthenticatedPrincipal {
+
+	@Override
+	public String getName() {
+		return email;
+	}
+}
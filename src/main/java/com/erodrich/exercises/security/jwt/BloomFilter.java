@@ -0,0 +1,68 @@
+package com.erodrich.exercises.security.jwt;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter of strings. {@link #mightContain} never returns false for an added value;
+ * it returns true for other values with about the configured probability. Safe for concurrent use.
+ */
+final class BloomFilter {
+
+	private final AtomicLongArray words;
+	private final long bitCount;
+	private final int hashCount;
+
+	/**
+	 * @param expectedInsertions the number of values the false positive rate is sized for
+	 * @param falsePositiveRate the false positive rate at that size, e.g. 0.001
+	 */
+	BloomFilter(int expectedInsertions, double falsePositiveRate) {
+		int n = Math.max(1, expectedInsertions);
+		long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		this.words = new AtomicLongArray((int) Math.max(1, (bits + 63) >>> 6));
+		this.bitCount = (long) words.length() << 6;
+		this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+	}
+
+	void put(String value) {
+		long hash1 = hash(value);
+		long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+			int index = (int) (bit >>> 6);
+			long mask = 1L << bit;
+			long word = words.get(index);
+			while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+				word = words.get(index);
+			}
+		}
+	}
+
+	boolean mightContain(String value) {
+		long hash1 = hash(value);
+		long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+			if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// 64-bit FNV-1a over the chars, then a finalizer to spread the bits
+	private static long hash(String value) {
+		long hash = 0xCBF29CE484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			hash ^= value.charAt(i);
+			hash *= 0x100000001B3L;
+		}
+		return mix(hash);
+	}
+
+	private static long mix(long z) {
+		z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+		z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return z ^ (z >>> 33);
+	}
+}
@@ -1,13 +1,15 @@
 package com.erodrich.exercises.security.jwt;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -22,8 +24,13 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 	
+	private static final String ADMIN_ROLE = "ROLE_ADMIN";
+	
 	private final JwtTokenProvider jwtTokenProvider;
 	private final UserDetailsService userDetailsService;
+	private final JwtProperties jwtProperties;
+	private final TokenSubjectVerifier tokenSubjectVerifier;
+	private final TokenRevocationService tokenRevocationService;
 	
 	@Override
 	protected void doFilterInternal(
@@ -34,16 +41,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 		try {
 			String jwt = getJwtFromRequest(request);
 			
-			if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-				String username = jwtTokenProvider.getUsernameFromToken(jwt);
-				
-				UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-				UsernamePasswordAuthenticationToken authentication = 
-						new UsernamePasswordAuthenticationToken(
-								userDetails, 
-								null, 
-								userDetails.getAuthorities());
-				authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+			// One parse per request: the signature is verified once and the claims reused
+			Optional<JwtClaims> claims = StringUtils.hasText(jwt) ? jwtTokenProvider.parse(jwt) : Optional.empty();
+			claims = claims.filter(c -> !tokenRevocationService.isRevoked(c.tokenId()));
+			// A user token issued before the uid claim can't pass ownership checks: ignore it like an expired one,
+			// so protected routes answer 401 and the client can still sign in again. Admins never needed the uid.
+			claims = claims.filter(c -> c.userId() != null || ADMIN_ROLE.equals(c.role()));
+			UsernamePasswordAuthenticationToken authentication = claims.map(this::authenticate).orElse(null);
+			if (authentication != null) {
+				// The uid claim travels with the authentication for ownership checks
+				authentication.setDetails(new TokenAuthenticationDetails(request, claims.get().userId()));
 				
 				SecurityContextHolder.getContext().setAuthentication(authentication);
 			}
@@ -54,6 +61,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 		filterChain.doFilter(request, response);
 	}
 	
+	/**
+	 * Build the authentication of verified claims: from the claims alone in stateless mode,
+	 * otherwise from the user loaded by the UserDetailsService
+	 */
+	private UsernamePasswordAuthenticationToken authenticate(JwtClaims claims) {
+		// Admin tokens issued before the uid claim fall back to the lookup
+		if (jwtProperties.isStatelessAuth() && claims.userId() != null && claims.role() != null) {
+			if (!tokenSubjectVerifier.isCurrent(claims)) {
+				return null;
+			}
+			AuthenticatedUser principal = new AuthenticatedUser(claims.userId(), claims.subject(), claims.role());
+			return new UsernamePasswordAuthenticationToken(
+					principal,
+					null,
+					List.of(new SimpleGrantedAuthority(claims.role())));
+		}
+		
+		UserDetails userDetails = userDetailsService.loadUserByUsername(claims.subject());
+		return new UsernamePasswordAuthenticationToken(
+				userDetails, 
+				null, 
+				userDetails.getAuthorities());
+	}
+	
 	/**
 	 * Extract JWT token from Authorization header
 	 */
@@ -0,0 +1,15 @@
+package com.erodrich.exercises.security.jwt;
+
+import java.time.Instant;
+
+/**
+ * Claims of a token whose signature and expiry have been verified
+ *
+ * @param userId the user ID, null for tokens issued before the uid claim
+ * @param subject the username (email)
+ * @param role the role authority, e.g. ROLE_USER
+ * @param expiresAt the expiry of the token
+ * @param tokenId the jti claim, null for tokens issued before it
+ */
+public record JwtClaims(Long userId, String subject, String role, Instant expiresAt, String tokenId) {
+}
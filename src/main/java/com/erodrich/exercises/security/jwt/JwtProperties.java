@@ -11,4 +11,9 @@ import lombok.Data;
 public class JwtProperties {
 	private String secret = "exercises-secret-key-change-this-in-production-must-be-at-least-256-bits-long";
 	private long expiration = 86400000; // 24 hours in milliseconds
+	private long refreshExpiration = 2592000000L; // 30 days in milliseconds
+	private boolean statelessAuth = false; // build the principal from token claims instead of loading the user
+	private long subjectCheckTtl = 60000; // how long a stateless user/role check is reused, in milliseconds
+	private long subjectCheckMaxSize = 10000; // how many users' checks are kept
+	private long revocationRebuildInterval = 60000; // how often the revoked-token filter is rebuilt, in milliseconds
 }
@@ -1,80 +1,88 @@
 package com.erodrich.exercises.security.jwt;
 
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 import javax.crypto.SecretKey;
 
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 
 @Component
-@RequiredArgsConstructor
 public class JwtTokenProvider {
 	
+	static final String USER_ID_CLAIM = "uid";
+	static final String ROLE_CLAIM = "role";
+	
 	private final JwtProperties jwtProperties;
+	// Derived once: both are immutable and thread-safe
+	private final SecretKey signingKey;
+	private final JwtParser parser;
 	
-	/**
-	 * Generate secret key from configured secret
-	 */
-	private SecretKey getSigningKey() {
-		return Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes());
+	public JwtTokenProvider(JwtProperties jwtProperties) {
+		this.jwtProperties = jwtProperties;
+		this.signingKey = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes());
+		this.parser = Jwts.parser()
+				.verifyWith(signingKey)
+				.build();
 	}
 	
 	/**
-	 * Generate JWT token for user
+	 * Generate JWT token from user ID, username and role.
+	 * The user ID lets the authentication filter build the principal without loading the user.
+	 * Every token gets a random jti so it can be revoked on its own.
 	 */
-	public String generateToken(UserDetails userDetails) {
+	public String generateToken(Long userId, String username, String role) {
 		Date now = new Date();
 		Date expiryDate = new Date(now.getTime() + jwtProperties.getExpiration());
 		
-		// Extract role from authorities
-		String role = userDetails.getAuthorities().stream()
-				.map(GrantedAuthority::getAuthority)
-				.findFirst()
-				.orElse("ROLE_USER");
-		
 		return Jwts.builder()
-				.subject(userDetails.getUsername())
-				.claim("role", role)
+				.id(UUID.randomUUID().toString())
+				.subject(username)
+				.claim(USER_ID_CLAIM, userId)
+				.claim(ROLE_CLAIM, role)
 				.issuedAt(now)
 				.expiration(expiryDate)
-				.signWith(getSigningKey())
+				.signWith(signingKey)
 				.compact();
 	}
 	
 	/**
-	 * Generate JWT token from username and role
+	 * Verify a token and read its claims, with a single signature check
+	 *
+	 * @param token the compact JWT
+	 * @return the claims, or empty if the token is missing, malformed, badly signed or expired
 	 */
-	public String generateToken(String username, String role) {
-		Date now = new Date();
-		Date expiryDate = new Date(now.getTime() + jwtProperties.getExpiration());
-		
-		return Jwts.builder()
-				.subject(username)
-				.claim("role", role)
-				.issuedAt(now)
-				.expiration(expiryDate)
-				.signWith(getSigningKey())
-				.compact();
+	public Optional<JwtClaims> parse(String token) {
+		if (token == null || token.isEmpty()) {
+			return Optional.empty();
+		}
+		try {
+			Claims claims = parser.parseSignedClaims(token).getPayload();
+			// Small numbers are deserialized as Integer
+			Number userId = claims.get(USER_ID_CLAIM, Number.class);
+			return Optional.of(new JwtClaims(
+					userId == null ? null : userId.longValue(),
+					claims.getSubject(),
+					claims.get(ROLE_CLAIM, String.class),
+					claims.getExpiration() == null ? null : claims.getExpiration().toInstant(),
+					claims.getId()));
+		} catch (JwtException | IllegalArgumentException e) {
+			return Optional.empty();
+		}
 	}
 	
 	/**
 	 * Get username from token
 	 */
 	public String getUsernameFromToken(String token) {
-		Claims claims = Jwts.parser()
-				.verifyWith(getSigningKey())
-				.build()
-				.parseSignedClaims(token)
-				.getPayload();
-		
-		return claims.getSubject();
+		return parser.parseSignedClaims(token).getPayload().getSubject();
 	}
 	
 	/**
@@ -88,27 +96,13 @@ public class JwtTokenProvider {
 	 * Get role from token
 	 */
 	public String getRoleFromToken(String token) {
-		Claims claims = Jwts.parser()
-				.verifyWith(getSigningKey())
-				.build()
-				.parseSignedClaims(token)
-				.getPayload();
-		
-		return claims.get("role", String.class);
+		return parser.parseSignedClaims(token).getPayload().get(ROLE_CLAIM, String.class);
 	}
 	
 	/**
 	 * Validate JWT token
 	 */
 	public boolean validateToken(String token) {
-		try {
-			Jwts.parser()
-				.verifyWith(getSigningKey())
-				.build()
-				.parseSignedClaims(token);
-			return true;
-		} catch (Exception e) {
-			return false;
-		}
+		return parse(token).isPresent();
 	}
 }
@@ -0,0 +1,25 @@
+package com.erodrich.exercises.security.jwt;
+
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Request details of a token authentication, with the user ID from the token's uid claim
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class TokenAuthenticationDetails extends WebAuthenticationDetails {
+
+	private static final long serialVersionUID = 1L;
+
+	// Null only for admin tokens issued before the uid claim; JwtAuthenticationFilter ignores other such tokens
+	private final Long userId;
+
+	public TokenAuthenticationDetails(HttpServletRequest request, Long userId) {
+		super(request);
+		this.userId = userId;
+	}
+}
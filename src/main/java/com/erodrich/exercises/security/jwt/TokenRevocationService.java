@@ -0,0 +1,134 @@
+package com.erodrich.exercises.security.jwt;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.erodrich.exercises.security.entity.RevokedTokenEntity;
+import com.erodrich.exercises.security.repository.RevokedTokenRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Revoked access tokens, by jti. Revocations are stored in the revoked_tokens table and mirrored in an
+ * in-memory Bloom filter, so a token that was never revoked is accepted without a query; only filter
+ * hits are confirmed against the table.
+ * <p>
+ * The filter is rebuilt from the table at startup and every {@code jwt.revocation-rebuild-interval} ms,
+ * which also drops expired revocations. Revocations made on this node apply immediately; those made
+ * on other nodes apply after their next rebuild.
+ */
+@Slf4j
+@Component
+public class TokenRevocationService {
+	
+	private static final int MIN_EXPECTED_REVOCATIONS = 1024;
+	private static final double FALSE_POSITIVE_RATE = 0.001;
+	
+	private final RevokedTokenRepository revokedTokenRepository;
+	private final Object lock = new Object();
+	
+	// Null until first built, in which case every check goes to the table
+	private volatile BloomFilter filter;
+	// Guarded by lock; collects revocations made while a rebuild reads the table
+	private Set<String> revokedDuringRebuild;
+	
+	private final Counter confirmed;
+	private final Counter falsePositives;
+	
+	public TokenRevocationService(RevokedTokenRepository revokedTokenRepository, MeterRegistry meterRegistry) {
+		this.revokedTokenRepository = revokedTokenRepository;
+		this.confirmed = filterHits(meterRegistry, "revoked");
+		this.falsePositives = filterHits(meterRegistry, "false-positive");
+	}
+	
+	/**
+	 * Check whether a token has been revoked
+	 *
+	 * @param tokenId the jti claim; tokens without one can't be revoked
+	 * @return true if the token is revoked
+	 */
+	public boolean isRevoked(String tokenId) {
+		if (tokenId == null) {
+			return false;
+		}
+		BloomFilter current = filter;
+		if (current != null && !current.mightContain(tokenId)) {
+			return false;
+		}
+		boolean revoked = revokedTokenRepository.existsById(tokenId);
+		if (current != null) {
+			(revoked ? confirmed : falsePositives).increment();
+		}
+		return revoked;
+	}
+	
+	/**
+	 * Revoke a token until it expires
+	 *
+	 * @param tokenId the jti claim
+	 * @param expiresAt the token's expiry, after which the revocation is dropped
+	 */
+	@Transactional
+	public void revoke(String tokenId, Instant expiresAt) {
+		revokedTokenRepository.save(new RevokedTokenEntity(tokenId, expiresAt));
+		synchronized (lock) {
+			BloomFilter current = filter;
+			if (current != null) {
+				current.put(tokenId);
+			}
+			if (revokedDuringRebuild != null) {
+				revokedDuringRebuild.add(tokenId);
+			}
+		}
+	}
+	
+	@EventListener(ApplicationReadyEvent.class)
+	public void onStartup() {
+		rebuild();
+	}
+	
+	/**
+	 * Drop expired revocations and rebuild the filter from the table
+	 */
+	@Scheduled(fixedDelayString = "${jwt.revocation-rebuild-interval:60000}",
+			initialDelayString = "${jwt.revocation-rebuild-interval:60000}")
+	public void rebuild() {
+		synchronized (lock) {
+			revokedDuringRebuild = new HashSet<>();
+		}
+		try {
+			Instant now = Instant.now();
+			int expired = revokedTokenRepository.deleteExpired(now);
+			List<String> tokenIds = revokedTokenRepository.findLiveTokenIds(now);
+			
+			BloomFilter next = new BloomFilter(Math.max(MIN_EXPECTED_REVOCATIONS, tokenIds.size() * 2), FALSE_POSITIVE_RATE);
+			tokenIds.forEach(next::put);
+			synchronized (lock) {
+				revokedDuringRebuild.forEach(next::put);
+				filter = next;
+			}
+			log.debug("Rebuilt token revocation filter: {} revoked, {} expired removed", tokenIds.size(), expired);
+		} finally {
+			synchronized (lock) {
+				revokedDuringRebuild = null;
+			}
+		}
+	}
+	
+	private static Counter filterHits(MeterRegistry meterRegistry, String result) {
+		return Counter.builder("security.token.revocation.filter.hits")
+				.description("Revocation filter hits confirmed against the table, by result")
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+}
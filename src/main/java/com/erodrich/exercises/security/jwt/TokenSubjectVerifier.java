@@ -0,0 +1,83 @@
+package com.erodrich.exercises.security.jwt;
+
+import java.time.Duration;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.erodrich.exercises.user.UserChangedEvent;
+import com.erodrich.exercises.user.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Replaces the per-request user lookup in stateless mode: checks that the user of a token still
+ * exists with the same email and role, loading each user at most once per {@code jwt.subject-check-ttl}.
+ * A deleted user or a role change is therefore noticed within the TTL, or immediately after {@link #evict}.
+ * At {@code jwt.subject-check-max-size} users, Caffeine evicts by its size policy.
+ * Metrics are published as {@code cache.*} with the tag {@code cache=token-subjects}.
+ */
+@Component
+public class TokenSubjectVerifier {
+
+	private static final String CACHE_NAME = "token-subjects";
+
+	private final UserRepository userRepository;
+	private final Cache<Long, Subject> subjects;
+
+	public TokenSubjectVerifier(UserRepository userRepository, JwtProperties jwtProperties, MeterRegistry meterRegistry) {
+		this.userRepository = userRepository;
+		this.subjects = Caffeine.newBuilder()
+				.maximumSize(jwtProperties.getSubjectCheckMaxSize())
+				.expireAfterWrite(Duration.ofMillis(jwtProperties.getSubjectCheckTtl()))
+				// Same as UserDetailsCache: evict on the caller so the size bound is exact
+				.executor(Runnable::run)
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, subjects, CACHE_NAME);
+	}
+
+	/**
+	 * Check the token's user against the (cached) user row. Concurrent misses for the same user share one load.
+	 *
+	 * @param claims verified claims carrying a user ID
+	 * @return true if the user exists with the token's email and role
+	 */
+	public boolean isCurrent(JwtClaims claims) {
+		Subject subject = subjects.get(claims.userId(), this::load);
+		return subject.exists()
+				&& subject.email().equals(claims.subject())
+				&& subject.role().equals(claims.role());
+	}
+
+	/**
+	 * Forget a user so the next request re-reads it, e.g. after a role change or deletion
+	 *
+	 * @param userId the user ID
+	 */
+	public void evict(Long userId) {
+		subjects.invalidate(userId);
+	}
+
+	/**
+	 * Re-read a changed user on its next request, once the change has committed
+	 *
+	 * @param event the user change
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		evict(event.userId());
+	}
+
+	private Subject load(Long userId) {
+		return userRepository.findById(userId)
+				.map(user -> new Subject(true, user.getEmail(), "ROLE_" + user.getRole().name()))
+				.orElseGet(() -> new Subject(false, null, null));
+	}
+
+	private record Subject(boolean exists, String email, String role) {
+	}
+}
@@ -0,0 +1,35 @@
+package com.erodrich.exercises.security.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.erodrich.exercises.security.entity.RevokedTokenEntity;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, String> {
+	
+	/**
+	 * IDs of revoked tokens that have not expired yet
+	 *
+	 * @param now the current time
+	 * @return the token IDs
+	 */
+	@Query("SELECT t.tokenId FROM RevokedTokenEntity t WHERE t.expiresAt > :now")
+	List<String> findLiveTokenIds(@Param("now") Instant now);
+	
+	/**
+	 * Delete revocations of tokens that have expired, which no longer need checking
+	 *
+	 * @param now the current time
+	 * @return the number of rows deleted
+	 */
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM RevokedTokenEntity t WHERE t.expiresAt <= :now")
+	int deleteExpired(@Param("now") Instant now);
+}
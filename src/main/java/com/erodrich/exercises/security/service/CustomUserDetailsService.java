@@ -10,6 +10,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.erodrich.exercises.security.service.UserDetailsCache.CachedUser;
 import com.erodrich.exercises.user.entity.UserEntity;
 import com.erodrich.exercises.user.repository.UserRepository;
 
@@ -20,20 +21,17 @@ import lombok.RequiredArgsConstructor;
 public class CustomUserDetailsService implements UserDetailsService {
 	
 	private final UserRepository userRepository;
+	private final UserDetailsCache userDetailsCache;
 	
 	@Override
 	public UserDetails loadUserByUsername(@NonNull String username) throws UsernameNotFoundException {
 		// Username is actually email in our system
-		UserEntity user = userRepository.findByEmail(username)
-				.orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + username));
-		
-		// Add role as authority
-		SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.getRole().name());
+		CachedUser user = userDetailsCache.get(username, this::loadByEmail);
 		
 		return User.builder()
-				.username(user.getEmail()) // Use email as username
-				.password(user.getPassword())
-				.authorities(Collections.singletonList(authority))
+				.username(user.email()) // Use email as username
+				.password(user.password())
+				.authorities(Collections.singletonList(new SimpleGrantedAuthority(user.authority())))
 				.build();
 	}
 	
@@ -41,16 +39,20 @@ public class CustomUserDetailsService implements UserDetailsService {
 	 * Load user by email (for login)
 	 */
 	public UserDetails loadUserByEmail(String email) throws UsernameNotFoundException {
+		CachedUser user = userDetailsCache.get(email, this::loadByEmail);
+		
+		return User.builder()
+				.username(user.username())
+				.password(user.password())
+				.authorities(Collections.singletonList(new SimpleGrantedAuthority(user.authority())))
+				.build();
+	}
+	
+	private CachedUser loadByEmail(String email) {
 		UserEntity user = userRepository.findByEmail(email)
 				.orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 		
 		// Add role as authority
-		SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.getRole().name());
-		
-		return User.builder()
-				.username(user.getUsername())
-				.password(user.getPassword())
-				.authorities(Collections.singletonList(authority))
-				.build();
+		return new CachedUser(user.getEmail(), user.getUsername(), user.getPassword(), "ROLE_" + user.getRole().name());
 	}
 }
@@ -0,0 +1,154 @@
+package com.erodrich.exercises.security.service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs BCrypt encode/matches on a fixed pool instead of the request thread's CPU budget.
+ * At most {@code security.password-hashing.threads} hashes run at once (default: one per core) and
+ * {@code security.password-hashing.queue-capacity} wait; beyond that, or once a caller has waited
+ * {@code security.password-hashing.max-wait}, a PasswordHashingRejectedException is thrown so a login
+ * burst is turned away quickly instead of tying up every servlet thread.
+ */
+@Component
+public class PasswordHasher implements DisposableBean {
+
+	private final PasswordEncoder passwordEncoder;
+	private final ThreadPoolExecutor executor;
+	private final long maxWaitNanos;
+
+	private final Timer encodeTimer;
+	private final Timer matchesTimer;
+	private final Timer queueWait;
+	private final Counter queueFullRejections;
+	private final Counter timeoutRejections;
+
+	public PasswordHasher(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+			@Value("${security.password-hashing.threads:0}") int threads,
+			@Value("${security.password-hashing.queue-capacity:32}") int queueCapacity,
+			@Value("${security.password-hashing.max-wait:2s}") Duration maxWait) {
+		this.passwordEncoder = passwordEncoder;
+		int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+		this.maxWaitNanos = maxWait.toNanos();
+
+		this.encodeTimer = hashTimer(meterRegistry, "encode");
+		this.matchesTimer = hashTimer(meterRegistry, "matches");
+		this.queueWait = Timer.builder("security.password.hash.wait")
+				.description("Time password hashing tasks spend queued")
+				.register(meterRegistry);
+		this.queueFullRejections = rejections(meterRegistry, "queue-full");
+		this.timeoutRejections = rejections(meterRegistry, "timeout");
+		Gauge.builder("security.password.hash.queue", executor, e -> e.getQueue().size())
+				.description("Password hashing tasks waiting for a worker")
+				.register(meterRegistry);
+		Gauge.builder("security.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+				.description("Password hashing tasks running")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Hash a password
+	 *
+	 * @param rawPassword the password
+	 * @return the hash
+	 * @throws PasswordHashingRejectedException if the hashing pool is saturated
+	 */
+	public String encode(CharSequence rawPassword) {
+		return run(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+	}
+
+	/**
+	 * Check a password against a hash
+	 *
+	 * @param rawPassword the password
+	 * @param encodedPassword the stored hash
+	 * @return true if they match
+	 * @throws PasswordHashingRejectedException if the hashing pool is saturated
+	 */
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return run(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+	}
+
+	private <T> T run(Timer timer, Supplier<T> work) {
+		long submittedAt = System.nanoTime();
+		Future<T> future;
+		try {
+			future = executor.submit(() -> {
+				queueWait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+				return timer.record(work);
+			});
+		} catch (RejectedExecutionException e) {
+			queueFullRejections.increment();
+			throw new PasswordHashingRejectedException("Password hashing queue is full");
+		}
+
+		try {
+			return future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			timeoutRejections.increment();
+			throw new PasswordHashingRejectedException("Timed out waiting for password hashing");
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new PasswordHashingRejectedException("Interrupted waiting for password hashing");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+		return Timer.builder("security.password.hash")
+				.description("Password hashing time, excluding queueing")
+				.tag("operation", operation)
+				.register(meterRegistry);
+	}
+
+	private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+		return Counter.builder("security.password.hash.rejected")
+				.description("Password hashing requests turned away")
+				.tag("reason", reason)
+				.register(meterRegistry);
+	}
+
+	private static final class HashingThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "password-hash-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,12 @@
+package com.erodrich.exercises.security.service;
+
+/**
+ * Thrown when password hashing can't be scheduled: its queue is full or the wait for a worker ran out.
+ * The request should be retried later rather than treated as bad credentials.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+	public PasswordHashingRejectedException(String message) {
+		super(message);
+	}
+}
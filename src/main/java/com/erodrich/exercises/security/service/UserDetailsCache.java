@@ -0,0 +1,89 @@
+package com.erodrich.exercises.security.service;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.erodrich.exercises.user.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Read-through cache of the user data CustomUserDetailsService needs, keyed by email.
+ * Entries expire after {@code security.user-cache.ttl}, which bounds how long a change made
+ * outside UserService can go unnoticed; changes made through UserService evict the user on commit.
+ * At {@code security.user-cache.max-size} entries, Caffeine evicts by its size policy.
+ * Metrics are published as {@code cache.*} with the tag {@code cache=user-details}.
+ * <p>
+ * Snapshots are cached rather than UserDetails because Spring Security erases the password of
+ * the UserDetails it authenticates.
+ */
+@Component
+public class UserDetailsCache {
+
+	private static final String CACHE_NAME = "user-details";
+
+	private final Cache<String, CachedUser> users;
+
+	public UserDetailsCache(MeterRegistry meterRegistry,
+			@Value("${security.user-cache.ttl:30s}") Duration ttl,
+			@Value("${security.user-cache.max-size:10000}") int maxSize) {
+		this.users = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(ttl)
+				// Evictions are amortized O(1); running them on the caller keeps the size bound exact
+				.executor(Runnable::run)
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, users, CACHE_NAME);
+	}
+
+	/**
+	 * Get a user's snapshot, loading it on a miss or once the cached one has expired.
+	 * Concurrent misses for the same email share one load.
+	 *
+	 * @param email the email
+	 * @param loader loads the user; exceptions (e.g. user not found) propagate and nothing is cached
+	 * @return the snapshot
+	 */
+	public CachedUser get(String email, Function<String, CachedUser> loader) {
+		return users.get(email, loader);
+	}
+
+	/**
+	 * Drop a user immediately. A load of the user in progress completes first and is dropped too.
+	 *
+	 * @param email the email
+	 */
+	public void invalidate(String email) {
+		users.invalidate(email);
+	}
+
+	/**
+	 * Drop a changed user once the transaction that changed it has committed.
+	 * Runs immediately when published outside a transaction.
+	 *
+	 * @param event the user change
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		invalidate(event.email());
+	}
+
+	/**
+	 * What CustomUserDetailsService needs of a user
+	 *
+	 * @param email the email
+	 * @param username the username
+	 * @param password the password hash
+	 * @param authority the role authority, e.g. ROLE_USER
+	 */
+	public record CachedUser(String email, String username, String password, String authority) {
+	}
+}
@@ -0,0 +1,30 @@
+package com.erodrich.exercises.security.service;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import com.erodrich.exercises.security.jwt.TokenAuthenticationDetails;
+
+/**
+ * Ownership checks for method security, e.g.
+ * {@code @PreAuthorize("@userOwnership.isOwner(authentication, #userId)")}.
+ * The caller's ID comes from the token's uid claim, so no user is loaded.
+ */
+@Component
+public class UserOwnership {
+
+	/**
+	 * Check whether the caller is the given user
+	 *
+	 * @param authentication the caller
+	 * @param userId the user ID from the request
+	 * @return true if the caller's token was issued to that user
+	 */
+	public boolean isOwner(Authentication authentication, Long userId) {
+		if (authentication == null || userId == null) {
+			return false;
+		}
+		return authentication.getDetails() instanceof TokenAuthenticationDetails details
+				&& userId.equals(details.getUserId());
+	}
+}
@@ -0,0 +1,32 @@
+package com.erodrich.exercises.user;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.erodrich.exercises.user.dto.UserDTO;
+import com.erodrich.exercises.user.entity.Role;
+import com.erodrich.exercises.user.service.UserService;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping(path = "/api/v1/admin/users")
+public class UserAdminBoundary {
+
+	private final UserService userService;
+
+	@PutMapping("/{userId}/role")
+	public ResponseEntity<UserDTO> changeRole(@PathVariable Long userId, @RequestParam Role role) {
+		try {
+			return ResponseEntity.ok(userService.changeRole(userId, role));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
+	}
+}
@@ -1,17 +1,24 @@
 package com.erodrich.exercises.user;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.erodrich.exercises.security.service.PasswordHashingRejectedException;
 import com.erodrich.exercises.user.dto.AuthResponse;
+import com.erodrich.exercises.user.dto.ChangePasswordRequest;
 import com.erodrich.exercises.user.dto.LoginRequest;
+import com.erodrich.exercises.user.dto.RefreshTokenRequest;
 import com.erodrich.exercises.user.dto.RegisterRequest;
 import com.erodrich.exercises.user.dto.UserDTO;
 import com.erodrich.exercises.user.service.UserService;
@@ -34,6 +41,9 @@ public class UserBoundary {
 		try {
 			AuthResponse response = userService.register(request);
 			return ResponseEntity.status(HttpStatus.CREATED).body(response);
+		} catch (PasswordHashingRejectedException e) {
+			log.warn("Error: [{}]", e.getMessage());
+			return hashingUnavailable();
 		} catch (IllegalArgumentException e) {
 			log.error("Error: [{}] - Request: {}", e.getMessage(), request);
 			return ResponseEntity.status(HttpStatus.CONFLICT).build();
@@ -45,12 +55,40 @@ public class UserBoundary {
 		try {
 			AuthResponse response = userService.login(request);
 			return ResponseEntity.ok(response);
+		} catch (PasswordHashingRejectedException e) {
+			log.warn("Error: [{}]", e.getMessage());
+			return hashingUnavailable();
 		} catch (IllegalArgumentException e) {
 			log.error("Error: [{}] - Request: {}", e.getMessage(), request);
 			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
 		}
 	}
 
+	@PostMapping("/refresh")
+	public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+		try {
+			AuthResponse response = userService.refresh(request.getRefreshToken());
+			return ResponseEntity.ok(response);
+		} catch (IllegalArgumentException e) {
+			log.error("Error: [{}] - Request: token refresh", e.getMessage());
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+		}
+	}
+
+	@PostMapping("/logout")
+	public ResponseEntity<Void> logout(
+			@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+			@RequestBody(required = false) RefreshTokenRequest request) {
+		try {
+			String token = authorization.startsWith("Bearer ") ? authorization.substring(7) : authorization;
+			userService.logout(token, request == null ? null : request.getRefreshToken());
+			return ResponseEntity.noContent().build();
+		} catch (IllegalArgumentException e) {
+			log.error("Error: [{}] - Request: logout", e.getMessage());
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+		}
+	}
+
 	@GetMapping("/{username}")
 	public ResponseEntity<UserDTO> getUserByUsername(@PathVariable String username) {
 		try {
@@ -61,4 +99,28 @@ public class UserBoundary {
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
 		}
 	}
+
+	@PutMapping("/{userId}/password")
+	@PreAuthorize("@userOwnership.isOwner(authentication, #userId)")
+	public ResponseEntity<Void> changePassword(
+			@PathVariable Long userId,
+			@Valid @RequestBody ChangePasswordRequest request) {
+		try {
+			userService.changePassword(userId, request.getCurrentPassword(), request.getNewPassword());
+			return ResponseEntity.noContent().build();
+		} catch (PasswordHashingRejectedException e) {
+			log.warn("Error: [{}]", e.getMessage());
+			return hashingUnavailable();
+		} catch (IllegalArgumentException e) {
+			log.error("Error: [{}] - Request: password change of user {}", e.getMessage(), userId);
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+		}
+	}
+
+	// Password hashing is saturated; tell the client to back off instead of failing the credentials
+	private static <T> ResponseEntity<T> hashingUnavailable() {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, "1")
+				.build();
+	}
 }
@@ -0,0 +1,11 @@
+package com.erodrich.exercises.user;
+
+/**
+ * Published by UserService whenever a user's credentials or role change.
+ * Caches of authentication data drop the user once the writing transaction commits.
+ *
+ * @param userId the user ID
+ * @param email the user's email, which is the username
+ */
+public record UserChangedEvent(Long userId, String email) {
+}
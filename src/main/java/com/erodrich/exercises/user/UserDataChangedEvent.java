@@ -0,0 +1,10 @@
+package com.erodrich.exercises.user;
+
+/**
+ * Published by UserDataVersionService when a user's data version is bumped.
+ * The cached version is dropped once the writing transaction commits.
+ *
+ * @param userId the user ID
+ */
+public record UserDataChangedEvent(Long userId) {
+}
@@ -10,4 +10,5 @@ import lombok.NoArgsConstructor;
 public class AuthResponse {
 	private UserDTO user;
 	private String token;
+	private String refreshToken;
 }
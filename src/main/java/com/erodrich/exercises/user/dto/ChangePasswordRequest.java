@@ -0,0 +1,19 @@
+package com.erodrich.exercises.user.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangePasswordRequest {
+	@NotBlank(message = "Current password is required")
+	private String currentPassword;
+	
+	@NotBlank(message = "New password is required")
+	@Size(min = 8, message = "Password must be at least 8 characters")
+	private String newPassword;
+}
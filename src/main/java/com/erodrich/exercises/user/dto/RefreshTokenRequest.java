@@ -0,0 +1,14 @@
+package com.erodrich.exercises.user.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenRequest {
+	@NotBlank(message = "Refresh token is required")
+	private String refreshToken;
+}
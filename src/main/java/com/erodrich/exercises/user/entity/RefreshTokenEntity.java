@@ -0,0 +1,53 @@
+package com.erodrich.exercises.user.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A refresh token, stored as the SHA-256 of its value. Each rotation marks the presented token as used
+ * and issues a new one in the same family; presenting a used token again revokes the whole family.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+		@Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+		@Index(name = "idx_refresh_tokens_user", columnList = "user_id"),
+		@Index(name = "idx_refresh_tokens_expires", columnList = "expires_at")
+})
+public class RefreshTokenEntity {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+	
+	@ManyToOne(fetch = FetchType.LAZY, optional = false)
+	@JoinColumn(name = "user_id", nullable = false)
+	private UserEntity user;
+	
+	@Column(name = "token_hash", unique = true, nullable = false, length = 64)
+	private String tokenHash;
+	
+	@Column(name = "family_id", nullable = false, length = 36)
+	private String familyId;
+	
+	@Column(name = "expires_at", nullable = false)
+	private LocalDateTime expiresAt;
+	
+	@Column(name = "used_at")
+	private LocalDateTime usedAt;
+	
+	@Column(name = "revoked_at")
+	private LocalDateTime revokedAt;
+}
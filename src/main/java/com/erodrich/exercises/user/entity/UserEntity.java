@@ -39,6 +39,11 @@ public class UserEntity {
 	@Column(name = "created_at", nullable = false, updatable = false)
 	private LocalDateTime createdAt;
 	
+	// Bumped with a single UPDATE by UserDataVersionService whenever the user's logs change,
+	// never written through the entity so a stale copy can't move it backwards
+	@Column(name = "data_version", nullable = false, updatable = false)
+	private long dataVersion;
+	
 	@PrePersist
 	protected void onCreate() {
 		createdAt = LocalDateTime.now();
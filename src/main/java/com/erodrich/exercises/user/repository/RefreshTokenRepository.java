@@ -0,0 +1,70 @@
+package com.erodrich.exercises.user.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.erodrich.exercises.user.entity.RefreshTokenEntity;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, Long> {
+	
+	/**
+	 * Find a token by hash together with its user, in one query
+	 *
+	 * @param tokenHash the SHA-256 of the token, hex encoded
+	 * @return the token
+	 */
+	@Query("SELECT t FROM RefreshTokenEntity t JOIN FETCH t.user WHERE t.tokenHash = :tokenHash")
+	Optional<RefreshTokenEntity> findByTokenHash(@Param("tokenHash") String tokenHash);
+	
+	/**
+	 * Mark a live token as used. Concurrent calls for the same token are serialized by the row lock,
+	 * so only one of them claims it.
+	 *
+	 * @param id the token ID
+	 * @param now the use time
+	 * @return 1 if this call claimed the token, 0 if it was already used or revoked
+	 */
+	@Modifying
+	@Query("UPDATE RefreshTokenEntity t SET t.usedAt = :now WHERE t.id = :id AND t.usedAt IS NULL AND t.revokedAt IS NULL")
+	int markUsed(@Param("id") Long id, @Param("now") LocalDateTime now);
+	
+	/**
+	 * Delete expired tokens, used or not. An expired token is rejected whether or not its row exists,
+	 * so reuse detection doesn't need it any more.
+	 *
+	 * @param now the current time
+	 * @return the number of rows deleted
+	 */
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM RefreshTokenEntity t WHERE t.expiresAt <= :now")
+	int deleteExpired(@Param("now") LocalDateTime now);
+	
+	/**
+	 * Revoke every live token of a family
+	 *
+	 * @param familyId the family
+	 * @param now the revocation time
+	 * @return the number of tokens revoked
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE RefreshTokenEntity t SET t.revokedAt = :now WHERE t.familyId = :familyId AND t.revokedAt IS NULL")
+	int revokeFamily(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+	
+	/**
+	 * Revoke every live token of a user
+	 *
+	 * @param userId the user ID
+	 * @param now the revocation time
+	 * @return the number of tokens revoked
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE RefreshTokenEntity t SET t.revokedAt = :now WHERE t.user.id = :userId AND t.revokedAt IS NULL")
+	int revokeAllByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+}
@@ -3,6 +3,10 @@ package com.erodrich.exercises.user.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.erodrich.exercises.user.entity.UserEntity;
 
@@ -10,4 +14,25 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
 	Optional<UserEntity> findByUsername(String username);
 	
 	Optional<UserEntity> findByEmail(String email);
+	
+	/**
+	 * Get the version of a user's data without loading the user.
+	 * Called on its own it reads the primary, not a replica, so it sees every committed write;
+	 * within a read-only transaction it reads on that transaction's connection.
+	 * @param userId the user ID
+	 * @return the version, or empty if the user does not exist
+	 */
+	@Transactional
+	@Query("SELECT u.dataVersion FROM UserEntity u WHERE u.id = :userId")
+	Optional<Long> findDataVersionById(@Param("userId") Long userId);
+	
+	/**
+	 * Increment the version of a user's data. Native because the column is not updatable through the entity;
+	 * the row lock also orders concurrent writers of the same user.
+	 * @param userId the user ID
+	 * @return the number of rows updated, 0 if the user does not exist
+	 */
+	@Modifying
+	@Query(value = "UPDATE users SET data_version = data_version + 1 WHERE id = :userId", nativeQuery = true)
+	int incrementDataVersion(@Param("userId") Long userId);
 }
@@ -0,0 +1,152 @@
+package com.erodrich.exercises.user.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.erodrich.exercises.security.jwt.JwtProperties;
+import com.erodrich.exercises.user.entity.RefreshTokenEntity;
+import com.erodrich.exercises.user.entity.UserEntity;
+import com.erodrich.exercises.user.repository.RefreshTokenRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Issues and rotates refresh tokens. Tokens are 256 random bits, so they are stored as a plain SHA-256
+ * rather than a BCrypt hash: renewing costs one indexed lookup instead of a password verification.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+	
+	private static final int TOKEN_BYTES = 32;
+	
+	private final RefreshTokenRepository refreshTokenRepository;
+	private final JwtProperties jwtProperties;
+	private final SecureRandom secureRandom = new SecureRandom();
+	
+	/**
+	 * Issue a refresh token starting a new family, e.g. on login
+	 *
+	 * @param user the user
+	 * @return the token, which is only ever returned here
+	 */
+	@Transactional
+	public String issue(UserEntity user) {
+		return issue(user, UUID.randomUUID().toString());
+	}
+	
+	/**
+	 * Exchange a refresh token for a new one of the same family. A token that was already exchanged
+	 * means it has been copied, so the whole family is revoked and both holders have to log in again.
+	 * The revocation is committed even though the exchange fails.
+	 *
+	 * @param token the presented token
+	 * @return the token's user and the new token
+	 * @throws IllegalArgumentException if the token is unknown, expired, revoked or reused
+	 */
+	@Transactional(noRollbackFor = IllegalArgumentException.class)
+	public RotatedToken rotate(String token) {
+		RefreshTokenEntity current = refreshTokenRepository.findByTokenHash(hash(token))
+			.orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+		LocalDateTime now = LocalDateTime.now();
+		
+		if (current.getRevokedAt() != null) {
+			throw new IllegalArgumentException("Invalid refresh token");
+		}
+		if (current.getUsedAt() != null) {
+			throw reuseDetected(current, now);
+		}
+		if (!current.getExpiresAt().isAfter(now)) {
+			throw new IllegalArgumentException("Invalid refresh token");
+		}
+		// Claimed atomically: of two concurrent exchanges of the same token, only one gets a new token
+		if (refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+			throw reuseDetected(current, now);
+		}
+		
+		UserEntity user = current.getUser();
+		return new RotatedToken(user, issue(user, current.getFamilyId()));
+	}
+	
+	/**
+	 * Revoke a refresh token and every token rotated from the same login. Unknown tokens are ignored.
+	 *
+	 * @param token the refresh token
+	 */
+	@Transactional
+	public void revoke(String token) {
+		refreshTokenRepository.findByTokenHash(hash(token))
+			.ifPresent(current -> refreshTokenRepository.revokeFamily(current.getFamilyId(), LocalDateTime.now()));
+	}
+	
+	/**
+	 * Revoke all of a user's refresh tokens, e.g. after a password change
+	 *
+	 * @param userId the user ID
+	 */
+	@Transactional
+	public void revokeAll(Long userId) {
+		refreshTokenRepository.revokeAllByUserId(userId, LocalDateTime.now());
+	}
+	
+	/**
+	 * Delete expired refresh tokens
+	 */
+	@Scheduled(fixedDelayString = "${jwt.refresh-cleanup-interval:3600000}",
+			initialDelayString = "${jwt.refresh-cleanup-interval:3600000}")
+	public void deleteExpired() {
+		int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+		log.debug("Deleted {} expired refresh tokens", deleted);
+	}
+	
+	private IllegalArgumentException reuseDetected(RefreshTokenEntity token, LocalDateTime now) {
+		int revoked = refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+		log.warn("Refresh token reuse for user {}, revoked {} token(s) of its family",
+			token.getUser().getId(), revoked);
+		return new IllegalArgumentException("Refresh token reuse detected");
+	}
+	
+	private String issue(UserEntity user, String familyId) {
+		byte[] bytes = new byte[TOKEN_BYTES];
+		secureRandom.nextBytes(bytes);
+		String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+		
+		RefreshTokenEntity entity = new RefreshTokenEntity();
+		entity.setUser(user);
+		entity.setTokenHash(hash(token));
+		entity.setFamilyId(familyId);
+		entity.setExpiresAt(LocalDateTime.now().plusNanos(jwtProperties.getRefreshExpiration() * 1_000_000));
+		refreshTokenRepository.save(entity);
+		return token;
+	}
+	
+	static String hash(String token) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+	
+	/**
+	 * Result of a rotation
+	 *
+	 * @param user the token's user
+	 * @param refreshToken the new refresh token
+	 */
+	public record RotatedToken(UserEntity user, String refreshToken) {
+	}
+}
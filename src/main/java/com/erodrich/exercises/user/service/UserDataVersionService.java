@@ -0,0 +1,191 @@
+package com.erodrich.exercises.user.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.erodrich.exercises.user.UserDataChangedEvent;
+import com.erodrich.exercises.user.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Monotonic per-user version of the user's log data (users.data_version), used as the ETag of the
+ * log endpoints so an unchanged poll is answered with 304 without reading exercise_logs.
+ * <p>
+ * Versions are cached for {@code app.data-version.cache-ttl}. Bumps made on this node drop the cached
+ * version on commit; the TTL bounds how long a bump made on another node goes unnoticed.
+ */
+@Service
+public class UserDataVersionService {
+
+	private final UserRepository userRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final long ttlNanos;
+	private final int maxSize;
+	private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+	// Bumped on every invalidation so lookups that started before it are not stored
+	private final AtomicLong generation = new AtomicLong();
+	private final Object writeLock = new Object();
+
+	private final Counter hits;
+	private final Counter misses;
+
+	public UserDataVersionService(UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+			MeterRegistry meterRegistry,
+			@Value("${app.data-version.cache-ttl:5s}") Duration ttl,
+			@Value("${app.data-version.cache-max-size:10000}") int maxSize) {
+		this.userRepository = userRepository;
+		this.eventPublisher = eventPublisher;
+		this.ttlNanos = ttl.toNanos();
+		this.maxSize = maxSize;
+		this.hits = lookups(meterRegistry, "hit");
+		this.misses = lookups(meterRegistry, "miss");
+	}
+
+	/**
+	 * Get the current version of a user's data
+	 *
+	 * @param userId the user ID
+	 * @return the version, 0 for a user that does not exist
+	 */
+	public long current(Long userId) {
+		long now = System.nanoTime();
+		Entry entry = entries.get(userId);
+		if (entry != null && now - entry.loadedAt() < ttlNanos) {
+			hits.increment();
+			return entry.version();
+		}
+
+		misses.increment();
+		long observed = generation.get();
+		long version = userRepository.findDataVersionById(userId).orElse(0L);
+		store(userId, new Entry(version, now), observed);
+		return version;
+	}
+
+	/**
+	 * Strong ETag of the current version of a user's data and of the catalog the data embeds.
+	 * Renaming an exercise or muscle group changes the logs' bodies without bumping any user.
+	 *
+	 * @param userId the user ID
+	 * @param catalogVersion version of the catalog entries embedded in the response
+	 * @return the quoted entity tag
+	 */
+	public String etag(Long userId, String catalogVersion) {
+		return etagOf(current(userId), catalogVersion);
+	}
+
+	/**
+	 * Strong ETag of a given version of a user's data and of the catalog the data embeds
+	 *
+	 * @param version the user's data version
+	 * @param catalogVersion version of the catalog entries embedded in the response
+	 * @return the quoted entity tag
+	 */
+	public static String etagOf(long version, String catalogVersion) {
+		return "\"v" + version + "-" + catalogVersion + "\"";
+	}
+
+	/**
+	 * Read a user's data together with the version it reflects. Both run in one read-only transaction,
+	 * so on the same connection: a replica when replicas are enabled, otherwise the primary. The version
+	 * is read first and writes hold the user's row until they commit, so the data is at least as new as
+	 * the version and a lagging replica yields an older version with its older data, never a newer one.
+	 *
+	 * @param userId the user ID
+	 * @param read reads the data, in this transaction
+	 * @return the version, 0 for a user that does not exist, and the data
+	 */
+	@Transactional(readOnly = true)
+	public <T> Versioned<T> readAtVersion(Long userId, Supplier<T> read) {
+		long version = userRepository.findDataVersionById(userId).orElse(0L);
+		return new Versioned<>(version, read.get());
+	}
+
+	/**
+	 * Increment the version of a user's data in the caller's transaction.
+	 * Must be called by every write to the user's logs. The user's row stays locked until the caller
+	 * commits, so writes of the same user commit in version order.
+	 *
+	 * @param userId the user ID
+	 * @return the new version, to stamp on the rows written
+	 * @throws UserNotFoundException if the user does not exist
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public long bump(Long userId) {
+		if (userRepository.incrementDataVersion(userId) == 0) {
+			throw new UserNotFoundException(userId);
+		}
+		eventPublisher.publishEvent(new UserDataChangedEvent(userId));
+		return userRepository.findDataVersionById(userId)
+				.orElseThrow(() -> new UserNotFoundException(userId));
+	}
+
+	/**
+	 * Drop a user's cached version
+	 *
+	 * @param userId the user ID
+	 */
+	public void invalidate(Long userId) {
+		synchronized (writeLock) {
+			generation.incrementAndGet();
+			entries.remove(userId);
+		}
+	}
+
+	/**
+	 * Drop the cached version once the transaction that bumped it has committed
+	 *
+	 * @param event the bump
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserDataChanged(UserDataChangedEvent event) {
+		invalidate(event.userId());
+	}
+
+	private void store(Long userId, Entry entry, long observed) {
+		synchronized (writeLock) {
+			if (generation.get() != observed) {
+				return;
+			}
+			if (entries.size() >= maxSize && !entries.containsKey(userId)) {
+				entries.entrySet().removeIf(e -> entry.loadedAt() - e.getValue().loadedAt() >= ttlNanos);
+				if (entries.size() >= maxSize) {
+					entries.clear();
+				}
+			}
+			entries.put(userId, entry);
+		}
+	}
+
+	private static Counter lookups(MeterRegistry meterRegistry, String result) {
+		return Counter.builder("user.data.version.lookups")
+				.description("Data version cache lookups by result")
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Data read by {@link #readAtVersion}
+	 *
+	 * @param version the user's data version the data reflects
+	 * @param value the data
+	 */
+	public record Versioned<T>(long version, T value) {
+	}
+
+	private record Entry(long version, long loadedAt) {
+	}
+}
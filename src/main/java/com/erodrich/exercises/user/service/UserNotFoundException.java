@@ -0,0 +1,12 @@
+package com.erodrich.exercises.user.service;
+
+/**
+ * Thrown when writing data of a user ID that matches no user, e.g. an admin posting logs for an unknown user.
+ * Endpoints answer it with 404.
+ */
+public class UserNotFoundException extends RuntimeException {
+
+	public UserNotFoundException(Long userId) {
+		super("User not found: " + userId);
+	}
+}
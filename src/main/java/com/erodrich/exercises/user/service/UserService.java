@@ -1,14 +1,20 @@
 package com.erodrich.exercises.user.service;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
+import com.erodrich.exercises.security.jwt.JwtClaims;
 import com.erodrich.exercises.security.jwt.JwtTokenProvider;
+import com.erodrich.exercises.security.jwt.TokenRevocationService;
+import com.erodrich.exercises.security.service.PasswordHasher;
+import com.erodrich.exercises.user.UserChangedEvent;
 import com.erodrich.exercises.user.dto.AuthResponse;
 import com.erodrich.exercises.user.dto.LoginRequest;
 import com.erodrich.exercises.user.dto.RegisterRequest;
 import com.erodrich.exercises.user.dto.UserDTO;
+import com.erodrich.exercises.user.entity.Role;
 import com.erodrich.exercises.user.entity.UserEntity;
 import com.erodrich.exercises.user.mapper.UserMapper;
 import com.erodrich.exercises.user.repository.UserRepository;
@@ -21,59 +27,115 @@ public class UserService {
 	
 	private final UserRepository userRepository;
 	private final UserMapper userMapper;
-	private final PasswordEncoder passwordEncoder;
+	private final PasswordHasher passwordHasher;
 	private final JwtTokenProvider jwtTokenProvider;
+	private final RefreshTokenService refreshTokenService;
+	private final TokenRevocationService tokenRevocationService;
+	private final ApplicationEventPublisher eventPublisher;
+	// Password hashing waits for a slot of a bounded executor, so it runs outside transactions
+	private final TransactionOperations transactionOperations;
 	
-	@Transactional
+	/**
+	 * Register a user. The password is hashed between two short transactions, so a request waiting
+	 * for a hashing slot holds no database connection.
+	 *
+	 * @param request the registration
+	 * @return the user and its tokens
+	 * @throws IllegalArgumentException if the username or email is taken
+	 */
 	public AuthResponse register(RegisterRequest request) {
-		// Check if username already exists
-		if (userRepository.findByUsername(request.getUsername()).isPresent()) {
-			throw new IllegalArgumentException("Username already exists");
-		}
-		
-		// Check if email already exists
-		if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-			throw new IllegalArgumentException("Email already exists");
-		}
-		
-		// Create entity and hash password
-		UserEntity entity = userMapper.toEntity(request);
-		entity.setPassword(passwordEncoder.encode(request.getPassword()));
+		transactionOperations.executeWithoutResult(status -> checkAvailable(request));
+		String passwordHash = passwordHasher.encode(request.getPassword());
 		
-		// Save user
-		UserEntity savedEntity = userRepository.save(entity);
-		
-		// Generate JWT token using email and role
-		String token = jwtTokenProvider.generateToken(
-			savedEntity.getEmail(), 
-			"ROLE_" + savedEntity.getRole().name()
-		);
-		
-		// Return response with user and token
-		UserDTO userDTO = userMapper.toDTO(savedEntity);
-		return new AuthResponse(userDTO, token);
+		return transactionOperations.execute(status -> {
+			// Checked again: the username or email may have been taken while hashing
+			checkAvailable(request);
+			
+			UserEntity entity = userMapper.toEntity(request);
+			entity.setPassword(passwordHash);
+			UserEntity savedEntity = userRepository.save(entity);
+			
+			// Generate JWT token using user ID, email and role
+			String token = jwtTokenProvider.generateToken(
+				savedEntity.getId(),
+				savedEntity.getEmail(), 
+				"ROLE_" + savedEntity.getRole().name()
+			);
+			
+			// Return response with user and tokens
+			UserDTO userDTO = userMapper.toDTO(savedEntity);
+			return new AuthResponse(userDTO, token, refreshTokenService.issue(savedEntity));
+		});
 	}
 	
-	@Transactional(readOnly = true)
+	/**
+	 * Log a user in. The user is loaded and the connection released before the password check,
+	 * which may wait for a hashing slot; the refresh token is then issued in its own transaction.
+	 *
+	 * @param request the credentials
+	 * @return the user and its tokens
+	 * @throws IllegalArgumentException if the email or password is wrong
+	 */
 	public AuthResponse login(LoginRequest request) {
-		// Find user by email
-		UserEntity user = userRepository.findByEmail(request.getEmail())
+		// Find user by email, on the primary so a user who just registered is found
+		UserEntity user = transactionOperations.execute(status -> userRepository.findByEmail(request.getEmail()))
 			.orElseThrow(() -> new IllegalArgumentException("Invalid email or password"));
 		
 		// Verify password
-		if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+		if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
 			throw new IllegalArgumentException("Invalid email or password");
 		}
 		
-		// Generate JWT token using email and role
+		// Generate JWT token using user ID, email and role
 		String token = jwtTokenProvider.generateToken(
+			user.getId(),
 			user.getEmail(),
 			"ROLE_" + user.getRole().name()
 		);
 		
-		// Return response with user and token
+		// Return response with user and tokens
 		UserDTO userDTO = userMapper.toDTO(user);
-		return new AuthResponse(userDTO, token);
+		return new AuthResponse(userDTO, token, refreshTokenService.issue(user));
+	}
+	
+	/**
+	 * Exchange a refresh token for a new access token and refresh token, without a password check
+	 *
+	 * @param refreshToken the refresh token
+	 * @return the user and the new tokens
+	 * @throws IllegalArgumentException if the refresh token is not valid
+	 */
+	// A detected reuse revokes the token family; that must commit even though the refresh fails
+	@Transactional(noRollbackFor = IllegalArgumentException.class)
+	public AuthResponse refresh(String refreshToken) {
+		RefreshTokenService.RotatedToken rotated = refreshTokenService.rotate(refreshToken);
+		UserEntity user = rotated.user();
+		
+		String token = jwtTokenProvider.generateToken(
+			user.getId(),
+			user.getEmail(),
+			"ROLE_" + user.getRole().name()
+		);
+		return new AuthResponse(userMapper.toDTO(user), token, rotated.refreshToken());
+	}
+	
+	/**
+	 * Revoke an access token before it expires, and the refresh token of the same login if given
+	 *
+	 * @param accessToken the access token
+	 * @param refreshToken the refresh token, may be null
+	 * @throws IllegalArgumentException if the access token is not valid or has no jti claim
+	 */
+	@Transactional
+	public void logout(String accessToken, String refreshToken) {
+		JwtClaims claims = jwtTokenProvider.parse(accessToken)
+			.filter(c -> c.tokenId() != null)
+			.orElseThrow(() -> new IllegalArgumentException("Token can't be revoked"));
+		
+		tokenRevocationService.revoke(claims.tokenId(), claims.expiresAt());
+		if (refreshToken != null) {
+			refreshTokenService.revoke(refreshToken);
+		}
 	}
 	
 	@Transactional(readOnly = true)
@@ -83,4 +145,79 @@ public class UserService {
 		
 		return userMapper.toDTO(user);
 	}
+	
+	/**
+	 * Check if a user exists. Read from the primary, not a replica, so a user who just
+	 * registered is found.
+	 *
+	 * @param userId the user ID
+	 * @return true if the user exists
+	 */
+	@Transactional
+	public boolean existsById(Long userId) {
+		return userRepository.existsById(userId);
+	}
+	
+	/**
+	 * Change a user's password after checking the current one. Existing refresh tokens are revoked.
+	 * Like {@link #login}, the check and the new hash run outside any transaction.
+	 *
+	 * @param userId the user ID
+	 * @param currentPassword the current password
+	 * @param newPassword the new password
+	 * @throws IllegalArgumentException if the user doesn't exist or the current password is wrong
+	 */
+	public void changePassword(Long userId, String currentPassword, String newPassword) {
+		String checkedHash = transactionOperations.execute(status -> userRepository.findById(userId))
+			.orElseThrow(() -> new IllegalArgumentException("User not found"))
+			.getPassword();
+		
+		if (!passwordHasher.matches(currentPassword, checkedHash)) {
+			throw new IllegalArgumentException("Invalid password");
+		}
+		String newHash = passwordHasher.encode(newPassword);
+		
+		transactionOperations.executeWithoutResult(status -> {
+			UserEntity user = userRepository.findById(userId)
+				.orElseThrow(() -> new IllegalArgumentException("User not found"));
+			// The password checked above must still be the current one
+			if (!user.getPassword().equals(checkedHash)) {
+				throw new IllegalArgumentException("Invalid password");
+			}
+			
+			user.setPassword(newHash);
+			refreshTokenService.revokeAll(user.getId());
+			eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail()));
+		});
+	}
+	
+	/**
+	 * Change a user's role
+	 *
+	 * @param userId the user ID
+	 * @param role the new role
+	 * @return the updated user
+	 * @throws IllegalArgumentException if the user doesn't exist
+	 */
+	@Transactional
+	public UserDTO changeRole(Long userId, Role role) {
+		UserEntity user = userRepository.findById(userId)
+			.orElseThrow(() -> new IllegalArgumentException("User not found"));
+		
+		user.setRole(role);
+		eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail()));
+		return userMapper.toDTO(user);
+	}
+	
+	private void checkAvailable(RegisterRequest request) {
+		// Check if username already exists
+		if (userRepository.findByUsername(request.getUsername()).isPresent()) {
+			throw new IllegalArgumentException("Username already exists");
+		}
+		
+		// Check if email already exists
+		if (userRepository.findByEmail(request.getEmail()).isPresent()) {
+			throw new IllegalArgumentException("Email already exists");
+		}
+	}
 }
@@ -5,7 +5,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 import com.erodrich.exercises.exerciselogging.dto.ExerciseDTO;
@@ -21,12 +20,17 @@ import lombok.extern.slf4j.Slf4j;
  * timestamp;muscle_group;exercise;weight;sets;comments;failure
  * 10/11/2025 15:49:18;Chest;Incline Dumbbell Press;30;3;11,10,9;No
  * 10/11/2025 16:05:37;Chest;Dumbbell Flat Press;32;4;10,9,10,8;No
+ * A field may be double-quoted to contain the delimiter. An empty weight or rep count is a missing
+ * value, and a line with neither is a log without sets.
  */
 @Slf4j
 public class CsvLoaderUtil {
 
 	public static final String COMMA_DELIMITER = ";";
+	private static final char DELIMITER = ';';
 	public static final String PATH_TO_CSV = "csvfiles/userlogs.csv";
+	public static final int COLUMN_COUNT = 7;
+	private static final String HEADER_FIRST_COLUMN = "timestamp";
 
 	public static void main(String[] args) throws IOException {
 		List<List<String>> records = new ArrayList<>();
@@ -39,35 +43,107 @@ public class CsvLoaderUtil {
 		try (BufferedReader br = new BufferedReader(new InputStreamReader(inputStream))) {
 			String line;
 			while ((line = br.readLine()) != null) {
-				String[] values = line.split(COMMA_DELIMITER);
-				records.add(Arrays.asList(values));
+				records.add(splitLine(line));
 			}
 		}
 		records.removeFirst();
-		var logs = records.stream().map(r -> ExerciseLogDTO.builder()
-				.timestamp(r.get(0))
-				.exercise(ExerciseDTO.builder()
-						.group(r.get(1))
-						.name(r.get(2))
-						.build())
-				.sets(createSet(r.get(3), r.get(5)))
-				.failure(Boolean.parseBoolean(r.get(6)))
-				.build()).toList();
+		var logs = records.stream().map(CsvLoaderUtil::toLog).toList();
 
 		ObjectMapper mapper = new ObjectMapper();
 		log.info(mapper.writeValueAsString(logs));
 	}
 
+	/**
+	 * Parse one data line of the CSV format into a log DTO
+	 *
+	 * @param line the line, without line terminator
+	 * @return the log DTO
+	 * @throws IllegalArgumentException if the line doesn't have the expected columns or numbers
+	 */
+	public static ExerciseLogDTO parseLine(String line) {
+		return toLog(splitLine(line));
+	}
+
+	/**
+	 * Check whether a line is the header of the CSV format
+	 *
+	 * @param line the line
+	 * @return true if the line is the header
+	 */
+	public static boolean isHeader(String line) {
+		return line.startsWith(HEADER_FIRST_COLUMN);
+	}
+
+	private static ExerciseLogDTO toLog(List<String> r) {
+		if (r.size() < COLUMN_COUNT) {
+			throw new IllegalArgumentException(
+					"Expected " + COLUMN_COUNT + " columns but found " + r.size());
+		}
+		try {
+			return ExerciseLogDTO.builder()
+					.timestamp(r.get(0))
+					.exercise(ExerciseDTO.builder()
+							.group(r.get(1))
+							.name(r.get(2))
+							.build())
+					.sets(createSet(r.get(3), r.get(5)))
+					.failure(parseFailure(r.get(6)))
+					.build();
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid number: " + e.getMessage());
+		}
+	}
+
+	// The spreadsheet writes Yes/No
+	private static boolean parseFailure(String failure) {
+		String value = failure.trim();
+		return "yes".equalsIgnoreCase(value) || Boolean.parseBoolean(value);
+	}
+
 	private static List<ExerciseSetDTO> createSet(String weight, String reps) {
 		var result = new ArrayList<ExerciseSetDTO>();
 		var cleanWeight = weight.replace(",", ".").replace("\"", "");
-		String[] arrayReps = reps.replace("\"", "").split(",");
+		var cleanReps = reps.replace("\"", "");
+		if (cleanWeight.isEmpty() && cleanReps.isEmpty()) {
+			return result;
+		}
+		Double setWeight = cleanWeight.isEmpty() ? null : Double.parseDouble(cleanWeight);
+		String[] arrayReps = cleanReps.split(",", -1);
 		for (String arrayRep : arrayReps) {
 			result.add(ExerciseSetDTO.builder()
-					.weight(Double.parseDouble(cleanWeight))
-					.reps(Integer.parseInt(arrayRep))
+					.weight(setWeight)
+					.reps(arrayRep.isEmpty() ? null : Integer.parseInt(arrayRep))
 					.build());
 		}
 		return result;
 	}
+
+	// A field starting with a quote runs to the closing quote; "" inside it is a literal quote
+	private static List<String> splitLine(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c != '"') {
+					field.append(c);
+				} else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else {
+					quoted = false;
+				}
+			} else if (c == '"' && field.isEmpty()) {
+				quoted = true;
+			} else if (c == DELIMITER) {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields;
+	}
 }
@@ -1,9 +1,9 @@
 -- Pre-populate admin user
 -- Password: Admin123! (BCrypt encoded)
-INSERT INTO users (id, username, email, password, role, created_at)
-VALUES (1, 'admin', 'admin@exercises.com', '$2a$10$4bJP6cLB76ZcsEJEPUDNr.wwK2yq84CdsuC90qiXrUHQUxtS/ZBse', 'ADMIN', CURRENT_TIMESTAMP);
-INSERT INTO users (id, username, email, password, role, created_at)
-VALUES (2, 'erodrich', 'erodrich@exercises.com', '$2a$10$LK6UK4KA0qJMpBx4XvL0yOTiLKqM7mWmyEISwf7rAcKADXLI85FJi', 'ADMIN', CURRENT_TIMESTAMP);
+INSERT INTO users (id, username, email, password, role, created_at, data_version)
+VALUES (1, 'admin', 'admin@exercises.com', '$2a$10$4bJP6cLB76ZcsEJEPUDNr.wwK2yq84CdsuC90qiXrUHQUxtS/ZBse', 'ADMIN', CURRENT_TIMESTAMP, 0);
+INSERT INTO users (id, username, email, password, role, created_at, data_version)
+VALUES (2, 'erodrich', 'erodrich@exercises.com', '$2a$10$LK6UK4KA0qJMpBx4XvL0yOTiLKqM7mWmyEISwf7rAcKADXLI85FJi', 'ADMIN', CURRENT_TIMESTAMP, 0);
 
 -- Pre-populate MuscleGroup table
 INSERT INTO muscle_groups (id, name, description)
@@ -0,0 +1,19 @@
+-- Queue of POST /logs payloads accepted with Prefer: respond-async, saved later by LogIngestionWorker.
+DO $$
+BEGIN
+    IF to_regclass('exercise_logs') IS NOT NULL THEN
+        CREATE TABLE IF NOT EXISTS log_ingestions (
+            log_ingestion_id UUID             PRIMARY KEY,
+            user_id          BIGINT           NOT NULL,
+            payload          VARCHAR(1000000) NOT NULL,
+            log_count        INTEGER          NOT NULL,
+            status           VARCHAR(16)      NOT NULL,
+            error            VARCHAR(500),
+            created_at       TIMESTAMP(6)     NOT NULL,
+            processed_at     TIMESTAMP(6)
+        );
+        -- Workers pick the oldest pending payloads; cleanup deletes old processed ones
+        CREATE INDEX IF NOT EXISTS idx_log_ingestions_status_created
+            ON log_ingestions (status, created_at);
+    END IF;
+END $$;
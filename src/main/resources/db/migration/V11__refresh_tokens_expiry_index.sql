@@ -0,0 +1,7 @@
+-- Serves the periodic delete of expired refresh tokens (RefreshTokenService.deleteExpired).
+DO $$
+BEGIN
+    IF to_regclass('refresh_tokens') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires ON refresh_tokens (expires_at);
+    END IF;
+END $$;
@@ -0,0 +1,8 @@
+-- Retry bookkeeping of queued payloads: failed attempts so far and when the next one may start.
+DO $$
+BEGIN
+    IF to_regclass('log_ingestions') IS NOT NULL THEN
+        ALTER TABLE log_ingestions ADD COLUMN IF NOT EXISTS attempts INTEGER NOT NULL DEFAULT 0;
+        ALTER TABLE log_ingestions ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP(6);
+    END IF;
+END $$;
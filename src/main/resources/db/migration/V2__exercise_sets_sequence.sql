@@ -0,0 +1,11 @@
+-- exercise_sets ids move from IDENTITY to a pooled sequence so set inserts can be JDBC-batched.
+-- INCREMENT BY must match allocationSize on ExerciseSetEntity.
+CREATE SEQUENCE IF NOT EXISTS exercise_sets_seq START WITH 1 INCREMENT BY 50;
+
+-- Start above existing ids; on an empty schema the table is created later by Hibernate (dev)
+DO $$
+BEGIN
+    IF to_regclass('exercise_sets') IS NOT NULL THEN
+        PERFORM setval('exercise_sets_seq', COALESCE((SELECT MAX(exercise_set_id) FROM exercise_sets), 0) + 1, false);
+    END IF;
+END $$;
@@ -0,0 +1,32 @@
+-- Projection of the newest log per (user, exercise), maintained by LatestExerciseLogService on write.
+-- Sets are a JSON array in the ExerciseSetListConverter format: [{"weight":80.0,"reps":10}, ...]
+DO $$
+BEGIN
+    IF to_regclass('exercise_logs') IS NOT NULL THEN
+        CREATE TABLE IF NOT EXISTS latest_exercise_log (
+            user_id         BIGINT        NOT NULL REFERENCES users (id),
+            exercise_id     BIGINT        NOT NULL REFERENCES exercises (id),
+            exercise_log_id BIGINT        NOT NULL,
+            date            TIMESTAMP(6)  NOT NULL,
+            has_failed      BOOLEAN       NOT NULL,
+            sets            VARCHAR(8000) NOT NULL,
+            PRIMARY KEY (user_id, exercise_id)
+        );
+
+        -- Backfill existing history; later corrections go through POST /api/v1/admin/latest-logs/rebuild
+        INSERT INTO latest_exercise_log (user_id, exercise_id, exercise_log_id, date, has_failed, sets)
+        SELECT l.user_id, l.exercise_id, l.exercise_log_id, l.date, l.has_failed,
+               COALESCE((SELECT json_agg(json_build_object('weight', s.weight, 'reps', s.reps)
+                                         ORDER BY s.exercise_set_id)::text
+                         FROM exercise_log_sets ls
+                         JOIN exercise_sets s ON s.exercise_set_id = ls.exercise_set_id
+                         WHERE ls.exercise_log_id = l.exercise_log_id), '[]')
+        FROM (
+            SELECT DISTINCT ON (user_id, exercise_id) *
+            FROM exercise_logs
+            WHERE user_id IS NOT NULL AND exercise_id IS NOT NULL AND date IS NOT NULL
+            ORDER BY user_id, exercise_id, date DESC, exercise_log_id DESC
+        ) l
+        ON CONFLICT (user_id, exercise_id) DO NOTHING;
+    END IF;
+END $$;
@@ -0,0 +1,17 @@
+-- Refresh tokens, stored as the hex SHA-256 of the token; see RefreshTokenService.
+DO $$
+BEGIN
+    IF to_regclass('users') IS NOT NULL THEN
+        CREATE TABLE IF NOT EXISTS refresh_tokens (
+            id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+            user_id    BIGINT       NOT NULL REFERENCES users (id),
+            token_hash VARCHAR(64)  NOT NULL UNIQUE,
+            family_id  VARCHAR(36)  NOT NULL,
+            expires_at TIMESTAMP(6) NOT NULL,
+            used_at    TIMESTAMP(6),
+            revoked_at TIMESTAMP(6)
+        );
+        CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens (family_id);
+        CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user ON refresh_tokens (user_id);
+    END IF;
+END $$;
@@ -0,0 +1,6 @@
+-- Access tokens revoked before expiry, by jti; rows are deleted once the token has expired.
+-- See TokenRevocationService.
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    token_id   VARCHAR(36)  PRIMARY KEY,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,21 @@
+-- Indexes for the hot log and catalog queries. The plain ones are also declared in @Table(indexes)
+-- so Hibernate-created schemas (tests, a fresh dev database) get them; the functional one is only here.
+DO $$
+BEGIN
+    IF to_regclass('exercise_logs') IS NOT NULL THEN
+        -- findByUserId and the keyset pages
+        CREATE INDEX IF NOT EXISTS idx_exercise_logs_user_date
+            ON exercise_logs (user_id, date DESC, exercise_log_id DESC);
+        -- findFirstByUserIdAndExerciseIdOrderByDateDescIdDesc and the latest-per-exercise rebuild
+        CREATE INDEX IF NOT EXISTS idx_exercise_logs_user_exercise_date
+            ON exercise_logs (user_id, exercise_id, date DESC);
+        CREATE INDEX IF NOT EXISTS idx_exercises_muscle_group_name
+            ON exercises (muscle_group_id, name);
+    END IF;
+
+    IF to_regclass('muscle_groups') IS NOT NULL THEN
+        -- findByNameIgnoreCase / existsByNameIgnoreCase / findByUpperCaseNameIn compare UPPER(name)
+        CREATE INDEX IF NOT EXISTS idx_muscle_groups_upper_name
+            ON muscle_groups (UPPER(name));
+    END IF;
+END $$;
@@ -0,0 +1,31 @@
+-- Sets move from the exercise_log_sets many-to-many join table to exercise_sets itself:
+-- each set row carries its log ID and its position within the log (set_order, from 0).
+-- The join table never recorded an order; sets are numbered by ID, which is the order they were inserted.
+DO $$
+BEGIN
+    IF to_regclass('exercise_log_sets') IS NOT NULL THEN
+        ALTER TABLE exercise_sets ADD COLUMN IF NOT EXISTS exercise_log_id BIGINT;
+        ALTER TABLE exercise_sets ADD COLUMN IF NOT EXISTS set_order INTEGER;
+
+        UPDATE exercise_sets s
+        SET exercise_log_id = ls.exercise_log_id,
+            set_order = ls.position
+        FROM (
+            SELECT exercise_log_id, exercise_set_id,
+                   ROW_NUMBER() OVER (PARTITION BY exercise_log_id ORDER BY exercise_set_id) - 1 AS position
+            FROM exercise_log_sets
+        ) ls
+        WHERE s.exercise_set_id = ls.exercise_set_id;
+
+        -- Sets no log referenced were unreachable through the API
+        DELETE FROM exercise_sets WHERE exercise_log_id IS NULL;
+
+        ALTER TABLE exercise_sets ALTER COLUMN exercise_log_id SET NOT NULL;
+        ALTER TABLE exercise_sets ALTER COLUMN set_order SET NOT NULL;
+        ALTER TABLE exercise_sets ADD CONSTRAINT fk_exercise_sets_log
+            FOREIGN KEY (exercise_log_id) REFERENCES exercise_logs (exercise_log_id);
+        CREATE INDEX IF NOT EXISTS idx_exercise_sets_log_order ON exercise_sets (exercise_log_id, set_order);
+
+        DROP TABLE exercise_log_sets;
+    END IF;
+END $$;
@@ -0,0 +1,7 @@
+-- Per-user version of the user's log data, bumped by UserDataVersionService on every write and used as ETag.
+DO $$
+BEGIN
+    IF to_regclass('users') IS NOT NULL THEN
+        ALTER TABLE users ADD COLUMN IF NOT EXISTS data_version BIGINT NOT NULL DEFAULT 0;
+    END IF;
+END $$;
@@ -0,0 +1,20 @@
+-- Change tracking for GET /logs/changes: each log carries the user's data version of the write that saved it,
+-- and deleted logs leave a tombstone with the data version of the delete.
+-- Logs saved before this migration get 0, so only a full sync (no token) returns them.
+DO $$
+BEGIN
+    IF to_regclass('exercise_logs') IS NOT NULL THEN
+        ALTER TABLE exercise_logs ADD COLUMN IF NOT EXISTS change_seq BIGINT NOT NULL DEFAULT 0;
+        CREATE INDEX IF NOT EXISTS idx_exercise_logs_user_change_seq
+            ON exercise_logs (user_id, change_seq);
+
+        CREATE TABLE IF NOT EXISTS exercise_log_tombstones (
+            exercise_log_id BIGINT       PRIMARY KEY,
+            user_id         BIGINT       NOT NULL,
+            change_seq      BIGINT       NOT NULL,
+            deleted_at      TIMESTAMP(6) NOT NULL
+        );
+        CREATE INDEX IF NOT EXISTS idx_exercise_log_tombstones_user_change_seq
+            ON exercise_log_tombstones (user_id, change_seq);
+    END IF;
+END $$;
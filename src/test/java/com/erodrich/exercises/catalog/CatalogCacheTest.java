@@ -0,0 +1,183 @@
+package com.erodrich.exercises.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.erodrich.exercises.exercise.entity.ExerciseEntity;
+import com.erodrich.exercises.exercise.repository.ExerciseRepository;
+import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
+import com.erodrich.exercises.musclegroup.repository.MuscleGroupRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogCacheTest {
+
+	@Mock
+	private MuscleGroupRepository muscleGroupRepository;
+
+	@Mock
+	private ExerciseRepository exerciseRepository;
+
+	private SimpleMeterRegistry meterRegistry;
+	private CatalogCache catalogCache;
+
+	private final MuscleGroupEntity chest = new MuscleGroupEntity(1L, "CHEST", "Chest exercises");
+	private final MuscleGroupEntity legs = new MuscleGroupEntity(4L, "LEGS", "Leg exercises");
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		catalogCache = new CatalogCache(muscleGroupRepository, exerciseRepository, meterRegistry);
+	}
+
+	@Test
+	void findMuscleGroup_shouldLoadOnceAndIgnoreCase() {
+		// Given
+		when(muscleGroupRepository.findByNameIgnoreCase("chest")).thenReturn(Optional.of(chest));
+
+		// When
+		Optional<MuscleGroupEntity> first = catalogCache.findMuscleGroup("chest");
+		Optional<MuscleGroupEntity> second = catalogCache.findMuscleGroup("Chest");
+
+		// Then
+		assertThat(first).isPresent();
+		assertThat(first.get().getName()).isEqualTo("CHEST");
+		assertThat(second.get()).isSameAs(first.get());
+		verify(muscleGroupRepository, times(1)).findByNameIgnoreCase("chest");
+		assertThat(lookups("muscle_groups", "miss")).isEqualTo(1);
+		assertThat(lookups("muscle_groups", "hit")).isEqualTo(1);
+	}
+
+	@Test
+	void findMuscleGroup_whenNotFound_shouldNotCacheAbsence() {
+		// Given
+		when(muscleGroupRepository.findByNameIgnoreCase("ARMS")).thenReturn(Optional.empty());
+
+		// When
+		catalogCache.findMuscleGroup("ARMS");
+		catalogCache.findMuscleGroup("ARMS");
+
+		// Then
+		verify(muscleGroupRepository, times(2)).findByNameIgnoreCase("ARMS");
+	}
+
+	@Test
+	void findMuscleGroups_shouldOnlyQueryMissingNames() {
+		// Given
+		when(muscleGroupRepository.findByNameIgnoreCase("CHEST")).thenReturn(Optional.of(chest));
+		when(muscleGroupRepository.findByUpperCaseNameIn(Set.of("LEGS"))).thenReturn(List.of(legs));
+		catalogCache.findMuscleGroup("CHEST");
+
+		// When
+		Map<String, MuscleGroupEntity> found = catalogCache.findMuscleGroups(List.of("chest", "legs"));
+
+		// Then
+		assertThat(found).containsOnlyKeys("CHEST", "LEGS");
+		verify(muscleGroupRepository, times(1)).findByUpperCaseNameIn(anyCollection());
+	}
+
+	@Test
+	void findExercises_shouldCacheLoadedExercises() {
+		// Given
+		ExerciseEntity benchPress = exercise(10L, "Bench Press", chest);
+		CatalogCache.ExerciseKey key = new CatalogCache.ExerciseKey(1L, "Bench Press");
+		CatalogCache.ExerciseKey unknown = new CatalogCache.ExerciseKey(1L, "Cable Fly");
+		when(exerciseRepository.findByMuscleGroupIdInAndNameIn(anyCollection(), anyCollection()))
+				.thenReturn(List.of(benchPress));
+
+		// When
+		Map<CatalogCache.ExerciseKey, ExerciseEntity> first = catalogCache.findExercises(List.of(key, unknown));
+		Map<CatalogCache.ExerciseKey, ExerciseEntity> second = catalogCache.findExercises(List.of(key));
+
+		// Then
+		assertThat(first).containsOnlyKeys(key);
+		assertThat(first.get(key).getId()).isEqualTo(10L);
+		assertThat(first.get(key).getMuscleGroup().getName()).isEqualTo("CHEST");
+		assertThat(second.get(key)).isSameAs(first.get(key));
+		verify(exerciseRepository, times(1)).findByMuscleGroupIdInAndNameIn(anyCollection(), anyCollection());
+		assertThat(lookups("exercises", "hit")).isEqualTo(1);
+		assertThat(lookups("exercises", "miss")).isEqualTo(2);
+	}
+
+	@Test
+	void onCatalogChanged_withExercisesScope_shouldKeepMuscleGroups() {
+		// Given
+		when(muscleGroupRepository.findByNameIgnoreCase("CHEST")).thenReturn(Optional.of(chest));
+		when(exerciseRepository.findByNameAndMuscleGroup("Bench Press", chest))
+				.thenReturn(Optional.of(exercise(10L, "Bench Press", chest)));
+		catalogCache.findMuscleGroup("CHEST");
+		catalogCache.findExercise(chest, "Bench Press");
+
+		// When
+		catalogCache.onCatalogChanged(CatalogChangedEvent.exercises());
+		catalogCache.findMuscleGroup("CHEST");
+		catalogCache.findExercise(chest, "Bench Press");
+
+		// Then
+		verify(muscleGroupRepository, times(1)).findByNameIgnoreCase("CHEST");
+		verify(exerciseRepository, times(2)).findByNameAndMuscleGroup("Bench Press", chest);
+	}
+
+	@Test
+	void onCatalogChanged_withMuscleGroupsScope_shouldDropEverything() {
+		// Given
+		when(muscleGroupRepository.findByNameIgnoreCase("CHEST")).thenReturn(Optional.of(chest));
+		when(exerciseRepository.findByNameAndMuscleGroup("Bench Press", chest))
+				.thenReturn(Optional.of(exercise(10L, "Bench Press", chest)));
+		catalogCache.findMuscleGroup("CHEST");
+		catalogCache.findExercise(chest, "Bench Press");
+
+		// When
+		catalogCache.onCatalogChanged(CatalogChangedEvent.muscleGroups());
+		catalogCache.findMuscleGroup("CHEST");
+		catalogCache.findExercise(chest, "Bench Press");
+
+		// Then
+		verify(muscleGroupRepository, times(2)).findByNameIgnoreCase("CHEST");
+		verify(exerciseRepository, times(2)).findByNameAndMuscleGroup("Bench Press", chest);
+	}
+
+	@Test
+	void findMuscleGroup_shouldReturnDetachedCopy() {
+		// Given
+		when(muscleGroupRepository.findByNameIgnoreCase("CHEST")).thenReturn(Optional.of(chest));
+
+		// When
+		MuscleGroupEntity cached = catalogCache.findMuscleGroup("CHEST").orElseThrow();
+
+		// Then
+		assertThat(cached).isNotSameAs(chest);
+		assertThat(cached).isEqualTo(chest);
+	}
+
+	private double lookups(String cache, String result) {
+		return meterRegistry.get("catalog.cache.lookups")
+				.tag("cache", cache)
+				.tag("result", result)
+				.counter()
+				.count();
+	}
+
+	private static ExerciseEntity exercise(Long id, String name, MuscleGroupEntity muscleGroup) {
+		ExerciseEntity exercise = new ExerciseEntity();
+		exercise.setId(id);
+		exercise.setName(name);
+		exercise.setMuscleGroup(muscleGroup);
+		return exercise;
+	}
+}
@@ -0,0 +1,206 @@
+package com.erodrich.exercises.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.erodrich.exercises.catalog.CatalogResponseCache.Listing;
+import com.erodrich.exercises.exercise.dto.ExerciseDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+class CatalogResponseCacheTest {
+
+	private SimpleMeterRegistry meterRegistry;
+	private CatalogResponseCache responseCache;
+
+	private final AtomicInteger exerciseLoads = new AtomicInteger();
+	private final AtomicInteger muscleGroupLoads = new AtomicInteger();
+
+	private final Supplier<List<ExerciseDTO>> exercises = () -> {
+		exerciseLoads.incrementAndGet();
+		return List.of(new ExerciseDTO(1L, "Bench Press", "CHEST"), new ExerciseDTO(2L, "Squat", "LEGS"));
+	};
+
+	private final Supplier<List<String>> muscleGroups = () -> {
+		muscleGroupLoads.incrementAndGet();
+		return List.of("CHEST", "LEGS");
+	};
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		responseCache = new CatalogResponseCache(meterRegistry, JsonMapper.builder().build());
+	}
+
+	@Test
+	void respond_shouldSerializeOnce() {
+		// When
+		ResponseEntity<byte[]> first = responseCache.respond(Listing.EXERCISES, exercises, request(null));
+		ResponseEntity<byte[]> second = responseCache.respond(Listing.EXERCISES, exercises, request(null));
+
+		// Then
+		assertThat(exerciseLoads).hasValue(1);
+		assertThat(builds("exercises")).isEqualTo(1);
+		assertThat(second.getBody()).isEqualTo(first.getBody());
+		assertThat(new String(first.getBody())).contains("\"name\":\"Bench Press\"");
+		assertThat(first.getHeaders().getETag()).isEqualTo(second.getHeaders().getETag());
+		assertThat(first.getHeaders().getLastModified()).isPositive();
+		assertThat(first.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(first.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+	}
+
+	@Test
+	void respond_shouldUseGivenMapper() {
+		// Given
+		JsonMapper jsonMapper = JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build();
+		responseCache = new CatalogResponseCache(new SimpleMeterRegistry(), jsonMapper);
+
+		// When
+		ResponseEntity<byte[]> response = responseCache.respond(Listing.EXERCISES, exercises, request(null));
+
+		// Then
+		assertThat(response.getBody()).isEqualTo(jsonMapper.writeValueAsBytes(exercises.get()));
+	}
+
+	@Test
+	void respond_whenGzipAccepted_shouldSendCompressedVariant() throws IOException {
+		// When
+		ResponseEntity<byte[]> identity = responseCache.respond(Listing.EXERCISES, exercises, request(null));
+		ResponseEntity<byte[]> gzip = responseCache.respond(Listing.EXERCISES, exercises, request("gzip, deflate, br"));
+
+		// Then
+		assertThat(gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(gzip.getHeaders().getETag()).isNotEqualTo(identity.getHeaders().getETag());
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getBody()))) {
+			assertThat(in.readAllBytes()).isEqualTo(identity.getBody());
+		}
+		assertThat(exerciseLoads).hasValue(1);
+	}
+
+	@Test
+	void respond_whenETagMatches_shouldReturnNotModified() {
+		// Given
+		String etag = responseCache.respond(Listing.EXERCISES, exercises, request("gzip")).getHeaders().getETag();
+		MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/v1/exercises");
+		servletRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+		MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+		// When
+		ResponseEntity<byte[]> response = responseCache.respond(Listing.EXERCISES, exercises,
+				new ServletWebRequest(servletRequest, servletResponse));
+
+		// Then
+		assertThat(response).isNull();
+		assertThat(servletResponse.getStatus()).isEqualTo(304);
+		assertThat(servletResponse.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+	}
+
+	@Test
+	void respond_whenETagOfOtherVariant_shouldSendBody() {
+		// Given
+		String identityEtag = responseCache.respond(Listing.EXERCISES, exercises, request(null)).getHeaders().getETag();
+		MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/v1/exercises");
+		servletRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, identityEtag);
+
+		// When
+		ResponseEntity<byte[]> response = responseCache.respond(Listing.EXERCISES, exercises,
+				new ServletWebRequest(servletRequest, new MockHttpServletResponse()));
+
+		// Then
+		assertThat(response).isNotNull();
+		assertThat(response.getStatusCode().value()).isEqualTo(200);
+	}
+
+	@Test
+	void onCatalogChanged_withExercises_shouldOnlyRebuildExercises() {
+		// Given
+		responseCache.respond(Listing.EXERCISES, exercises, request(null));
+		responseCache.respond(Listing.MUSCLE_GROUPS, muscleGroups, request(null));
+
+		// When
+		responseCache.onCatalogChanged(CatalogChangedEvent.exercises());
+		responseCache.respond(Listing.EXERCISES, exercises, request(null));
+		responseCache.respond(Listing.MUSCLE_GROUPS, muscleGroups, request(null));
+
+		// Then
+		assertThat(exerciseLoads).hasValue(2);
+		assertThat(muscleGroupLoads).hasValue(1);
+	}
+
+	@Test
+	void onCatalogChanged_withMuscleGroups_shouldRebuildBoth() {
+		// Given
+		responseCache.respond(Listing.EXERCISES, exercises, request(null));
+		responseCache.respond(Listing.MUSCLE_GROUPS, muscleGroups, request(null));
+
+		// When
+		responseCache.onCatalogChanged(CatalogChangedEvent.muscleGroups());
+		responseCache.respond(Listing.EXERCISES, exercises, request(null));
+		responseCache.respond(Listing.MUSCLE_GROUPS, muscleGroups, request(null));
+
+		// Then
+		assertThat(exerciseLoads).hasValue(2);
+		assertThat(muscleGroupLoads).hasValue(2);
+		assertThat(builds("muscle_groups")).isEqualTo(2);
+	}
+
+	@Test
+	void get_whenInvalidatedWhileBuilding_shouldNotStoreStaleBody() {
+		// Given: the catalog changes while the first build is reading the old data
+		Supplier<List<ExerciseDTO>> racingLoader = () -> {
+			responseCache.onCatalogChanged(CatalogChangedEvent.exercises());
+			return exercises.get();
+		};
+
+		// When
+		responseCache.get(Listing.EXERCISES, racingLoader);
+		responseCache.get(Listing.EXERCISES, exercises);
+		responseCache.get(Listing.EXERCISES, exercises);
+
+		// Then
+		assertThat(exerciseLoads).hasValue(2);
+	}
+
+	@Test
+	void acceptsGzip_shouldHonourQualityValues() {
+		assertThat(CatalogResponseCache.acceptsGzip(null)).isFalse();
+		assertThat(CatalogResponseCache.acceptsGzip("identity")).isFalse();
+		assertThat(CatalogResponseCache.acceptsGzip("br, deflate")).isFalse();
+		assertThat(CatalogResponseCache.acceptsGzip("gzip")).isTrue();
+		assertThat(CatalogResponseCache.acceptsGzip("deflate, GZIP;q=0.8")).isTrue();
+		assertThat(CatalogResponseCache.acceptsGzip("*")).isTrue();
+		assertThat(CatalogResponseCache.acceptsGzip("gzip;q=0")).isFalse();
+		assertThat(CatalogResponseCache.acceptsGzip("gzip; q=0.0, identity")).isFalse();
+		assertThat(CatalogResponseCache.acceptsGzip("gzip;q=bogus")).isTrue();
+	}
+
+	private static ServletWebRequest request(String acceptEncoding) {
+		MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/v1/exercises");
+		if (acceptEncoding != null) {
+			servletRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+		}
+		return new ServletWebRequest(servletRequest, new MockHttpServletResponse());
+	}
+
+	private double builds(String listing) {
+		return meterRegistry.get("catalog.response.cache.builds").tag("listing", listing).counter().count();
+	}
+}
@@ -0,0 +1,137 @@
+package com.erodrich.exercises.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Routes through the same proxy setup as ReadReplicaConfig, with three in-memory H2 databases
+ * standing in for the primary and two replicas. Each database knows its own name.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private FailingDataSource replica2;
+    private ReplicaRoutingDataSource replicaDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        DataSource primary = database("primary");
+        replica2 = new FailingDataSource(database("replica2"));
+        replicaDataSource = new ReplicaRoutingDataSource(List.of(
+                new ReplicaRoutingDataSource.Replica("replica1", database("replica1")),
+                new ReplicaRoutingDataSource.Replica("replica2", replica2)), primary, meterRegistry);
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void readOnlyTransactions_shouldRoundRobinOverReplicas() {
+        assertThat(readsFrom(4)).containsExactly("replica1", "replica2", "replica1", "replica2");
+    }
+
+    @Test
+    void readWriteTransactions_shouldUsePrimary() {
+        String name = readWrite.execute(status -> name());
+        assertThat(name).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransactions_whenReplicaFails_shouldSkipItUntilHealthy() {
+        // Given
+        replica2.failing = true;
+
+        // When/Then - the failure marks replica2 down
+        assertThat(readsFrom(3)).containsExactly("replica1", "replica1", "replica1");
+
+        // When/Then - the health check brings it back
+        replica2.failing = false;
+        replicaDataSource.checkHealth();
+        assertThat(readsFrom(2)).containsExactlyInAnyOrder("replica1", "replica2");
+    }
+
+    @Test
+    void readOnlyTransactions_whenNoReplicaIsUp_shouldFallBackToPrimary() {
+        // Given
+        replica2.failing = true;
+        // A fresh registry: the healthy-replicas gauge of the data source built in setUp would shadow this one
+        meterRegistry = new SimpleMeterRegistry();
+        replicaDataSource = new ReplicaRoutingDataSource(List.of(
+                new ReplicaRoutingDataSource.Replica("replica2", replica2)), database("primary"), meterRegistry);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(database("primary"));
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+
+        // When/Then
+        assertThat(readsFrom(2)).containsExactly("primary", "primary");
+        assertThat(meterRegistry.get("db.read.connections").tag("target", "primary").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("db.replicas.healthy").gauge().value()).isZero();
+    }
+
+    private List<String> readsFrom(int transactions) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < transactions; i++) {
+            names.add(readOnly.execute(status -> name()));
+        }
+        return names;
+    }
+
+    private String name() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbcTemplate.execute("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static final class FailingDataSource extends DelegatingDataSource {
+
+        private volatile boolean failing;
+
+        FailingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (failing) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+}
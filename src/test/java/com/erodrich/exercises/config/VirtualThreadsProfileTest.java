@@ -0,0 +1,21 @@
+package com.erodrich.exercises.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("virtual-threads")
+class VirtualThreadsProfileTest {
+
+    @Autowired
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    @Test
+    void contextLoads_withPinningMonitorRunning() {
+        assertThat(pinningMonitor.isRunning()).isTrue();
+    }
+}
@@ -1,9 +1,7 @@
 package com.erodrich.exercises.exercise.mapper;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.lenient;
-import static org.mockito.Mockito.when;
 
 import java.util.Optional;
 
@@ -13,10 +11,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.erodrich.exercises.catalog.CatalogCache;
 import com.erodrich.exercises.exercise.dto.ExerciseDTO;
 import com.erodrich.exercises.exercise.entity.ExerciseEntity;
 import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
-import com.erodrich.exercises.musclegroup.repository.MuscleGroupRepository;
 
 @ExtendWith(MockitoExtension.class)
 class ExerciseMapperTest {
@@ -24,11 +22,11 @@ class ExerciseMapperTest {
 	private ExerciseMapper exerciseMapper;
 	
 	@Mock
-	private MuscleGroupRepository muscleGroupRepository;
+	private CatalogCache catalogCache;
 	
 	@BeforeEach
 	void setUp() {
-		exerciseMapper = new ExerciseMapper(muscleGroupRepository);
+		exerciseMapper = new ExerciseMapper(catalogCache);
 		
 		// Setup mock muscle groups
 		MuscleGroupEntity chest = new MuscleGroupEntity(1L, "CHEST", "Chest exercises");
@@ -38,18 +36,18 @@ class ExerciseMapperTest {
 		MuscleGroupEntity biceps = new MuscleGroupEntity(5L, "BICEPS", "Bicep exercises");
 		MuscleGroupEntity triceps = new MuscleGroupEntity(6L, "TRICEPS", "Tricep exercises");
 		
-		lenient().when(muscleGroupRepository.findByNameIgnoreCase("CHEST")).thenReturn(Optional.of(chest));
-		lenient().when(muscleGroupRepository.findByNameIgnoreCase("chest")).thenReturn(Optional.of(chest));
-		lenient().when(muscleGroupRepository.findByNameIgnoreCase("BACK")).thenReturn(Optional.of(back));
-		lenient().when(muscleGroupRepository.findByNameIgnoreCase("back")).thenReturn(Optional.of(back));
-		lenient().when(muscleGroupRepository.findByNameIgnoreCase("SHOULDERS")).thenReturn(Optional.of(shoulders));
-		lenient().when(muscleGroupRepository.findByNameIgnoreCase("shoulders")).thenReturn(Optional.of(shoulders));
-		lenient().when(muscleGroupRepository.findByNameIgnoreCase("LEGS")).thenReturn(Optional.of(legs));
-		lenient().when(muscleGroupRepository.findByNameIgnoreCase("legs")).thenReturn(Optional.of(legs));
-		lenient().when(muscleGroupRepository.findByNameIgnoreCase("BICEPS")).thenReturn(Optional.of(biceps));
-		lenient().when(muscleGroupRepository.findByNameIgnoreCase("biceps")).thenReturn(Optional.of(biceps));
-		lenient().when(muscleGroupRepository.findByNameIgnoreCase("TRICEPS")).thenReturn(Optional.of(triceps));
-		lenient().when(muscleGroupRepository.findByNameIgnoreCase("triceps")).thenReturn(Optional.of(triceps));
+		lenient().when(catalogCache.findMuscleGroup("CHEST")).thenReturn(Optional.of(chest));
+		lenient().when(catalogCache.findMuscleGroup("chest")).thenReturn(Optional.of(chest));
+		lenient().when(catalogCache.findMuscleGroup("BACK")).thenReturn(Optional.of(back));
+		lenient().when(catalogCache.findMuscleGroup("back")).thenReturn(Optional.of(back));
+		lenient().when(catalogCache.findMuscleGroup("SHOULDERS")).thenReturn(Optional.of(shoulders));
+		lenient().when(catalogCache.findMuscleGroup("shoulders")).thenReturn(Optional.of(shoulders));
+		lenient().when(catalogCache.findMuscleGroup("LEGS")).thenReturn(Optional.of(legs));
+		lenient().when(catalogCache.findMuscleGroup("legs")).thenReturn(Optional.of(legs));
+		lenient().when(catalogCache.findMuscleGroup("BICEPS")).thenReturn(Optional.of(biceps));
+		lenient().when(catalogCache.findMuscleGroup("biceps")).thenReturn(Optional.of(biceps));
+		lenient().when(catalogCache.findMuscleGroup("TRICEPS")).thenReturn(Optional.of(triceps));
+		lenient().when(catalogCache.findMuscleGroup("triceps")).thenReturn(Optional.of(triceps));
 	}
 	
 	@Test
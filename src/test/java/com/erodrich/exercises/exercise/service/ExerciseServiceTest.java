@@ -15,13 +15,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import com.erodrich.exercises.catalog.CatalogCache;
+import com.erodrich.exercises.catalog.CatalogChangedEvent;
 import com.erodrich.exercises.exercise.dto.ExerciseDTO;
 import com.erodrich.exercises.exercise.entity.ExerciseEntity;
 import com.erodrich.exercises.exercise.mapper.ExerciseMapper;
 import com.erodrich.exercises.exercise.repository.ExerciseRepository;
 import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
-import com.erodrich.exercises.musclegroup.repository.MuscleGroupRepository;
 
 @ExtendWith(MockitoExtension.class)
 class ExerciseServiceTest {
@@ -33,7 +35,10 @@ class ExerciseServiceTest {
 	private ExerciseMapper exerciseMapper;
 	
 	@Mock
-	private MuscleGroupRepository muscleGroupRepository;
+	private CatalogCache catalogCache;
+	
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
 	
 	@InjectMocks
 	private ExerciseService exerciseService;
@@ -121,7 +126,7 @@ class ExerciseServiceTest {
 		
 		ExerciseDTO savedDTO = new ExerciseDTO(1L, "Pull Up", "BACK");
 		
-		when(muscleGroupRepository.findByNameIgnoreCase("BACK")).thenReturn(Optional.of(back));
+		when(catalogCache.findMuscleGroup("BACK")).thenReturn(Optional.of(back));
 		when(exerciseRepository.findByNameAndMuscleGroup("Pull Up", back)).thenReturn(Optional.empty());
 		when(exerciseMapper.toEntity(dto)).thenReturn(entity);
 		when(exerciseRepository.save(any(ExerciseEntity.class))).thenReturn(savedEntity);
@@ -134,6 +139,7 @@ class ExerciseServiceTest {
 		assertThat(result).isNotNull();
 		assertThat(result.getId()).isEqualTo(1L);
 		assertThat(result.getName()).isEqualTo("Pull Up");
+		verify(eventPublisher).publishEvent(CatalogChangedEvent.exercises());
 	}
 	
 	@Test
@@ -141,7 +147,7 @@ class ExerciseServiceTest {
 		// Given
 		ExerciseDTO dto = new ExerciseDTO(null, "Test", "INVALID");
 		
-		when(muscleGroupRepository.findByNameIgnoreCase("INVALID")).thenReturn(Optional.empty());
+		when(catalogCache.findMuscleGroup("INVALID")).thenReturn(Optional.empty());
 		
 		// When/Then
 		assertThatThrownBy(() -> exerciseService.createExercise(dto))
@@ -159,7 +165,7 @@ class ExerciseServiceTest {
 		existingEntity.setName("Bench Press");
 		existingEntity.setMuscleGroup(chest);
 		
-		when(muscleGroupRepository.findByNameIgnoreCase("CHEST")).thenReturn(Optional.of(chest));
+		when(catalogCache.findMuscleGroup("CHEST")).thenReturn(Optional.of(chest));
 		when(exerciseRepository.findByNameAndMuscleGroup("Bench Press", chest))
 			.thenReturn(Optional.of(existingEntity));
 		
@@ -190,7 +196,7 @@ class ExerciseServiceTest {
 		ExerciseDTO updatedDTO = new ExerciseDTO(1L, "New Name", "BACK");
 		
 		when(exerciseRepository.findById(1L)).thenReturn(Optional.of(existing));
-		when(muscleGroupRepository.findByNameIgnoreCase("BACK")).thenReturn(Optional.of(back));
+		when(catalogCache.findMuscleGroup("BACK")).thenReturn(Optional.of(back));
 		when(exerciseRepository.save(existing)).thenReturn(updatedEntity);
 		when(exerciseMapper.toDTO(updatedEntity)).thenReturn(updatedDTO);
 		
@@ -201,6 +207,7 @@ class ExerciseServiceTest {
 		assertThat(result).isNotNull();
 		assertThat(result.getName()).isEqualTo("New Name");
 		assertThat(result.getGroup()).isEqualTo("BACK");
+		verify(eventPublisher).publishEvent(CatalogChangedEvent.exercises());
 	}
 	
 	@Test
@@ -226,6 +233,7 @@ class ExerciseServiceTest {
 		
 		// Then
 		verify(exerciseRepository).deleteById(1L);
+		verify(eventPublisher).publishEvent(CatalogChangedEvent.exercises());
 	}
 	
 	@Test
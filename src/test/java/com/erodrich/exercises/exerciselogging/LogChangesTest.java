@@ -0,0 +1,159 @@
+package com.erodrich.exercises.exerciselogging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.erodrich.exercises.support.LogApiTestUser;
+import com.erodrich.exercises.user.entity.UserEntity;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * GET /logs/changes returns a page of the logs saved and deleted after a token, and the token for the next call.
+ */
+@SpringBootTest
+class LogChangesTest {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	@Autowired
+	private WebApplicationContext context;
+
+	private MockMvc mockMvc;
+	private UserEntity user;
+	private String bearer;
+
+	@BeforeEach
+	void setUp() {
+		LogApiTestUser testUser = LogApiTestUser.create(context, "syncer");
+		mockMvc = testUser.mockMvc();
+		user = testUser.user();
+		bearer = testUser.bearer();
+	}
+
+	@Test
+	void getChanges_shouldReturnOnlyWhatChangedAfterTheToken() throws Exception {
+		// Given - a full sync after the first log
+		long first = saveLog("17/12/2025 10:30:00");
+		JsonNode fullSync = read(get(logs() + "/changes"));
+		assertThat(ids(fullSync.get("changed"))).containsExactly(first);
+		String token = fullSync.get("token").asText();
+		assertThat(ids(read(get(logs() + "/changes").param("since", token)).get("changed"))).isEmpty();
+
+		// When - an older log is added and the latest one deleted
+		long second = saveLog("15/12/2025 10:30:00");
+		mockMvc.perform(delete(logs() + "/" + first).header("Authorization", bearer))
+			.andExpect(status().isNoContent());
+
+		// Then
+		JsonNode changes = read(get(logs() + "/changes").param("since", token));
+		assertThat(ids(changes.get("changed"))).containsExactly(second);
+		assertThat(ids(changes.get("deleted"))).containsExactly(first);
+		String next = changes.get("token").asText();
+		assertThat(next).isNotEqualTo(token);
+
+		JsonNode nothingNew = read(get(logs() + "/changes").param("since", next));
+		assertThat(ids(nothingNew.get("changed"))).isEmpty();
+		assertThat(ids(nothingNew.get("deleted"))).isEmpty();
+
+		// The latest log of the exercise moved back to the remaining one
+		JsonNode latest = read(get(logs() + "/latest").param("muscleGroup", "CHEST"));
+		assertThat(latest.elements().next().get("id").asLong()).isEqualTo(second);
+	}
+
+	@Test
+	void getChanges_withLimit_shouldPageThroughEveryChange() throws Exception {
+		// Given
+		long first = saveLog("15/12/2025 10:30:00");
+		long second = saveLog("16/12/2025 10:30:00");
+		long third = saveLog("17/12/2025 10:30:00");
+		mockMvc.perform(delete(logs() + "/" + first).header("Authorization", bearer))
+			.andExpect(status().isNoContent());
+
+		// When - a full sync one change at a time
+		List<Long> changed = new ArrayList<>();
+		List<Long> deleted = new ArrayList<>();
+		int pages = 0;
+		JsonNode page = read(get(logs() + "/changes").param("limit", "1"));
+		while (true) {
+			pages++;
+			changed.addAll(ids(page.get("changed")));
+			deleted.addAll(ids(page.get("deleted")));
+			if (!page.get("hasMore").asBoolean()) {
+				break;
+			}
+			page = read(get(logs() + "/changes").param("since", page.get("token").asText()).param("limit", "1"));
+		}
+
+		// Then - the remaining logs and the deletion, in change order
+		assertThat(changed).containsExactly(second, third);
+		assertThat(deleted).containsExactly(first);
+		assertThat(pages).isEqualTo(3);
+		JsonNode nothingNew = read(get(logs() + "/changes").param("since", page.get("token").asText()));
+		assertThat(ids(nothingNew.get("changed"))).isEmpty();
+		assertThat(ids(nothingNew.get("deleted"))).isEmpty();
+	}
+
+	@Test
+	void deleteLog_whenAlreadyDeleted_shouldReturnNotFound() throws Exception {
+		// Given
+		long log = saveLog("17/12/2025 10:30:00");
+		mockMvc.perform(delete(logs() + "/" + log).header("Authorization", bearer))
+			.andExpect(status().isNoContent());
+
+		// When/Then
+		mockMvc.perform(delete(logs() + "/" + log).header("Authorization", bearer))
+			.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void getChanges_withInvalidToken_shouldReturnBadRequest() throws Exception {
+		mockMvc.perform(get(logs() + "/changes").param("since", "not-a-token").header("Authorization", bearer))
+			.andExpect(status().isBadRequest());
+	}
+
+	private long saveLog(String timestamp) throws Exception {
+		String json = """
+				[{"timestamp": "%s",
+				  "exercise": {"name": "Bench Press", "group": "CHEST"},
+				  "sets": [{"weight": 100.0, "reps": 10}],
+				  "failure": false}]
+				""".formatted(timestamp);
+		JsonNode saved = read(post(logs()).contentType(MediaType.APPLICATION_JSON).content(json));
+		return saved.get(0).get("id").asLong();
+	}
+
+	private JsonNode read(MockHttpServletRequestBuilder request) throws Exception {
+		String body = mockMvc.perform(request.header("Authorization", bearer))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsString();
+		return OBJECT_MAPPER.readTree(body);
+	}
+
+	private static List<Long> ids(JsonNode array) {
+		List<Long> ids = new ArrayList<>();
+		for (JsonNode element : array) {
+			ids.add(element.isObject() ? element.get("id").asLong() : element.asLong());
+		}
+		return ids;
+	}
+
+	private String logs() {
+		return "/api/v1/users/" + user.getId() + "/logs";
+	}
+}
@@ -0,0 +1,130 @@
+package com.erodrich.exercises.exerciselogging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.erodrich.exercises.exercise.dto.ExerciseDTO;
+import com.erodrich.exercises.exercise.service.ExerciseService;
+import com.erodrich.exercises.support.LogApiTestUser;
+import com.erodrich.exercises.user.entity.UserEntity;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Log reads carry the user's data version and the catalog version as ETag and answer a matching If-None-Match with 304.
+ */
+@SpringBootTest
+class LogConditionalGetTest {
+	
+	private static final String LOG_JSON = """
+			[{"timestamp": "16/12/2025 10:30:00",
+			  "exercise": {"name": "Bench Press", "group": "CHEST"},
+			  "sets": [{"weight": 100.0, "reps": 10}],
+			  "failure": false}]
+			""";
+	
+	@Autowired
+	private WebApplicationContext context;
+	
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	
+	@Autowired
+	private ExerciseService exerciseService;
+	
+	private MockMvc mockMvc;
+	private UserEntity user;
+	private String bearer;
+	
+	@BeforeEach
+	void setUp() {
+		LogApiTestUser testUser = LogApiTestUser.create(context, "poller");
+		mockMvc = testUser.mockMvc();
+		user = testUser.user();
+		bearer = testUser.bearer();
+	}
+	
+	@Test
+	void getLogs_withCurrentETag_shouldAnswerNotModifiedWithoutQueries() throws Exception {
+		// Given
+		String etag = mockMvc.perform(get(logs()).header("Authorization", bearer))
+			.andExpect(status().isOk())
+			.andExpect(header().exists(HttpHeaders.ETAG))
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		Statistics statistics = statistics();
+		
+		// When/Then - authentication and the version are cached, so nothing reaches the database
+		mockMvc.perform(get(logs()).header("Authorization", bearer).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified())
+			.andExpect(header().string(HttpHeaders.ETAG, etag));
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+	}
+	
+	@Test
+	void getLogs_afterSavingLogs_shouldReturnNewETag() throws Exception {
+		// Given
+		String before = mockMvc.perform(get(logs() + "/latest").param("muscleGroup", "CHEST").header("Authorization", bearer))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		
+		// When
+		mockMvc.perform(post(logs()).header("Authorization", bearer)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(LOG_JSON))
+			.andExpect(status().isOk());
+		
+		// Then - the old ETag no longer matches
+		String after = mockMvc.perform(get(logs() + "/latest").param("muscleGroup", "CHEST")
+				.header("Authorization", bearer).header(HttpHeaders.IF_NONE_MATCH, before))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(after).isNotEqualTo(before);
+	}
+	
+	@Test
+	void getLogs_afterRenamingLoggedExercise_shouldReturnNewETag() throws Exception {
+		// Given
+		String name = "Incline Press " + System.nanoTime();
+		ExerciseDTO exercise = exerciseService.createExercise(new ExerciseDTO(null, name, "CHEST"));
+		mockMvc.perform(post(logs()).header("Authorization", bearer)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(LOG_JSON.replace("Bench Press", name)))
+			.andExpect(status().isOk());
+		String before = mockMvc.perform(get(logs()).header("Authorization", bearer))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		
+		// When - the user's data version stays the same
+		exerciseService.updateExercise(exercise.getId(), new ExerciseDTO(null, name + " (renamed)", "CHEST"));
+		
+		// Then - the logs embed the exercise name, so the old ETag no longer matches
+		String after = mockMvc.perform(get(logs()).header("Authorization", bearer).header(HttpHeaders.IF_NONE_MATCH, before))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(after).isNotEqualTo(before);
+	}
+	
+	private String logs() {
+		return "/api/v1/users/" + user.getId() + "/logs";
+	}
+	
+	private Statistics statistics() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+}
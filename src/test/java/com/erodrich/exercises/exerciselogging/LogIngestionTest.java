@@ -0,0 +1,128 @@
+package com.erodrich.exercises.exerciselogging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.erodrich.exercises.exerciselogging.service.LogIngestionWorker;
+import com.erodrich.exercises.support.LogApiTestUser;
+import com.erodrich.exercises.user.entity.UserEntity;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * POST /logs with Prefer: respond-async queues the logs and answers 202; a worker saves them later.
+ */
+@SpringBootTest(properties = "app.ingestion.async.enabled=true")
+class LogIngestionTest {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private LogIngestionWorker worker;
+
+	private MockMvc mockMvc;
+	private UserEntity user;
+	private String bearer;
+
+	@BeforeEach
+	void setUp() {
+		LogApiTestUser testUser = LogApiTestUser.create(context, "ingester");
+		mockMvc = testUser.mockMvc();
+		user = testUser.user();
+		bearer = testUser.bearer();
+	}
+
+	@Test
+	void createLogs_withRespondAsync_shouldQueueThenSave() throws Exception {
+		// When
+		MvcResult accepted = mockMvc.perform(post(logs())
+				.header("Authorization", bearer)
+				.header("Prefer", "respond-async")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body("CHEST")))
+			.andExpect(status().isAccepted())
+			.andExpect(header().string("Preference-Applied", "respond-async"))
+			.andReturn();
+
+		// Then - queued, not saved yet
+		String location = accepted.getResponse().getHeader("Location");
+		assertThat(location).startsWith(logs() + "/ingestions/");
+		assertThat(read(location).get("status").asText()).isEqualTo("PENDING");
+		assertThat(read(logs() + "/changes").get("changed")).isEmpty();
+
+		// When - a worker drains the queue
+		worker.drainOnce();
+
+		// Then
+		JsonNode ingestion = read(location);
+		assertThat(ingestion.get("status").asText()).isEqualTo("DONE");
+		assertThat(ingestion.get("logCount").asInt()).isEqualTo(1);
+		JsonNode changed = read(logs() + "/changes").get("changed");
+		assertThat(changed).hasSize(1);
+		assertThat(changed.get(0).get("exercise").get("name").asText()).isEqualTo("Bench Press");
+	}
+
+	@Test
+	void createLogs_withRespondAsyncAndUnknownGroup_shouldReturnBadRequest() throws Exception {
+		mockMvc.perform(post(logs())
+				.header("Authorization", bearer)
+				.header("Prefer", "respond-async")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body("NOT_A_GROUP")))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void createLogs_withOtherPreference_shouldSaveSynchronously() throws Exception {
+		mockMvc.perform(post(logs())
+				.header("Authorization", bearer)
+				.header("Prefer", "return=minimal")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body("CHEST")))
+			.andExpect(status().isOk());
+
+		assertThat(read(logs() + "/changes").get("changed")).hasSize(1);
+	}
+
+	@Test
+	void getIngestion_whenUnknown_shouldReturnNotFound() throws Exception {
+		mockMvc.perform(get(logs() + "/ingestions/00000000-0000-0000-0000-000000000000")
+				.header("Authorization", bearer))
+			.andExpect(status().isNotFound());
+	}
+
+	private static String body(String group) {
+		return """
+				[{"timestamp": "17/12/2025 10:30:00",
+				  "exercise": {"name": "Bench Press", "group": "%s"},
+				  "sets": [{"weight": 100.0, "reps": 10}],
+				  "failure": false}]
+				""".formatted(group);
+	}
+
+	private JsonNode read(String path) throws Exception {
+		String body = mockMvc.perform(get(path).header("Authorization", bearer))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsString();
+		return OBJECT_MAPPER.readTree(body);
+	}
+
+	private String logs() {
+		return "/api/v1/users/" + user.getId() + "/logs";
+	}
+}
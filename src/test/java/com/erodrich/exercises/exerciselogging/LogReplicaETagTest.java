@@ -0,0 +1,128 @@
+package com.erodrich.exercises.exerciselogging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.erodrich.exercises.support.LogApiTestUser;
+import com.erodrich.exercises.user.entity.UserEntity;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * With read replicas enabled, log reads run on a replica. The replica here is a copy of the primary
+ * taken on demand, so it lags by whatever was written since the last copy.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:etag-primary;DB_CLOSE_DELAY=-1",
+		// As in production: an open session would keep the first connection of the request, replica or not
+		"spring.jpa.open-in-view=false",
+		"app.datasource.read-replicas.enabled=true",
+		"app.datasource.read-replicas.urls[0]=" + LogReplicaETagTest.REPLICA_URL
+})
+class LogReplicaETagTest {
+
+	static final String REPLICA_URL = "jdbc:h2:mem:etag-replica;DB_CLOSE_DELAY=-1";
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private HikariDataSource primaryDataSource;
+
+	@TempDir
+	private Path tempDir;
+
+	private MockMvc mockMvc;
+	private UserEntity user;
+	private String bearer;
+
+	@BeforeEach
+	void setUp() {
+		LogApiTestUser testUser = LogApiTestUser.create(context, "replica-poller");
+		mockMvc = testUser.mockMvc();
+		user = testUser.user();
+		bearer = testUser.bearer();
+	}
+
+	@Test
+	void getLogs_fromLaggingReplica_shouldTagStaleBodyWithItsOwnVersion() throws Exception {
+		// Given - the replica has the first log, the primary already has the second
+		saveLog("16/12/2025 10:30:00");
+		syncReplica();
+		saveLog("17/12/2025 10:30:00");
+
+		// When
+		MvcResult stale = mockMvc.perform(get(logs()).header("Authorization", bearer))
+			.andExpect(status().isOk())
+			.andReturn();
+
+		// Then - the ETag names the replica's version, not the primary's
+		assertThat(logCount(stale)).isEqualTo(1);
+		String staleETag = stale.getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(staleETag).startsWith("\"v1-");
+
+		// When - the replica catches up
+		syncReplica();
+		MvcResult fresh = mockMvc.perform(get(logs()).header("Authorization", bearer)
+				.header(HttpHeaders.IF_NONE_MATCH, staleETag))
+			.andExpect(status().isOk())
+			.andReturn();
+
+		// Then - the stale ETag does not match, so the client gets the second log
+		assertThat(logCount(fresh)).isEqualTo(2);
+		assertThat(fresh.getResponse().getHeader(HttpHeaders.ETAG)).startsWith("\"v2-");
+	}
+
+	private void saveLog(String timestamp) throws Exception {
+		mockMvc.perform(post(logs()).header("Authorization", bearer)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						[{"timestamp": "%s",
+						  "exercise": {"name": "Bench Press", "group": "CHEST"},
+						  "sets": [{"weight": 100.0, "reps": 10}],
+						  "failure": false}]
+						""".formatted(timestamp)))
+			.andExpect(status().isOk());
+	}
+
+	// Replaces the replica with a copy of the primary as of now
+	private void syncReplica() throws Exception {
+		Path script = Files.createTempFile(tempDir, "primary", ".sql");
+		new JdbcTemplate(primaryDataSource).execute("SCRIPT TO '" + script + "'");
+		JdbcDataSource replica = new JdbcDataSource();
+		replica.setURL(REPLICA_URL);
+		JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+		replicaJdbc.execute("DROP ALL OBJECTS");
+		replicaJdbc.execute("RUNSCRIPT FROM '" + script + "'");
+	}
+
+	private static int logCount(MvcResult result) throws Exception {
+		JsonNode page = OBJECT_MAPPER.readTree(result.getResponse().getContentAsString());
+		return page.get("logs").size();
+	}
+
+	private String logs() {
+		return "/api/v1/users/" + user.getId() + "/logs";
+	}
+}
@@ -0,0 +1,125 @@
+package com.erodrich.exercises.exerciselogging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.erodrich.exercises.support.LogApiTestUser;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the same mix of log reads and writes (9:1) on a 200-thread platform pool, like Tomcat's default,
+ * and on a virtual thread per request, and logs throughput and latency percentiles of each.
+ * Skipped unless run with -Dbenchmark=true; -Dbenchmark.requests sets the request count (default 20,000).
+ * The in-memory H2 database has almost no I/O wait, so point spring.datasource.* at PostgreSQL for a
+ * representative comparison.
+ */
+@Slf4j
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ThreadingModelBenchmarkTest {
+
+	private static final int PLATFORM_THREADS = 200;
+
+	@Autowired
+	private WebApplicationContext context;
+
+	private MockMvc mockMvc;
+	private String path;
+	private String token;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		LogApiTestUser testUser = LogApiTestUser.create(context, "threading");
+		mockMvc = testUser.mockMvc();
+		path = testUser.logsPath();
+		token = testUser.bearer();
+		// Creates the exercise so reads have something to find
+		write();
+	}
+
+	@Test
+	void comparePlatformAndVirtualThreads() throws Exception {
+		int requests = Integer.getInteger("benchmark.requests", 20_000);
+
+		// Warm up both paths before measuring
+		run("platform (warm-up)", Executors.newFixedThreadPool(PLATFORM_THREADS), requests / 4);
+		run("virtual (warm-up)", Executors.newVirtualThreadPerTaskExecutor(), requests / 4);
+
+		int platformFailures = run("platform", Executors.newFixedThreadPool(PLATFORM_THREADS), requests);
+		int virtualFailures = run("virtual", Executors.newVirtualThreadPerTaskExecutor(), requests);
+
+		assertThat(platformFailures).isZero();
+		assertThat(virtualFailures).isZero();
+	}
+
+	private int run(String name, ExecutorService executor, int requests) throws Exception {
+		AtomicInteger failures = new AtomicInteger();
+		List<Future<Long>> latencies = new ArrayList<>(requests);
+		long start = System.nanoTime();
+		try (executor) {
+			for (int i = 0; i < requests; i++) {
+				boolean isWrite = i % 10 == 0;
+				latencies.add(executor.submit(() -> {
+					long requestStart = System.nanoTime();
+					try {
+						int status = isWrite ? write() : read();
+						if (status != 200) {
+							failures.incrementAndGet();
+						}
+					} catch (Exception e) {
+						failures.incrementAndGet();
+					}
+					return System.nanoTime() - requestStart;
+				}));
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+		long[] sorted = new long[requests];
+		for (int i = 0; i < requests; i++) {
+			sorted[i] = latencies.get(i).get();
+		}
+		Arrays.sort(sorted);
+		log.info("{} threads: {} requests in {} s ({} req/s), p50 {} ms, p99 {} ms, {} failed", name, requests,
+				String.format("%.2f", seconds), String.format("%.0f", requests / seconds),
+				String.format("%.2f", percentile(sorted, 0.50) / 1_000_000.0),
+				String.format("%.2f", percentile(sorted, 0.99) / 1_000_000.0), failures.get());
+		return failures.get();
+	}
+
+	private int read() throws Exception {
+		return mockMvc.perform(get(path).param("limit", "20").header("Authorization", token))
+				.andReturn().getResponse().getStatus();
+	}
+
+	private int write() throws Exception {
+		String body = "[{\"timestamp\":\"19/12/2025 14:30:00\",\"exercise\":{\"name\":\"Bench Press\",\"group\":\"CHEST\"},"
+				+ "\"sets\":[{\"weight\":80.0,\"reps\":10}],\"failure\":false}]";
+		return mockMvc.perform(post(path).header("Authorization", token)
+						.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andReturn().getResponse().getStatus();
+	}
+
+	private static long percentile(long[] sorted, double percentile) {
+		return sorted[Math.min(sorted.length - 1, (int) (sorted.length * percentile))];
+	}
+}
@@ -1,52 +1,39 @@
 package com.erodrich.exercises.exerciselogging.mapper;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.lenient;
-import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.erodrich.exercises.exercise.entity.ExerciseEntity;
 import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
-import com.erodrich.exercises.musclegroup.repository.MuscleGroupRepository;
 import com.erodrich.exercises.exerciselogging.dto.ExerciseDTO;
 import com.erodrich.exercises.exerciselogging.dto.ExerciseLogDTO;
 import com.erodrich.exercises.exerciselogging.dto.ExerciseSetDTO;
 import com.erodrich.exercises.exerciselogging.entity.ExerciseLogEntity;
 import com.erodrich.exercises.exerciselogging.entity.ExerciseSetEntity;
+import com.erodrich.exercises.exerciselogging.entity.LatestExerciseLogEntity;
 
-@ExtendWith(MockitoExtension.class)
 class ExerciseLogMapperTest {
 	
 	private ExerciseLogMapper exerciseLogMapper;
 	
-	@Mock
-	private MuscleGroupRepository muscleGroupRepository;
+	private ExerciseEntity benchPress;
+	private ExerciseEntity deadlift;
+	private ExerciseEntity squat;
 	
 	@BeforeEach
 	void setUp() {
-		exerciseLogMapper = new ExerciseLogMapper(muscleGroupRepository);
+		exerciseLogMapper = new ExerciseLogMapper();
 		
-		// Setup mock muscle groups
-		MuscleGroupEntity chest = new MuscleGroupEntity(1L, "CHEST", "Chest exercises");
-		MuscleGroupEntity back = new MuscleGroupEntity(2L, "BACK", "Back exercises");
-		MuscleGroupEntity legs = new MuscleGroupEntity(4L, "LEGS", "Leg exercises");
-		
-		lenient().when(muscleGroupRepository.findByNameIgnoreCase("CHEST")).thenReturn(Optional.of(chest));
-		lenient().when(muscleGroupRepository.findByNameIgnoreCase("BACK")).thenReturn(Optional.of(back));
-		lenient().when(muscleGroupRepository.findByNameIgnoreCase("LEGS")).thenReturn(Optional.of(legs));
+		// Exercises as resolved by ExerciseCatalogResolver
+		benchPress = exercise(1L, "Bench Press", new MuscleGroupEntity(1L, "CHEST", "Chest exercises"));
+		deadlift = exercise(2L, "Deadlift", new MuscleGroupEntity(2L, "BACK", "Back exercises"));
+		squat = exercise(3L, "Squat", new MuscleGroupEntity(4L, "LEGS", "Leg exercises"));
 	}
 	
 	@Test
@@ -57,10 +44,10 @@ class ExerciseLogMapperTest {
 		ExerciseSetDTO set2 = new ExerciseSetDTO(100.0, 8);
 		List<ExerciseSetDTO> sets = Arrays.asList(set1, set2);
 		
-		ExerciseLogDTO dto = new ExerciseLogDTO("12/16/2025 10:30:00", exerciseDTO, sets, false);
+		ExerciseLogDTO dto = new ExerciseLogDTO(null, "12/16/2025 10:30:00", exerciseDTO, sets, false);
 		
 		// When
-		ExerciseLogEntity entity = exerciseLogMapper.toEntity(dto);
+		ExerciseLogEntity entity = exerciseLogMapper.toEntity(dto, benchPress);
 		
 		// Then
 		assertThat(entity).isNotNull();
@@ -69,17 +56,19 @@ class ExerciseLogMapperTest {
 		assertThat(entity.getExercise()).isNotNull();
 		assertThat(entity.getExercise().getName()).isEqualTo("Bench Press");
 		assertThat(entity.getExercise().getMuscleGroup().getName()).isEqualTo("CHEST");
-		assertThat(entity.getSets()).hasSize(2);
+		assertThat(entity.getSets()).extracting(ExerciseSetEntity::getReps).containsExactly(10, 8);
+		assertThat(entity.getSets()).extracting(ExerciseSetEntity::getPosition).containsExactly(0, 1);
+		assertThat(entity.getSets()).allMatch(set -> set.getLog() == entity);
 	}
 	
 	@Test
 	void toEntity_withNullTimestamp_shouldUseCurrentTime() {
 		// Given
 		ExerciseDTO exerciseDTO = new ExerciseDTO(null, "Squat", "LEGS");
-		ExerciseLogDTO dto = new ExerciseLogDTO(null, exerciseDTO, Arrays.asList(), false);
+		ExerciseLogDTO dto = new ExerciseLogDTO(null, null, exerciseDTO, Arrays.asList(), false);
 		
 		// When
-		ExerciseLogEntity entity = exerciseLogMapper.toEntity(dto);
+		ExerciseLogEntity entity = exerciseLogMapper.toEntity(dto, squat);
 		
 		// Then
 		assertThat(entity).isNotNull();
@@ -91,10 +80,10 @@ class ExerciseLogMapperTest {
 	void toEntity_withNullFailure_shouldDefaultToFalse() {
 		// Given
 		ExerciseDTO exerciseDTO = new ExerciseDTO(null, "Deadlift", "BACK");
-		ExerciseLogDTO dto = new ExerciseLogDTO("12/16/2025 10:30:00", exerciseDTO, Arrays.asList(), null);
+		ExerciseLogDTO dto = new ExerciseLogDTO(null, "12/16/2025 10:30:00", exerciseDTO, Arrays.asList(), null);
 		
 		// When
-		ExerciseLogEntity entity = exerciseLogMapper.toEntity(dto);
+		ExerciseLogEntity entity = exerciseLogMapper.toEntity(dto, deadlift);
 		
 		// Then
 		assertThat(entity).isNotNull();
@@ -104,7 +93,7 @@ class ExerciseLogMapperTest {
 	@Test
 	void toEntity_withNullDTO_shouldReturnNull() {
 		// When
-		ExerciseLogEntity entity = exerciseLogMapper.toEntity(null);
+		ExerciseLogEntity entity = exerciseLogMapper.toEntity(null, benchPress);
 		
 		// Then
 		assertThat(entity).isNull();
@@ -130,7 +119,7 @@ class ExerciseLogMapperTest {
 		set2.setWeight(0.0);
 		set2.setReps(8);
 		
-		Set<ExerciseSetEntity> sets = new HashSet<>(Arrays.asList(set1, set2));
+		List<ExerciseSetEntity> sets = Arrays.asList(set1, set2);
 		
 		ExerciseLogEntity entity = new ExerciseLogEntity();
 		entity.setId(1L);
@@ -144,12 +133,13 @@ class ExerciseLogMapperTest {
 		
 		// Then
 		assertThat(dto).isNotNull();
+		assertThat(dto.getId()).isEqualTo(1L);
 		assertThat(dto.getTimestamp()).isEqualTo("16/12/2025 10:30:00");
 		assertThat(dto.getFailure()).isTrue();
 		assertThat(dto.getExercise()).isNotNull();
 		assertThat(dto.getExercise().getName()).isEqualTo("Pull Up");
 		assertThat(dto.getExercise().getGroup()).isEqualTo("BACK");
-		assertThat(dto.getSets()).hasSize(2);
+		assertThat(dto.getSets()).extracting(ExerciseSetDTO::getReps).containsExactly(10, 8);
 	}
 	
 	@Test
@@ -165,10 +155,10 @@ class ExerciseLogMapperTest {
 	void toEntity_withEmptySets_shouldCreateEmptySet() {
 		// Given
 		ExerciseDTO exerciseDTO = new ExerciseDTO(null, "Push Up", "CHEST");
-		ExerciseLogDTO dto = new ExerciseLogDTO("12/16/2025 10:30:00", exerciseDTO, Arrays.asList(), false);
+		ExerciseLogDTO dto = new ExerciseLogDTO(null, "12/16/2025 10:30:00", exerciseDTO, Arrays.asList(), false);
 		
 		// When
-		ExerciseLogEntity entity = exerciseLogMapper.toEntity(dto);
+		ExerciseLogEntity entity = exerciseLogMapper.toEntity(dto, benchPress);
 		
 		// Then
 		assertThat(entity).isNotNull();
@@ -179,13 +169,48 @@ class ExerciseLogMapperTest {
 	void toEntity_withNullSets_shouldCreateEmptySet() {
 		// Given
 		ExerciseDTO exerciseDTO = new ExerciseDTO(null, "Push Up", "CHEST");
-		ExerciseLogDTO dto = new ExerciseLogDTO("12/16/2025 10:30:00", exerciseDTO, null, false);
+		ExerciseLogDTO dto = new ExerciseLogDTO(null, "12/16/2025 10:30:00", exerciseDTO, null, false);
 		
 		// When
-		ExerciseLogEntity entity = exerciseLogMapper.toEntity(dto);
+		ExerciseLogEntity entity = exerciseLogMapper.toEntity(dto, benchPress);
 		
 		// Then
 		assertThat(entity).isNotNull();
 		assertThat(entity.getSets()).isEmpty();
 	}
+	
+	@Test
+	void copyToLatest_thenFromLatest_shouldRoundTripTheLog() {
+		// Given
+		ExerciseSetEntity set = new ExerciseSetEntity();
+		set.setWeight(120.0);
+		set.setReps(5);
+		
+		ExerciseLogEntity log = new ExerciseLogEntity();
+		log.setId(7L);
+		log.setDate(LocalDateTime.of(2025, 12, 19, 14, 30, 0));
+		log.setHasFailed(true);
+		log.setExercise(deadlift);
+		log.setSets(List.of(set));
+		
+		// When
+		LatestExerciseLogEntity latest = new LatestExerciseLogEntity();
+		exerciseLogMapper.copyToLatest(log, latest);
+		ExerciseLogDTO dto = exerciseLogMapper.fromLatest(latest);
+		
+		// Then
+		assertThat(latest.getLogId()).isEqualTo(7L);
+		assertThat(dto).isEqualTo(exerciseLogMapper.toDTO(log));
+		assertThat(dto.getTimestamp()).isEqualTo("19/12/2025 14:30:00");
+		assertThat(dto.getExercise().getGroup()).isEqualTo("BACK");
+		assertThat(dto.getSets()).containsExactly(new ExerciseSetDTO(120.0, 5));
+	}
+	
+	private static ExerciseEntity exercise(Long id, String name, MuscleGroupEntity muscleGroup) {
+		ExerciseEntity exercise = new ExerciseEntity();
+		exercise.setId(id);
+		exercise.setName(name);
+		exercise.setMuscleGroup(muscleGroup);
+		return exercise;
+	}
 }
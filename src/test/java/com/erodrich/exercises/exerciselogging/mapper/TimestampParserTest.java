@@ -0,0 +1,129 @@
+package com.erodrich.exercises.exerciselogging.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class TimestampParserTest {
+
+	@Test
+	void parseKnownShape_withFrontendFormat_shouldReadDayFirst() {
+		assertThat(TimestampParser.parseKnownShape("05/12/2025 14:30:07"))
+				.isEqualTo(LocalDateTime.of(2025, 12, 5, 14, 30, 7));
+	}
+
+	@Test
+	void parseKnownShape_whenSecondFieldIsNotAMonth_shouldReadMonthFirst() {
+		assertThat(TimestampParser.parseKnownShape("12/18/2025 22:00:00"))
+				.isEqualTo(LocalDateTime.of(2025, 12, 18, 22, 0, 0));
+	}
+
+	@Test
+	void parseKnownShape_withIsoFormats_shouldMatchInstantAndLocalParsing() {
+		assertThat(TimestampParser.parseKnownShape("2025-12-18T22:00:00"))
+				.isEqualTo(LocalDateTime.of(2025, 12, 18, 22, 0, 0));
+		assertThat(TimestampParser.parseKnownShape("2025-12-18T22:00:00.5"))
+				.isEqualTo(LocalDateTime.of(2025, 12, 18, 22, 0, 0, 500_000_000));
+		assertThat(TimestampParser.parseKnownShape("2025-12-18T21:16:15.651Z"))
+				.isEqualTo(ZonedDateTime.of(2025, 12, 18, 21, 16, 15, 651_000_000, ZoneId.of("UTC"))
+						.withZoneSameInstant(ZoneId.systemDefault())
+						.toLocalDateTime());
+	}
+
+	@Test
+	void parseKnownShape_withValuesTheFormattersAdjust_shouldDefer() {
+		assertThat(TimestampParser.parseKnownShape("31/04/2025 10:00:00")).isNull();
+		assertThat(TimestampParser.parseKnownShape("18/12/2025 24:00:00")).isNull();
+		assertThat(TimestampParser.parseKnownShape("2025-12-31T23:59:60Z")).isNull();
+		assertThat(TimestampParser.parseKnownShape("2025-12-18T22:00:00+01:00")).isNull();
+		assertThat(TimestampParser.parseKnownShape("not a timestamp")).isNull();
+	}
+
+	@Test
+	void parse_shouldMatchFormatterChainForEveryDayMonthAndEdgeTime() {
+		List<String> inputs = new ArrayList<>();
+		String[] times = {"00:00:00", "09:05:03", "23:59:59", "24:00:00", "12:60:00", "12:00:60"};
+		for (int year : new int[] {2024, 2025, 1900, 2000}) {
+			for (int first = 0; first <= 32; first++) {
+				for (int second = 0; second <= 32; second++) {
+					for (String time : times) {
+						inputs.add(String.format("%02d/%02d/%04d %s", first, second, year, time));
+					}
+				}
+				for (int day = 0; day <= 32; day++) {
+					if (first <= 13) {
+						inputs.add(String.format("%04d-%02d-%02dT10:15:30", year, first, day));
+						inputs.add(String.format("%04d-%02d-%02dT10:15:30.123Z", year, first, day));
+					}
+				}
+			}
+		}
+		inputs.addAll(List.of(
+				"2025-12-18T22:00:00.123456789",
+				"2025-12-18T22:00:00.1234567890",
+				"2025-12-18T22:00:00.Z",
+				"2025-12-18T22:00:00.651z",
+				"2025-12-18t22:00:00",
+				"2025-12-18T22:00",
+				"2025-12-18T22:00:00+01:00",
+				"2025-12-18T22:00:00+01:00[Europe/Madrid]",
+				"0000-01-01T00:00:00",
+				"01/01/0000 00:00:00",
+				"1a/12/2025 10:00:00",
+				"19-12-2025 14:30:00",
+				"19/12/2025T14:30:00",
+				"19/12/2025 14:30"));
+
+		for (String input : inputs) {
+			assertThat(TimestampParser.parse(input))
+					.as(input)
+					.isEqualTo(TimestampParser.parseWithFormatters(input));
+		}
+	}
+
+	/**
+	 * Compares both parsers on the frontend format. Run with -Dbenchmark=true.
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void benchmark_knownShapeAgainstFormatterChain() {
+		String[] inputs = new String[1024];
+		for (int i = 0; i < inputs.length; i++) {
+			inputs[i] = String.format("%02d/%02d/2025 %02d:%02d:%02d", 1 + i % 28, 1 + i % 12, i % 24, i % 60, i % 60);
+		}
+		int iterations = 2_000_000;
+
+		// Warm up both paths before measuring
+		run(inputs, iterations, true);
+		run(inputs, iterations, false);
+
+		long fast = run(inputs, iterations, true);
+		long legacy = run(inputs, iterations, false);
+		log.info("Timestamp parsing: known shape {} ns/op, formatter chain {} ns/op",
+				fast / iterations, legacy / iterations);
+		assertThat(fast).isLessThan(legacy);
+	}
+
+	private static long run(String[] inputs, int iterations, boolean knownShape) {
+		long checksum = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			String input = inputs[i & (inputs.length - 1)];
+			LocalDateTime parsed = knownShape ? TimestampParser.parse(input) : TimestampParser.parseWithFormatters(input);
+			checksum += parsed.getSecond();
+		}
+		long elapsed = System.nanoTime() - start;
+		assertThat(checksum).isPositive();
+		return elapsed;
+	}
+}
@@ -0,0 +1,108 @@
+package com.erodrich.exercises.exerciselogging.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.erodrich.exercises.exercise.entity.ExerciseEntity;
+import com.erodrich.exercises.exerciselogging.entity.ExerciseLogEntity;
+import com.erodrich.exercises.exerciselogging.entity.ExerciseSetEntity;
+import com.erodrich.exercises.exerciselogging.repository.ExerciseLogExportRepository.ExportRow;
+import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
+import com.erodrich.exercises.user.entity.UserEntity;
+
+@DataJpaTest
+@Import(ExerciseLogExportRepository.class)
+class ExerciseLogExportRepositoryTest {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private ExerciseLogExportRepository exportRepository;
+
+	@Test
+	void streamByUserId_shouldReturnOneRowPerSetOldestLogFirst() {
+		// Given
+		UserEntity user = persistUser("exporter");
+		UserEntity otherUser = persistUser("other");
+		MuscleGroupEntity chest = entityManager.persist(new MuscleGroupEntity(null, "CHEST", "Chest exercises"));
+		ExerciseEntity benchPress = persistExercise("Bench Press", chest);
+
+		LocalDateTime monday = LocalDateTime.of(2025, 12, 15, 18, 30);
+		persistLog(user, benchPress, monday.plusDays(1), set(80.0, 10), set(80.0, 8));
+		persistLog(user, benchPress, monday);
+		persistLog(otherUser, benchPress, monday, set(60.0, 12));
+		entityManager.flush();
+
+		// When
+		List<ExportRow> rows = new ArrayList<>();
+		exportRepository.streamByUserId(user.getId(), rows::add);
+
+		// Then
+		assertThat(rows).hasSize(3);
+		assertThat(rows.get(0).date()).isEqualTo(monday);
+		assertThat(rows.get(0).weight()).isNull();
+		assertThat(rows.get(0).reps()).isNull();
+		assertThat(rows.get(1).logId()).isEqualTo(rows.get(2).logId());
+		assertThat(rows.subList(1, 3))
+				.allMatch(row -> row.exercise().equals("Bench Press") && row.muscleGroup().equals("CHEST"))
+				.extracting(ExportRow::reps)
+				.containsExactly(10, 8);
+	}
+
+	@Test
+	void streamByUserId_withoutLogs_shouldNotCallConsumer() {
+		// Given
+		UserEntity user = persistUser("empty");
+		entityManager.flush();
+
+		// When
+		List<ExportRow> rows = new ArrayList<>();
+		exportRepository.streamByUserId(user.getId(), rows::add);
+
+		// Then
+		assertThat(rows).isEmpty();
+	}
+
+	private UserEntity persistUser(String username) {
+		UserEntity user = new UserEntity();
+		user.setUsername(username);
+		user.setPassword("pass");
+		user.setEmail(username + "@email.com");
+		user.setCreatedAt(LocalDateTime.now());
+		return entityManager.persist(user);
+	}
+
+	private ExerciseEntity persistExercise(String name, MuscleGroupEntity muscleGroup) {
+		ExerciseEntity exercise = new ExerciseEntity();
+		exercise.setName(name);
+		exercise.setMuscleGroup(muscleGroup);
+		return entityManager.persist(exercise);
+	}
+
+	private void persistLog(UserEntity user, ExerciseEntity exercise, LocalDateTime date, ExerciseSetEntity... sets) {
+		ExerciseLogEntity log = new ExerciseLogEntity();
+		log.setUser(user);
+		log.setExercise(exercise);
+		log.setDate(date);
+		log.setHasFailed(false);
+		log.setSets(List.of(sets));
+		entityManager.persist(log);
+	}
+
+	private static ExerciseSetEntity set(Double weight, Integer reps) {
+		ExerciseSetEntity set = new ExerciseSetEntity();
+		set.setWeight(weight);
+		set.setReps(reps);
+		return set;
+	}
+}
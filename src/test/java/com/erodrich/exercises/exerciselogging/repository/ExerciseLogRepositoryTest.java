@@ -3,17 +3,22 @@ package com.erodrich.exercises.exerciselogging.repository;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
 import org.springframework.test.annotation.DirtiesContext;
 
 import com.erodrich.exercises.exercise.entity.ExerciseEntity;
 import com.erodrich.exercises.exerciselogging.entity.ExerciseLogEntity;
+import com.erodrich.exercises.exerciselogging.entity.ExerciseSetEntity;
 import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
 import com.erodrich.exercises.user.entity.UserEntity;
 
@@ -171,7 +176,7 @@ class ExerciseLogRepositoryTest {
 	}
 	
 	@Test
-	void findFirstByUserIdAndExerciseIdOrderByDateDesc_whenLogsExist_shouldReturnLatestLog() {
+	void findFirstByUserIdAndExerciseIdOrderByDateDescIdDesc_whenLogsExist_shouldReturnLatestLog() {
 		// Given
 		UserEntity user = new UserEntity();
 		user.setUsername("testuser");
@@ -206,7 +211,7 @@ class ExerciseLogRepositoryTest {
 		
 		// When
 		Optional<ExerciseLogEntity> found = exerciseLogRepository
-				.findFirstByUserIdAndExerciseIdOrderByDateDesc(user.getId(), exercise.getId());
+				.findFirstByUserIdAndExerciseIdOrderByDateDescIdDesc(user.getId(), exercise.getId());
 		
 		// Then
 		assertThat(found).isPresent();
@@ -215,7 +220,7 @@ class ExerciseLogRepositoryTest {
 	}
 	
 	@Test
-	void findFirstByUserIdAndExerciseIdOrderByDateDesc_whenNoLogsExist_shouldReturnEmpty() {
+	void findFirstByUserIdAndExerciseIdOrderByDateDescIdDesc_whenNoLogsExist_shouldReturnEmpty() {
 		// Given
 		UserEntity user = new UserEntity();
 		user.setUsername("testuser");
@@ -236,14 +241,14 @@ class ExerciseLogRepositoryTest {
 		
 		// When
 		Optional<ExerciseLogEntity> found = exerciseLogRepository
-				.findFirstByUserIdAndExerciseIdOrderByDateDesc(user.getId(), exercise.getId());
+				.findFirstByUserIdAndExerciseIdOrderByDateDescIdDesc(user.getId(), exercise.getId());
 		
 		// Then
 		assertThat(found).isEmpty();
 	}
 	
 	@Test
-	void findFirstByUserIdAndExerciseIdOrderByDateDesc_shouldFilterByUserAndExercise() {
+	void findFirstByUserIdAndExerciseIdOrderByDateDescIdDesc_shouldFilterByUserAndExercise() {
 		// Given
 		UserEntity user1 = new UserEntity();
 		user1.setUsername("user1");
@@ -300,7 +305,7 @@ class ExerciseLogRepositoryTest {
 		
 		// When
 		Optional<ExerciseLogEntity> found = exerciseLogRepository
-				.findFirstByUserIdAndExerciseIdOrderByDateDesc(user1.getId(), benchPress.getId());
+				.findFirstByUserIdAndExerciseIdOrderByDateDescIdDesc(user1.getId(), benchPress.getId());
 		
 		// Then
 		assertThat(found).isPresent();
@@ -308,4 +313,300 @@ class ExerciseLogRepositoryTest {
 		assertThat(found.get().getUser().getId()).isEqualTo(user1.getId());
 		assertThat(found.get().getExercise().getId()).isEqualTo(benchPress.getId());
 	}
+	
+	@Test
+	void findFirstByUserIdAndExerciseIdOrderByDateDescIdDesc_withSameDate_shouldReturnHigherId() {
+		// Given
+		UserEntity user = new UserEntity();
+		user.setUsername("testuser");
+		user.setPassword("pass");
+		user.setEmail("test@email.com");
+		user.setCreatedAt(LocalDateTime.now());
+		entityManager.persist(user);
+		
+		MuscleGroupEntity chest = new MuscleGroupEntity(null, "CHEST", "Chest exercises");
+		entityManager.persist(chest);
+		
+		ExerciseEntity exercise = new ExerciseEntity();
+		exercise.setName("Bench Press");
+		exercise.setMuscleGroup(chest);
+		entityManager.persist(exercise);
+		
+		LocalDateTime date = LocalDateTime.now();
+		ExerciseLogEntity firstLog = new ExerciseLogEntity();
+		firstLog.setUser(user);
+		firstLog.setExercise(exercise);
+		firstLog.setDate(date);
+		entityManager.persist(firstLog);
+		
+		ExerciseLogEntity secondLog = new ExerciseLogEntity();
+		secondLog.setUser(user);
+		secondLog.setExercise(exercise);
+		secondLog.setDate(date);
+		entityManager.persist(secondLog);
+		
+		entityManager.flush();
+		
+		// When
+		Optional<ExerciseLogEntity> found = exerciseLogRepository
+				.findFirstByUserIdAndExerciseIdOrderByDateDescIdDesc(user.getId(), exercise.getId());
+		
+		// Then
+		assertThat(found).isPresent();
+		assertThat(found.get().getId()).isEqualTo(Math.max(firstLog.getId(), secondLog.getId()));
+	}
+	
+	@Test
+	void findByUserIdBefore_shouldSeekPastCursorNewestFirst() {
+		// Given
+		UserEntity user = new UserEntity();
+		user.setUsername("testuser");
+		user.setPassword("pass");
+		user.setEmail("test@email.com");
+		user.setCreatedAt(LocalDateTime.now());
+		entityManager.persist(user);
+		
+		MuscleGroupEntity chest = new MuscleGroupEntity(null, "CHEST", "Chest exercises");
+		entityManager.persist(chest);
+		
+		ExerciseEntity exercise = new ExerciseEntity();
+		exercise.setName("Bench Press");
+		exercise.setMuscleGroup(chest);
+		entityManager.persist(exercise);
+		
+		LocalDateTime sameDay = LocalDateTime.of(2025, 12, 18, 10, 0);
+		ExerciseLogEntity first = persistLog(user, exercise, sameDay.minusDays(1));
+		ExerciseLogEntity second = persistLog(user, exercise, sameDay);
+		ExerciseLogEntity third = persistLog(user, exercise, sameDay);
+		ExerciseLogEntity fourth = persistLog(user, exercise, sameDay.plusDays(1));
+		entityManager.flush();
+		
+		// When
+		List<ExerciseLogEntity> firstPage = exerciseLogRepository
+				.findByUserIdOrderByDateDescIdDesc(user.getId(), Limit.of(2));
+		ExerciseLogEntity lastOfFirstPage = firstPage.get(1);
+		List<ExerciseLogEntity> secondPage = exerciseLogRepository.findByUserIdBefore(
+				user.getId(), lastOfFirstPage.getDate(), lastOfFirstPage.getId(), Limit.of(2));
+		
+		// Then - rows sharing a date are ordered by id so none is skipped or repeated
+		assertThat(firstPage).extracting(ExerciseLogEntity::getId)
+				.containsExactly(fourth.getId(), third.getId());
+		assertThat(secondPage).extracting(ExerciseLogEntity::getId)
+				.containsExactly(second.getId(), first.getId());
+	}
+	
+	@Test
+	void pagedReadPath_shouldUseFixedNumberOfStatementsRegardlessOfPageSize() {
+		// Given
+		UserEntity user = persistUserWithLogs(25);
+		Statistics statistics = statistics();
+		
+		// When - page query plus the IN query for the sets, then map everything the mapper touches
+		List<ExerciseLogEntity> page = exerciseLogRepository
+				.findByUserIdOrderByDateDescIdDesc(user.getId(), Limit.of(20));
+		exerciseLogRepository.fetchSets(page.stream().map(ExerciseLogEntity::getId).toList());
+		page.forEach(this::touchMappedAssociations);
+		
+		// Then
+		assertThat(page).hasSize(20);
+		assertThat(page).allMatch(log -> log.getSets().size() == 2);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+	
+	@Test
+	void findByUserId_shouldLoadLogsWithSetsAndExerciseInOneStatement() {
+		// Given
+		UserEntity user = persistUserWithLogs(10);
+		Statistics statistics = statistics();
+		
+		// When
+		List<ExerciseLogEntity> logs = exerciseLogRepository.findByUserId(user.getId());
+		logs.forEach(this::touchMappedAssociations);
+		
+		// Then
+		assertThat(logs).hasSize(10);
+		assertThat(logs).allMatch(log -> log.getSets().size() == 2);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+	
+	@Test
+	void saveAll_withCascadedSets_shouldBatchInserts() {
+		// Given - a 20-exercise workout with 4 sets each
+		UserEntity user = persistUserWithLogs(0);
+		UserEntity userRef = entityManager.find(UserEntity.class, user.getId());
+		ExerciseEntity squat = entityManager.getEntityManager()
+				.createQuery("SELECT e FROM ExerciseEntity e WHERE e.name = 'Squat'", ExerciseEntity.class)
+				.getSingleResult();
+		
+		List<ExerciseLogEntity> workout = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			ExerciseLogEntity log = new ExerciseLogEntity();
+			log.setUser(userRef);
+			log.setExercise(squat);
+			log.setDate(LocalDateTime.of(2025, 12, 18, 10, 0).plusMinutes(i));
+			for (int s = 0; s < 4; s++) {
+				ExerciseSetEntity set = new ExerciseSetEntity();
+				set.setWeight(100.0);
+				set.setReps(10 - s);
+				log.addSet(set);
+			}
+			workout.add(log);
+		}
+		Statistics statistics = statistics();
+		
+		// When
+		exerciseLogRepository.saveAll(workout);
+		entityManager.flush();
+		
+		// Then - 20 logs and 80 sets, no join rows. One statement per row (the IDENTITY
+		// behaviour) would be 100 statements; batches of 20 plus a few sequence calls stay far below.
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(100);
+		assertThat(statistics.getPrepareStatementCount()).isLessThan(40);
+	}
+	
+	@Test
+	void findLatestPerExerciseByUserId_shouldReturnNewestLogOfEachExercise() {
+		// Given - squat on days 0, 2, 4 and lunge on days 1, 3
+		UserEntity user = persistUserWithLogs(5);
+		LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 0);
+		
+		// When
+		List<ExerciseLogEntity> latest = exerciseLogRepository.findLatestPerExerciseByUserId(user.getId());
+		
+		// Then
+		assertThat(latest).hasSize(2);
+		assertThat(latest).extracting(ExerciseLogEntity::getDate)
+				.containsExactlyInAnyOrder(start.plusDays(4), start.plusDays(3));
+		assertThat(exerciseLogRepository.findUserIds()).containsExactly(user.getId());
+	}
+	
+	@Test
+	void userLogQueries_shouldUseUserDateIndex() {
+		// Given
+		persistUserWithLogs(25);
+		entityManager.flush();
+		
+		// When
+		List<String> byUser = indexColumns("IDX_EXERCISE_LOGS_USER_DATE");
+		String latest = plan("SELECT * FROM exercise_logs WHERE user_id = 1 AND exercise_id = 1 ORDER BY date DESC FETCH FIRST 1 ROWS ONLY");
+		
+		// Then
+		// H2's planner ignores ORDER BY when costing indexes, so it may prefer the
+		// foreign key index; the column order is what lets PostgreSQL skip the sort
+		assertThat(byUser).containsExactly("USER_ID ASC", "DATE DESC", "EXERCISE_LOG_ID DESC");
+		assertThat(latest).contains("IDX_EXERCISE_LOGS_USER_EXERCISE_DATE");
+	}
+	
+	@Test
+	void fetchSets_shouldSeekSetsByLogInOrder() {
+		// Given
+		persistUserWithLogs(5);
+		entityManager.flush();
+		
+		// When
+		List<String> columns = indexColumns("IDX_EXERCISE_SETS_LOG_ORDER");
+		
+		// Then
+		assertThat(columns).containsExactly("EXERCISE_LOG_ID ASC", "SET_ORDER ASC");
+	}
+	
+	@Test
+	void findByUserId_shouldReturnSetsInTheOrderPerformed() {
+		// Given
+		UserEntity user = persistUserWithLogs(0);
+		ExerciseEntity squat = entityManager.getEntityManager()
+				.createQuery("SELECT e FROM ExerciseEntity e WHERE e.name = 'Squat'", ExerciseEntity.class)
+				.getSingleResult();
+		ExerciseLogEntity log = persistLog(entityManager.find(UserEntity.class, user.getId()), squat,
+				LocalDateTime.of(2025, 12, 18, 10, 0));
+		for (int reps : new int[] {12, 5, 9, 7}) {
+			ExerciseSetEntity set = new ExerciseSetEntity();
+			set.setWeight(60.0);
+			set.setReps(reps);
+			log.addSet(set);
+		}
+		entityManager.flush();
+		entityManager.clear();
+		
+		// When
+		List<ExerciseLogEntity> logs = exerciseLogRepository.findByUserId(user.getId());
+		
+		// Then
+		assertThat(logs).singleElement()
+				.satisfies(found -> assertThat(found.getSets()).extracting(ExerciseSetEntity::getReps)
+						.containsExactly(12, 5, 9, 7));
+	}
+	
+	private String plan(String sql) {
+		return (String) entityManager.getEntityManager().createNativeQuery("EXPLAIN " + sql).getSingleResult();
+	}
+	
+	@SuppressWarnings("unchecked")
+	private List<String> indexColumns(String index) {
+		return entityManager.getEntityManager().createNativeQuery("""
+				SELECT COLUMN_NAME || ' ' || ORDERING_SPECIFICATION FROM INFORMATION_SCHEMA.INDEX_COLUMNS
+				WHERE INDEX_NAME = :index ORDER BY ORDINAL_POSITION
+				""").setParameter("index", index).getResultList();
+	}
+	
+	private UserEntity persistUserWithLogs(int logCount) {
+		UserEntity user = new UserEntity();
+		user.setUsername("heavyuser");
+		user.setPassword("pass");
+		user.setEmail("heavy@email.com");
+		user.setCreatedAt(LocalDateTime.now());
+		entityManager.persist(user);
+		
+		MuscleGroupEntity legs = new MuscleGroupEntity(null, "LEGS", "Leg exercises");
+		entityManager.persist(legs);
+		
+		ExerciseEntity squat = new ExerciseEntity();
+		squat.setName("Squat");
+		squat.setMuscleGroup(legs);
+		entityManager.persist(squat);
+		
+		ExerciseEntity lunge = new ExerciseEntity();
+		lunge.setName("Lunge");
+		lunge.setMuscleGroup(legs);
+		entityManager.persist(lunge);
+		
+		LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 0);
+		for (int i = 0; i < logCount; i++) {
+			ExerciseLogEntity log = persistLog(user, i % 2 == 0 ? squat : lunge, start.plusDays(i));
+			for (int reps = 8; reps <= 10; reps += 2) {
+				ExerciseSetEntity set = new ExerciseSetEntity();
+				set.setWeight(100.0);
+				set.setReps(reps);
+				log.addSet(set);
+				entityManager.persist(set);
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+		return user;
+	}
+	
+	private Statistics statistics() {
+		Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+				.unwrap(SessionFactory.class)
+				.getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+	
+	private void touchMappedAssociations(ExerciseLogEntity log) {
+		// Everything ExerciseLogMapper.toDTO reads
+		log.getExercise().getName();
+		log.getExercise().getMuscleGroup().getName();
+		log.getSets().forEach(set -> set.getReps());
+	}
+	
+	private ExerciseLogEntity persistLog(UserEntity user, ExerciseEntity exercise, LocalDateTime date) {
+		ExerciseLogEntity log = new ExerciseLogEntity();
+		log.setUser(user);
+		log.setExercise(exercise);
+		log.setDate(date);
+		log.setHasFailed(false);
+		return entityManager.persist(log);
+	}
 }
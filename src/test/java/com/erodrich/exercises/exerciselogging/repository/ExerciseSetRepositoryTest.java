@@ -2,6 +2,7 @@ package com.erodrich.exercises.exerciselogging.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
@@ -9,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
 
+import com.erodrich.exercises.exerciselogging.entity.ExerciseLogEntity;
 import com.erodrich.exercises.exerciselogging.entity.ExerciseSetEntity;
 
 @DataJpaTest
@@ -23,9 +25,7 @@ class ExerciseSetRepositoryTest {
 	@Test
 	void save_shouldPersistExerciseSet() {
 		// Given
-		ExerciseSetEntity set = new ExerciseSetEntity();
-		set.setWeight(100.0);
-		set.setReps(10);
+		ExerciseSetEntity set = setOfNewLog(100.0, 10);
 		
 		// When
 		ExerciseSetEntity saved = exerciseSetRepository.save(set);
@@ -39,9 +39,7 @@ class ExerciseSetRepositoryTest {
 	@Test
 	void findById_whenSetExists_shouldReturnSet() {
 		// Given
-		ExerciseSetEntity set = new ExerciseSetEntity();
-		set.setWeight(50.0);
-		set.setReps(12);
+		ExerciseSetEntity set = setOfNewLog(50.0, 12);
 		entityManager.persist(set);
 		entityManager.flush();
 		
@@ -64,17 +62,16 @@ class ExerciseSetRepositoryTest {
 	}
 	
 	@Test
-	void delete_shouldRemoveSet() {
+	void removeFromLog_shouldDeleteSet() {
 		// Given
-		ExerciseSetEntity set = new ExerciseSetEntity();
-		set.setWeight(75.0);
-		set.setReps(8);
+		ExerciseSetEntity set = setOfNewLog(75.0, 8);
 		entityManager.persist(set);
 		entityManager.flush();
 		Long setId = set.getId();
 		
-		// When
-		exerciseSetRepository.deleteById(setId);
+		// When - sets are owned by their log
+		set.getLog().getSets().remove(set);
+		entityManager.flush();
 		
 		// Then
 		Optional<ExerciseSetEntity> found = exerciseSetRepository.findById(setId);
@@ -84,9 +81,7 @@ class ExerciseSetRepositoryTest {
 	@Test
 	void save_withZeroWeight_shouldPersist() {
 		// Given (bodyweight exercise)
-		ExerciseSetEntity set = new ExerciseSetEntity();
-		set.setWeight(0.0);
-		set.setReps(15);
+		ExerciseSetEntity set = setOfNewLog(0.0, 15);
 		
 		// When
 		ExerciseSetEntity saved = exerciseSetRepository.save(set);
@@ -96,4 +91,16 @@ class ExerciseSetRepositoryTest {
 		assertThat(saved.getWeight()).isEqualTo(0.0);
 		assertThat(saved.getReps()).isEqualTo(15);
 	}
+	
+	private ExerciseSetEntity setOfNewLog(Double weight, Integer reps) {
+		ExerciseLogEntity log = new ExerciseLogEntity();
+		log.setDate(LocalDateTime.now());
+		entityManager.persist(log);
+		
+		ExerciseSetEntity set = new ExerciseSetEntity();
+		set.setWeight(weight);
+		set.setReps(reps);
+		log.addSet(set);
+		return set;
+	}
 }
@@ -0,0 +1,160 @@
+package com.erodrich.exercises.exerciselogging.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.erodrich.exercises.exercise.entity.ExerciseEntity;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseSetDTO;
+import com.erodrich.exercises.exerciselogging.entity.LatestExerciseLogEntity;
+import com.erodrich.exercises.exerciselogging.entity.LatestExerciseLogId;
+import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
+import com.erodrich.exercises.user.entity.UserEntity;
+
+@DataJpaTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class LatestExerciseLogRepositoryTest {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private LatestExerciseLogRepository latestLogRepository;
+
+	private UserEntity user;
+	private ExerciseEntity squat;
+	private ExerciseEntity lunge;
+
+	@BeforeEach
+	void setUp() {
+		user = new UserEntity();
+		user.setUsername("testuser");
+		user.setPassword("pass");
+		user.setEmail("test@email.com");
+		user.setCreatedAt(LocalDateTime.now());
+		entityManager.persist(user);
+
+		MuscleGroupEntity legs = new MuscleGroupEntity(null, "LEGS", "Leg exercises");
+		entityManager.persist(legs);
+
+		squat = new ExerciseEntity();
+		squat.setName("Squat");
+		squat.setMuscleGroup(legs);
+		entityManager.persist(squat);
+
+		lunge = new ExerciseEntity();
+		lunge.setName("Lunge");
+		lunge.setMuscleGroup(legs);
+		entityManager.persist(lunge);
+	}
+
+	@Test
+	void save_thenFindByUserIdAndExerciseId_shouldRoundTripSetsAndJoinExercise() {
+		// Given
+		latestLogRepository.save(row(squat, 10L, List.of(new ExerciseSetDTO(100.0, 8), new ExerciseSetDTO(102.5, 6))));
+		entityManager.flush();
+		entityManager.clear();
+
+		// When
+		Optional<LatestExerciseLogEntity> found = latestLogRepository.findByUserIdAndExerciseId(user.getId(), squat.getId());
+
+		// Then
+		assertThat(found).isPresent();
+		assertThat(found.get().getLogId()).isEqualTo(10L);
+		assertThat(found.get().getExercise().getMuscleGroup().getName()).isEqualTo("LEGS");
+		assertThat(found.get().getSets())
+				.containsExactly(new ExerciseSetDTO(100.0, 8), new ExerciseSetDTO(102.5, 6));
+	}
+
+	@Test
+	void findByUserIdAndExerciseIdIn_shouldReturnOnlyExistingRows() {
+		// Given
+		latestLogRepository.save(row(squat, 10L, List.of()));
+		entityManager.flush();
+		entityManager.clear();
+
+		// When
+		List<LatestExerciseLogEntity> found = latestLogRepository
+				.findByUserIdAndExerciseIdIn(user.getId(), List.of(squat.getId(), lunge.getId()));
+
+		// Then
+		assertThat(found).extracting(row -> row.getId().getExerciseId()).containsExactly(squat.getId());
+		assertThat(found.get(0).isNew()).isFalse();
+	}
+
+	@Test
+	void upsertIfNewer_shouldInsertThenReplaceOnlyWithNewerLog() {
+		// Given
+		LatestExerciseLogEntity first = row(squat, 10L, List.of(new ExerciseSetDTO(100.0, 8)));
+		latestLogRepository.upsertIfNewer(List.of(first));
+
+		// When - a newer log, then an older one and a same-date log with a lower ID
+		LatestExerciseLogEntity newer = row(squat, 12L, List.of(new ExerciseSetDTO(105.0, 5)));
+		newer.setDate(first.getDate().plusDays(1));
+		latestLogRepository.upsertIfNewer(List.of(newer));
+		LatestExerciseLogEntity older = row(squat, 13L, List.of());
+		older.setDate(first.getDate());
+		LatestExerciseLogEntity sameDateLowerId = row(squat, 11L, List.of());
+		sameDateLowerId.setDate(newer.getDate());
+		latestLogRepository.upsertIfNewer(List.of(older));
+		latestLogRepository.upsertIfNewer(List.of(sameDateLowerId));
+		entityManager.clear();
+
+		// Then
+		LatestExerciseLogEntity stored = latestLogRepository.findByUserIdAndExerciseId(user.getId(), squat.getId()).orElseThrow();
+		assertThat(stored.getLogId()).isEqualTo(12L);
+		assertThat(stored.getDate()).isEqualTo(newer.getDate());
+		assertThat(stored.getSets()).containsExactly(new ExerciseSetDTO(105.0, 5));
+	}
+
+	@Test
+	void findByUserIdAndMuscleGroup_shouldMatchGroupIgnoringCase() {
+		// Given
+		latestLogRepository.save(row(squat, 10L, List.of()));
+		latestLogRepository.save(row(lunge, 11L, List.of()));
+		entityManager.flush();
+		entityManager.clear();
+
+		// When
+		List<LatestExerciseLogEntity> legs = latestLogRepository.findByUserIdAndMuscleGroup(user.getId(), "legs");
+		List<LatestExerciseLogEntity> chest = latestLogRepository.findByUserIdAndMuscleGroup(user.getId(), "CHEST");
+
+		// Then
+		assertThat(legs).extracting(LatestExerciseLogEntity::getLogId).containsExactlyInAnyOrder(10L, 11L);
+		assertThat(chest).isEmpty();
+	}
+
+	@Test
+	void deleteByUserId_shouldRemoveAllRowsOfUser() {
+		// Given
+		latestLogRepository.save(row(squat, 10L, List.of()));
+		latestLogRepository.save(row(lunge, 11L, List.of()));
+		entityManager.flush();
+
+		// When
+		int deleted = latestLogRepository.deleteByUserId(user.getId());
+
+		// Then
+		assertThat(deleted).isEqualTo(2);
+		assertThat(latestLogRepository.findAll()).isEmpty();
+	}
+
+	private LatestExerciseLogEntity row(ExerciseEntity exercise, Long logId, List<ExerciseSetDTO> sets) {
+		LatestExerciseLogEntity row = new LatestExerciseLogEntity();
+		row.setId(new LatestExerciseLogId(user.getId(), exercise.getId()));
+		row.setExercise(exercise);
+		row.setLogId(logId);
+		row.setDate(LocalDateTime.of(2025, 12, 18, 10, 0));
+		row.setSets(sets);
+		return row;
+	}
+}
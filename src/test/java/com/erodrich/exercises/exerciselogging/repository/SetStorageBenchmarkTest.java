@@ -0,0 +1,136 @@
+package com.erodrich.exercises.exerciselogging.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares the old many-to-many set layout (exercise_log_sets join table) with sets owned by their log
+ * (exercise_log_id and set_order on exercise_sets) on the same generated history: rows written, and the
+ * time to read a user's whole history with its sets.
+ * Skipped unless run with -Dbenchmark=true; the log count defaults to 200,000 (-Dbenchmark.logs).
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SetStorageBenchmarkTest {
+
+	private static final int SETS_PER_LOG = 4;
+	private static final int USERS = 10;
+	private static final int READS = 20;
+
+	private static final String JOIN_TABLE_READ = """
+			SELECT l.exercise_log_id, l.date, s.weight, s.reps
+			FROM exercise_logs l
+			LEFT JOIN exercise_log_sets ls ON ls.exercise_log_id = l.exercise_log_id
+			LEFT JOIN exercise_sets s ON s.exercise_set_id = ls.exercise_set_id
+			WHERE l.user_id = ?
+			ORDER BY l.date, l.exercise_log_id, s.exercise_set_id
+			""";
+
+	private static final String OWNED_READ = """
+			SELECT l.exercise_log_id, l.date, s.weight, s.reps
+			FROM exercise_logs l
+			LEFT JOIN exercise_sets s ON s.exercise_log_id = l.exercise_log_id
+			WHERE l.user_id = ?
+			ORDER BY l.date, l.exercise_log_id, s.set_order
+			""";
+
+	@Test
+	void ownedSets_againstJoinTable() {
+		int logs = Integer.getInteger("benchmark.logs", 200_000);
+
+		JdbcTemplate joinTable = new JdbcTemplate(database("join-table"));
+		joinTable.execute("CREATE TABLE exercise_logs (exercise_log_id BIGINT PRIMARY KEY, user_id BIGINT, date TIMESTAMP)");
+		joinTable.execute("CREATE INDEX idx_logs_user ON exercise_logs (user_id, date)");
+		joinTable.execute("CREATE TABLE exercise_sets (exercise_set_id BIGINT PRIMARY KEY, weight DOUBLE, reps INT)");
+		joinTable.execute("""
+				CREATE TABLE exercise_log_sets (exercise_log_id BIGINT, exercise_set_id BIGINT,
+				PRIMARY KEY (exercise_log_id, exercise_set_id))""");
+
+		JdbcTemplate owned = new JdbcTemplate(database("owned"));
+		owned.execute("CREATE TABLE exercise_logs (exercise_log_id BIGINT PRIMARY KEY, user_id BIGINT, date TIMESTAMP)");
+		owned.execute("CREATE INDEX idx_logs_user ON exercise_logs (user_id, date)");
+		owned.execute("""
+				CREATE TABLE exercise_sets (exercise_set_id BIGINT PRIMARY KEY, exercise_log_id BIGINT NOT NULL,
+				set_order INT NOT NULL, weight DOUBLE, reps INT)""");
+		owned.execute("CREATE INDEX idx_sets_log_order ON exercise_sets (exercise_log_id, set_order)");
+
+		// Same history in both layouts
+		List<Object[]> logRows = new ArrayList<>();
+		List<Object[]> joinSetRows = new ArrayList<>();
+		List<Object[]> joinRows = new ArrayList<>();
+		List<Object[]> ownedSetRows = new ArrayList<>();
+		LocalDateTime start = LocalDateTime.of(2020, 1, 1, 18, 0);
+		long setId = 0;
+		for (long logId = 1; logId <= logs; logId++) {
+			logRows.add(new Object[] {logId, logId % USERS, Timestamp.valueOf(start.plusMinutes(logId))});
+			for (int position = 0; position < SETS_PER_LOG; position++) {
+				setId++;
+				double weight = 20 + logId % 60;
+				int reps = 12 - position;
+				joinSetRows.add(new Object[] {setId, weight, reps});
+				joinRows.add(new Object[] {logId, setId});
+				ownedSetRows.add(new Object[] {setId, logId, position, weight, reps});
+			}
+		}
+		joinTable.batchUpdate("INSERT INTO exercise_logs VALUES (?, ?, ?)", logRows);
+		joinTable.batchUpdate("INSERT INTO exercise_sets VALUES (?, ?, ?)", joinSetRows);
+		joinTable.batchUpdate("INSERT INTO exercise_log_sets VALUES (?, ?)", joinRows);
+		owned.batchUpdate("INSERT INTO exercise_logs VALUES (?, ?, ?)", logRows);
+		owned.batchUpdate("INSERT INTO exercise_sets VALUES (?, ?, ?, ?, ?)", ownedSetRows);
+
+		long joinTableRows = logRows.size() + joinSetRows.size() + joinRows.size();
+		long ownedRows = logRows.size() + ownedSetRows.size();
+
+		// Warm up both paths before measuring
+		read(joinTable, JOIN_TABLE_READ);
+		read(owned, OWNED_READ);
+
+		long joinTableNanos = read(joinTable, JOIN_TABLE_READ);
+		long ownedNanos = read(owned, OWNED_READ);
+
+		log.info("Set storage, {} logs x {} sets: join table {} rows, 2 joins, {} ms per user history; "
+				+ "owned sets {} rows, 1 join, {} ms per user history",
+				logs, SETS_PER_LOG, joinTableRows, joinTableNanos / READS / 1_000_000,
+				ownedRows, ownedNanos / READS / 1_000_000);
+		assertThat(ownedRows).isEqualTo(joinTableRows - (long) logs * SETS_PER_LOG);
+		assertThat(totalReps(owned, OWNED_READ)).isEqualTo(totalReps(joinTable, JOIN_TABLE_READ));
+	}
+
+	private static long read(JdbcTemplate jdbcTemplate, String sql) {
+		long start = System.nanoTime();
+		long checksum = 0;
+		for (int i = 0; i < READS; i++) {
+			checksum += totalReps(jdbcTemplate, sql);
+		}
+		long elapsed = System.nanoTime() - start;
+		assertThat(checksum).isPositive();
+		return elapsed;
+	}
+
+	// Sum of the reps of user 1's history, so both layouts can be compared and nothing is optimised away
+	private static long totalReps(JdbcTemplate jdbcTemplate, String sql) {
+		long[] total = {0};
+		jdbcTemplate.query(sql, (RowCallbackHandler) rs -> total[0] += rs.getInt("reps"), 1L);
+		return total[0];
+	}
+
+	private static DataSource database(String name) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:sets-" + name + ";DB_CLOSE_DELAY=-1");
+		return dataSource;
+	}
+}
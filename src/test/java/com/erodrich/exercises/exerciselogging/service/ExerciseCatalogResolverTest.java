@@ -0,0 +1,143 @@
+package com.erodrich.exercises.exerciselogging.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.erodrich.exercises.catalog.CatalogCache;
+import com.erodrich.exercises.catalog.CatalogChangedEvent;
+import com.erodrich.exercises.exercise.entity.ExerciseEntity;
+import com.erodrich.exercises.exercise.repository.ExerciseRepository;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseDTO;
+import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
+
+@ExtendWith(MockitoExtension.class)
+class ExerciseCatalogResolverTest {
+
+	@Mock
+	private CatalogCache catalogCache;
+
+	@Mock
+	private ExerciseRepository exerciseRepository;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@InjectMocks
+	private ExerciseCatalogResolver resolver;
+
+	private final MuscleGroupEntity chest = new MuscleGroupEntity(1L, "CHEST", "Chest exercises");
+	private final MuscleGroupEntity legs = new MuscleGroupEntity(4L, "LEGS", "Leg exercises");
+
+	@Test
+	void resolve_withExistingExercises_shouldLookUpEachTableOnce() {
+		// Given
+		ExerciseEntity benchPress = exercise(1L, "Bench Press", chest);
+		ExerciseEntity squat = exercise(2L, "Squat", legs);
+		ExerciseDTO benchDTO = new ExerciseDTO(null, "Bench Press", "CHEST");
+		ExerciseDTO squatDTO = new ExerciseDTO(null, "Squat", "LEGS");
+
+		when(catalogCache.findMuscleGroups(Set.of("CHEST", "LEGS"))).thenReturn(Map.of("CHEST", chest, "LEGS", legs));
+		when(catalogCache.findExercises(anyCollection())).thenReturn(Map.of(
+				new CatalogCache.ExerciseKey(1L, "Bench Press"), benchPress,
+				new CatalogCache.ExerciseKey(4L, "Squat"), squat));
+
+		// When
+		ResolvedCatalog catalog = resolver.resolve(List.of(benchDTO, squatDTO, benchDTO));
+
+		// Then
+		assertThat(catalog.size()).isEqualTo(2);
+		assertThat(catalog.exerciseFor(benchDTO)).isSameAs(benchPress);
+		assertThat(catalog.exerciseFor(squatDTO)).isSameAs(squat);
+		verify(catalogCache, times(1)).findMuscleGroups(anyCollection());
+		verify(catalogCache, times(1)).findExercises(anyCollection());
+		verify(exerciseRepository, never()).saveAll(any());
+		verifyNoInteractions(eventPublisher);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void resolve_withNewExercises_shouldCreateThemInOneBatch() {
+		// Given
+		ExerciseDTO pushUp = new ExerciseDTO(null, "Push Up", "chest");
+		ExerciseDTO lunge = new ExerciseDTO(null, "Lunge", "LEGS");
+
+		when(catalogCache.findMuscleGroups(anyCollection())).thenReturn(Map.of("CHEST", chest, "LEGS", legs));
+		when(catalogCache.findExercises(anyCollection())).thenReturn(Map.of());
+		when(exerciseRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		// When
+		ResolvedCatalog catalog = resolver.resolve(List.of(pushUp, lunge, pushUp));
+
+		// Then
+		ArgumentCaptor<Collection<ExerciseEntity>> captor = ArgumentCaptor.forClass(Collection.class);
+		verify(exerciseRepository, times(1)).saveAll(captor.capture());
+		assertThat(captor.getValue()).extracting(ExerciseEntity::getName).containsExactly("Push Up", "Lunge");
+		assertThat(catalog.exerciseFor(pushUp).getMuscleGroup()).isSameAs(chest);
+		assertThat(catalog.exerciseFor(new ExerciseDTO(null, "Push Up", "CHEST")).getName()).isEqualTo("Push Up");
+		verify(eventPublisher, times(1)).publishEvent(CatalogChangedEvent.exercises());
+	}
+
+	@Test
+	void resolve_withUnknownMuscleGroup_shouldThrowException() {
+		// Given
+		ExerciseDTO exerciseDTO = new ExerciseDTO(null, "Bench Press", "Invalid");
+		when(catalogCache.findMuscleGroups(anyCollection())).thenReturn(Map.of());
+
+		// When & Then
+		assertThatThrownBy(() -> resolver.resolve(List.of(exerciseDTO)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("Invalid muscle group: Invalid");
+		verify(catalogCache, never()).findExercises(anyCollection());
+		verifyNoInteractions(exerciseRepository);
+	}
+
+	@Test
+	void resolve_withIncompleteReference_shouldThrowException() {
+		// Given
+		ExerciseDTO exerciseDTO = new ExerciseDTO(null, null, "CHEST");
+
+		// When & Then
+		assertThatThrownBy(() -> resolver.resolve(List.of(exerciseDTO)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("Exercise name and group are required");
+		verifyNoInteractions(catalogCache, exerciseRepository);
+	}
+
+	@Test
+	void resolve_withEmptyPayload_shouldNotQuery() {
+		// When
+		ResolvedCatalog catalog = resolver.resolve(List.of());
+
+		// Then
+		assertThat(catalog.size()).isZero();
+		verifyNoInteractions(catalogCache, exerciseRepository);
+	}
+
+	private static ExerciseEntity exercise(Long id, String name, MuscleGroupEntity muscleGroup) {
+		ExerciseEntity exercise = new ExerciseEntity();
+		exercise.setId(id);
+		exercise.setName(name);
+		exercise.setMuscleGroup(muscleGroup);
+		return exercise;
+	}
+}
@@ -0,0 +1,261 @@
+package com.erodrich.exercises.exerciselogging.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.erodrich.exercises.catalog.CatalogCache;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseDTO;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseLogDTO;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseSetDTO;
+import com.erodrich.exercises.exerciselogging.dto.ImportReportDTO;
+import com.erodrich.exercises.exerciselogging.mapper.ExerciseLogMapper;
+import com.erodrich.exercises.exerciselogging.repository.ExerciseLogExportRepository;
+import com.erodrich.exercises.exerciselogging.repository.ExerciseLogExportRepository.ExportRow;
+import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
+import com.erodrich.exercises.user.repository.UserRepository;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+@ExtendWith(MockitoExtension.class)
+class ExerciseLogExportServiceTest {
+
+	private static final LocalDateTime MONDAY = LocalDateTime.of(2025, 12, 15, 18, 30, 0);
+	private static final LocalDateTime TUESDAY = LocalDateTime.of(2025, 12, 16, 19, 0, 0);
+
+	@Mock
+	private ExerciseLogExportRepository exportRepository;
+
+	private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+	private ExerciseLogExportService exportService;
+
+	@BeforeEach
+	void setUp() {
+		exportService = new ExerciseLogExportService(exportRepository, new ExerciseLogMapper(), jsonMapper);
+	}
+
+	@Test
+	void export_asNdjson_shouldWriteOneLinePerLog() throws IOException {
+		// Given
+		givenRows(
+				new ExportRow(1L, MONDAY, false, "CHEST", "Bench Press", 80.0, 10),
+				new ExportRow(1L, MONDAY, false, "CHEST", "Bench Press", 80.0, 8),
+				new ExportRow(2L, TUESDAY, true, "LEGS", "Squat", 100.0, 5));
+
+		// When
+		String output = export(ExportFormat.NDJSON);
+
+		// Then
+		String[] lines = output.split("\n");
+		assertThat(lines).hasSize(2);
+		JsonNode monday = jsonMapper.readTree(lines[0]);
+		assertThat(monday.get("timestamp").asString()).isEqualTo("15/12/2025 18:30:00");
+		assertThat(monday.get("exercise").get("name").asString()).isEqualTo("Bench Press");
+		assertThat(monday.get("sets").size()).isEqualTo(2);
+		assertThat(monday.get("sets").get(0).get("weight").asDouble()).isEqualTo(80.0);
+		assertThat(monday.get("sets").get(1).get("reps").asInt()).isEqualTo(8);
+		assertThat(monday.get("failure").asBoolean()).isFalse();
+		JsonNode tuesday = jsonMapper.readTree(lines[1]);
+		assertThat(tuesday.get("exercise").get("group").asString()).isEqualTo("LEGS");
+		assertThat(tuesday.get("failure").asBoolean()).isTrue();
+	}
+
+	@Test
+	void export_asNdjson_shouldUseGivenMapper() throws IOException {
+		// Given
+		JsonMapper indenting = JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build();
+		exportService = new ExerciseLogExportService(exportRepository, new ExerciseLogMapper(), indenting);
+		givenRows(new ExportRow(1L, MONDAY, false, "BACK", "Pull Up", null, null));
+		ExerciseLogDTO expected = ExerciseLogDTO.builder()
+				.id(1L)
+				.timestamp("15/12/2025 18:30:00")
+				.exercise(ExerciseDTO.builder()
+						.group("BACK")
+						.name("Pull Up")
+						.build())
+				.sets(List.of())
+				.failure(false)
+				.build();
+
+		// When
+		String output = export(ExportFormat.NDJSON);
+
+		// Then
+		assertThat(output).isEqualTo(indenting.writeValueAsString(expected) + "\n");
+	}
+
+	@Test
+	void export_asCsv_shouldUseCsvLoaderLayout() throws IOException {
+		// Given
+		givenRows(
+				new ExportRow(1L, MONDAY, false, "CHEST", "Bench Press", 80.0, 10),
+				new ExportRow(1L, MONDAY, false, "CHEST", "Bench Press", 80.0, 8),
+				new ExportRow(1L, MONDAY, false, "CHEST", "Bench Press", 72.5, 12),
+				new ExportRow(2L, TUESDAY, true, "LEGS", "Squat", 100.0, 5));
+
+		// When
+		String output = export(ExportFormat.CSV);
+
+		// Then
+		assertThat(output).isEqualTo(
+				ExerciseLogExportService.CSV_HEADER + "\n"
+						+ "15/12/2025 18:30:00;CHEST;Bench Press;80;2;10,8;No\n"
+						+ "15/12/2025 18:30:00;CHEST;Bench Press;72.5;1;12;No\n"
+						+ "16/12/2025 19:00:00;LEGS;Squat;100;1;5;Yes\n");
+	}
+
+	@Test
+	void export_withLogWithoutSets_shouldWriteEmptySets() throws IOException {
+		// Given
+		givenRows(new ExportRow(1L, MONDAY, false, "BACK", "Pull Up", null, null));
+
+		// When
+		String output = export(ExportFormat.NDJSON);
+
+		// Then
+		assertThat(jsonMapper.readTree(output).get("sets").isEmpty()).isTrue();
+	}
+
+	@Test
+	void export_asCsv_shouldKeepMissingValuesEmptyAndQuoteDelimiters() throws IOException {
+		// Given
+		givenRows(
+				new ExportRow(1L, MONDAY, false, "BACK", "Pull Up", null, null),
+				new ExportRow(2L, MONDAY, false, "BACK", "Chin Up", null, 8),
+				new ExportRow(3L, TUESDAY, false, "LEGS", "Squat; \"Pause\"", 100.0, null));
+
+		// When
+		String output = export(ExportFormat.CSV);
+
+		// Then
+		assertThat(output).isEqualTo(
+				ExerciseLogExportService.CSV_HEADER + "\n"
+						+ "15/12/2025 18:30:00;BACK;Pull Up;;0;;No\n"
+						+ "15/12/2025 18:30:00;BACK;Chin Up;;1;8;No\n"
+						+ "16/12/2025 19:00:00;LEGS;\"Squat; \"\"Pause\"\"\";100;1;;No\n");
+	}
+
+	@Test
+	void export_asCsv_shouldImportBackUnchanged() throws IOException {
+		// Given
+		givenRows(
+				new ExportRow(1L, MONDAY, false, "CHEST", "Bench Press", 72.5, 10),
+				new ExportRow(1L, MONDAY, false, "CHEST", "Bench Press", 72.5, 8),
+				new ExportRow(2L, MONDAY, false, "BACK", "Pull Up", null, null),
+				new ExportRow(3L, TUESDAY, true, "BACK", "Row; \"Seal\"", null, 12),
+				new ExportRow(4L, TUESDAY, false, "LEGS", "Squat", 100.0, null));
+		ExerciseLogService logService = mock(ExerciseLogService.class);
+		UserRepository userRepository = mock(UserRepository.class);
+		CatalogCache catalogCache = mock(CatalogCache.class);
+		when(userRepository.existsById(1L)).thenReturn(true);
+		when(catalogCache.findMuscleGroup(anyString()))
+				.thenAnswer(invocation -> Optional.of(new MuscleGroupEntity(1L, invocation.getArgument(0), null)));
+		when(logService.saveImportedLogs(eq(1L), anyList()))
+				.thenAnswer(invocation -> invocation.getArgument(1, List.class).size());
+		ExerciseLogImportService importService = new ExerciseLogImportService(logService, userRepository, catalogCache);
+
+		// When
+		ImportReportDTO report = importService.importCsv(1L,
+				new ByteArrayInputStream(export(ExportFormat.CSV).getBytes(StandardCharsets.UTF_8)));
+
+		// Then
+		assertThat(report.getImported()).isEqualTo(4);
+		assertThat(report.getErrors()).isEmpty();
+		ArgumentCaptor<List<ExerciseLogDTO>> imported = captor();
+		verify(logService).saveImportedLogs(eq(1L), imported.capture());
+		assertThat(imported.getValue())
+				.extracting(log -> log.getTimestamp() + "|" + log.getExercise().getGroup() + "|"
+						+ log.getExercise().getName() + "|" + log.getSets() + "|" + log.getFailure())
+				.containsExactly(
+						"15/12/2025 18:30:00|CHEST|Bench Press|"
+								+ List.of(new ExerciseSetDTO(72.5, 10), new ExerciseSetDTO(72.5, 8)) + "|false",
+						"15/12/2025 18:30:00|BACK|Pull Up|[]|false",
+						"16/12/2025 19:00:00|BACK|Row; \"Seal\"|" + List.of(new ExerciseSetDTO(null, 12)) + "|true",
+						"16/12/2025 19:00:00|LEGS|Squat|" + List.of(new ExerciseSetDTO(100.0, null)) + "|false");
+	}
+
+	@Test
+	void export_withNoLogs_shouldOnlyWriteCsvHeader() throws IOException {
+		// Given
+		givenRows();
+
+		// When
+		String output = export(ExportFormat.CSV);
+
+		// Then
+		assertThat(output).isEqualTo(ExerciseLogExportService.CSV_HEADER + "\n");
+	}
+
+	@Test
+	void export_whenClientDisconnects_shouldPropagateIOException() {
+		// Given
+		givenRows(new ExportRow(1L, MONDAY, false, "CHEST", "Bench Press", 80.0, 10));
+		OutputStream failing = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("Broken pipe");
+			}
+		};
+
+		// When & Then
+		assertThatThrownBy(() -> exportService.export(1L, ExportFormat.NDJSON, failing))
+				.isInstanceOf(IOException.class)
+				.hasMessage("Broken pipe");
+	}
+
+	@Test
+	void exportFormat_withUnknownValue_shouldThrowException() {
+		assertThat(ExportFormat.from("CsV")).isEqualTo(ExportFormat.CSV);
+		assertThatThrownBy(() -> ExportFormat.from("xml"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Unsupported export format: xml");
+	}
+
+	private void givenRows(ExportRow... rows) {
+		doAnswer(invocation -> {
+			Consumer<ExportRow> consumer = invocation.getArgument(1);
+			for (ExportRow row : rows) {
+				consumer.accept(row);
+			}
+			return null;
+		}).when(exportRepository).streamByUserId(eq(1L), any());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ArgumentCaptor<List<ExerciseLogDTO>> captor() {
+		return ArgumentCaptor.forClass(List.class);
+	}
+
+	private String export(ExportFormat format) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exportService.export(1L, format, out);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,109 @@
+package com.erodrich.exercises.exerciselogging.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.erodrich.exercises.exerciselogging.dto.ImportReportDTO;
+import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
+import com.erodrich.exercises.musclegroup.repository.MuscleGroupRepository;
+import com.erodrich.exercises.user.entity.UserEntity;
+import com.erodrich.exercises.user.repository.UserRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Imports a generated CSV file through the whole service stack and logs the throughput.
+ * Skipped unless run with -Dbenchmark=true; the row count defaults to 1,000,000 (-Dbenchmark.rows).
+ */
+@Slf4j
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ExerciseLogImportBenchmarkTest {
+
+	private static final String[][] EXERCISES = {
+			{"Chest", "Bench Press"}, {"Chest", "Incline Dumbbell Press"},
+			{"Back", "Deadlift"}, {"Back", "Pull Up"},
+			{"Legs", "Squat"}, {"Legs", "Lunge"}
+	};
+
+	@Autowired
+	private ExerciseLogImportService importService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private MuscleGroupRepository muscleGroupRepository;
+
+	@TempDir
+	private Path tempDir;
+
+	@Test
+	void importCsv_withGeneratedFile() throws IOException {
+		// Given
+		int rows = Integer.getInteger("benchmark.rows", 1_000_000);
+		for (String group : new String[] {"CHEST", "BACK", "LEGS"}) {
+			if (!muscleGroupRepository.existsByNameIgnoreCase(group)) {
+				muscleGroupRepository.save(new MuscleGroupEntity(null, group, group));
+			}
+		}
+		UserEntity user = new UserEntity();
+		user.setUsername("benchmark");
+		user.setPassword("pass");
+		user.setEmail("benchmark@email.com");
+		user.setCreatedAt(LocalDateTime.now());
+		user = userRepository.save(user);
+		Path csv = generate(rows);
+
+		// When
+		long start = System.nanoTime();
+		ImportReportDTO report;
+		try (InputStream in = Files.newInputStream(csv)) {
+			report = importService.importCsv(user.getId(), in);
+		}
+		double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+		// Then
+		log.info("Imported {} rows in {} s ({} rows/s)", report.getImported(),
+				String.format("%.1f", seconds), String.format("%.0f", report.getImported() / seconds));
+		assertThat(report.getImported()).isEqualTo(rows);
+		assertThat(report.getFailedLines()).isZero();
+	}
+
+	private Path generate(int rows) throws IOException {
+		Path csv = tempDir.resolve("benchmark.csv");
+		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+		LocalDateTime date = LocalDateTime.of(2020, 1, 1, 18, 0);
+		try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+			writer.write("timestamp;muscle_group;exercise;weight;sets;comments;failure\n");
+			for (int i = 0; i < rows; i++) {
+				String[] exercise = EXERCISES[i % EXERCISES.length];
+				writer.write(date.plusMinutes(i * 5L).format(formatter));
+				writer.write(';');
+				writer.write(exercise[0]);
+				writer.write(';');
+				writer.write(exercise[1]);
+				writer.write(';');
+				writer.write(Integer.toString(20 + i % 60));
+				writer.write(";3;10,9,8;");
+				writer.write(i % 10 == 0 ? "Yes" : "No");
+				writer.write('\n');
+			}
+		}
+		return csv;
+	}
+}
@@ -0,0 +1,191 @@
+package com.erodrich.exercises.exerciselogging.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.erodrich.exercises.catalog.CatalogCache;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseLogDTO;
+import com.erodrich.exercises.exerciselogging.dto.ImportReportDTO;
+import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
+import com.erodrich.exercises.user.service.UserNotFoundException;
+import com.erodrich.exercises.user.service.UserService;
+
+@ExtendWith(MockitoExtension.class)
+class ExerciseLogImportServiceTest {
+
+	private static final String HEADER = "timestamp;muscle_group;exercise;weight;sets;comments;failure\n";
+	private static final String BENCH_LINE = "10/11/2025 15:49:18;Chest;Bench Press;30;3;11,10,9;No\n";
+
+	@Mock
+	private ExerciseLogService exerciseLogService;
+
+	@Mock
+	private UserService userService;
+
+	@Mock
+	private CatalogCache catalogCache;
+
+	@InjectMocks
+	private ExerciseLogImportService importService;
+
+	@BeforeEach
+	void setUp() {
+		lenient().when(userService.existsById(1L)).thenReturn(true);
+		lenient().when(catalogCache.findMuscleGroup(anyString())).thenAnswer(invocation ->
+				invocation.getArgument(0, String.class).equalsIgnoreCase("Chest")
+						? Optional.of(new MuscleGroupEntity(1L, "CHEST", "Chest exercises"))
+						: Optional.empty());
+		lenient().when(exerciseLogService.saveImportedLogs(eq(1L), anyList()))
+				.thenAnswer(invocation -> invocation.getArgument(1, List.class).size());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void importCsv_withValidLines_shouldParseCsvLoaderLayout() throws IOException {
+		// When
+		ImportReportDTO report = importService.importCsv(1L, csv(HEADER
+				+ BENCH_LINE
+				+ "10/11/2025 16:05:37;Chest;Dumbbell Flat Press;32,5;4;10,9,10,8;Yes\n"));
+
+		// Then
+		assertThat(report.getLinesRead()).isEqualTo(2);
+		assertThat(report.getImported()).isEqualTo(2);
+		assertThat(report.getFailedLines()).isZero();
+		assertThat(report.getErrors()).isEmpty();
+
+		ArgumentCaptor<List<ExerciseLogDTO>> chunk = ArgumentCaptor.forClass(List.class);
+		verify(exerciseLogService).saveImportedLogs(eq(1L), chunk.capture());
+		ExerciseLogDTO second = chunk.getValue().get(1);
+		assertThat(second.getTimestamp()).isEqualTo("10/11/2025 16:05:37");
+		assertThat(second.getExercise().getGroup()).isEqualTo("Chest");
+		assertThat(second.getExercise().getName()).isEqualTo("Dumbbell Flat Press");
+		assertThat(second.getSets()).hasSize(4);
+		assertThat(second.getSets().get(0).getWeight()).isEqualTo(32.5);
+		assertThat(second.getSets().get(0).getReps()).isEqualTo(10);
+		assertThat(second.getFailure()).isTrue();
+	}
+
+	@Test
+	void importCsv_withMoreLinesThanChunkSize_shouldSaveInChunks() throws IOException {
+		// Given
+		StringBuilder content = new StringBuilder(HEADER);
+		int lines = ExerciseLogImportService.CHUNK_SIZE * 2 + 5;
+		for (int i = 0; i < lines; i++) {
+			content.append(BENCH_LINE);
+		}
+
+		// When
+		ImportReportDTO report = importService.importCsv(1L, csv(content.toString()));
+
+		// Then
+		assertThat(report.getImported()).isEqualTo(lines);
+		verify(exerciseLogService, times(3)).saveImportedLogs(eq(1L), anyList());
+	}
+
+	@Test
+	void importCsv_withInvalidLines_shouldSkipAndReportThem() throws IOException {
+		// When
+		ImportReportDTO report = importService.importCsv(1L, csv(HEADER
+				+ BENCH_LINE
+				+ "10/11/2025 15:49:18;Chest;Bench Press\n"
+				+ "10/11/2025 15:49:18;Chest;Bench Press;heavy;3;11,10,9;No\n"
+				+ "\n"
+				+ "10/11/2025 15:49:18;Wings;Flap;10;3;11,10,9;No\n"
+				+ BENCH_LINE));
+
+		// Then
+		assertThat(report.getLinesRead()).isEqualTo(5);
+		assertThat(report.getImported()).isEqualTo(2);
+		assertThat(report.getFailedLines()).isEqualTo(3);
+		assertThat(report.getErrors()).extracting(error -> error.getFromLine()).containsExactly(3L, 4L, 6L);
+		assertThat(report.getErrors().get(0).getMessage()).contains("Expected 7 columns");
+		assertThat(report.getErrors().get(2).getMessage()).isEqualTo("Invalid muscle group: Wings");
+	}
+
+	@Test
+	void importCsv_withInvalidTimestamp_shouldRejectLineInsteadOfDatingItToday() throws IOException {
+		// When
+		ImportReportDTO report = importService.importCsv(1L, csv(HEADER
+				+ "yesterday;Chest;Bench Press;30;3;11,10,9;No\n"
+				+ ";Chest;Bench Press;30;3;11,10,9;No\n"
+				+ BENCH_LINE));
+
+		// Then
+		assertThat(report.getImported()).isEqualTo(1);
+		assertThat(report.getFailedLines()).isEqualTo(2);
+		assertThat(report.getErrors()).extracting(error -> error.getMessage())
+				.containsExactly("Invalid timestamp: yesterday", "Timestamp is required");
+	}
+
+	@Test
+	void importCsv_whenChunkFails_shouldReportChunkAndContinue() throws IOException {
+		// Given
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < ExerciseLogImportService.CHUNK_SIZE + 1; i++) {
+			content.append(BENCH_LINE);
+		}
+		when(exerciseLogService.saveImportedLogs(eq(1L), anyList()))
+				.thenThrow(new IllegalStateException("Connection reset"))
+				.thenReturn(1);
+
+		// When
+		ImportReportDTO report = importService.importCsv(1L, csv(content.toString()));
+
+		// Then
+		assertThat(report.getImported()).isEqualTo(1);
+		assertThat(report.getFailedLines()).isEqualTo(ExerciseLogImportService.CHUNK_SIZE);
+		assertThat(report.getErrors()).hasSize(1);
+		assertThat(report.getErrors().get(0).getFromLine()).isEqualTo(1);
+		assertThat(report.getErrors().get(0).getToLine()).isEqualTo(ExerciseLogImportService.CHUNK_SIZE);
+		assertThat(report.getErrors().get(0).getMessage()).isEqualTo("Connection reset");
+	}
+
+	@Test
+	void importCsv_withByteOrderMark_shouldSkipHeader() throws IOException {
+		// When
+		ImportReportDTO report = importService.importCsv(1L, csv("\uFEFF" + HEADER + BENCH_LINE));
+
+		// Then
+		assertThat(report.getLinesRead()).isEqualTo(1);
+		assertThat(report.getImported()).isEqualTo(1);
+	}
+
+	@Test
+	void importCsv_whenUserNotFound_shouldThrowException() {
+		// Given
+		when(userService.existsById(999L)).thenReturn(false);
+
+		// When & Then
+		assertThatThrownBy(() -> importService.importCsv(999L, csv(BENCH_LINE)))
+				.isInstanceOf(UserNotFoundException.class)
+				.hasMessage("User not found: 999");
+		verifyNoInteractions(exerciseLogService);
+	}
+
+	private static InputStream csv(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -3,36 +3,45 @@ package com.erodrich.exercises.exerciselogging.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import com.erodrich.exercises.exercise.entity.ExerciseEntity;
-import com.erodrich.exercises.exercise.repository.ExerciseRepository;
 import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
-import com.erodrich.exercises.musclegroup.repository.MuscleGroupRepository;
 import com.erodrich.exercises.exerciselogging.dto.ExerciseDTO;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseLogChangesDTO;
 import com.erodrich.exercises.exerciselogging.dto.ExerciseLogDTO;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseLogPageDTO;
 import com.erodrich.exercises.exerciselogging.dto.ExerciseSetDTO;
 import com.erodrich.exercises.exerciselogging.entity.ExerciseLogEntity;
+import com.erodrich.exercises.exerciselogging.entity.ExerciseLogTombstoneEntity;
 import com.erodrich.exercises.exerciselogging.entity.ExerciseSetEntity;
 import com.erodrich.exercises.exerciselogging.mapper.ExerciseLogMapper;
 import com.erodrich.exercises.exerciselogging.repository.ExerciseLogRepository;
-import com.erodrich.exercises.exerciselogging.repository.ExerciseSetRepository;
+import com.erodrich.exercises.exerciselogging.repository.ExerciseLogTombstoneRepository;
 import com.erodrich.exercises.user.entity.UserEntity;
 import com.erodrich.exercises.user.repository.UserRepository;
+import com.erodrich.exercises.user.service.UserDataVersionService;
 
 @ExtendWith(MockitoExtension.class)
 class ExerciseLogServiceTest {
@@ -41,10 +50,7 @@ class ExerciseLogServiceTest {
 	private ExerciseLogRepository exerciseLogRepository;
 	
 	@Mock
-	private ExerciseRepository exerciseRepository;
-	
-	@Mock
-	private ExerciseSetRepository exerciseSetRepository;
+	private ExerciseLogTombstoneRepository tombstoneRepository;
 	
 	@Mock
 	private UserRepository userRepository;
@@ -53,7 +59,13 @@ class ExerciseLogServiceTest {
 	private ExerciseLogMapper mapper;
 	
 	@Mock
-	private MuscleGroupRepository muscleGroupRepository;
+	private ExerciseCatalogResolver catalogResolver;
+	
+	@Mock
+	private LatestExerciseLogService latestLogService;
+	
+	@Mock
+	private UserDataVersionService dataVersionService;
 	
 	@InjectMocks
 	private ExerciseLogService exerciseLogService;
@@ -69,7 +81,7 @@ class ExerciseLogServiceTest {
 		
 		ExerciseDTO exerciseDTO = new ExerciseDTO(null, "Bench Press", "CHEST");
 		ExerciseSetDTO setDTO = new ExerciseSetDTO(100.0, 10);
-		ExerciseLogDTO logDTO = new ExerciseLogDTO("12/16/2025 10:30:00", exerciseDTO, Arrays.asList(setDTO), false);
+		ExerciseLogDTO logDTO = new ExerciseLogDTO(null, "12/16/2025 10:30:00", exerciseDTO, Arrays.asList(setDTO), false);
 		
 		MuscleGroupEntity chest = new MuscleGroupEntity(1L, "CHEST", "Chest exercises");
 		
@@ -91,116 +103,89 @@ class ExerciseLogServiceTest {
 		savedLogEntity.setId(1L);
 		savedLogEntity.setUser(user);
 		savedLogEntity.setExercise(exercise);
-		savedLogEntity.setSets(new HashSet<>(Arrays.asList(setEntity)));
-		
-		when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-		when(mapper.toEntity(logDTO)).thenReturn(logEntity);
-		when(muscleGroupRepository.findByNameIgnoreCase("CHEST")).thenReturn(Optional.of(chest));
-		when(exerciseRepository.findByNameAndMuscleGroup("Bench Press", chest))
-			.thenReturn(Optional.of(exercise));
-		when(exerciseSetRepository.save(any(ExerciseSetEntity.class))).thenReturn(setEntity);
+		savedLogEntity.setSets(Arrays.asList(setEntity));
+		
+		when(userRepository.getReferenceById(userId)).thenReturn(user);
+		when(catalogResolver.resolve(List.of(exerciseDTO))).thenReturn(catalogOf(exercise));
+		when(mapper.toEntity(logDTO, exercise)).thenReturn(logEntity);
 		when(exerciseLogRepository.saveAll(any())).thenReturn(Arrays.asList(savedLogEntity));
 		when(mapper.toDTO(savedLogEntity)).thenReturn(logDTO);
+		when(dataVersionService.bump(userId)).thenReturn(7L);
 		
 		// When
 		List<ExerciseLogDTO> result = exerciseLogService.saveLogs(userId, Arrays.asList(logDTO));
 		
 		// Then
 		assertThat(result).hasSize(1);
+		assertThat(logEntity.getChangeSeq()).isEqualTo(7L);
 		verify(exerciseLogRepository).saveAll(any());
+		verify(latestLogService).record(userId, Arrays.asList(savedLogEntity));
+		verify(dataVersionService).bump(userId);
+		verify(userRepository, never()).findById(any());
 	}
 	
 	@Test
-	void saveLogs_withInvalidUserId_shouldThrowException() {
-		// Given
-		Long userId = 999L;
-		ExerciseLogDTO logDTO = new ExerciseLogDTO();
-		
-		when(userRepository.findById(userId)).thenReturn(Optional.empty());
-		
-		// When/Then
-		assertThatThrownBy(() -> exerciseLogService.saveLogs(userId, Arrays.asList(logDTO)))
-			.isInstanceOf(IllegalArgumentException.class)
-			.hasMessage("User not found");
-	}
-	
-	@Test
-	void saveLogs_withNewExercise_shouldCreateExercise() {
+	void saveImportedLogs_shouldSaveWithoutMappingBack() {
 		// Given
 		Long userId = 1L;
-		
 		UserEntity user = new UserEntity();
 		user.setId(userId);
 		
-		ExerciseDTO exerciseDTO = new ExerciseDTO(null, "New Exercise", "LEGS");
-		ExerciseLogDTO logDTO = new ExerciseLogDTO("12/16/2025 10:30:00", exerciseDTO, Arrays.asList(), false);
-		
-		ExerciseLogEntity logEntity = new ExerciseLogEntity();
-		
-		MuscleGroupEntity legs = new MuscleGroupEntity(4L, "LEGS", "Leg exercises");
-		
-		ExerciseEntity newExercise = new ExerciseEntity();
-		newExercise.setId(1L);
-		newExercise.setName("New Exercise");
-		newExercise.setMuscleGroup(legs);
-		
-		ExerciseLogEntity savedLogEntity = new ExerciseLogEntity();
-		savedLogEntity.setId(1L);
+		ExerciseDTO exerciseDTO = new ExerciseDTO(null, "Squat", "LEGS");
+		ExerciseLogDTO logDTO = new ExerciseLogDTO(null, "12/16/2025 10:30:00", exerciseDTO, List.of(), false);
+		ExerciseEntity squat = new ExerciseEntity();
+		squat.setName("Squat");
+		squat.setMuscleGroup(new MuscleGroupEntity(4L, "LEGS", "Leg exercises"));
 		
-		when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-		when(mapper.toEntity(logDTO)).thenReturn(logEntity);
-		when(muscleGroupRepository.findByNameIgnoreCase("LEGS")).thenReturn(Optional.of(legs));
-		when(exerciseRepository.findByNameAndMuscleGroup("New Exercise", legs))
-			.thenReturn(Optional.empty());
-		when(exerciseRepository.save(any(ExerciseEntity.class))).thenReturn(newExercise);
-		when(exerciseLogRepository.saveAll(any())).thenReturn(Arrays.asList(savedLogEntity));
-		when(mapper.toDTO(savedLogEntity)).thenReturn(logDTO);
+		when(userRepository.getReferenceById(userId)).thenReturn(user);
+		when(catalogResolver.resolve(List.of(exerciseDTO, exerciseDTO))).thenReturn(catalogOf(squat));
+		when(mapper.toEntity(logDTO, squat)).thenReturn(new ExerciseLogEntity());
 		
 		// When
-		List<ExerciseLogDTO> result = exerciseLogService.saveLogs(userId, Arrays.asList(logDTO));
+		int saved = exerciseLogService.saveImportedLogs(userId, List.of(logDTO, logDTO));
 		
 		// Then
-		assertThat(result).isNotEmpty();
-		verify(exerciseRepository).save(any(ExerciseEntity.class));
+		assertThat(saved).isEqualTo(2);
+		verify(exerciseLogRepository).saveAll(any());
+		verify(mapper, times(0)).toDTO(any(ExerciseLogEntity.class));
+		verify(dataVersionService).bump(userId);
 	}
 	
 	@Test
-	void getAllLogs_withValidUserId_shouldReturnUserLogs() {
+	void saveLogs_shouldResolveCatalogOncePerPayload() {
 		// Given
 		Long userId = 1L;
 		
-		ExerciseLogEntity logEntity = new ExerciseLogEntity();
-		logEntity.setId(1L);
-		
-		ExerciseLogDTO logDTO = new ExerciseLogDTO();
-		
-		when(exerciseLogRepository.findByUserId(userId)).thenReturn(Arrays.asList(logEntity));
-		when(mapper.toDTO(logEntity)).thenReturn(logDTO);
+		UserEntity user = new UserEntity();
+		user.setId(userId);
 		
-		// When
-		List<ExerciseLogDTO> result = exerciseLogService.getAllLogs(userId);
+		MuscleGroupEntity legs = new MuscleGroupEntity(4L, "LEGS", "Leg exercises");
+		ExerciseEntity squat = new ExerciseEntity();
+		squat.setId(1L);
+		squat.setName("Squat");
+		squat.setMuscleGroup(legs);
 		
-		// Then
-		assertThat(result).hasSize(1);
-		verify(exerciseLogRepository).findByUserId(userId);
-	}
-	
-	@Test
-	void getAllLogs_whenNoLogs_shouldReturnEmptyList() {
-		// Given
-		Long userId = 1L;
+		ExerciseDTO monday = new ExerciseDTO(null, "Squat", "LEGS");
+		ExerciseDTO wednesday = new ExerciseDTO(null, "Squat", "legs");
+		ExerciseLogDTO mondayLog = new ExerciseLogDTO(null, "15/12/2025 10:30:00", monday, List.of(), false);
+		ExerciseLogDTO wednesdayLog = new ExerciseLogDTO(null, "17/12/2025 10:30:00", wednesday, List.of(), false);
 		
-		when(exerciseLogRepository.findByUserId(userId)).thenReturn(Arrays.asList());
+		when(userRepository.getReferenceById(userId)).thenReturn(user);
+		when(catalogResolver.resolve(List.of(monday, wednesday))).thenReturn(catalogOf(squat));
+		when(mapper.toEntity(any(ExerciseLogDTO.class), any(ExerciseEntity.class))).thenReturn(new ExerciseLogEntity());
+		when(exerciseLogRepository.saveAll(any())).thenReturn(List.of());
 		
 		// When
-		List<ExerciseLogDTO> result = exerciseLogService.getAllLogs(userId);
+		exerciseLogService.saveLogs(userId, List.of(mondayLog, wednesdayLog));
 		
-		// Then
-		assertThat(result).isEmpty();
+		// Then - both logs map to the one resolved exercise
+		verify(catalogResolver).resolve(List.of(monday, wednesday));
+		verify(mapper).toEntity(mondayLog, squat);
+		verify(mapper).toEntity(wednesdayLog, squat);
 	}
 	
 	@Test
-	void saveLogs_shouldPersistAllSets() {
+	void saveLogs_shouldCascadeAllSetsWithTheLog() {
 		// Given
 		Long userId = 1L;
 		
@@ -212,39 +197,45 @@ class ExerciseLogServiceTest {
 		ExerciseSetDTO set2 = new ExerciseSetDTO(100.0, 8);
 		ExerciseSetDTO set3 = new ExerciseSetDTO(100.0, 6);
 		ExerciseLogDTO logDTO = new ExerciseLogDTO(
+			null,
 			"12/16/2025 10:30:00", 
 			exerciseDTO, 
 			Arrays.asList(set1, set2, set3), 
 			false
 		);
 		
+		MuscleGroupEntity legs = new MuscleGroupEntity(4L, "LEGS", "Leg exercises");
+		
 		ExerciseEntity exercise = new ExerciseEntity();
 		exercise.setId(1L);
+		exercise.setName("Squat");
+		exercise.setMuscleGroup(legs);
 		
+		// As the mapper builds it: the resolved exercise and every set
 		ExerciseLogEntity logEntity = new ExerciseLogEntity();
-		
-		ExerciseSetEntity setEntity = new ExerciseSetEntity();
-		setEntity.setId(1L);
+		logEntity.setExercise(exercise);
+		logEntity.setSets(Arrays.asList(
+			new ExerciseSetEntity(), new ExerciseSetEntity(), new ExerciseSetEntity()));
 		
 		ExerciseLogEntity savedLogEntity = new ExerciseLogEntity();
 		savedLogEntity.setId(1L);
 		
-		MuscleGroupEntity legs = new MuscleGroupEntity(4L, "LEGS", "Leg exercises");
-		
-		when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-		when(mapper.toEntity(logDTO)).thenReturn(logEntity);
-		when(muscleGroupRepository.findByNameIgnoreCase("LEGS")).thenReturn(Optional.of(legs));
-		when(exerciseRepository.findByNameAndMuscleGroup("Squat", legs))
-			.thenReturn(Optional.of(exercise));
-		when(exerciseSetRepository.save(any(ExerciseSetEntity.class))).thenReturn(setEntity);
+		when(userRepository.getReferenceById(userId)).thenReturn(user);
+		when(catalogResolver.resolve(List.of(exerciseDTO))).thenReturn(catalogOf(exercise));
+		when(mapper.toEntity(logDTO, exercise)).thenReturn(logEntity);
 		when(exerciseLogRepository.saveAll(any())).thenReturn(Arrays.asList(savedLogEntity));
 		when(mapper.toDTO(savedLogEntity)).thenReturn(logDTO);
 		
 		// When
 		exerciseLogService.saveLogs(userId, Arrays.asList(logDTO));
 		
-		// Then
-		verify(exerciseSetRepository, times(3)).save(any(ExerciseSetEntity.class));
+		// Then - sets are not saved one by one, they travel with the log
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<ExerciseLogEntity>> saved = ArgumentCaptor.forClass(List.class);
+		verify(exerciseLogRepository).saveAll(saved.capture());
+		assertThat(saved.getValue()).hasSize(1);
+		assertThat(saved.getValue().get(0).getSets()).hasSize(3);
+		assertThat(saved.getValue().get(0).getExercise()).isEqualTo(exercise);
 	}
 	
 	@Test
@@ -253,24 +244,18 @@ class ExerciseLogServiceTest {
 		Long userId = 1L;
 		Long exerciseId = 2L;
 		
-		ExerciseLogEntity logEntity = new ExerciseLogEntity();
-		logEntity.setId(1L);
-		logEntity.setDate(LocalDateTime.now());
-		
 		ExerciseLogDTO expectedDTO = new ExerciseLogDTO();
 		
-		when(exerciseLogRepository.findFirstByUserIdAndExerciseIdOrderByDateDesc(userId, exerciseId))
-			.thenReturn(Optional.of(logEntity));
-		when(mapper.toDTO(logEntity)).thenReturn(expectedDTO);
+		when(latestLogService.find(userId, exerciseId)).thenReturn(Optional.of(expectedDTO));
 		
 		// When
 		Optional<ExerciseLogDTO> result = exerciseLogService.getLatestLogForExercise(userId, exerciseId);
 		
-		// Then
+		// Then - read from the projection, not by sorting the user's logs
 		assertThat(result).isPresent();
 		assertThat(result.get()).isEqualTo(expectedDTO);
-		verify(exerciseLogRepository).findFirstByUserIdAndExerciseIdOrderByDateDesc(userId, exerciseId);
-		verify(mapper).toDTO(logEntity);
+		verify(latestLogService).find(userId, exerciseId);
+		verify(exerciseLogRepository, times(0)).findFirstByUserIdAndExerciseIdOrderByDateDescIdDesc(any(), any());
 	}
 	
 	@Test
@@ -279,14 +264,285 @@ class ExerciseLogServiceTest {
 		Long userId = 1L;
 		Long exerciseId = 2L;
 		
-		when(exerciseLogRepository.findFirstByUserIdAndExerciseIdOrderByDateDesc(userId, exerciseId))
-			.thenReturn(Optional.empty());
+		when(latestLogService.find(userId, exerciseId)).thenReturn(Optional.empty());
 		
 		// When
 		Optional<ExerciseLogDTO> result = exerciseLogService.getLatestLogForExercise(userId, exerciseId);
 		
 		// Then
 		assertThat(result).isEmpty();
-		verify(exerciseLogRepository).findFirstByUserIdAndExerciseIdOrderByDateDesc(userId, exerciseId);
+		verify(latestLogService).find(userId, exerciseId);
+	}
+	
+	@Test
+	void getLatestLogsForExercises_shouldDeduplicateAndQueryOnce() {
+		// Given
+		Long userId = 1L;
+		Map<Long, ExerciseLogDTO> latest = Map.of(3L, new ExerciseLogDTO());
+		when(latestLogService.findAll(userId, new LinkedHashSet<>(List.of(3L, 1L)))).thenReturn(latest);
+		
+		// When
+		Map<Long, ExerciseLogDTO> result = exerciseLogService.getLatestLogsForExercises(userId, List.of(3L, 1L, 3L));
+		
+		// Then
+		assertThat(result).isEqualTo(latest);
+	}
+	
+	@Test
+	void getLatestLogsForExercises_withoutIds_shouldThrowException() {
+		// When/Then
+		assertThatThrownBy(() -> exerciseLogService.getLatestLogsForExercises(1L, List.of()))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("At least one exercise ID is required");
+	}
+	
+	@Test
+	void getLatestLogsForExercises_withTooManyIds_shouldThrowException() {
+		// Given
+		List<Long> ids = LongStream.rangeClosed(1, ExerciseLogService.MAX_LATEST_EXERCISES + 1).boxed().toList();
+		
+		// When/Then
+		assertThatThrownBy(() -> exerciseLogService.getLatestLogsForExercises(1L, ids))
+			.isInstanceOf(IllegalArgumentException.class);
+		verify(latestLogService, times(0)).findAll(any(), any());
+	}
+	
+	@Test
+	void getLogsPage_withoutCursor_shouldReturnFirstPageAndNextCursor() {
+		// Given
+		Long userId = 1L;
+		
+		ExerciseLogEntity newest = new ExerciseLogEntity();
+		newest.setId(3L);
+		newest.setDate(LocalDateTime.of(2025, 12, 18, 10, 0));
+		
+		ExerciseLogEntity older = new ExerciseLogEntity();
+		older.setId(2L);
+		older.setDate(LocalDateTime.of(2025, 12, 17, 10, 0));
+		
+		ExerciseLogEntity oldest = new ExerciseLogEntity();
+		oldest.setId(1L);
+		oldest.setDate(LocalDateTime.of(2025, 12, 16, 10, 0));
+		
+		when(exerciseLogRepository.findByUserIdOrderByDateDescIdDesc(userId, Limit.of(3)))
+			.thenReturn(Arrays.asList(newest, older, oldest));
+		when(mapper.toDTO(any(ExerciseLogEntity.class))).thenReturn(new ExerciseLogDTO());
+		
+		// When
+		ExerciseLogPageDTO page = exerciseLogService.getLogsPage(userId, null, 2);
+		
+		// Then
+		assertThat(page.getLogs()).hasSize(2);
+		assertThat(page.getNextCursor()).isNotNull();
+		verify(mapper, times(2)).toDTO(any(ExerciseLogEntity.class));
+	}
+	
+	@Test
+	void getLogsPage_withCursor_shouldSeekAfterLastRowOfPreviousPage() {
+		// Given
+		Long userId = 1L;
+		
+		ExerciseLogEntity older = new ExerciseLogEntity();
+		older.setId(2L);
+		older.setDate(LocalDateTime.of(2025, 12, 17, 10, 0));
+		
+		ExerciseLogEntity lastOfPreviousPage = new ExerciseLogEntity();
+		lastOfPreviousPage.setId(3L);
+		lastOfPreviousPage.setDate(LocalDateTime.of(2025, 12, 18, 10, 0));
+		String cursor = ExerciseLogCursor.of(lastOfPreviousPage).encode();
+		
+		when(exerciseLogRepository.findByUserIdBefore(
+				eq(userId), eq(LocalDateTime.of(2025, 12, 18, 10, 0)), eq(3L), eq(Limit.of(3))))
+			.thenReturn(Arrays.asList(older));
+		when(mapper.toDTO(older)).thenReturn(new ExerciseLogDTO());
+		
+		// When
+		ExerciseLogPageDTO page = exerciseLogService.getLogsPage(userId, cursor, 2);
+		
+		// Then
+		assertThat(page.getLogs()).hasSize(1);
+		assertThat(page.getNextCursor()).isNull();
+	}
+	
+	@Test
+	void getLogsPage_withoutLimit_shouldUseDefaultPageSize() {
+		// Given
+		Long userId = 1L;
+		
+		when(exerciseLogRepository.findByUserIdOrderByDateDescIdDesc(
+				userId, Limit.of(ExerciseLogService.DEFAULT_PAGE_SIZE + 1)))
+			.thenReturn(List.of());
+		
+		// When
+		ExerciseLogPageDTO page = exerciseLogService.getLogsPage(userId, null, null);
+		
+		// Then
+		assertThat(page.getLogs()).isEmpty();
+		assertThat(page.getNextCursor()).isNull();
+	}
+	
+	@Test
+	void getLogsPage_withInvalidCursor_shouldThrowException() {
+		// When/Then
+		assertThatThrownBy(() -> exerciseLogService.getLogsPage(1L, "not-a-cursor", 10))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Invalid cursor");
+	}
+	
+	@Test
+	void getLogsPage_withNonPositiveLimit_shouldThrowException() {
+		// When/Then
+		assertThatThrownBy(() -> exerciseLogService.getLogsPage(1L, null, 0))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Limit must be positive");
+	}
+	
+	@Test
+	void deleteLog_shouldLeaveTombstoneAndRepointLatest() {
+		// Given
+		Long userId = 1L;
+		ExerciseLogEntity log = new ExerciseLogEntity();
+		log.setId(5L);
+		when(exerciseLogRepository.findByIdAndUserId(5L, userId)).thenReturn(Optional.of(log));
+		when(dataVersionService.bump(userId)).thenReturn(9L);
+		
+		// When
+		boolean deleted = exerciseLogService.deleteLog(userId, 5L);
+		
+		// Then
+		assertThat(deleted).isTrue();
+		verify(exerciseLogRepository).delete(log);
+		ArgumentCaptor<ExerciseLogTombstoneEntity> tombstone = ArgumentCaptor.forClass(ExerciseLogTombstoneEntity.class);
+		verify(tombstoneRepository).save(tombstone.capture());
+		assertThat(tombstone.getValue().getId()).isEqualTo(5L);
+		assertThat(tombstone.getValue().getUserId()).isEqualTo(userId);
+		assertThat(tombstone.getValue().getChangeSeq()).isEqualTo(9L);
+		verify(latestLogService).forget(userId, log);
+	}
+	
+	@Test
+	void deleteLog_whenNotTheUsersLog_shouldNotWrite() {
+		// Given
+		when(exerciseLogRepository.findByIdAndUserId(5L, 2L)).thenReturn(Optional.empty());
+		
+		// When
+		boolean deleted = exerciseLogService.deleteLog(2L, 5L);
+		
+		// Then
+		assertThat(deleted).isFalse();
+		verify(exerciseLogRepository, never()).delete(any());
+		verify(tombstoneRepository, never()).save(any());
+		verify(dataVersionService, never()).bump(any());
+	}
+	
+	@Test
+	void getChanges_withToken_shouldReturnChangesAfterIt() {
+		// Given
+		Long userId = 1L;
+		ExerciseLogEntity changed = changedLog(8L, 12L);
+		ExerciseLogDTO changedDTO = new ExerciseLogDTO();
+		changedDTO.setId(8L);
+		when(userRepository.findDataVersionById(userId)).thenReturn(Optional.of(12L));
+		when(exerciseLogRepository.findChangedAfter(userId, 10L, Long.MAX_VALUE, 12L, Limit.of(51)))
+			.thenReturn(List.of(changed));
+		when(tombstoneRepository.findDeletedAfter(userId, 10L, Long.MAX_VALUE, 12L, Limit.of(51)))
+			.thenReturn(List.of(new ExerciseLogTombstoneEntity(5L, userId, 11L, LocalDateTime.now())));
+		when(mapper.toDTO(changed)).thenReturn(changedDTO);
+		
+		// When
+		ExerciseLogChangesDTO changes = exerciseLogService.getChanges(
+			userId, new ExerciseLogChangeToken(10L).encode(), null);
+		
+		// Then
+		assertThat(changes.getChanged()).containsExactly(changedDTO);
+		assertThat(changes.getDeleted()).containsExactly(5L);
+		assertThat(changes.isHasMore()).isFalse();
+		assertThat(ExerciseLogChangeToken.decode(changes.getToken())).isEqualTo(new ExerciseLogChangeToken(12L));
+		verify(exerciseLogRepository).fetchSets(List.of(8L));
+	}
+	
+	@Test
+	void getChanges_withoutToken_shouldStartAtTheFirstChange() {
+		// Given
+		Long userId = 1L;
+		ExerciseLogEntity log = changedLog(1L, 0L);
+		when(userRepository.findDataVersionById(userId)).thenReturn(Optional.of(3L));
+		when(exerciseLogRepository.findChangedAfter(userId, 0L, 0L, 3L, Limit.of(51))).thenReturn(List.of(log));
+		when(mapper.toDTO(log)).thenReturn(new ExerciseLogDTO());
+		
+		// When
+		ExerciseLogChangesDTO changes = exerciseLogService.getChanges(userId, null, null);
+		
+		// Then
+		assertThat(changes.getChanged()).hasSize(1);
+		assertThat(changes.getDeleted()).isEmpty();
+		assertThat(changes.isHasMore()).isFalse();
+		assertThat(ExerciseLogChangeToken.decode(changes.getToken()).version()).isEqualTo(3L);
+	}
+	
+	@Test
+	void getChanges_whenMoreChangesThanLimit_shouldMergeFeedsAndResumeAfterLastChange() {
+		// Given - version 4 saved logs 2 and 3, version 5 deleted log 1
+		Long userId = 1L;
+		ExerciseLogEntity second = changedLog(2L, 4L);
+		ExerciseLogEntity third = changedLog(3L, 4L);
+		when(userRepository.findDataVersionById(userId)).thenReturn(Optional.of(5L));
+		when(exerciseLogRepository.findChangedAfter(userId, 0L, 0L, 5L, Limit.of(3)))
+			.thenReturn(List.of(second, third));
+		when(tombstoneRepository.findDeletedAfter(userId, 0L, 0L, 5L, Limit.of(3)))
+			.thenReturn(List.of(new ExerciseLogTombstoneEntity(1L, userId, 5L, LocalDateTime.now())));
+		when(mapper.toDTO(any(ExerciseLogEntity.class))).thenReturn(new ExerciseLogDTO());
+		
+		// When
+		ExerciseLogChangesDTO changes = exerciseLogService.getChanges(userId, null, 2);
+		
+		// Then - the page splits version 4 after log 3 and leaves the deletion to the next call
+		assertThat(changes.getChanged()).hasSize(2);
+		assertThat(changes.getDeleted()).isEmpty();
+		assertThat(changes.isHasMore()).isTrue();
+		assertThat(ExerciseLogChangeToken.decode(changes.getToken())).isEqualTo(new ExerciseLogChangeToken(4L, 3L));
+	}
+	
+	@Test
+	void getChanges_withTokenWithinVersion_shouldResumeAfterItsId() {
+		// Given
+		Long userId = 1L;
+		when(userRepository.findDataVersionById(userId)).thenReturn(Optional.of(5L));
+		when(tombstoneRepository.findDeletedAfter(userId, 4L, 3L, 5L, Limit.of(3)))
+			.thenReturn(List.of(new ExerciseLogTombstoneEntity(1L, userId, 5L, LocalDateTime.now())));
+		
+		// When
+		ExerciseLogChangesDTO changes = exerciseLogService.getChanges(
+			userId, new ExerciseLogChangeToken(4L, 3L).encode(), 2);
+		
+		// Then
+		assertThat(changes.getChanged()).isEmpty();
+		assertThat(changes.getDeleted()).containsExactly(1L);
+		assertThat(changes.isHasMore()).isFalse();
+		assertThat(ExerciseLogChangeToken.decode(changes.getToken())).isEqualTo(new ExerciseLogChangeToken(5L));
+		verify(exerciseLogRepository, never()).fetchSets(any());
+	}
+	
+	@Test
+	void getChanges_withInvalidToken_shouldThrowException() {
+		// When/Then
+		assertThatThrownBy(() -> exerciseLogService.getChanges(1L, "not-a-token", null))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Invalid token");
+	}
+	
+	private static ExerciseLogEntity changedLog(Long id, long changeSeq) {
+		ExerciseLogEntity log = new ExerciseLogEntity();
+		log.setId(id);
+		log.setChangeSeq(changeSeq);
+		return log;
+	}
+	
+	private static ResolvedCatalog catalogOf(ExerciseEntity... exercises) {
+		Map<ResolvedCatalog.Key, ExerciseEntity> byKey = new HashMap<>();
+		for (ExerciseEntity exercise : exercises) {
+			byKey.put(ResolvedCatalog.key(exercise.getMuscleGroup().getName(), exercise.getName()), exercise);
+		}
+		return new ResolvedCatalog(byKey);
 	}
 }
@@ -0,0 +1,45 @@
+package com.erodrich.exercises.exerciselogging.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+
+import com.erodrich.exercises.exerciselogging.repository.ExerciseLogRepository;
+
+@ExtendWith(MockitoExtension.class)
+class LatestExerciseLogRebuildJobTest {
+
+	@Mock
+	private ExerciseLogRepository exerciseLogRepository;
+
+	@Mock
+	private LatestExerciseLogService latestLogService;
+
+	@InjectMocks
+	private LatestExerciseLogRebuildJob rebuildJob;
+
+	@Test
+	void rebuildAll_whenAUserFails_shouldContinueWithTheNextUsers() {
+		// Given
+		when(exerciseLogRepository.findUserIds()).thenReturn(List.of(1L, 2L, 3L));
+		when(latestLogService.rebuild(1L)).thenReturn(4);
+		when(latestLogService.rebuild(2L)).thenThrow(new CannotAcquireLockException("Lock timeout"));
+		when(latestLogService.rebuild(3L)).thenReturn(2);
+
+		// When
+		LatestExerciseLogRebuildJob.Result result = rebuildJob.rebuildAll();
+
+		// Then
+		assertThat(result).isEqualTo(new LatestExerciseLogRebuildJob.Result(6, 2, 1));
+		verify(latestLogService).rebuild(3L);
+	}
+}
@@ -0,0 +1,236 @@
+package com.erodrich.exercises.exerciselogging.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.erodrich.exercises.exercise.entity.ExerciseEntity;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseLogDTO;
+import com.erodrich.exercises.exerciselogging.entity.ExerciseLogEntity;
+import com.erodrich.exercises.exerciselogging.entity.ExerciseSetEntity;
+import com.erodrich.exercises.exerciselogging.entity.LatestExerciseLogEntity;
+import com.erodrich.exercises.exerciselogging.entity.LatestExerciseLogId;
+import com.erodrich.exercises.exerciselogging.mapper.ExerciseLogMapper;
+import com.erodrich.exercises.exerciselogging.repository.ExerciseLogRepository;
+import com.erodrich.exercises.exerciselogging.repository.LatestExerciseLogRepository;
+import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
+
+@ExtendWith(MockitoExtension.class)
+class LatestExerciseLogServiceTest {
+
+	@Mock
+	private LatestExerciseLogRepository latestLogRepository;
+
+	@Mock
+	private ExerciseLogRepository exerciseLogRepository;
+
+	@Spy
+	private ExerciseLogMapper mapper = new ExerciseLogMapper();
+
+	@InjectMocks
+	private LatestExerciseLogService latestLogService;
+
+	private ExerciseEntity squat;
+	private ExerciseEntity benchPress;
+
+	@BeforeEach
+	void setUp() {
+		squat = exercise(1L, "Squat", new MuscleGroupEntity(4L, "LEGS", "Leg exercises"));
+		benchPress = exercise(2L, "Bench Press", new MuscleGroupEntity(1L, "CHEST", "Chest exercises"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void record_shouldUpsertNewestLogPerExercise() {
+		// Given
+		ExerciseLogEntity olderSquat = log(10L, squat, LocalDateTime.of(2025, 12, 15, 10, 0));
+		ExerciseLogEntity newerSquat = log(11L, squat, LocalDateTime.of(2025, 12, 17, 10, 0));
+		ExerciseLogEntity bench = log(12L, benchPress, LocalDateTime.of(2025, 12, 16, 10, 0));
+
+		// When
+		latestLogService.record(1L, List.of(bench, olderSquat, newerSquat));
+
+		// Then - one row per exercise, in exercise order
+		ArgumentCaptor<List<LatestExerciseLogEntity>> upserted = ArgumentCaptor.forClass(List.class);
+		verify(latestLogRepository).upsertIfNewer(upserted.capture());
+		assertThat(upserted.getValue())
+				.extracting(LatestExerciseLogEntity::getLogId)
+				.containsExactly(11L, 12L);
+		assertThat(upserted.getValue()).allMatch(row -> row.getId().getUserId().equals(1L));
+		verify(latestLogRepository, never()).findByUserIdAndExerciseIdIn(any(), any());
+	}
+
+	@Test
+	void record_withNoLogs_shouldNotUpsert() {
+		// When
+		latestLogService.record(1L, List.of());
+
+		// Then
+		verify(latestLogRepository, never()).upsertIfNewer(any());
+	}
+
+	@Test
+	void find_shouldMapProjectionRow() {
+		// Given
+		LatestExerciseLogEntity row = stored(1L, squat, 5L, LocalDateTime.of(2025, 12, 16, 10, 0));
+		when(latestLogRepository.findByUserIdAndExerciseId(1L, 1L)).thenReturn(Optional.of(row));
+
+		// When
+		Optional<ExerciseLogDTO> result = latestLogService.find(1L, 1L);
+
+		// Then
+		assertThat(result).isPresent();
+		assertThat(result.get().getTimestamp()).isEqualTo("16/12/2025 10:00:00");
+		assertThat(result.get().getExercise().getName()).isEqualTo("Squat");
+	}
+
+	@Test
+	void findAll_shouldKeepRequestOrderAndSkipExercisesNeverLogged() {
+		// Given
+		List<Long> exerciseIds = List.of(2L, 9L, 1L);
+		when(latestLogRepository.findByUserIdAndExerciseIdIn(1L, exerciseIds)).thenReturn(List.of(
+				stored(1L, squat, 5L, LocalDateTime.of(2025, 12, 16, 10, 0)),
+				stored(1L, benchPress, 6L, LocalDateTime.of(2025, 12, 17, 10, 0))));
+
+		// When
+		Map<Long, ExerciseLogDTO> result = latestLogService.findAll(1L, exerciseIds);
+
+		// Then
+		assertThat(result.keySet()).containsExactly(2L, 1L);
+		assertThat(result.get(2L).getExercise().getName()).isEqualTo("Bench Press");
+	}
+
+	@Test
+	void findByMuscleGroup_shouldKeyByExerciseIdSortedByName() {
+		// Given
+		ExerciseEntity frontSquat = exercise(3L, "Front Squat", squat.getMuscleGroup());
+		when(latestLogRepository.findByUserIdAndMuscleGroup(1L, "legs")).thenReturn(List.of(
+				stored(1L, squat, 5L, LocalDateTime.of(2025, 12, 16, 10, 0)),
+				stored(1L, frontSquat, 6L, LocalDateTime.of(2025, 12, 17, 10, 0))));
+
+		// When
+		Map<Long, ExerciseLogDTO> result = latestLogService.findByMuscleGroup(1L, "legs");
+
+		// Then
+		assertThat(result.keySet()).containsExactly(3L, 1L);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void rebuild_shouldReplaceUserRowsFromLogs() {
+		// Given
+		ExerciseLogEntity latestSquat = log(11L, squat, LocalDateTime.of(2025, 12, 17, 10, 0));
+		when(exerciseLogRepository.findLatestPerExerciseByUserId(1L)).thenReturn(List.of(latestSquat));
+
+		// When
+		int rows = latestLogService.rebuild(1L);
+
+		// Then
+		assertThat(rows).isEqualTo(1);
+		verify(latestLogRepository).deleteByUserId(1L);
+		verify(exerciseLogRepository).fetchSets(List.of(11L));
+		ArgumentCaptor<List<LatestExerciseLogEntity>> saved = ArgumentCaptor.forClass(List.class);
+		verify(latestLogRepository).upsertIfNewer(saved.capture());
+		assertThat(saved.getValue().get(0).getId()).isEqualTo(new LatestExerciseLogId(1L, 1L));
+		verify(latestLogRepository, never()).saveAll(any());
+	}
+
+	@Test
+	void forget_whenDeletedLogWasLatest_shouldCopyNextNewest() {
+		// Given
+		ExerciseLogEntity deleted = log(11L, squat, LocalDateTime.of(2025, 12, 17, 10, 0));
+		ExerciseLogEntity previous = log(10L, squat, LocalDateTime.of(2025, 12, 15, 10, 0));
+		LatestExerciseLogEntity row = stored(1L, squat, 11L, deleted.getDate());
+		when(latestLogRepository.findById(new LatestExerciseLogId(1L, 1L))).thenReturn(Optional.of(row));
+		when(exerciseLogRepository.findFirstByUserIdAndExerciseIdOrderByDateDescIdDesc(1L, 1L))
+				.thenReturn(Optional.of(previous));
+
+		// When
+		latestLogService.forget(1L, deleted);
+
+		// Then
+		assertThat(row.getLogId()).isEqualTo(10L);
+		assertThat(row.getDate()).isEqualTo(previous.getDate());
+		verify(latestLogRepository, never()).delete(any());
+	}
+
+	@Test
+	void forget_whenNoLogLeft_shouldDeleteRow() {
+		// Given
+		ExerciseLogEntity deleted = log(11L, squat, LocalDateTime.of(2025, 12, 17, 10, 0));
+		LatestExerciseLogEntity row = stored(1L, squat, 11L, deleted.getDate());
+		when(latestLogRepository.findById(new LatestExerciseLogId(1L, 1L))).thenReturn(Optional.of(row));
+		when(exerciseLogRepository.findFirstByUserIdAndExerciseIdOrderByDateDescIdDesc(1L, 1L))
+				.thenReturn(Optional.empty());
+
+		// When
+		latestLogService.forget(1L, deleted);
+
+		// Then
+		verify(latestLogRepository).delete(row);
+	}
+
+	@Test
+	void forget_whenDeletedLogWasNotLatest_shouldKeepRow() {
+		// Given
+		ExerciseLogEntity deleted = log(10L, squat, LocalDateTime.of(2025, 12, 15, 10, 0));
+		LatestExerciseLogEntity row = stored(1L, squat, 11L, LocalDateTime.of(2025, 12, 17, 10, 0));
+		when(latestLogRepository.findById(new LatestExerciseLogId(1L, 1L))).thenReturn(Optional.of(row));
+
+		// When
+		latestLogService.forget(1L, deleted);
+
+		// Then
+		assertThat(row.getLogId()).isEqualTo(11L);
+		verify(exerciseLogRepository, never()).findFirstByUserIdAndExerciseIdOrderByDateDescIdDesc(any(), any());
+	}
+
+	private static ExerciseLogEntity log(Long id, ExerciseEntity exercise, LocalDateTime date) {
+		ExerciseSetEntity set = new ExerciseSetEntity();
+		set.setWeight(100.0);
+		set.setReps(5);
+
+		ExerciseLogEntity log = new ExerciseLogEntity();
+		log.setId(id);
+		log.setExercise(exercise);
+		log.setDate(date);
+		log.setSets(List.of(set));
+		return log;
+	}
+
+	private static LatestExerciseLogEntity stored(Long userId, ExerciseEntity exercise, Long logId, LocalDateTime date) {
+		LatestExerciseLogEntity row = new LatestExerciseLogEntity();
+		row.setId(new LatestExerciseLogId(userId, exercise.getId()));
+		row.setExercise(exercise);
+		row.setLogId(logId);
+		row.setDate(date);
+		row.setSets(List.of());
+		row.setNew(false);
+		return row;
+	}
+
+	private static ExerciseEntity exercise(Long id, String name, MuscleGroupEntity muscleGroup) {
+		ExerciseEntity exercise = new ExerciseEntity();
+		exercise.setId(id);
+		exercise.setName(name);
+		exercise.setMuscleGroup(muscleGroup);
+		return exercise;
+	}
+}
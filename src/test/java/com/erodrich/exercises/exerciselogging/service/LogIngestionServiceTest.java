@@ -0,0 +1,284 @@
+package com.erodrich.exercises.exerciselogging.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import com.erodrich.exercises.catalog.CatalogCache;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseDTO;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseLogDTO;
+import com.erodrich.exercises.exerciselogging.dto.ExerciseSetDTO;
+import com.erodrich.exercises.exerciselogging.dto.LogIngestionDTO;
+import com.erodrich.exercises.exerciselogging.entity.LogIngestionEntity;
+import com.erodrich.exercises.exerciselogging.mapper.ExerciseLogMapper;
+import com.erodrich.exercises.exerciselogging.repository.LogIngestionRepository;
+import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
+import com.erodrich.exercises.user.repository.UserRepository;
+import com.erodrich.exercises.user.service.UserNotFoundException;
+
+import tools.jackson.databind.json.JsonMapper;
+
+@ExtendWith(MockitoExtension.class)
+class LogIngestionServiceTest {
+
+	private static final JsonMapper JSON_MAPPER = JsonMapper.builder().build();
+
+	@Mock
+	private LogIngestionRepository ingestionRepository;
+
+	@Mock
+	private UserRepository userRepository;
+
+	@Mock
+	private ExerciseLogService exerciseLogService;
+
+	@Mock
+	private CatalogCache catalogCache;
+
+	private LogIngestionService ingestionService;
+
+	private final ExerciseLogDTO benchPress = log("16/12/2025 10:30:00", "Bench Press", "chest");
+
+	@BeforeEach
+	void setUp() {
+		ingestionService = new LogIngestionService(ingestionRepository, userRepository, exerciseLogService, catalogCache,
+				new ExerciseLogMapper(), JSON_MAPPER, true, Duration.ofDays(1), 3, Duration.ofSeconds(1));
+	}
+
+	@Test
+	void enqueue_withValidLogs_shouldStorePendingPayload() {
+		// Given
+		when(catalogCache.findMuscleGroups(Set.of("CHEST")))
+				.thenReturn(Map.of("CHEST", new MuscleGroupEntity(1L, "CHEST", "Chest exercises")));
+		when(userRepository.existsById(7L)).thenReturn(true);
+		when(ingestionRepository.save(any(LogIngestionEntity.class))).thenAnswer(invocation -> {
+			LogIngestionEntity saved = invocation.getArgument(0);
+			saved.setId(UUID.randomUUID());
+			return saved;
+		});
+
+		// When
+		LogIngestionDTO ingestion = ingestionService.enqueue(7L, List.of(benchPress));
+
+		// Then
+		ArgumentCaptor<LogIngestionEntity> captor = ArgumentCaptor.forClass(LogIngestionEntity.class);
+		verify(ingestionRepository).save(captor.capture());
+		assertThat(captor.getValue().getUserId()).isEqualTo(7L);
+		assertThat(captor.getValue().getStatus()).isEqualTo(LogIngestionEntity.Status.PENDING);
+		assertThat(captor.getValue().getPayload()).contains("\"name\":\"Bench Press\"");
+		assertThat(ingestion.getId()).isNotNull();
+		assertThat(ingestion.getStatus()).isEqualTo("PENDING");
+		assertThat(ingestion.getLogCount()).isEqualTo(1);
+		verify(exerciseLogService, never()).saveImportedLogs(any(), any());
+	}
+
+	@Test
+	void enqueue_forUnknownUser_shouldThrowUserNotFound() {
+		// Given
+		when(catalogCache.findMuscleGroups(Set.of("CHEST")))
+				.thenReturn(Map.of("CHEST", new MuscleGroupEntity(1L, "CHEST", "Chest exercises")));
+		when(userRepository.existsById(99L)).thenReturn(false);
+
+		// When/Then
+		assertThatThrownBy(() -> ingestionService.enqueue(99L, List.of(benchPress)))
+				.isInstanceOf(UserNotFoundException.class);
+		verify(ingestionRepository, never()).save(any());
+	}
+
+	@Test
+	void enqueue_withUnknownMuscleGroup_shouldThrowException() {
+		// Given
+		when(catalogCache.findMuscleGroups(anyCollection())).thenReturn(Map.of());
+
+		// When/Then
+		assertThatThrownBy(() -> ingestionService.enqueue(7L, List.of(benchPress)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid muscle group: chest");
+		verify(ingestionRepository, never()).save(any());
+	}
+
+	@Test
+	void enqueue_withIncompleteReference_shouldThrowException() {
+		// When/Then
+		assertThatThrownBy(() -> ingestionService.enqueue(7L, List.of(log("16/12/2025 10:30:00", null, "CHEST"))))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Exercise name and group are required");
+		verify(ingestionRepository, never()).save(any());
+	}
+
+	@Test
+	void enqueue_withTooManyLogs_shouldThrowException() {
+		// Given
+		List<ExerciseLogDTO> logs = new ArrayList<>();
+		for (int i = 0; i <= LogIngestionService.MAX_LOGS; i++) {
+			logs.add(benchPress);
+		}
+
+		// When/Then
+		assertThatThrownBy(() -> ingestionService.enqueue(7L, logs))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("At most " + LogIngestionService.MAX_LOGS + " logs are allowed");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void processPending_shouldSaveEachUserOnceInUserOrderAndMarkDone() {
+		// Given
+		LogIngestionEntity secondUserFirst = ingestion(9L, List.of(benchPress));
+		LogIngestionEntity firstUser = ingestion(3L, List.of(benchPress));
+		LogIngestionEntity secondUserSecond = ingestion(9L, List.of(benchPress, benchPress));
+		when(ingestionRepository.claimPending(any(LocalDateTime.class), eq(Limit.of(100)))).thenReturn(List.of(secondUserFirst, firstUser, secondUserSecond));
+
+		// When
+		int processed = ingestionService.processPending(100);
+
+		// Then
+		assertThat(processed).isEqualTo(3);
+		InOrder order = inOrder(exerciseLogService);
+		ArgumentCaptor<List<ExerciseLogDTO>> logs = ArgumentCaptor.forClass(List.class);
+		order.verify(exerciseLogService).saveImportedLogs(eq(3L), logs.capture());
+		order.verify(exerciseLogService).saveImportedLogs(eq(9L), logs.capture());
+		assertThat(logs.getAllValues().get(0)).hasSize(1);
+		assertThat(logs.getAllValues().get(1)).hasSize(3);
+		assertThat(List.of(secondUserFirst, firstUser, secondUserSecond))
+				.allMatch(ingestion -> ingestion.getStatus() == LogIngestionEntity.Status.DONE
+						&& ingestion.getProcessedAt() != null);
+	}
+
+	@Test
+	void processPending_whenAPayloadFails_shouldReportTheClaimedIds() {
+		// Given
+		LogIngestionEntity first = ingestion(3L, List.of(benchPress));
+		LogIngestionEntity second = ingestion(9L, List.of(benchPress));
+		when(ingestionRepository.claimPending(any(LocalDateTime.class), eq(Limit.of(100)))).thenReturn(List.of(first, second));
+		when(exerciseLogService.saveImportedLogs(eq(3L), any()))
+				.thenThrow(new IllegalArgumentException("Invalid muscle group: chest"));
+
+		// When/Then
+		assertThatThrownBy(() -> ingestionService.processPending(100))
+				.isInstanceOfSatisfying(LogIngestionBatchException.class, e -> assertThat(e.getIngestionIds())
+						.containsExactly(first.getId(), second.getId()))
+				.hasMessage("Invalid muscle group: chest");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void processBatch_shouldReadBackThePayloadAsWritten() {
+		// Given
+		LogIngestionEntity ingestion = ingestion(3L, List.of(benchPress));
+		when(ingestionRepository.lockPending(List.of(ingestion.getId()))).thenReturn(List.of(ingestion));
+
+		// When
+		ingestionService.processBatch(List.of(ingestion.getId()));
+
+		// Then
+		ArgumentCaptor<List<ExerciseLogDTO>> logs = ArgumentCaptor.forClass(List.class);
+		verify(exerciseLogService).saveImportedLogs(eq(3L), logs.capture());
+		assertThat(logs.getValue()).containsExactly(benchPress);
+	}
+
+	@Test
+	void markFailed_shouldKeepTheReason() {
+		// Given
+		LogIngestionEntity ingestion = ingestion(3L, List.of(benchPress));
+		when(ingestionRepository.lockPending(List.of(ingestion.getId()))).thenReturn(List.of(ingestion));
+
+		// When
+		ingestionService.markFailed(ingestion.getId(), "Invalid muscle group: chest");
+
+		// Then
+		assertThat(ingestion.getStatus()).isEqualTo(LogIngestionEntity.Status.FAILED);
+		assertThat(ingestion.getError()).isEqualTo("Invalid muscle group: chest");
+	}
+
+	@Test
+	void markRetry_shouldKeepPendingAndDoubleTheBackoff() {
+		// Given
+		LogIngestionEntity ingestion = ingestion(3L, List.of(benchPress));
+		when(ingestionRepository.lockPending(List.of(ingestion.getId()))).thenReturn(List.of(ingestion));
+
+		// When
+		boolean firstRetry = ingestionService.markRetry(ingestion.getId(), "Deadlock detected");
+		LocalDateTime firstAttemptAt = ingestion.getNextAttemptAt();
+		boolean secondRetry = ingestionService.markRetry(ingestion.getId(), "Deadlock detected");
+
+		// Then
+		assertThat(firstRetry).isTrue();
+		assertThat(secondRetry).isTrue();
+		assertThat(ingestion.getStatus()).isEqualTo(LogIngestionEntity.Status.PENDING);
+		assertThat(ingestion.getAttempts()).isEqualTo(2);
+		assertThat(firstAttemptAt).isAfter(LocalDateTime.now().minusSeconds(1));
+		assertThat(ingestion.getNextAttemptAt()).isAfter(firstAttemptAt.plus(Duration.ofMillis(900)));
+	}
+
+	@Test
+	void markRetry_afterMaxAttempts_shouldMarkFailed() {
+		// Given
+		LogIngestionEntity ingestion = ingestion(3L, List.of(benchPress));
+		ingestion.setAttempts(2);
+		when(ingestionRepository.lockPending(List.of(ingestion.getId()))).thenReturn(List.of(ingestion));
+
+		// When
+		boolean retry = ingestionService.markRetry(ingestion.getId(), "Deadlock detected");
+
+		// Then
+		assertThat(retry).isFalse();
+		assertThat(ingestion.getStatus()).isEqualTo(LogIngestionEntity.Status.FAILED);
+		assertThat(ingestion.getError()).isEqualTo("Gave up after 3 attempts: Deadlock detected");
+		assertThat(ingestion.getProcessedAt()).isNotNull();
+	}
+
+	@Test
+	void prefersAsync_shouldFindRespondAsyncAmongPreferences() {
+		assertThat(LogIngestionService.prefersAsync(null)).isFalse();
+		assertThat(LogIngestionService.prefersAsync("return=minimal")).isFalse();
+		assertThat(LogIngestionService.prefersAsync("respond-async")).isTrue();
+		assertThat(LogIngestionService.prefersAsync("return=minimal, Respond-Async; wait=10")).isTrue();
+	}
+
+	private static LogIngestionEntity ingestion(Long userId, List<ExerciseLogDTO> logs) {
+		LogIngestionEntity ingestion = new LogIngestionEntity();
+		ingestion.setId(UUID.randomUUID());
+		ingestion.setUserId(userId);
+		ingestion.setPayload(toJson(logs));
+		ingestion.setLogCount(logs.size());
+		ingestion.setCreatedAt(LocalDateTime.now());
+		return ingestion;
+	}
+
+	private static String toJson(List<ExerciseLogDTO> logs) {
+		return JSON_MAPPER.writeValueAsString(logs);
+	}
+
+	private static ExerciseLogDTO log(String timestamp, String exercise, String group) {
+		return ExerciseLogDTO.builder()
+				.timestamp(timestamp)
+				.exercise(new ExerciseDTO(null, exercise, group))
+				.sets(List.of(new ExerciseSetDTO(100.0, 10)))
+				.failure(false)
+				.build();
+	}
+}
@@ -0,0 +1,163 @@
+package com.erodrich.exercises.exerciselogging.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class LogIngestionWorkerTest {
+
+	@Mock
+	private LogIngestionService ingestionService;
+
+	private SimpleMeterRegistry meterRegistry;
+	private LogIngestionWorker worker;
+
+	private final UUID good = UUID.randomUUID();
+	private final UUID bad = UUID.randomUUID();
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		worker = new LogIngestionWorker(ingestionService, meterRegistry, 1, 100,
+				Duration.ofMillis(10), Duration.ofSeconds(1));
+	}
+
+	@Test
+	void drainOnce_withEmptyQueue_shouldDoNothing() {
+		// Given
+		when(ingestionService.processPending(100)).thenReturn(0);
+
+		// When
+		int handled = worker.drainOnce();
+
+		// Then
+		assertThat(handled).isZero();
+		verify(ingestionService, never()).processBatch(any());
+	}
+
+	@Test
+	void drainOnce_shouldSaveWholeBatchInOneCall() {
+		// Given
+		when(ingestionService.processPending(100)).thenReturn(2);
+
+		// When
+		int handled = worker.drainOnce();
+
+		// Then
+		assertThat(handled).isEqualTo(2);
+		assertThat(count("saved")).isEqualTo(2);
+		verify(ingestionService, never()).processBatch(any());
+		verify(ingestionService, never()).markFailed(any(), anyString());
+	}
+
+	@Test
+	void drainOnce_whenBatchFails_shouldRetryOneByOneAndFailOnlyTheBadPayload() {
+		// Given
+		when(ingestionService.processPending(100)).thenThrow(new LogIngestionBatchException(List.of(good, bad),
+				new IllegalArgumentException("Invalid muscle group: chest")));
+		when(ingestionService.processBatch(List.of(good))).thenReturn(1);
+		when(ingestionService.processBatch(List.of(bad))).thenThrow(new IllegalArgumentException("Invalid muscle group: chest"));
+
+		// When
+		int handled = worker.drainOnce();
+
+		// Then
+		assertThat(handled).isEqualTo(2);
+		verify(ingestionService).processBatch(List.of(good));
+		verify(ingestionService).markFailed(eq(bad), eq("Invalid muscle group: chest"));
+		verify(ingestionService, never()).markFailed(eq(good), any());
+		assertThat(count("saved")).isEqualTo(1);
+		assertThat(count("failed")).isEqualTo(1);
+	}
+
+	@Test
+	void drainOnce_whenRetryFailsOnTransientError_shouldLeaveThePayloadPending() {
+		// Given
+		when(ingestionService.processPending(100)).thenThrow(new LogIngestionBatchException(List.of(good, bad),
+				new CannotAcquireLockException("Deadlock detected")));
+		when(ingestionService.processBatch(List.of(good))).thenReturn(1);
+		when(ingestionService.processBatch(List.of(bad))).thenThrow(new CannotAcquireLockException("Deadlock detected"));
+		when(ingestionService.markRetry(bad, "Deadlock detected")).thenReturn(true);
+
+		// When
+		int handled = worker.drainOnce();
+
+		// Then - only the saved payload counts as handled
+		assertThat(handled).isEqualTo(1);
+		verify(ingestionService).markRetry(bad, "Deadlock detected");
+		verify(ingestionService, never()).markFailed(any(), any());
+		assertThat(count("saved")).isEqualTo(1);
+		assertThat(count("retried")).isEqualTo(1);
+		assertThat(count("failed")).isZero();
+	}
+
+	@Test
+	void drainOnce_whenTransientRetriesAreExhausted_shouldCountTheFailure() {
+		// Given
+		when(ingestionService.processPending(100)).thenThrow(new LogIngestionBatchException(List.of(bad),
+				new CannotAcquireLockException("Deadlock detected")));
+		when(ingestionService.processBatch(List.of(bad))).thenThrow(new CannotAcquireLockException("Deadlock detected"));
+		when(ingestionService.markRetry(bad, "Deadlock detected")).thenReturn(false);
+
+		// When
+		int handled = worker.drainOnce();
+
+		// Then
+		assertThat(handled).isEqualTo(1);
+		verify(ingestionService, never()).markFailed(any(), any());
+		assertThat(count("failed")).isEqualTo(1);
+	}
+
+	@Test
+	void drainOnce_whenRetryViolatesAConstraint_shouldMarkFailed() {
+		// Given
+		when(ingestionService.processPending(100)).thenThrow(new LogIngestionBatchException(List.of(bad),
+				new DataIntegrityViolationException("Value too long")));
+		when(ingestionService.processBatch(List.of(bad))).thenThrow(new DataIntegrityViolationException("Value too long"));
+
+		// When
+		worker.drainOnce();
+
+		// Then
+		verify(ingestionService).markFailed(bad, "Value too long");
+		verify(ingestionService, never()).markRetry(any(), any());
+	}
+
+	@Test
+	void stop_shouldDrainPendingIngestionsBeforeReturning() {
+		// Given
+		when(ingestionService.processPending(100)).thenReturn(1, 0);
+
+		// When
+		worker.start();
+		worker.stop();
+
+		// Then
+		assertThat(worker.isRunning()).isFalse();
+		verify(ingestionService, atLeast(2)).processPending(100);
+	}
+
+	private double count(String result) {
+		return meterRegistry.get("log.ingestions").tag("result", result).counter().count();
+	}
+}
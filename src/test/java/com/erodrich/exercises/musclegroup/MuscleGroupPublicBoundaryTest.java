@@ -1,20 +1,30 @@
 package com.erodrich.exercises.musclegroup;
 
+import com.erodrich.exercises.catalog.CatalogResponseCache;
 import com.erodrich.exercises.musclegroup.dto.MuscleGroupDTO;
 import com.erodrich.exercises.musclegroup.service.MuscleGroupService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,7 +33,6 @@ class MuscleGroupPublicBoundaryTest {
     @Mock
     private MuscleGroupService muscleGroupService;
 
-    @InjectMocks
     private MuscleGroupPublicBoundary muscleGroupPublicBoundary;
 
     private MuscleGroupDTO chestGroup;
@@ -31,38 +40,59 @@ class MuscleGroupPublicBoundaryTest {
 
     @BeforeEach
     void setUp() {
+        muscleGroupPublicBoundary = new MuscleGroupPublicBoundary(muscleGroupService,
+                new CatalogResponseCache(new SimpleMeterRegistry(), JsonMapper.builder().build()));
         chestGroup = new MuscleGroupDTO(1L, "CHEST", "Chest exercises");
         backGroup = new MuscleGroupDTO(2L, "BACK", "Back exercises");
     }
 
     @Test
-    void getAllMuscleGroups_ShouldReturnListOfMuscleGroups() {
+    void getAllMuscleGroups_ShouldReturnListOfMuscleGroups() throws IOException {
         // Given
         List<MuscleGroupDTO> muscleGroups = Arrays.asList(chestGroup, backGroup);
         when(muscleGroupService.getAllMuscleGroups()).thenReturn(muscleGroups);
 
         // When
-        ResponseEntity<List<MuscleGroupDTO>> response = muscleGroupPublicBoundary.getAllMuscleGroups();
+        ResponseEntity<byte[]> response = muscleGroupPublicBoundary.getAllMuscleGroups(request());
 
         // Then
         assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getHeaders().getETag()).isNotNull();
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody()).hasSize(2);
-        assertThat(response.getBody()).containsExactly(chestGroup, backGroup);
+        assertThat(read(response.getBody())).containsExactly(chestGroup, backGroup);
     }
 
     @Test
-    void getAllMuscleGroups_WhenEmpty_ShouldReturnEmptyList() {
+    void getAllMuscleGroups_WhenEmpty_ShouldReturnEmptyList() throws IOException {
         // Given
         when(muscleGroupService.getAllMuscleGroups()).thenReturn(List.of());
 
         // When
-        ResponseEntity<List<MuscleGroupDTO>> response = muscleGroupPublicBoundary.getAllMuscleGroups();
+        ResponseEntity<byte[]> response = muscleGroupPublicBoundary.getAllMuscleGroups(request());
 
         // Then
         assertThat(response.getStatusCode().value()).isEqualTo(200);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody()).isEmpty();
+        assertThat(read(response.getBody())).isEmpty();
+    }
+
+    @Test
+    void getAllMuscleGroups_WhenETagMatches_ShouldReturnNotModified() {
+        // Given
+        when(muscleGroupService.getAllMuscleGroups()).thenReturn(List.of(chestGroup));
+        String etag = muscleGroupPublicBoundary.getAllMuscleGroups(request()).getHeaders().getETag();
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/api/v1/muscle-groups");
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        ServletWebRequest webRequest = new ServletWebRequest(conditional, servletResponse);
+
+        // When
+        ResponseEntity<byte[]> response = muscleGroupPublicBoundary.getAllMuscleGroups(webRequest);
+
+        // Then
+        assertThat(response).isNull();
+        assertThat(servletResponse.getStatus()).isEqualTo(304);
+        verify(muscleGroupService, times(1)).getAllMuscleGroups();
     }
 
     @Test
@@ -138,4 +168,13 @@ class MuscleGroupPublicBoundaryTest {
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody().getName()).isEqualTo("CHEST");
     }
+
+    private static ServletWebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/api/v1/muscle-groups"),
+                new MockHttpServletResponse());
+    }
+
+    private static List<MuscleGroupDTO> read(byte[] json) throws IOException {
+        return Arrays.asList(new ObjectMapper().readValue(json, MuscleGroupDTO[].class));
+    }
 }
@@ -2,33 +2,45 @@ package com.erodrich.exercises.security;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import com.erodrich.exercises.security.service.CustomUserDetailsService;
+import com.erodrich.exercises.security.service.UserDetailsCache;
 import com.erodrich.exercises.user.entity.Role;
 import com.erodrich.exercises.user.entity.UserEntity;
 import com.erodrich.exercises.user.repository.UserRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 class CustomUserDetailsServiceTest {
 	
 	@Mock
 	private UserRepository userRepository;
 	
-	@InjectMocks
 	private CustomUserDetailsService customUserDetailsService;
 	
+	@BeforeEach
+	void setUp() {
+		UserDetailsCache cache = new UserDetailsCache(new SimpleMeterRegistry(), Duration.ofMinutes(1), 100);
+		customUserDetailsService = new CustomUserDetailsService(userRepository, cache);
+	}
+	
 	@Test
 	void loadUserByUsername_whenUserExists_shouldReturnUserDetails() {
 		// Given
@@ -99,4 +111,28 @@ class CustomUserDetailsServiceTest {
 		assertThat(userDetails2.getUsername()).isEqualTo(email2);
 		assertThat(userDetails2.getPassword()).isEqualTo("password2");
 	}
+	
+	@Test
+	void loadUserByUsername_calledRepeatedly_shouldQueryOnceAndKeepPassword() {
+		// Given
+		String email = "test@email.com";
+		UserEntity user = new UserEntity();
+		user.setUsername("testuser");
+		user.setEmail(email);
+		user.setPassword("hashedPassword");
+		user.setRole(Role.USER);
+		
+		when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
+		
+		// When - Spring Security erases the credentials of the UserDetails it authenticated
+		UserDetails first = customUserDetailsService.loadUserByUsername(email);
+		((CredentialsContainer) first).eraseCredentials();
+		UserDetails second = customUserDetailsService.loadUserByUsername(email);
+		UserDetails byEmail = customUserDetailsService.loadUserByEmail(email);
+		
+		// Then
+		assertThat(second.getPassword()).isEqualTo("hashedPassword");
+		assertThat(byEmail.getUsername()).isEqualTo("testuser");
+		verify(userRepository, times(1)).findByEmail(email);
+	}
 }
@@ -1,25 +1,36 @@
 package com.erodrich.exercises.security;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.erodrich.exercises.security.jwt.AuthenticatedUser;
 import com.erodrich.exercises.security.jwt.JwtAuthenticationFilter;
+import com.erodrich.exercises.security.jwt.JwtClaims;
+import com.erodrich.exercises.security.jwt.JwtProperties;
 import com.erodrich.exercises.security.jwt.JwtTokenProvider;
+import com.erodrich.exercises.security.jwt.TokenAuthenticationDetails;
+import com.erodrich.exercises.security.jwt.TokenRevocationService;
+import com.erodrich.exercises.security.jwt.TokenSubjectVerifier;
 import com.erodrich.exercises.security.service.CustomUserDetailsService;
 
 import jakarta.servlet.FilterChain;
@@ -36,6 +47,12 @@ class JwtAuthenticationFilterTest {
 	@Mock
 	private CustomUserDetailsService customUserDetailsService;
 	
+	@Mock
+	private TokenSubjectVerifier tokenSubjectVerifier;
+	
+	@Mock
+	private TokenRevocationService tokenRevocationService;
+	
 	@Mock
 	private HttpServletRequest request;
 	
@@ -45,11 +62,15 @@ class JwtAuthenticationFilterTest {
 	@Mock
 	private FilterChain filterChain;
 	
+	private JwtProperties jwtProperties;
+	
 	private JwtAuthenticationFilter jwtAuthenticationFilter;
 	
 	@BeforeEach
 	void setUp() {
-		jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtTokenProvider, customUserDetailsService);
+		jwtProperties = new JwtProperties();
+		jwtAuthenticationFilter = new JwtAuthenticationFilter(
+			jwtTokenProvider, customUserDetailsService, jwtProperties, tokenSubjectVerifier, tokenRevocationService);
 		SecurityContextHolder.clearContext();
 	}
 	
@@ -65,8 +86,7 @@ class JwtAuthenticationFilterTest {
 			.build();
 		
 		when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-		when(jwtTokenProvider.validateToken(token)).thenReturn(true);
-		when(jwtTokenProvider.getUsernameFromToken(token)).thenReturn(email);
+		when(jwtTokenProvider.parse(token)).thenReturn(Optional.of(claims(email)));
 		when(customUserDetailsService.loadUserByUsername(email)).thenReturn(userDetails);
 		
 		// When
@@ -76,6 +96,8 @@ class JwtAuthenticationFilterTest {
 		assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
 		assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isEqualTo(userDetails);
 		assertThat(SecurityContextHolder.getContext().getAuthentication().isAuthenticated()).isTrue();
+		verify(jwtTokenProvider).parse(token);
+		verify(jwtTokenProvider, never()).validateToken(anyString());
 		verify(filterChain).doFilter(request, response);
 	}
 	
@@ -85,7 +107,25 @@ class JwtAuthenticationFilterTest {
 		String token = "invalid.jwt.token";
 		
 		when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-		when(jwtTokenProvider.validateToken(token)).thenReturn(false);
+		when(jwtTokenProvider.parse(token)).thenReturn(Optional.empty());
+		
+		// When
+		jwtAuthenticationFilter.doFilter(request, response, filterChain);
+		
+		// Then
+		assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+		verify(customUserDetailsService, never()).loadUserByUsername(anyString());
+		verify(filterChain).doFilter(request, response);
+	}
+	
+	@Test
+	void doFilterInternal_withRevokedToken_shouldNotSetAuthentication() throws ServletException, IOException {
+		// Given
+		String token = "revoked.jwt.token";
+		
+		when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+		when(jwtTokenProvider.parse(token)).thenReturn(Optional.of(claims("test@email.com")));
+		when(tokenRevocationService.isRevoked("jti-1")).thenReturn(true);
 		
 		// When
 		jwtAuthenticationFilter.doFilter(request, response, filterChain);
@@ -106,7 +146,7 @@ class JwtAuthenticationFilterTest {
 		
 		// Then
 		assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
-		verify(jwtTokenProvider, never()).validateToken(anyString());
+		verify(jwtTokenProvider, never()).parse(anyString());
 		verify(filterChain).doFilter(request, response);
 	}
 	
@@ -120,7 +160,7 @@ class JwtAuthenticationFilterTest {
 		
 		// Then
 		assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
-		verify(jwtTokenProvider, never()).validateToken(anyString());
+		verify(jwtTokenProvider, never()).parse(anyString());
 		verify(filterChain).doFilter(request, response);
 	}
 	
@@ -134,7 +174,7 @@ class JwtAuthenticationFilterTest {
 		
 		// Then
 		assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
-		verify(jwtTokenProvider, never()).validateToken(anyString());
+		verify(jwtTokenProvider, never()).parse(anyString());
 		verify(filterChain).doFilter(request, response);
 	}
 	
@@ -144,8 +184,8 @@ class JwtAuthenticationFilterTest {
 		String token = "valid.jwt.token";
 		
 		when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-		when(jwtTokenProvider.validateToken(token)).thenReturn(true);
-		when(jwtTokenProvider.getUsernameFromToken(token)).thenThrow(new RuntimeException("JWT parsing error"));
+		when(jwtTokenProvider.parse(token)).thenReturn(Optional.of(claims("test@email.com")));
+		when(customUserDetailsService.loadUserByUsername("test@email.com")).thenThrow(new RuntimeException("Lookup error"));
 		
 		// When
 		jwtAuthenticationFilter.doFilter(request, response, filterChain);
@@ -154,4 +194,97 @@ class JwtAuthenticationFilterTest {
 		assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
 		verify(filterChain).doFilter(request, response);
 	}
+	
+	@Test
+	void doFilterInternal_inStatelessMode_shouldBuildPrincipalFromClaimsWithoutLoadingUser() throws ServletException, IOException {
+		// Given
+		jwtProperties.setStatelessAuth(true);
+		String token = "valid.jwt.token";
+		JwtClaims claims = claims("test@email.com");
+		
+		when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+		when(jwtTokenProvider.parse(token)).thenReturn(Optional.of(claims));
+		when(tokenSubjectVerifier.isCurrent(claims)).thenReturn(true);
+		
+		// When
+		jwtAuthenticationFilter.doFilter(request, response, filterChain);
+		
+		// Then
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		assertThat(authentication).isNotNull();
+		assertThat(authentication.getPrincipal()).isEqualTo(new AuthenticatedUser(7L, "test@email.com", "ROLE_USER"));
+		assertThat(authentication.getDetails()).isInstanceOfSatisfying(TokenAuthenticationDetails.class,
+			details -> assertThat(details.getUserId()).isEqualTo(7L));
+		assertThat(authentication.getName()).isEqualTo("test@email.com");
+		assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+		verify(customUserDetailsService, never()).loadUserByUsername(anyString());
+		verify(filterChain).doFilter(request, response);
+	}
+	
+	@Test
+	void doFilterInternal_inStatelessModeWithStaleClaims_shouldNotSetAuthentication() throws ServletException, IOException {
+		// Given - e.g. the user's role changed since the token was issued
+		jwtProperties.setStatelessAuth(true);
+		String token = "valid.jwt.token";
+		JwtClaims claims = claims("test@email.com");
+		
+		when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+		when(jwtTokenProvider.parse(token)).thenReturn(Optional.of(claims));
+		when(tokenSubjectVerifier.isCurrent(claims)).thenReturn(false);
+		
+		// When
+		jwtAuthenticationFilter.doFilter(request, response, filterChain);
+		
+		// Then
+		assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+		verify(customUserDetailsService, never()).loadUserByUsername(anyString());
+		verify(filterChain).doFilter(request, response);
+	}
+	
+	@Test
+	void doFilterInternal_withoutUserIdClaim_shouldContinueUnauthenticated() throws ServletException, IOException {
+		// Given - user token issued before the uid claim existed
+		String token = "old.jwt.token";
+		
+		when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+		when(jwtTokenProvider.parse(token)).thenReturn(Optional.of(
+			new JwtClaims(null, "test@email.com", "ROLE_USER", Instant.now().plusSeconds(3600), "jti-1")));
+		
+		// When
+		jwtAuthenticationFilter.doFilter(request, response, filterChain);
+		
+		// Then - like an expired token: public routes still work, protected ones answer 401
+		assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+		verify(customUserDetailsService, never()).loadUserByUsername(anyString());
+		verify(filterChain).doFilter(request, response);
+	}
+	
+	@Test
+	void doFilterInternal_inStatelessModeWithAdminTokenWithoutUserIdClaim_shouldLoadUser() throws ServletException, IOException {
+		// Given
+		jwtProperties.setStatelessAuth(true);
+		String token = "old.jwt.token";
+		UserDetails userDetails = User.builder()
+			.username("admin@email.com")
+			.password("password")
+			.authorities("ROLE_ADMIN")
+			.build();
+		
+		when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+		when(jwtTokenProvider.parse(token)).thenReturn(Optional.of(
+			new JwtClaims(null, "admin@email.com", "ROLE_ADMIN", Instant.now().plusSeconds(3600), null)));
+		when(customUserDetailsService.loadUserByUsername("admin@email.com")).thenReturn(userDetails);
+		
+		// When
+		jwtAuthenticationFilter.doFilter(request, response, filterChain);
+		
+		// Then
+		assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isEqualTo(userDetails);
+		verify(tokenSubjectVerifier, never()).isCurrent(any());
+		verify(filterChain).doFilter(request, response);
+	}
+	
+	private static JwtClaims claims(String subject) {
+		return new JwtClaims(7L, subject, "ROLE_USER", Instant.now().plusSeconds(3600), "jti-1");
+	}
 }
@@ -3,17 +3,26 @@ package com.erodrich.exercises.security;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
+import com.erodrich.exercises.security.jwt.JwtClaims;
 import com.erodrich.exercises.security.jwt.JwtProperties;
 import com.erodrich.exercises.security.jwt.JwtTokenProvider;
 
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 class JwtTokenProviderTest {
 	
 	private JwtTokenProvider jwtTokenProvider;
@@ -36,7 +45,7 @@ class JwtTokenProviderTest {
 		String role = "ROLE_USER";
 		
 		// When
-		String token = jwtTokenProvider.generateToken(email, role);
+		String token = jwtTokenProvider.generateToken(1L, email, role);
 		
 		// Then
 		assertThat(token).isNotNull();
@@ -49,7 +58,7 @@ class JwtTokenProviderTest {
 		// Given
 		String email = "test@email.com";
 		String role = "ROLE_USER";
-		String token = jwtTokenProvider.generateToken(email, role);
+		String token = jwtTokenProvider.generateToken(1L, email, role);
 		
 		// When
 		String extractedEmail = jwtTokenProvider.getEmailFromToken(token);
@@ -63,7 +72,7 @@ class JwtTokenProviderTest {
 		// Given
 		String email = "test@email.com";
 		String role = "ROLE_USER";
-		String token = jwtTokenProvider.generateToken(email, role);
+		String token = jwtTokenProvider.generateToken(1L, email, role);
 		
 		// When
 		boolean isValid = jwtTokenProvider.validateToken(token);
@@ -92,7 +101,7 @@ class JwtTokenProviderTest {
 		ReflectionTestUtils.setField(shortExpiryProperties, "expiration", -1L); // Already expired
 		
 		JwtTokenProvider shortExpiryProvider = new JwtTokenProvider(shortExpiryProperties);
-		String expiredToken = shortExpiryProvider.generateToken("test@email.com", "ROLE_USER");
+		String expiredToken = shortExpiryProvider.generateToken(1L, "test@email.com", "ROLE_USER");
 		
 		// When
 		boolean isValid = jwtTokenProvider.validateToken(expiredToken);
@@ -127,8 +136,8 @@ class JwtTokenProviderTest {
 		String role = "ROLE_USER";
 		
 		// When
-		String token1 = jwtTokenProvider.generateToken(email1, role);
-		String token2 = jwtTokenProvider.generateToken(email2, role);
+		String token1 = jwtTokenProvider.generateToken(1L, email1, role);
+		String token2 = jwtTokenProvider.generateToken(2L, email2, role);
 		
 		// Then
 		assertThat(token1).isNotEqualTo(token2);
@@ -141,7 +150,7 @@ class JwtTokenProviderTest {
 		// Given
 		String email = "test@email.com";
 		String role = "ROLE_ADMIN";
-		String token = jwtTokenProvider.generateToken(email, role);
+		String token = jwtTokenProvider.generateToken(1L, email, role);
 		
 		// When - Parse token manually to verify claims
 		Claims claims = Jwts.parser()
@@ -152,6 +161,7 @@ class JwtTokenProviderTest {
 		
 		// Then
 		assertThat(claims.getSubject()).isEqualTo(email);
+		assertThat(claims.get("uid", Long.class)).isEqualTo(1L);
 		assertThat(claims.get("role")).isEqualTo(role);
 		assertThat(claims.getIssuedAt()).isNotNull();
 		assertThat(claims.getExpiration()).isNotNull();
@@ -163,7 +173,7 @@ class JwtTokenProviderTest {
 		// Given
 		String email = "admin@email.com";
 		String role = "ROLE_ADMIN";
-		String token = jwtTokenProvider.generateToken(email, role);
+		String token = jwtTokenProvider.generateToken(1L, email, role);
 		
 		// When
 		String extractedRole = jwtTokenProvider.getRoleFromToken(token);
@@ -171,4 +181,134 @@ class JwtTokenProviderTest {
 		// Then
 		assertThat(extractedRole).isEqualTo(role);
 	}
+	
+	@Test
+	void parse_withValidToken_shouldReturnAllClaims() {
+		// Given
+		String token = jwtTokenProvider.generateToken(1L, "admin@email.com", "ROLE_ADMIN");
+		
+		// When
+		Optional<JwtClaims> claims = jwtTokenProvider.parse(token);
+		
+		// Then
+		assertThat(claims).isPresent();
+		assertThat(claims.get().subject()).isEqualTo("admin@email.com");
+		assertThat(claims.get().role()).isEqualTo("ROLE_ADMIN");
+		assertThat(claims.get().expiresAt()).isAfter(Instant.now());
+	}
+	
+	@Test
+	void parse_withUserIdClaim_shouldReturnUserId() {
+		// Given
+		String token = jwtTokenProvider.generateToken(42L, "test@email.com", "ROLE_USER");
+		
+		// When
+		Optional<JwtClaims> claims = jwtTokenProvider.parse(token);
+		
+		// Then
+		assertThat(claims).isPresent();
+		assertThat(claims.get().userId()).isEqualTo(42L);
+	}
+	
+	@Test
+	void parse_withoutUserIdClaim_shouldReturnNullUserId() {
+		// Given - token as issued before the uid claim existed
+		Date now = new Date();
+		String token = Jwts.builder()
+			.subject("test@email.com")
+			.claim("role", "ROLE_USER")
+			.issuedAt(now)
+			.expiration(new Date(now.getTime() + jwtProperties.getExpiration()))
+			.signWith(Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes()))
+			.compact();
+		
+		// When
+		Optional<JwtClaims> claims = jwtTokenProvider.parse(token);
+		
+		// Then
+		assertThat(claims).isPresent();
+		assertThat(claims.get().userId()).isNull();
+		assertThat(claims.get().subject()).isEqualTo("test@email.com");
+	}
+	
+	@Test
+	void parse_shouldReturnDistinctTokenIds() {
+		// When
+		JwtClaims first = jwtTokenProvider.parse(jwtTokenProvider.generateToken(42L, "test@email.com", "ROLE_USER")).get();
+		JwtClaims second = jwtTokenProvider.parse(jwtTokenProvider.generateToken(42L, "test@email.com", "ROLE_USER")).get();
+		
+		// Then
+		assertThat(first.tokenId()).isNotBlank();
+		assertThat(second.tokenId()).isNotEqualTo(first.tokenId());
+	}
+	
+	@Test
+	void parse_withTamperedSignature_shouldReturnEmpty() {
+		// Given
+		String token = jwtTokenProvider.generateToken(1L, "test@email.com", "ROLE_USER");
+		String otherKeyToken = new JwtTokenProvider(propertiesWithSecret(
+				"anotherVerySecureSecretKeyThatIsAtLeast256BitsLongForHS256Algorithm"))
+				.generateToken(1L, "test@email.com", "ROLE_ADMIN");
+		String forged = token.substring(0, token.lastIndexOf('.'))
+				+ otherKeyToken.substring(otherKeyToken.lastIndexOf('.'));
+		
+		// When/Then
+		assertThat(jwtTokenProvider.parse(forged)).isEmpty();
+		assertThat(jwtTokenProvider.parse(otherKeyToken)).isEmpty();
+	}
+	
+	@Test
+	void parse_withNullOrEmptyToken_shouldReturnEmpty() {
+		assertThat(jwtTokenProvider.parse(null)).isEmpty();
+		assertThat(jwtTokenProvider.parse("")).isEmpty();
+	}
+	
+	/**
+	 * Per-request cost of the old filter path (derive key and verify twice) against one parse.
+	 * Run with -Dbenchmark=true.
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void benchmark_parseAgainstValidateThenGetUsername() {
+		String token = jwtTokenProvider.generateToken(1L, "test@email.com", "ROLE_USER");
+		int iterations = 200_000;
+		
+		// Warm up both paths before measuring
+		timeLegacy(token, iterations);
+		timeParse(token, iterations);
+		
+		long legacy = timeLegacy(token, iterations);
+		long parse = timeParse(token, iterations);
+		log.info("JWT auth per request: validate + getUsername {} ns, parse {} ns",
+				legacy / iterations, parse / iterations);
+		assertThat(parse).isLessThan(legacy);
+	}
+	
+	private long timeLegacy(String token, int iterations) {
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			// What JwtAuthenticationFilter did before: two parsers, two keys, two HMAC checks
+			Jwts.parser().verifyWith(Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes())).build()
+					.parseSignedClaims(token);
+			String subject = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes())).build()
+					.parseSignedClaims(token).getPayload().getSubject();
+			assertThat(subject).isNotNull();
+		}
+		return System.nanoTime() - start;
+	}
+	
+	private long timeParse(String token, int iterations) {
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			assertThat(jwtTokenProvider.parse(token)).isPresent();
+		}
+		return System.nanoTime() - start;
+	}
+	
+	private static JwtProperties propertiesWithSecret(String secret) {
+		JwtProperties properties = new JwtProperties();
+		ReflectionTestUtils.setField(properties, "secret", secret);
+		ReflectionTestUtils.setField(properties, "expiration", 86400000L);
+		return properties;
+	}
 }
@@ -0,0 +1,169 @@
+package com.erodrich.exercises.security;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.erodrich.exercises.security.jwt.JwtProperties;
+import com.erodrich.exercises.security.jwt.JwtTokenProvider;
+import com.erodrich.exercises.user.entity.Role;
+import com.erodrich.exercises.user.entity.UserEntity;
+import com.erodrich.exercises.user.repository.UserRepository;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Log endpoints only accept the token of the user in the path, or an admin's token.
+ * A user token issued before the uid claim is ignored like an expired one.
+ */
+@SpringBootTest
+class LogOwnershipTest {
+	
+	@Autowired
+	private WebApplicationContext context;
+	
+	@Autowired
+	private UserRepository userRepository;
+	
+	@Autowired
+	private JwtTokenProvider jwtTokenProvider;
+	
+	@Autowired
+	private JwtProperties jwtProperties;
+	
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+	
+	private MockMvc mockMvc;
+	private UserEntity owner;
+	private UserEntity other;
+	
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context)
+			.apply(springSecurity())
+			.build();
+		owner = saveUser("owner");
+		other = saveUser("other");
+	}
+	
+	@AfterEach
+	void tearDown() {
+		jwtProperties.setStatelessAuth(false);
+	}
+	
+	@Test
+	void getLogs_withOwnToken_shouldSucceed() throws Exception {
+		mockMvc.perform(get(logsOf(owner)).header("Authorization", bearer(owner, "ROLE_USER")))
+			.andExpect(status().isOk());
+	}
+	
+	@Test
+	void getLogs_withOtherUsersToken_shouldBeForbidden() throws Exception {
+		mockMvc.perform(get(logsOf(owner)).header("Authorization", bearer(other, "ROLE_USER")))
+			.andExpect(status().isForbidden());
+	}
+	
+	@Test
+	void getLogs_withOtherUsersTokenInStatelessMode_shouldBeForbidden() throws Exception {
+		jwtProperties.setStatelessAuth(true);
+		
+		mockMvc.perform(get(logsOf(owner)).header("Authorization", bearer(other, "ROLE_USER")))
+			.andExpect(status().isForbidden());
+	}
+	
+	@Test
+	void getLogs_withTokenWithoutUserId_shouldBeUnauthorized() throws Exception {
+		mockMvc.perform(get(logsOf(owner)).header("Authorization", tokenWithoutUserId(owner, "ROLE_USER")))
+			.andExpect(status().isUnauthorized());
+	}
+	
+	@Test
+	void login_withTokenWithoutUserId_shouldSucceed() throws Exception {
+		// Given - a client still sending the token it got before the uid claim existed
+		owner.setPassword(passwordEncoder.encode("password123"));
+		userRepository.save(owner);
+		
+		// When/Then - it can sign in again to get a token with the claim
+		mockMvc.perform(post("/api/v1/users/login")
+				.header("Authorization", tokenWithoutUserId(owner, "ROLE_USER"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"email": "%s", "password": "password123"}
+						""".formatted(owner.getEmail())))
+			.andExpect(status().isOk());
+	}
+	
+	@Test
+	void getLogs_asAdminWithTokenWithoutUserId_shouldSucceed() throws Exception {
+		other.setRole(Role.ADMIN);
+		userRepository.save(other);
+		
+		mockMvc.perform(get(logsOf(owner)).header("Authorization", tokenWithoutUserId(other, "ROLE_ADMIN")))
+			.andExpect(status().isOk());
+	}
+	
+	@Test
+	void createLogs_asAdminForUnknownUser_shouldReturnNotFound() throws Exception {
+		other.setRole(Role.ADMIN);
+		userRepository.save(other);
+		
+		mockMvc.perform(post("/api/v1/users/" + Long.MAX_VALUE + "/logs")
+				.header("Authorization", bearer(other, "ROLE_ADMIN"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						[{"timestamp": "17/12/2025 10:30:00",
+						  "exercise": {"name": "Bench Press", "group": "CHEST"},
+						  "sets": [{"weight": 100.0, "reps": 10}],
+						  "failure": false}]
+						"""))
+			.andExpect(status().isNotFound());
+	}
+	
+	private UserEntity saveUser(String name) {
+		UserEntity user = new UserEntity();
+		user.setUsername(name + "-" + System.nanoTime());
+		user.setPassword("pass");
+		user.setEmail(user.getUsername() + "@email.com");
+		user.setCreatedAt(LocalDateTime.now());
+		return userRepository.save(user);
+	}
+	
+	private String bearer(UserEntity user, String role) {
+		return "Bearer " + jwtTokenProvider.generateToken(user.getId(), user.getEmail(), role);
+	}
+	
+	// Token as issued before the uid claim existed
+	private String tokenWithoutUserId(UserEntity user, String role) {
+		Date now = new Date();
+		return "Bearer " + Jwts.builder()
+			.id(UUID.randomUUID().toString())
+			.subject(user.getEmail())
+			.claim("role", role)
+			.issuedAt(now)
+			.expiration(new Date(now.getTime() + jwtProperties.getExpiration()))
+			.signWith(Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes()))
+			.compact();
+	}
+	
+	private static String logsOf(UserEntity user) {
+		return "/api/v1/users/" + user.getId() + "/logs";
+	}
+}
@@ -0,0 +1,112 @@
+package com.erodrich.exercises.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.erodrich.exercises.security.service.PasswordHasher;
+import com.erodrich.exercises.security.service.PasswordHashingRejectedException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHasherTest {
+	
+	private SimpleMeterRegistry meterRegistry;
+	private CountDownLatch release;
+	private PasswordHasher hasher;
+	
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		release = new CountDownLatch(1);
+	}
+	
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		if (hasher != null) {
+			hasher.destroy();
+		}
+	}
+	
+	@Test
+	void encodeAndMatches_shouldDelegateAndRecordLatency() {
+		// Given
+		hasher = new PasswordHasher(new BCryptPasswordEncoder(4), meterRegistry, 1, 1, Duration.ofSeconds(5));
+		
+		// When
+		String hash = hasher.encode("password123");
+		
+		// Then
+		assertThat(hasher.matches("password123", hash)).isTrue();
+		assertThat(hasher.matches("wrongpassword", hash)).isFalse();
+		assertThat(meterRegistry.get("security.password.hash").tag("operation", "encode").timer().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("security.password.hash").tag("operation", "matches").timer().count()).isEqualTo(2);
+	}
+	
+	@Test
+	void encode_whenQueueIsFull_shouldRejectImmediately() throws Exception {
+		// Given - one worker busy and one task queued
+		hasher = new PasswordHasher(blockingEncoder(), meterRegistry, 1, 1, Duration.ofSeconds(5));
+		CompletableFuture.runAsync(() -> hasher.encode("first"));
+		CompletableFuture.runAsync(() -> hasher.encode("second"));
+		awaitQueueDepth(1);
+		
+		// When/Then
+		assertThatThrownBy(() -> hasher.encode("third"))
+			.isInstanceOf(PasswordHashingRejectedException.class)
+			.hasMessage("Password hashing queue is full");
+		assertThat(meterRegistry.get("security.password.hash.rejected").tag("reason", "queue-full").counter().count())
+			.isEqualTo(1.0);
+	}
+	
+	@Test
+	void encode_whenWaitExceedsMaxWait_shouldReject() {
+		// Given
+		hasher = new PasswordHasher(blockingEncoder(), meterRegistry, 1, 1, Duration.ofMillis(50));
+		
+		// When/Then
+		assertThatThrownBy(() -> hasher.encode("password123"))
+			.isInstanceOf(PasswordHashingRejectedException.class)
+			.hasMessage("Timed out waiting for password hashing");
+		assertThat(meterRegistry.get("security.password.hash.rejected").tag("reason", "timeout").counter().count())
+			.isEqualTo(1.0);
+	}
+	
+	private PasswordEncoder blockingEncoder() {
+		return new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return "hash";
+			}
+			
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				return encode(rawPassword).equals(encodedPassword);
+			}
+		};
+	}
+	
+	private void awaitQueueDepth(double depth) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (meterRegistry.get("security.password.hash.queue").gauge().value() < depth && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(meterRegistry.get("security.password.hash.queue").gauge().value()).isEqualTo(depth);
+	}
+}
@@ -0,0 +1,124 @@
+package com.erodrich.exercises.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.erodrich.exercises.security.jwt.JwtProperties;
+import com.erodrich.exercises.security.service.UserDetailsCache;
+import com.erodrich.exercises.support.LogApiTestUser;
+import com.erodrich.exercises.user.entity.UserEntity;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends a burst of authenticated reads and counts the SQL statements they run.
+ * Each read endpoint call runs its queries; the per-request user lookup adds one more
+ * unless it is answered by the UserDetails cache or stateless authentication is on.
+ */
+@Slf4j
+// The cached data version must not expire during a burst, or its reload adds a statement
+@SpringBootTest(properties = "app.data-version.cache-ttl=1h")
+class StatelessAuthenticationLoadTest {
+	
+	private static final int REQUESTS = 200;
+	// The data version and the latest logs, read in one transaction so the ETag matches the body
+	private static final int ENDPOINT_STATEMENTS = 2;
+	
+	@Autowired
+	private WebApplicationContext context;
+	
+	@Autowired
+	private JwtProperties jwtProperties;
+	
+	@Autowired
+	private UserDetailsCache userDetailsCache;
+	
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	
+	private MockMvc mockMvc;
+	private UserEntity user;
+	private String bearer;
+	
+	@BeforeEach
+	void setUp() {
+		LogApiTestUser testUser = LogApiTestUser.create(context, "loadtest");
+		mockMvc = testUser.mockMvc();
+		user = testUser.user();
+		bearer = testUser.bearer();
+	}
+	
+	@AfterEach
+	void tearDown() {
+		jwtProperties.setStatelessAuth(false);
+	}
+	
+	@Test
+	void readBurst_withUncachedUserLookup_shouldAddTheUserLookupToEachRequest() throws Exception {
+		// Given
+		jwtProperties.setStatelessAuth(false);
+		
+		// When
+		long statements = statementsFor(REQUESTS, () -> userDetailsCache.invalidate(user.getEmail()));
+		
+		// Then
+		assertThat(statements).isEqualTo((ENDPOINT_STATEMENTS + 1L) * REQUESTS);
+	}
+	
+	@Test
+	void readBurst_withCachedUserLookup_shouldRunOnlyTheEndpointQueries() throws Exception {
+		// Given
+		jwtProperties.setStatelessAuth(false);
+		
+		// When
+		long statements = statementsFor(REQUESTS, () -> { });
+		
+		// Then - the user row is read once per cache TTL, not per request
+		assertThat(statements).isEqualTo((long) ENDPOINT_STATEMENTS * REQUESTS);
+	}
+	
+	@Test
+	void readBurst_inStatelessMode_shouldRunOnlyTheEndpointQueries() throws Exception {
+		// Given
+		jwtProperties.setStatelessAuth(true);
+		
+		// When
+		long statements = statementsFor(REQUESTS, () -> { });
+		
+		// Then - the user row is read once per subject-check TTL, not per request
+		assertThat(statements).isEqualTo((long) ENDPOINT_STATEMENTS * REQUESTS);
+	}
+	
+	private long statementsFor(int requests, Runnable beforeEachRequest) throws Exception {
+		String path = "/api/v1/users/" + user.getId() + "/logs/latest";
+		// Warm-up request, which also fills the subject check in stateless mode
+		mockMvc.perform(get(path).param("exerciseIds", "1").header("Authorization", bearer))
+			.andExpect(status().isOk());
+		
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		long start = System.nanoTime();
+		for (int i = 0; i < requests; i++) {
+			beforeEachRequest.run();
+			mockMvc.perform(get(path).param("exerciseIds", "1").header("Authorization", bearer))
+				.andExpect(status().isOk());
+		}
+		long statements = statistics.getPrepareStatementCount();
+		log.info("{} authenticated reads (stateless={}): {} statements, {} us/request",
+			requests, jwtProperties.isStatelessAuth(), statements,
+			(System.nanoTime() - start) / 1000 / requests);
+		return statements;
+	}
+}
@@ -0,0 +1,114 @@
+package com.erodrich.exercises.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.erodrich.exercises.security.entity.RevokedTokenEntity;
+import com.erodrich.exercises.security.jwt.TokenRevocationService;
+import com.erodrich.exercises.security.repository.RevokedTokenRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+	
+	@Mock
+	private RevokedTokenRepository revokedTokenRepository;
+	
+	private TokenRevocationService revocationService;
+	
+	@BeforeEach
+	void setUp() {
+		revocationService = new TokenRevocationService(revokedTokenRepository, new SimpleMeterRegistry());
+	}
+	
+	@Test
+	void isRevoked_beforeFirstRebuild_shouldCheckTable() {
+		// Given
+		when(revokedTokenRepository.existsById("jti-1")).thenReturn(true);
+		
+		// When/Then
+		assertThat(revocationService.isRevoked("jti-1")).isTrue();
+	}
+	
+	@Test
+	void isRevoked_withTokenNotInFilter_shouldNotQuery() {
+		// Given
+		when(revokedTokenRepository.findLiveTokenIds(any(Instant.class))).thenReturn(List.of("jti-1"));
+		revocationService.rebuild();
+		
+		// When
+		boolean revoked = revocationService.isRevoked("jti-2");
+		
+		// Then
+		assertThat(revoked).isFalse();
+		verify(revokedTokenRepository, never()).existsById(anyString());
+	}
+	
+	@Test
+	void isRevoked_withTokenInFilter_shouldConfirmAgainstTable() {
+		// Given
+		when(revokedTokenRepository.findLiveTokenIds(any(Instant.class))).thenReturn(List.of("jti-1"));
+		when(revokedTokenRepository.existsById("jti-1")).thenReturn(true);
+		revocationService.rebuild();
+		
+		// When/Then
+		assertThat(revocationService.isRevoked("jti-1")).isTrue();
+	}
+	
+	@Test
+	void revoke_shouldStoreAndApplyImmediately() {
+		// Given
+		when(revokedTokenRepository.findLiveTokenIds(any(Instant.class))).thenReturn(List.of());
+		revocationService.rebuild();
+		Instant expiresAt = Instant.now().plusSeconds(600);
+		
+		// When
+		revocationService.revoke("jti-1", expiresAt);
+		
+		// Then
+		ArgumentCaptor<RevokedTokenEntity> saved = ArgumentCaptor.forClass(RevokedTokenEntity.class);
+		verify(revokedTokenRepository).save(saved.capture());
+		assertThat(saved.getValue().getTokenId()).isEqualTo("jti-1");
+		assertThat(saved.getValue().getExpiresAt()).isEqualTo(expiresAt);
+		
+		when(revokedTokenRepository.existsById("jti-1")).thenReturn(true);
+		assertThat(revocationService.isRevoked("jti-1")).isTrue();
+	}
+	
+	@Test
+	void rebuild_shouldKeepRevocationsMadeWhileReadingTable() {
+		// Given - a revocation lands after the table was read
+		when(revokedTokenRepository.findLiveTokenIds(any(Instant.class))).thenAnswer(invocation -> {
+			revocationService.revoke("jti-1", Instant.now().plusSeconds(600));
+			return List.of();
+		});
+		when(revokedTokenRepository.existsById("jti-1")).thenReturn(true);
+		
+		// When
+		revocationService.rebuild();
+		
+		// Then
+		assertThat(revocationService.isRevoked("jti-1")).isTrue();
+	}
+	
+	@Test
+	void isRevoked_withoutTokenId_shouldReturnFalse() {
+		assertThat(revocationService.isRevoked(null)).isFalse();
+		verify(revokedTokenRepository, never()).existsById(anyString());
+	}
+}
@@ -0,0 +1,174 @@
+package com.erodrich.exercises.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.erodrich.exercises.security.jwt.JwtClaims;
+import com.erodrich.exercises.security.jwt.JwtProperties;
+import com.erodrich.exercises.security.jwt.TokenSubjectVerifier;
+import com.erodrich.exercises.user.UserChangedEvent;
+import com.erodrich.exercises.user.entity.Role;
+import com.erodrich.exercises.user.entity.UserEntity;
+import com.erodrich.exercises.user.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class TokenSubjectVerifierTest {
+	
+	@Mock
+	private UserRepository userRepository;
+	
+	private JwtProperties jwtProperties;
+	
+	private SimpleMeterRegistry meterRegistry;
+	
+	private TokenSubjectVerifier verifier;
+	
+	private UserEntity user;
+	
+	@BeforeEach
+	void setUp() {
+		jwtProperties = new JwtProperties();
+		meterRegistry = new SimpleMeterRegistry();
+		verifier = new TokenSubjectVerifier(userRepository, jwtProperties, meterRegistry);
+		
+		user = new UserEntity();
+		user.setId(1L);
+		user.setEmail("test@email.com");
+		user.setRole(Role.USER);
+	}
+	
+	@Test
+	void isCurrent_withinTtl_shouldLoadUserOnce() {
+		// Given
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+		
+		// When
+		boolean first = verifier.isCurrent(claims("ROLE_USER"));
+		boolean second = verifier.isCurrent(claims("ROLE_USER"));
+		
+		// Then
+		assertThat(first).isTrue();
+		assertThat(second).isTrue();
+		verify(userRepository, times(1)).findById(1L);
+	}
+	
+	@Test
+	void isCurrent_whenRoleChanged_shouldReject() {
+		// Given - token still says ROLE_ADMIN, the user was demoted
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+		
+		// When/Then
+		assertThat(verifier.isCurrent(claims("ROLE_ADMIN"))).isFalse();
+	}
+	
+	@Test
+	void isCurrent_whenUserDeleted_shouldReject() {
+		// Given
+		when(userRepository.findById(1L)).thenReturn(Optional.empty());
+		
+		// When/Then
+		assertThat(verifier.isCurrent(claims("ROLE_USER"))).isFalse();
+	}
+	
+	@Test
+	void evict_shouldMakeNextCheckReloadUser() {
+		// Given
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+		verifier.isCurrent(claims("ROLE_USER"));
+		user.setRole(Role.ADMIN);
+		
+		// When
+		verifier.evict(1L);
+		
+		// Then
+		assertThat(verifier.isCurrent(claims("ROLE_USER"))).isFalse();
+		verify(userRepository, times(2)).findById(1L);
+	}
+	
+	@Test
+	void onUserChanged_shouldMakeNextCheckReloadUser() {
+		// Given
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+		verifier.isCurrent(claims("ROLE_USER"));
+		user.setRole(Role.ADMIN);
+		
+		// When
+		verifier.onUserChanged(new UserChangedEvent(1L, "test@email.com"));
+		
+		// Then
+		assertThat(verifier.isCurrent(claims("ROLE_USER"))).isFalse();
+		verify(userRepository, times(2)).findById(1L);
+	}
+	
+	@Test
+	void isCurrent_withZeroTtl_shouldReloadEveryTime() {
+		// Given
+		jwtProperties.setSubjectCheckTtl(0);
+		verifier = new TokenSubjectVerifier(userRepository, jwtProperties, new SimpleMeterRegistry());
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+		
+		// When
+		verifier.isCurrent(claims("ROLE_USER"));
+		verifier.isCurrent(claims("ROLE_USER"));
+		
+		// Then
+		verify(userRepository, times(2)).findById(1L);
+	}
+	
+	@Test
+	void isCurrent_shouldPublishCacheMetrics() {
+		// Given
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+		
+		// When
+		verifier.isCurrent(claims("ROLE_USER"));
+		verifier.isCurrent(claims("ROLE_USER"));
+		
+		// Then
+		assertThat(gets("miss")).isEqualTo(1);
+		assertThat(gets("hit")).isEqualTo(1);
+		assertThat(meterRegistry.get("cache.size").tag("cache", "token-subjects").gauge().value()).isEqualTo(1);
+	}
+	
+	@Test
+	void isCurrent_atMaxSize_shouldEvictInsteadOfClearing() {
+		// Given
+		jwtProperties.setSubjectCheckMaxSize(2);
+		meterRegistry = new SimpleMeterRegistry();
+		verifier = new TokenSubjectVerifier(userRepository, jwtProperties, meterRegistry);
+		when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+		
+		// When
+		for (long userId = 1; userId <= 10; userId++) {
+			verifier.isCurrent(new JwtClaims(userId, "test@email.com", "ROLE_USER", Instant.now().plusSeconds(3600), "jti-" + userId));
+		}
+		
+		// Then
+		verify(userRepository, times(10)).findById(anyLong());
+		assertThat(meterRegistry.get("cache.size").tag("cache", "token-subjects").gauge().value()).isLessThanOrEqualTo(2.0);
+		assertThat(meterRegistry.get("cache.evictions").tag("cache", "token-subjects").functionCounter().count())
+			.isGreaterThanOrEqualTo(8.0);
+	}
+	
+	private double gets(String result) {
+		return meterRegistry.get("cache.gets").tag("cache", "token-subjects").tag("result", result).functionCounter().count();
+	}
+	
+	private static JwtClaims claims(String role) {
+		return new JwtClaims(1L, "test@email.com", role, Instant.now().plusSeconds(3600), "jti-1");
+	}
+}
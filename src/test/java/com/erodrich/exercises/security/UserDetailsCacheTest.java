@@ -0,0 +1,118 @@
+package com.erodrich.exercises.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.erodrich.exercises.security.service.UserDetailsCache;
+import com.erodrich.exercises.security.service.UserDetailsCache.CachedUser;
+import com.erodrich.exercises.user.UserChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UserDetailsCacheTest {
+	
+	private SimpleMeterRegistry meterRegistry;
+	private AtomicInteger loads;
+	private Function<String, CachedUser> loader;
+	
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		loads = new AtomicInteger();
+		loader = email -> {
+			loads.incrementAndGet();
+			return new CachedUser(email, "user", "hash", "ROLE_USER");
+		};
+	}
+	
+	@Test
+	void get_withinTtl_shouldLoadOnceAndCountHits() {
+		// Given
+		UserDetailsCache cache = new UserDetailsCache(meterRegistry, Duration.ofMinutes(1), 100);
+		
+		// When
+		cache.get("a@email.com", loader);
+		cache.get("a@email.com", loader);
+		cache.get("a@email.com", loader);
+		
+		// Then
+		assertThat(loads).hasValue(1);
+		assertThat(gets("hit")).isEqualTo(2.0);
+		assertThat(gets("miss")).isEqualTo(1.0);
+		assertThat(size()).isEqualTo(1.0);
+	}
+	
+	@Test
+	void get_afterTtl_shouldReloadAndCountExpiry() {
+		// Given
+		UserDetailsCache cache = new UserDetailsCache(meterRegistry, Duration.ZERO, 100);
+		
+		// When
+		cache.get("a@email.com", loader);
+		cache.get("a@email.com", loader);
+		
+		// Then
+		assertThat(loads).hasValue(2);
+		assertThat(gets("miss")).isEqualTo(2.0);
+	}
+	
+	@Test
+	void onUserChanged_shouldDropUser() {
+		// Given
+		UserDetailsCache cache = new UserDetailsCache(meterRegistry, Duration.ofMinutes(1), 100);
+		cache.get("a@email.com", loader);
+		
+		// When
+		cache.onUserChanged(new UserChangedEvent(1L, "a@email.com"));
+		cache.get("a@email.com", loader);
+		
+		// Then
+		assertThat(loads).hasValue(2);
+		assertThat(gets("hit")).isZero();
+	}
+	
+	@Test
+	void get_whenFull_shouldStayWithinMaxSize() {
+		// Given
+		UserDetailsCache cache = new UserDetailsCache(meterRegistry, Duration.ofMinutes(1), 2);
+		
+		// When
+		for (int i = 0; i < 10; i++) {
+			cache.get(i + "@email.com", loader);
+		}
+		
+		// Then
+		assertThat(loads).hasValue(10);
+		assertThat(size()).isLessThanOrEqualTo(2.0);
+		assertThat(meterRegistry.get("cache.evictions").tag("cache", "user-details").functionCounter().count())
+				.isGreaterThanOrEqualTo(8.0);
+	}
+	
+	@Test
+	void get_whenLoaderThrows_shouldNotCache() {
+		// Given
+		UserDetailsCache cache = new UserDetailsCache(meterRegistry, Duration.ofMinutes(1), 100);
+		
+		// When/Then
+		assertThatThrownBy(() -> cache.get("missing@email.com", email -> {
+			throw new UsernameNotFoundException("User not found with email: " + email);
+		})).isInstanceOf(UsernameNotFoundException.class);
+		assertThat(size()).isZero();
+	}
+	
+	private double gets(String result) {
+		return meterRegistry.get("cache.gets").tag("cache", "user-details").tag("result", result).functionCounter().count();
+	}
+	
+	private double size() {
+		return meterRegistry.get("cache.size").tag("cache", "user-details").gauge().value();
+	}
+}
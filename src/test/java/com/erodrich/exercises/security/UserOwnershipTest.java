@@ -0,0 +1,41 @@
+package com.erodrich.exercises.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.erodrich.exercises.security.jwt.TokenAuthenticationDetails;
+import com.erodrich.exercises.security.service.UserOwnership;
+
+class UserOwnershipTest {
+	
+	private final UserOwnership userOwnership = new UserOwnership();
+	
+	@Test
+	void isOwner_withMatchingUidClaim_shouldReturnTrue() {
+		assertThat(userOwnership.isOwner(authentication(7L), 7L)).isTrue();
+	}
+	
+	@Test
+	void isOwner_withOtherUidClaim_shouldReturnFalse() {
+		assertThat(userOwnership.isOwner(authentication(7L), 8L)).isFalse();
+	}
+	
+	@Test
+	void isOwner_withoutUidClaim_shouldReturnFalse() {
+		assertThat(userOwnership.isOwner(authentication(null), 7L)).isFalse();
+		assertThat(userOwnership.isOwner(null, 7L)).isFalse();
+	}
+	
+	private static UsernamePasswordAuthenticationToken authentication(Long userId) {
+		UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+			"test@email.com", null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+		authentication.setDetails(new TokenAuthenticationDetails(new MockHttpServletRequest(), userId));
+		return authentication;
+	}
+}
@@ -0,0 +1,52 @@
+package com.erodrich.exercises.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+	
+	@Test
+	void mightContain_shouldAlwaysFindAddedValues() {
+		// Given
+		BloomFilter filter = new BloomFilter(10_000, 0.001);
+		List<String> added = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			String value = UUID.randomUUID().toString();
+			filter.put(value);
+			added.add(value);
+		}
+		
+		// When/Then
+		assertThat(added).allMatch(filter::mightContain);
+	}
+	
+	@Test
+	void mightContain_atExpectedSize_shouldStayNearFalsePositiveRate() {
+		// Given
+		BloomFilter filter = new BloomFilter(10_000, 0.001);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put(UUID.randomUUID().toString());
+		}
+		
+		// When
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain(UUID.randomUUID().toString())) {
+				falsePositives++;
+			}
+		}
+		
+		// Then - 0.1% expected, i.e. about 100
+		assertThat(falsePositives).isLessThan(300);
+	}
+	
+	@Test
+	void mightContain_whenEmpty_shouldReturnFalse() {
+		assertThat(new BloomFilter(1024, 0.001).mightContain("jti")).isFalse();
+	}
+}
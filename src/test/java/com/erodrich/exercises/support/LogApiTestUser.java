@@ -0,0 +1,58 @@
+package com.erodrich.exercises.support;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+
+import java.time.LocalDateTime;
+
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.erodrich.exercises.musclegroup.entity.MuscleGroupEntity;
+import com.erodrich.exercises.musclegroup.repository.MuscleGroupRepository;
+import com.erodrich.exercises.security.jwt.JwtTokenProvider;
+import com.erodrich.exercises.user.entity.UserEntity;
+import com.erodrich.exercises.user.repository.UserRepository;
+
+/**
+ * A freshly saved user with a bearer token and a MockMvc behind the security filter chain,
+ * for integration tests calling the log endpoints. The CHEST muscle group is created if missing.
+ *
+ * @param mockMvc MockMvc of the whole application, security included
+ * @param user the saved user, unique per call
+ * @param bearer Authorization header value carrying a ROLE_USER token of the user
+ */
+public record LogApiTestUser(MockMvc mockMvc, UserEntity user, String bearer) {
+
+	/**
+	 * Set up a new user against the test's application context
+	 *
+	 * @param context the application context
+	 * @param usernamePrefix prefix of the generated username, naming the test in the data
+	 * @return the user, its token and MockMvc
+	 */
+	public static LogApiTestUser create(WebApplicationContext context, String usernamePrefix) {
+		MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context)
+			.apply(springSecurity())
+			.build();
+		MuscleGroupRepository muscleGroupRepository = context.getBean(MuscleGroupRepository.class);
+		if (!muscleGroupRepository.existsByNameIgnoreCase("CHEST")) {
+			muscleGroupRepository.save(new MuscleGroupEntity(null, "CHEST", "Chest exercises"));
+		}
+		UserEntity user = new UserEntity();
+		user.setUsername(usernamePrefix + "-" + System.nanoTime());
+		user.setPassword("pass");
+		user.setEmail(user.getUsername() + "@email.com");
+		user.setCreatedAt(LocalDateTime.now());
+		user = context.getBean(UserRepository.class).save(user);
+		String token = context.getBean(JwtTokenProvider.class).generateToken(user.getId(), user.getEmail(), "ROLE_USER");
+		return new LogApiTestUser(mockMvc, user, "Bearer " + token);
+	}
+
+	/**
+	 * @return path of the user's log endpoints
+	 */
+	public String logsPath() {
+		return "/api/v1/users/" + user.getId() + "/logs";
+	}
+}
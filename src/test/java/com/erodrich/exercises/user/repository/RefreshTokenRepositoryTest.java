@@ -0,0 +1,124 @@
+package com.erodrich.exercises.user.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.erodrich.exercises.user.entity.RefreshTokenEntity;
+import com.erodrich.exercises.user.entity.UserEntity;
+
+@DataJpaTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class RefreshTokenRepositoryTest {
+	
+	@Autowired
+	private TestEntityManager entityManager;
+	
+	@Autowired
+	private RefreshTokenRepository refreshTokenRepository;
+	
+	private UserEntity user;
+	
+	@BeforeEach
+	void setUp() {
+		user = new UserEntity();
+		user.setUsername("testuser");
+		user.setPassword("pass");
+		user.setEmail("test@email.com");
+		user.setCreatedAt(LocalDateTime.now());
+		entityManager.persist(user);
+	}
+	
+	@Test
+	void findByTokenHash_shouldReturnTokenWithUser() {
+		// Given
+		persistToken("hash-1", "family-1");
+		entityManager.clear();
+		
+		// When
+		Optional<RefreshTokenEntity> found = refreshTokenRepository.findByTokenHash("hash-1");
+		
+		// Then
+		assertThat(found).isPresent();
+		assertThat(found.get().getFamilyId()).isEqualTo("family-1");
+		assertThat(found.get().getUser().getEmail()).isEqualTo("test@email.com");
+		assertThat(refreshTokenRepository.findByTokenHash("unknown")).isEmpty();
+	}
+	
+	@Test
+	void revokeFamily_shouldOnlyRevokeThatFamily() {
+		// Given
+		persistToken("hash-1", "family-1");
+		persistToken("hash-2", "family-1");
+		persistToken("hash-3", "family-2");
+		
+		// When
+		int revoked = refreshTokenRepository.revokeFamily("family-1", LocalDateTime.now());
+		
+		// Then
+		assertThat(revoked).isEqualTo(2);
+		assertThat(refreshTokenRepository.findByTokenHash("hash-2").get().getRevokedAt()).isNotNull();
+		assertThat(refreshTokenRepository.findByTokenHash("hash-3").get().getRevokedAt()).isNull();
+	}
+	
+	@Test
+	void revokeAllByUserId_shouldRevokeEveryFamily() {
+		// Given
+		persistToken("hash-1", "family-1");
+		persistToken("hash-2", "family-2");
+		
+		// When
+		int revoked = refreshTokenRepository.revokeAllByUserId(user.getId(), LocalDateTime.now());
+		
+		// Then
+		assertThat(revoked).isEqualTo(2);
+	}
+	
+	@Test
+	void markUsed_shouldClaimTokenOnlyOnce() {
+		// Given
+		RefreshTokenEntity token = persistToken("hash-1", "family-1");
+		
+		// When
+		int first = refreshTokenRepository.markUsed(token.getId(), LocalDateTime.now());
+		int second = refreshTokenRepository.markUsed(token.getId(), LocalDateTime.now());
+		
+		// Then
+		assertThat(first).isEqualTo(1);
+		assertThat(second).isZero();
+	}
+	
+	@Test
+	void deleteExpired_shouldKeepLiveTokens() {
+		// Given
+		persistToken("hash-1", "family-1");
+		RefreshTokenEntity expired = persistToken("hash-2", "family-1");
+		expired.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+		entityManager.flush();
+		
+		// When
+		int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+		
+		// Then
+		assertThat(deleted).isEqualTo(1);
+		assertThat(refreshTokenRepository.findByTokenHash("hash-1")).isPresent();
+		assertThat(refreshTokenRepository.findByTokenHash("hash-2")).isEmpty();
+	}
+	
+	private RefreshTokenEntity persistToken(String tokenHash, String familyId) {
+		RefreshTokenEntity token = new RefreshTokenEntity();
+		token.setUser(user);
+		token.setTokenHash(tokenHash);
+		token.setFamilyId(familyId);
+		token.setExpiresAt(LocalDateTime.now().plusDays(1));
+		return entityManager.persist(token);
+	}
+}
@@ -0,0 +1,162 @@
+package com.erodrich.exercises.user.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.erodrich.exercises.security.jwt.JwtProperties;
+import com.erodrich.exercises.user.entity.RefreshTokenEntity;
+import com.erodrich.exercises.user.entity.UserEntity;
+import com.erodrich.exercises.user.repository.RefreshTokenRepository;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+	
+	@Mock
+	private RefreshTokenRepository refreshTokenRepository;
+	
+	private RefreshTokenService refreshTokenService;
+	
+	private UserEntity user;
+	
+	@BeforeEach
+	void setUp() {
+		refreshTokenService = new RefreshTokenService(refreshTokenRepository, new JwtProperties());
+		user = new UserEntity();
+		user.setId(1L);
+		user.setEmail("test@email.com");
+	}
+	
+	@Test
+	void issue_shouldStoreOnlyTheHash() {
+		// When
+		String token = refreshTokenService.issue(user);
+		
+		// Then
+		ArgumentCaptor<RefreshTokenEntity> saved = ArgumentCaptor.forClass(RefreshTokenEntity.class);
+		verify(refreshTokenRepository).save(saved.capture());
+		assertThat(saved.getValue().getTokenHash())
+			.isEqualTo(RefreshTokenService.hash(token))
+			.isNotEqualTo(token)
+			.hasSize(64);
+		assertThat(saved.getValue().getUser()).isSameAs(user);
+		assertThat(saved.getValue().getExpiresAt()).isAfter(LocalDateTime.now().plusDays(29));
+	}
+	
+	@Test
+	void rotate_withLiveToken_shouldMarkItUsedAndIssueSameFamily() {
+		// Given
+		RefreshTokenEntity current = token("family-1");
+		when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("token"))).thenReturn(Optional.of(current));
+		when(refreshTokenRepository.markUsed(eq(current.getId()), any(LocalDateTime.class))).thenReturn(1);
+		
+		// When
+		RefreshTokenService.RotatedToken rotated = refreshTokenService.rotate("token");
+		
+		// Then
+		verify(refreshTokenRepository).markUsed(eq(current.getId()), any(LocalDateTime.class));
+		assertThat(rotated.user()).isSameAs(user);
+		assertThat(rotated.refreshToken()).isNotEqualTo("token");
+		ArgumentCaptor<RefreshTokenEntity> saved = ArgumentCaptor.forClass(RefreshTokenEntity.class);
+		verify(refreshTokenRepository).save(saved.capture());
+		assertThat(saved.getValue().getFamilyId()).isEqualTo("family-1");
+		assertThat(saved.getValue().getTokenHash()).isEqualTo(RefreshTokenService.hash(rotated.refreshToken()));
+	}
+	
+	@Test
+	void rotate_withUsedToken_shouldRevokeFamily() {
+		// Given
+		RefreshTokenEntity current = token("family-1");
+		current.setUsedAt(LocalDateTime.now().minusMinutes(5));
+		when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(current));
+		
+		// When/Then
+		assertThatThrownBy(() -> refreshTokenService.rotate("token"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Refresh token reuse detected");
+		verify(refreshTokenRepository).revokeFamily(eq("family-1"), any(LocalDateTime.class));
+		verify(refreshTokenRepository, never()).save(any());
+	}
+	
+	@Test
+	void rotate_whenConcurrentRotationClaimedToken_shouldRevokeFamily() {
+		// Given - the token was unused when read, but another request marked it used first
+		RefreshTokenEntity current = token("family-1");
+		when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(current));
+		when(refreshTokenRepository.markUsed(eq(current.getId()), any(LocalDateTime.class))).thenReturn(0);
+		
+		// When/Then
+		assertThatThrownBy(() -> refreshTokenService.rotate("token"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Refresh token reuse detected");
+		verify(refreshTokenRepository).revokeFamily(eq("family-1"), any(LocalDateTime.class));
+		verify(refreshTokenRepository, never()).save(any());
+	}
+	
+	@Test
+	void rotate_withExpiredOrRevokedToken_shouldThrowException() {
+		// Given
+		RefreshTokenEntity expired = token("family-1");
+		expired.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+		RefreshTokenEntity revoked = token("family-2");
+		revoked.setRevokedAt(LocalDateTime.now());
+		when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("expired"))).thenReturn(Optional.of(expired));
+		when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("revoked"))).thenReturn(Optional.of(revoked));
+		
+		// When/Then
+		assertThatThrownBy(() -> refreshTokenService.rotate("expired"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Invalid refresh token");
+		assertThatThrownBy(() -> refreshTokenService.rotate("revoked"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Invalid refresh token");
+		verify(refreshTokenRepository, never()).save(any());
+	}
+	
+	@Test
+	void rotate_withUnknownToken_shouldThrowException() {
+		// Given
+		when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+		
+		// When/Then
+		assertThatThrownBy(() -> refreshTokenService.rotate("unknown"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Invalid refresh token");
+	}
+	
+	@Test
+	void revoke_shouldRevokeTheTokensFamily() {
+		// Given
+		when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("token"))).thenReturn(Optional.of(token("family-1")));
+		
+		// When
+		refreshTokenService.revoke("token");
+		
+		// Then
+		verify(refreshTokenRepository).revokeFamily(eq("family-1"), any(LocalDateTime.class));
+	}
+	
+	private RefreshTokenEntity token(String familyId) {
+		RefreshTokenEntity token = new RefreshTokenEntity();
+		token.setId(7L);
+		token.setUser(user);
+		token.setFamilyId(familyId);
+		token.setExpiresAt(LocalDateTime.now().plusDays(1));
+		return token;
+	}
+}
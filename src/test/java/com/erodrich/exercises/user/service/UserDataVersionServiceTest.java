@@ -0,0 +1,143 @@
+package com.erodrich.exercises.user.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.erodrich.exercises.user.UserDataChangedEvent;
+import com.erodrich.exercises.user.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UserDataVersionServiceTest {
+	
+	private UserRepository userRepository;
+	private ApplicationEventPublisher eventPublisher;
+	private SimpleMeterRegistry meterRegistry;
+	
+	@BeforeEach
+	void setUp() {
+		userRepository = mock(UserRepository.class);
+		eventPublisher = mock(ApplicationEventPublisher.class);
+		meterRegistry = new SimpleMeterRegistry();
+	}
+	
+	@Test
+	void current_withinTtl_shouldLookUpOnce() {
+		// Given
+		UserDataVersionService service = service(Duration.ofMinutes(1));
+		when(userRepository.findDataVersionById(1L)).thenReturn(Optional.of(3L));
+		
+		// When
+		long first = service.current(1L);
+		long second = service.current(1L);
+		
+		// Then
+		assertThat(first).isEqualTo(3L);
+		assertThat(second).isEqualTo(3L);
+		verify(userRepository, times(1)).findDataVersionById(1L);
+		assertThat(meterRegistry.get("user.data.version.lookups").tag("result", "hit").counter().count()).isEqualTo(1.0);
+	}
+	
+	@Test
+	void current_afterTtl_shouldLookUpAgain() {
+		// Given
+		UserDataVersionService service = service(Duration.ZERO);
+		when(userRepository.findDataVersionById(1L)).thenReturn(Optional.of(3L), Optional.of(4L));
+		
+		// When/Then
+		assertThat(service.current(1L)).isEqualTo(3L);
+		assertThat(service.current(1L)).isEqualTo(4L);
+	}
+	
+	@Test
+	void etag_shouldBeStrongAndQuoted() {
+		// Given
+		UserDataVersionService service = service(Duration.ofMinutes(1));
+		when(userRepository.findDataVersionById(1L)).thenReturn(Optional.of(7L));
+		when(userRepository.findDataVersionById(2L)).thenReturn(Optional.empty());
+		
+		// When/Then
+		assertThat(service.etag(1L, "abc")).isEqualTo("\"v7-abc\"");
+		assertThat(service.etag(2L, "abc")).isEqualTo("\"v0-abc\"");
+	}
+	
+	@Test
+	void bump_shouldIncrementAndPublishEvent() {
+		// Given
+		UserDataVersionService service = service(Duration.ofMinutes(1));
+		when(userRepository.incrementDataVersion(1L)).thenReturn(1);
+		when(userRepository.findDataVersionById(1L)).thenReturn(Optional.of(8L));
+		
+		// When
+		long version = service.bump(1L);
+		
+		// Then
+		assertThat(version).isEqualTo(8L);
+		verify(userRepository).incrementDataVersion(1L);
+		verify(eventPublisher).publishEvent(new UserDataChangedEvent(1L));
+	}
+	
+	@Test
+	void bump_forUnknownUser_shouldThrowUserNotFound() {
+		// Given - no row updated
+		UserDataVersionService service = service(Duration.ofMinutes(1));
+		when(userRepository.incrementDataVersion(99L)).thenReturn(0);
+		
+		// When/Then
+		assertThatThrownBy(() -> service.bump(99L))
+				.isInstanceOf(UserNotFoundException.class)
+				.hasMessage("User not found: 99");
+		verify(eventPublisher, never()).publishEvent(any());
+	}
+	
+	@Test
+	void onUserDataChanged_shouldDropCachedVersion() {
+		// Given
+		UserDataVersionService service = service(Duration.ofMinutes(1));
+		when(userRepository.findDataVersionById(1L)).thenReturn(Optional.of(3L), Optional.of(4L));
+		service.current(1L);
+		
+		// When
+		service.onUserDataChanged(new UserDataChangedEvent(1L));
+		
+		// Then
+		assertThat(service.current(1L)).isEqualTo(4L);
+	}
+	
+	@Test
+	void current_whenInvalidatedDuringLookup_shouldNotCacheTheOldVersion() {
+		// Given - the bump commits while the old version is being read
+		UserDataVersionService service = service(Duration.ofMinutes(1));
+		when(userRepository.findDataVersionById(1L))
+			.thenAnswer(invocation -> {
+				service.invalidate(1L);
+				return Optional.of(3L);
+			})
+			.thenReturn(Optional.of(4L));
+		
+		// When
+		long during = service.current(1L);
+		long after = service.current(1L);
+		
+		// Then
+		assertThat(during).isEqualTo(3L);
+		assertThat(after).isEqualTo(4L);
+	}
+	
+	private UserDataVersionService service(Duration ttl) {
+		return new UserDataVersionService(userRepository, eventPublisher, meterRegistry, ttl, 100);
+	}
+}
@@ -4,9 +4,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
@@ -14,11 +17,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
 
 
+import com.erodrich.exercises.security.jwt.JwtClaims;
 import com.erodrich.exercises.security.jwt.JwtTokenProvider;
+import com.erodrich.exercises.security.jwt.TokenRevocationService;
+import com.erodrich.exercises.security.service.PasswordHasher;
+import com.erodrich.exercises.user.UserChangedEvent;
 import com.erodrich.exercises.user.dto.AuthResponse;
 import com.erodrich.exercises.user.dto.LoginRequest;
 import com.erodrich.exercises.user.dto.RegisterRequest;
@@ -38,11 +49,23 @@ class UserServiceTest {
 	private UserMapper userMapper;
 	
 	@Mock
-	private PasswordEncoder passwordEncoder;
+	private PasswordHasher passwordHasher;
 	
 	@Mock
 	private JwtTokenProvider jwtTokenProvider;
 	
+	@Mock
+	private RefreshTokenService refreshTokenService;
+	
+	@Mock
+	private TokenRevocationService tokenRevocationService;
+	
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+	
+	@Spy
+	private TrackingTransactions transactionOperations = new TrackingTransactions();
+	
 	@InjectMocks
 	private UserService userService;
 	
@@ -74,11 +97,11 @@ class UserServiceTest {
 		
 		when(userRepository.findByUsername("testuser")).thenReturn(Optional.empty());
 		when(userRepository.findByEmail("test@email.com")).thenReturn(Optional.empty());
-		when(passwordEncoder.encode("password123")).thenReturn("hashedPassword");
+		when(passwordHasher.encode("password123")).thenReturn("hashedPassword");
 		when(userMapper.toEntity(request)).thenReturn(entity);
 		when(userRepository.save(any(UserEntity.class))).thenReturn(savedEntity);
 		when(userMapper.toDTO(savedEntity)).thenReturn(expectedDTO);
-		when(jwtTokenProvider.generateToken("test@email.com", "ROLE_USER")).thenReturn(expectedToken);
+		when(jwtTokenProvider.generateToken(1L, "test@email.com", "ROLE_USER")).thenReturn(expectedToken);
 		
 		// When
 		AuthResponse result = userService.register(request);
@@ -88,9 +111,32 @@ class UserServiceTest {
 		assertThat(result.getUser()).isNotNull();
 		assertThat(result.getUser().getUsername()).isEqualTo("testuser");
 		assertThat(result.getToken()).isEqualTo(expectedToken);
-		verify(passwordEncoder).encode("password123");
+		verify(passwordHasher).encode("password123");
+		verify(userRepository).save(any(UserEntity.class));
+		verify(jwtTokenProvider).generateToken(1L, "test@email.com", "ROLE_USER");
+	}
+	
+	@Test
+	void register_shouldHashPasswordOutsideTransaction() {
+		// Given
+		RegisterRequest request = new RegisterRequest("testuser", "test@email.com", "password123");
+		UserEntity savedEntity = new UserEntity();
+		savedEntity.setId(1L);
+		savedEntity.setEmail("test@email.com");
+		savedEntity.setRole(Role.USER);
+		
+		when(userRepository.findByUsername("testuser")).thenReturn(Optional.empty());
+		when(userRepository.findByEmail("test@email.com")).thenReturn(Optional.empty());
+		when(passwordHasher.encode("password123")).thenAnswer(invocation -> hashOutsideTransaction("hashedPassword"));
+		when(userMapper.toEntity(request)).thenReturn(new UserEntity());
+		when(userRepository.save(any(UserEntity.class))).thenReturn(savedEntity);
+		
+		// When
+		userService.register(request);
+		
+		// Then
+		assertThat(transactionOperations.hashedInTransaction).isFalse();
 		verify(userRepository).save(any(UserEntity.class));
-		verify(jwtTokenProvider).generateToken("test@email.com", "ROLE_USER");
 	}
 	
 	@Test
@@ -146,9 +192,10 @@ class UserServiceTest {
 		String expectedToken = "jwt.token.here";
 		
 		when(userRepository.findByEmail("test@email.com")).thenReturn(Optional.of(user));
-		when(passwordEncoder.matches("password123", "hashedPassword")).thenReturn(true);
+		when(passwordHasher.matches("password123", "hashedPassword")).thenReturn(true);
 		when(userMapper.toDTO(user)).thenReturn(expectedDTO);
-		when(jwtTokenProvider.generateToken("test@email.com", "ROLE_USER")).thenReturn(expectedToken);
+		when(jwtTokenProvider.generateToken(1L, "test@email.com", "ROLE_USER")).thenReturn(expectedToken);
+		when(refreshTokenService.issue(user)).thenReturn("refresh-token");
 		
 		// When
 		AuthResponse result = userService.login(request);
@@ -158,8 +205,30 @@ class UserServiceTest {
 		assertThat(result.getUser()).isNotNull();
 		assertThat(result.getUser().getUsername()).isEqualTo("testuser");
 		assertThat(result.getToken()).isEqualTo(expectedToken);
-		verify(passwordEncoder).matches("password123", "hashedPassword");
-		verify(jwtTokenProvider).generateToken("test@email.com", "ROLE_USER");
+		assertThat(result.getRefreshToken()).isEqualTo("refresh-token");
+		verify(passwordHasher).matches("password123", "hashedPassword");
+		verify(jwtTokenProvider).generateToken(1L, "test@email.com", "ROLE_USER");
+	}
+	
+	@Test
+	void login_shouldCheckPasswordOutsideTransaction() {
+		// Given
+		LoginRequest request = new LoginRequest("test@email.com", "password123");
+		UserEntity user = new UserEntity();
+		user.setId(1L);
+		user.setEmail("test@email.com");
+		user.setPassword("hashedPassword");
+		user.setRole(Role.USER);
+		
+		when(userRepository.findByEmail("test@email.com")).thenReturn(Optional.of(user));
+		when(passwordHasher.matches("password123", "hashedPassword")).thenAnswer(invocation -> hashOutsideTransaction(true));
+		
+		// When
+		userService.login(request);
+		
+		// Then
+		assertThat(transactionOperations.hashedInTransaction).isFalse();
+		verify(refreshTokenService).issue(user);
 	}
 	
 	@Test
@@ -185,7 +254,7 @@ class UserServiceTest {
 		user.setPassword("hashedPassword");
 		
 		when(userRepository.findByEmail("test@email.com")).thenReturn(Optional.of(user));
-		when(passwordEncoder.matches("wrongpassword", "hashedPassword")).thenReturn(false);
+		when(passwordHasher.matches("wrongpassword", "hashedPassword")).thenReturn(false);
 		
 		// When/Then
 		assertThatThrownBy(() -> userService.login(request))
@@ -229,4 +298,191 @@ class UserServiceTest {
 			.isInstanceOf(IllegalArgumentException.class)
 			.hasMessage("User not found");
 	}
+	
+	@Test
+	void changePassword_withValidPassword_shouldEncodeAndPublishChange() {
+		// Given
+		UserEntity user = new UserEntity();
+		user.setId(1L);
+		user.setEmail("test@email.com");
+		user.setPassword("hashedPassword");
+		
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+		when(passwordHasher.matches("password123", "hashedPassword")).thenReturn(true);
+		when(passwordHasher.encode("newPassword123")).thenReturn("newHashedPassword");
+		
+		// When
+		userService.changePassword(1L, "password123", "newPassword123");
+		
+		// Then
+		assertThat(user.getPassword()).isEqualTo("newHashedPassword");
+		verify(refreshTokenService).revokeAll(1L);
+		verify(eventPublisher).publishEvent(new UserChangedEvent(1L, "test@email.com"));
+	}
+	
+	@Test
+	void changePassword_shouldHashOutsideTransaction() {
+		// Given
+		UserEntity user = new UserEntity();
+		user.setId(1L);
+		user.setPassword("hashedPassword");
+		
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+		when(passwordHasher.matches("password123", "hashedPassword")).thenAnswer(invocation -> hashOutsideTransaction(true));
+		when(passwordHasher.encode("newPassword123")).thenAnswer(invocation -> hashOutsideTransaction("newHashedPassword"));
+		
+		// When
+		userService.changePassword(1L, "password123", "newPassword123");
+		
+		// Then
+		assertThat(transactionOperations.hashedInTransaction).isFalse();
+		assertThat(user.getPassword()).isEqualTo("newHashedPassword");
+	}
+	
+	@Test
+	void changePassword_whenPasswordChangedWhileHashing_shouldThrowException() {
+		// Given
+		UserEntity loaded = new UserEntity();
+		loaded.setId(1L);
+		loaded.setPassword("hashedPassword");
+		UserEntity reloaded = new UserEntity();
+		reloaded.setId(1L);
+		reloaded.setPassword("otherHashedPassword");
+		
+		when(userRepository.findById(1L)).thenReturn(Optional.of(loaded), Optional.of(reloaded));
+		when(passwordHasher.matches("password123", "hashedPassword")).thenReturn(true);
+		when(passwordHasher.encode("newPassword123")).thenReturn("newHashedPassword");
+		
+		// When/Then
+		assertThatThrownBy(() -> userService.changePassword(1L, "password123", "newPassword123"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Invalid password");
+		assertThat(reloaded.getPassword()).isEqualTo("otherHashedPassword");
+		verify(refreshTokenService, never()).revokeAll(any());
+	}
+	
+	@Test
+	void changePassword_withInvalidPassword_shouldThrowException() {
+		// Given
+		UserEntity user = new UserEntity();
+		user.setId(1L);
+		user.setPassword("hashedPassword");
+		
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+		when(passwordHasher.matches("wrongpassword", "hashedPassword")).thenReturn(false);
+		
+		// When/Then
+		assertThatThrownBy(() -> userService.changePassword(1L, "wrongpassword", "newPassword123"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Invalid password");
+		verify(eventPublisher, never()).publishEvent(any(Object.class));
+	}
+	
+	@Test
+	void changeRole_whenUserExists_shouldUpdateRoleAndPublishChange() {
+		// Given
+		UserEntity user = new UserEntity();
+		user.setId(1L);
+		user.setEmail("test@email.com");
+		user.setRole(Role.USER);
+		
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+		
+		// When
+		userService.changeRole(1L, Role.ADMIN);
+		
+		// Then
+		assertThat(user.getRole()).isEqualTo(Role.ADMIN);
+		verify(eventPublisher).publishEvent(new UserChangedEvent(1L, "test@email.com"));
+	}
+	
+	@Test
+	void refresh_withValidToken_shouldReturnNewTokens() {
+		// Given
+		UserEntity user = new UserEntity();
+		user.setId(1L);
+		user.setEmail("test@email.com");
+		user.setRole(Role.USER);
+		
+		UserDTO expectedDTO = new UserDTO();
+		expectedDTO.setId("1");
+		
+		when(refreshTokenService.rotate("refresh-token"))
+			.thenReturn(new RefreshTokenService.RotatedToken(user, "next-refresh-token"));
+		when(jwtTokenProvider.generateToken(1L, "test@email.com", "ROLE_USER")).thenReturn("jwt.token.here");
+		when(userMapper.toDTO(user)).thenReturn(expectedDTO);
+		
+		// When
+		AuthResponse result = userService.refresh("refresh-token");
+		
+		// Then
+		assertThat(result.getToken()).isEqualTo("jwt.token.here");
+		assertThat(result.getRefreshToken()).isEqualTo("next-refresh-token");
+		assertThat(result.getUser()).isSameAs(expectedDTO);
+		verifyNoInteractions(passwordHasher);
+	}
+	
+	@Test
+	void refresh_withInvalidToken_shouldThrowException() {
+		// Given
+		when(refreshTokenService.rotate("stale")).thenThrow(new IllegalArgumentException("Refresh token reuse detected"));
+		
+		// When/Then
+		assertThatThrownBy(() -> userService.refresh("stale"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Refresh token reuse detected");
+		verifyNoInteractions(jwtTokenProvider);
+	}
+	
+	@Test
+	void logout_shouldRevokeAccessAndRefreshToken() {
+		// Given
+		Instant expiresAt = Instant.now().plusSeconds(600);
+		when(jwtTokenProvider.parse("jwt.token.here"))
+			.thenReturn(Optional.of(new JwtClaims(1L, "test@email.com", "ROLE_USER", expiresAt, "jti-1")));
+		
+		// When
+		userService.logout("jwt.token.here", "refresh-token");
+		
+		// Then
+		verify(tokenRevocationService).revoke("jti-1", expiresAt);
+		verify(refreshTokenService).revoke("refresh-token");
+	}
+	
+	@Test
+	void logout_withTokenWithoutId_shouldThrowException() {
+		// Given
+		when(jwtTokenProvider.parse("old.token"))
+			.thenReturn(Optional.of(new JwtClaims(null, "test@email.com", "ROLE_USER", Instant.now(), null)));
+		
+		// When/Then
+		assertThatThrownBy(() -> userService.logout("old.token", null))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Token can't be revoked");
+		verifyNoInteractions(tokenRevocationService);
+	}
+	
+	private <T> T hashOutsideTransaction(T result) {
+		transactionOperations.hashedInTransaction |= transactionOperations.active;
+		return result;
+	}
+	
+	/**
+	 * Runs callbacks directly and records whether one is running.
+	 */
+	static class TrackingTransactions implements TransactionOperations {
+		
+		boolean active;
+		boolean hashedInTransaction;
+		
+		@Override
+		public <T> T execute(TransactionCallback<T> action) {
+			active = true;
+			try {
+				return action.doInTransaction(new SimpleTransactionStatus());
+			} finally {
+				active = false;
+			}
+		}
+	}
 }